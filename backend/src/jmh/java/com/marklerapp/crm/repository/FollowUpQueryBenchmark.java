@@ -0,0 +1,186 @@
+package com.marklerapp.crm.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One agent's overdue follow-ups per operation, read from a {@code call_notes} table shared by
+ * {@value #AGENTS} simulated agents: the former global query filtered by agent in Java against
+ * the agent-scoped queries behind {@link CallNoteRepository#findOverdueFollowUpsByAgent} and
+ * {@link CallNoteRepository#countOverdueFollowUpsByAgent}.
+ *
+ * <p>Runs against an in-memory SQLite database (the dev database) with both the old
+ * {@code (follow_up_required, follow_up_date)} index and the new
+ * {@code (agent_id, follow_up_required, follow_up_date)} index, so each query gets the plan it
+ * would get in production. The global query's cost grows with {@code notesPerAgent} times the
+ * agent count; the agent-scoped ones only with {@code notesPerAgent}.</p>
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FollowUpQueryBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FollowUpQueryBenchmark {
+
+    private static final int AGENTS = 100;
+
+    private static final String GLOBAL_OVERDUE =
+            "SELECT id, agent_id, client_id, follow_up_date, subject FROM call_notes " +
+            "WHERE follow_up_required = 1 AND follow_up_date <= ?";
+
+    private static final String AGENT_OVERDUE =
+            "SELECT id, agent_id, client_id, follow_up_date, subject FROM call_notes " +
+            "WHERE agent_id = ? AND follow_up_required = 1 AND follow_up_date <= ? " +
+            "ORDER BY follow_up_date";
+
+    private static final String AGENT_OVERDUE_COUNT =
+            "SELECT COUNT(*) FROM call_notes " +
+            "WHERE agent_id = ? AND follow_up_required = 1 AND follow_up_date <= ?";
+
+    @Param({"100", "1000"})
+    public int notesPerAgent;
+
+    private Connection connection;
+    private PreparedStatement globalOverdue;
+    private PreparedStatement agentOverdue;
+    private PreparedStatement agentOverdueCount;
+
+    private String[] agentIds;
+    private String today;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE call_notes (" +
+                    "id TEXT PRIMARY KEY, " +
+                    "agent_id TEXT NOT NULL, " +
+                    "client_id TEXT NOT NULL, " +
+                    "follow_up_required INTEGER NOT NULL, " +
+                    "follow_up_date TEXT, " +
+                    "subject TEXT NOT NULL)");
+            ddl.execute("CREATE INDEX idx_call_note_follow_up ON call_notes(follow_up_required, follow_up_date)");
+            ddl.execute("CREATE INDEX idx_call_notes_agent_follow_up " +
+                    "ON call_notes(agent_id, follow_up_required, follow_up_date)");
+        }
+
+        Random random = new Random(42);
+        LocalDate now = LocalDate.of(2026, 10, 16);
+        today = now.toString();
+        agentIds = new String[AGENTS];
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO call_notes VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int agent = 0; agent < AGENTS; agent++) {
+                agentIds[agent] = UUID.randomUUID().toString();
+                for (int note = 0; note < notesPerAgent; note++) {
+                    // About a third of the notes ask for a follow-up, due within two months either way
+                    boolean followUp = random.nextInt(3) == 0;
+                    insert.setString(1, UUID.randomUUID().toString());
+                    insert.setString(2, agentIds[agent]);
+                    insert.setString(3, UUID.randomUUID().toString());
+                    insert.setInt(4, followUp ? 1 : 0);
+                    insert.setString(5, followUp ? now.plusDays(random.nextInt(121) - 60).toString() : null);
+                    insert.setString(6, "Follow-up call " + note);
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement analyze = connection.createStatement()) {
+            analyze.execute("ANALYZE");
+        }
+
+        globalOverdue = connection.prepareStatement(GLOBAL_OVERDUE);
+        agentOverdue = connection.prepareStatement(AGENT_OVERDUE);
+        agentOverdueCount = connection.prepareStatement(AGENT_OVERDUE_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private String nextAgent() {
+        String agentId = agentIds[next];
+        next = (next + 1) % AGENTS;
+        return agentId;
+    }
+
+    /**
+     * The former path: every agent's overdue follow-ups, then filtered down to one agent.
+     */
+    @Benchmark
+    public int globalQueryFilteredInJava() throws SQLException {
+        String agentId = nextAgent();
+        int overdue = 0;
+        globalOverdue.setString(1, today);
+        try (ResultSet rows = globalOverdue.executeQuery()) {
+            while (rows.next()) {
+                if (agentId.equals(rows.getString(2))) {
+                    overdue += rows.getString(5).length() > 0 ? 1 : 0;
+                }
+            }
+        }
+        return overdue;
+    }
+
+    /**
+     * The reminder list: only the agent's rows, read through the composite index.
+     */
+    @Benchmark
+    public int agentScopedQuery() throws SQLException {
+        int overdue = 0;
+        agentOverdue.setString(1, nextAgent());
+        agentOverdue.setString(2, today);
+        try (ResultSet rows = agentOverdue.executeQuery()) {
+            while (rows.next()) {
+                overdue += rows.getString(5).length() > 0 ? 1 : 0;
+            }
+        }
+        return overdue;
+    }
+
+    /**
+     * The dashboard count: answered from the composite index alone.
+     */
+    @Benchmark
+    public int agentScopedCount() throws SQLException {
+        agentOverdueCount.setString(1, nextAgent());
+        agentOverdueCount.setString(2, today);
+        try (ResultSet rows = agentOverdueCount.executeQuery()) {
+            return rows.next() ? rows.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
+import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.PropertySearchCriteria;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.entity.PropertyType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeded synthetic portfolios and clients for the matching benchmarks.
+ *
+ * <p>Properties and criteria are spread over a handful of German cities with realistic
+ * coordinates, postal codes and price ranges, so every scoring branch is hit: geocoded and
+ * ungeocoded properties, pinned and text-only criteria, city names and postal codes as
+ * preferred locations, buyers and renters.</p>
+ */
+final class MatchingBenchmarkData {
+
+    private record City(String name, double latitude, double longitude, int postalCode) {
+    }
+
+    private static final City[] CITIES = {
+        new City("Berlin", 52.5200, 13.4050, 10115),
+        new City("Hamburg", 53.5511, 9.9937, 20095),
+        new City("München", 48.1351, 11.5820, 80331),
+        new City("Köln", 50.9375, 6.9603, 50667),
+        new City("Frankfurt am Main", 50.1109, 8.6821, 60311),
+        new City("Stuttgart", 48.7758, 9.1829, 70173),
+        new City("Düsseldorf", 51.2277, 6.7735, 40213),
+        new City("Leipzig", 51.3397, 12.3731, 4109),
+    };
+
+    private static final PropertyType[] PROPERTY_TYPES = PropertyType.values();
+
+    private final Random random;
+
+    MatchingBenchmarkData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * A portfolio of {@code size} properties: mostly available, 70% for sale, 10% not geocoded.
+     */
+    PropertyMatchIndex.Portfolio portfolio(int size) {
+        List<PropertyMatchIndex.Row> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(row());
+        }
+        return PropertyMatchIndex.Portfolio.of(rows);
+    }
+
+    PropertyMatchIndex.Row row() {
+        City city = city();
+        boolean rental = random.nextInt(10) < 3;
+        boolean geocoded = random.nextInt(10) != 0;
+        long price = rental
+                ? hundredths(500 + random.nextInt(2_500))
+                : hundredths(150_000 + random.nextInt(1_350_000));
+        long warmRent = rental ? price + hundredths(100 + random.nextInt(350)) : price;
+        return new PropertyMatchIndex.Row(
+                UUID.randomUUID(),
+                price,
+                warmRent,
+                hundredths(30 + random.nextInt(220)),
+                hundredths(1 + random.nextInt(7)),
+                geocoded ? jitter(city.latitude()) : Double.NaN,
+                geocoded ? jitter(city.longitude()) : Double.NaN,
+                random.nextInt(100) < 85 ? PropertyStatus.AVAILABLE : PropertyStatus.RESERVED,
+                rental ? ListingType.RENT : ListingType.SALE,
+                PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)],
+                city.name(),
+                postalCode(city));
+    }
+
+    /**
+     * Saved criteria as a client would have them: half pinned to a radius, the other half
+     * text-only with a mix of city names and postal codes.
+     */
+    PropertySearchCriteriaDto criteriaDto() {
+        return toDto(criteria(random.nextBoolean()));
+    }
+
+    /**
+     * Text-only criteria (no pin), so location scoring takes the city/postal-code path.
+     */
+    PropertySearchCriteriaDto textCriteriaDto() {
+        return toDto(criteria(false));
+    }
+
+    /**
+     * {@code count} open clients with criteria loaded, buyers and renters mixed.
+     */
+    List<Client> clients(int count) {
+        List<Client> clients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PropertySearchCriteria criteria = criteria(random.nextBoolean());
+            Client client = Client.builder()
+                    .firstName("Kunde")
+                    .lastName(String.valueOf(i))
+                    .clientType(criteria.getMaxColdRent() != null || criteria.getMaxWarmRent() != null
+                            ? Client.ClientType.RENTER : Client.ClientType.BUYER)
+                    .pipelineStage(Client.PipelineStage.ACTIVE_SEARCH)
+                    .searchCriteria(criteria)
+                    .build();
+            client.setId(UUID.randomUUID());
+            criteria.setClient(client);
+            clients.add(client);
+        }
+        return clients;
+    }
+
+    /**
+     * {@code count} coordinate pairs as [lat, lng, lat, lng, ...] around the cities.
+     */
+    double[] coordinates(int count) {
+        double[] coordinates = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            City city = city();
+            coordinates[2 * i] = jitter(city.latitude());
+            coordinates[2 * i + 1] = jitter(city.longitude());
+        }
+        return coordinates;
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private PropertySearchCriteria criteria(boolean pinned) {
+        City city = city();
+        PropertySearchCriteria.PropertySearchCriteriaBuilder criteria = PropertySearchCriteria.builder()
+                .restrictToSearchRadius(random.nextBoolean());
+        if (pinned) {
+            criteria.latitude(BigDecimal.valueOf(city.latitude()))
+                    .longitude(BigDecimal.valueOf(city.longitude()))
+                    .searchRadiusKm(5 + random.nextInt(45));
+        } else {
+            List<String> locations = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+                City preferred = i == 0 ? city : city();
+                locations.add(random.nextBoolean() ? preferred.name() : postalCode(preferred));
+            }
+            criteria.preferredLocations(String.join(", ", locations));
+        }
+        if (random.nextInt(10) < 3) {
+            int minRent = 500 + random.nextInt(1_500);
+            criteria.minWarmRent(BigDecimal.valueOf(minRent)).maxWarmRent(BigDecimal.valueOf(minRent + 800));
+        } else {
+            int minBudget = 150_000 + random.nextInt(900_000);
+            criteria.minBudget(BigDecimal.valueOf(minBudget)).maxBudget(BigDecimal.valueOf(minBudget + 300_000));
+        }
+        if (random.nextBoolean()) {
+            int minArea = 30 + random.nextInt(120);
+            criteria.minSquareMeters(minArea).maxSquareMeters(minArea + 40 + random.nextInt(80));
+        }
+        if (random.nextBoolean()) {
+            int minRooms = 1 + random.nextInt(4);
+            criteria.minRooms(minRooms).maxRooms(minRooms + 1 + random.nextInt(3));
+        }
+        if (random.nextBoolean()) {
+            criteria.propertyTypes(PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)].name());
+        }
+        return criteria.build();
+    }
+
+    private static PropertySearchCriteriaDto toDto(PropertySearchCriteria criteria) {
+        return PropertySearchCriteriaDto.builder()
+                .minSquareMeters(criteria.getMinSquareMeters())
+                .maxSquareMeters(criteria.getMaxSquareMeters())
+                .minRooms(criteria.getMinRooms())
+                .maxRooms(criteria.getMaxRooms())
+                .minBudget(criteria.getMinBudget())
+                .maxBudget(criteria.getMaxBudget())
+                .minWarmRent(criteria.getMinWarmRent())
+                .maxWarmRent(criteria.getMaxWarmRent())
+                .preferredLocations(criteria.getPreferredLocations() != null
+                        ? List.of(criteria.getPreferredLocationsArray()) : null)
+                .latitude(criteria.getLatitude())
+                .longitude(criteria.getLongitude())
+                .searchRadiusKm(criteria.getSearchRadiusKm())
+                .restrictToSearchRadius(criteria.getRestrictToSearchRadius())
+                .propertyTypes(criteria.getPropertyTypes() != null
+                        ? List.of(criteria.getPropertyTypesArray()) : null)
+                .build();
+    }
+
+    private City city() {
+        return CITIES[random.nextInt(CITIES.length)];
+    }
+
+    private String postalCode(City city) {
+        return String.format("%05d", city.postalCode() + random.nextInt(80));
+    }
+
+    private double jitter(double degrees) {
+        return degrees + (random.nextDouble() - 0.5) * 0.3;
+    }
+
+    private static long hundredths(int value) {
+        return value * 100L;
+    }
+}
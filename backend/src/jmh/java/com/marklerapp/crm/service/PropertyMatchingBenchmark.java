@@ -0,0 +1,129 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertyMatchRequest;
+import com.marklerapp.crm.entity.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the matching hot path: one scored (criteria, property) pair per operation.
+ *
+ * <p>Each operation advances through a synthetic portfolio (or client list) of
+ * {@code size} entries, so larger sizes show the cost of scoring data that no longer
+ * fits in cache. Scoring runs numerically only, without a cache row and without reason
+ * text, the way {@link PropertyMatchingService} scores candidates before selecting the
+ * top k. Run with the GC profiler to see allocation per operation:</p>
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="PropertyMatchingBenchmark.scoreProperty -p size=10000 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyMatchingBenchmark {
+
+    // Distinct criteria cycled through while scoring, like different clients hitting the portfolio
+    private static final int CRITERIA_COUNT = 64;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private PropertyMatchingService matchingService;
+    private PropertyMatchRequest request;
+    private double[] weights;
+
+    private PropertyMatchIndex.Portfolio portfolio;
+    private CompiledCriteria[] criteria;
+    private CompiledCriteria[] textCriteria;
+
+    private Client[] clients;
+    private PropertyMatchIndex.Portfolio target;
+
+    private double[] coordinates;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Scoring only needs the service's own helpers; repositories, mappers and the pool stay unset
+        matchingService = new PropertyMatchingService(null, null, null, null, null, null, null, null,
+                new MatchScoreCache(1), null);
+        request = PropertyMatchRequest.builder().includeReasons(false).build();
+        weights = request.getNormalizedWeights();
+
+        MatchingBenchmarkData data = new MatchingBenchmarkData(42);
+        portfolio = data.portfolio(size);
+        criteria = new CompiledCriteria[CRITERIA_COUNT];
+        textCriteria = new CompiledCriteria[CRITERIA_COUNT];
+        for (int i = 0; i < CRITERIA_COUNT; i++) {
+            criteria[i] = CompiledCriteria.of(data.criteriaDto());
+            textCriteria[i] = CompiledCriteria.of(data.textCriteriaDto());
+        }
+
+        clients = data.clients(size).toArray(Client[]::new);
+        target = PropertyMatchIndex.Portfolio.of(List.of(data.row()));
+
+        coordinates = data.coordinates(size);
+    }
+
+    @Benchmark
+    public Object scoreProperty() {
+        int row = next();
+        int c = row & (CRITERIA_COUNT - 1);
+        return matchingService.scoreProperty(portfolio, row, criteria[c], request, weights, null);
+    }
+
+    /**
+     * Includes compiling the client's criteria, which reverse matching does once per client.
+     */
+    @Benchmark
+    public Object scoreClient() {
+        Client client = clients[next()];
+        return matchingService.scoreClient(client, CompiledCriteria.of(client.getSearchCriteria()), target,
+                request, weights, null);
+    }
+
+    @Benchmark
+    public Object compileCriteria() {
+        return CompiledCriteria.of(clients[next()].getSearchCriteria());
+    }
+
+    @Benchmark
+    public int calculateLocationScore() {
+        int row = next();
+        return matchingService.calculateLocationScore(portfolio, row, textCriteria[row & (CRITERIA_COUNT - 1)],
+                request, null, null);
+    }
+
+    @Benchmark
+    public double distanceKm() {
+        int i = next();
+        int j = (i + 1) % size;
+        return GeoGrid.distanceKm(coordinates[2 * i], coordinates[2 * i + 1],
+                coordinates[2 * j], coordinates[2 * j + 1]);
+    }
+
+    private int next() {
+        int current = cursor;
+        cursor = current + 1 == size ? 0 : current + 1;
+        return current;
+    }
+}
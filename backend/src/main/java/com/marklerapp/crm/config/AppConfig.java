@@ -1,5 +1,6 @@
 package com.marklerapp.crm.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,6 +10,9 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.time.Instant;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Application configuration for general beans and utilities.
@@ -76,4 +80,64 @@ public class AppConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Executor for the concurrently computed sections of the dashboard analytics.
+     * Bounded, so dashboard requests can't take more than {@code app.analytics.dashboard.parallelism}
+     * database connections for their sections at once; when the queue is full the requesting
+     * thread computes the section itself.
+     */
+    @Bean(name = "dashboardExecutor")
+    public Executor dashboardExecutor(@Value("${app.analytics.dashboard.parallelism:4}") int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Dashboard section parallelism must be positive");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(100);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("dashboard-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for background image processing (thumbnails). Bounded in threads and queue, so
+     * bulk uploads can't occupy more than {@code app.image-processing.parallelism} cores; when
+     * the queue is full, submissions are rejected and the images wait for the next pending sweep
+     * instead of running on the uploading request thread.
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public Executor imageProcessingExecutor(@Value("${app.image-processing.parallelism:2}") int parallelism,
+                                            @Value("${app.image-processing.queue-capacity:100}") int queueCapacity) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Image processing parallelism must be positive");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("image-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fork-join pool for batch matching (all clients x all properties of an agent).
+     * Kept separate from the common pool and capped, so a batch run uses at most
+     * {@code app.matching.batch.parallelism} cores and leaves the rest to request threads.
+     */
+    @Bean(name = "matchingPool", destroyMethod = "shutdown")
+    public ForkJoinPool matchingPool(@Value("${app.matching.batch.parallelism:2}") int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Batch matching parallelism must be positive");
+        }
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("matching-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
 }
@@ -1,13 +1,16 @@
 package com.marklerapp.crm.config;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -23,6 +26,8 @@ import java.util.List;
  *   <li>Allowed file types (MIME types and extensions)</li>
  *   <li>Thumbnail dimensions</li>
  *   <li>Image quality settings</li>
+ *   <li>Blob store location and maintenance</li>
+ *   <li>Responsive image variants and their resize cache</li>
  * </ul>
  * </p>
  *
@@ -38,6 +43,11 @@ import java.util.List;
  *     thumbnail:
  *       width: 300
  *       height: 200
+ *     blob-store:
+ *       root: ./uploads/blobs
+ *     variants:
+ *       widths: [320, 640, 1024, 1600]
+ *       cache-max-size: 512MB
  * </pre>
  */
 @Data
@@ -96,6 +106,18 @@ public class FileStorageProperties {
      */
     private ImageQualitySettings imageQuality = new ImageQualitySettings();
 
+    /**
+     * Content-addressed blob store for image and attachment payloads.
+     */
+    @Valid
+    private BlobStoreSettings blobStore = new BlobStoreSettings();
+
+    /**
+     * Responsive image variants (scaled, recompressed copies of uploaded images).
+     */
+    @Valid
+    private VariantSettings variants = new VariantSettings();
+
     /**
      * Thumbnail generation configuration.
      */
@@ -156,6 +178,82 @@ public class FileStorageProperties {
         private int maxHeight = 0;
     }
 
+    /**
+     * Local blob store configuration.
+     */
+    @Data
+    public static class BlobStoreSettings {
+
+        /**
+         * Blob store implementation.
+         * Default: local (see LocalBlobStore)
+         */
+        private String type = "local";
+
+        /**
+         * Root directory of the blob store.
+         * Default: ./uploads/blobs
+         */
+        @NotBlank(message = "Blob store root must be specified")
+        private String root = "./uploads/blobs";
+
+        /**
+         * Rows whose Base64 payload is moved into the blob store per migration run.
+         * Default: 10
+         */
+        @Min(value = 1, message = "Migration batch size must be at least 1")
+        private int migrationBatchSize = 10;
+
+        /**
+         * Blobs and temp files younger than this are never removed as orphans, so a blob
+         * written for a transaction that has not committed yet survives the sweep.
+         * Default: 1 hour
+         */
+        private Duration orphanGracePeriod = Duration.ofHours(1);
+    }
+
+    /**
+     * Responsive image variant configuration.
+     */
+    @Data
+    public static class VariantSettings {
+
+        /**
+         * Widths in pixels that variants are produced in; a requested width is rounded up to
+         * the next of these, so the cache holds at most this many variants per image.
+         * Default: 320, 640, 1024, 1600
+         */
+        @NotEmpty(message = "At least one variant width must be configured")
+        private List<@Min(value = 16, message = "Variant width must be at least 16 pixels") Integer> widths =
+            List.of(320, 640, 1024, 1600);
+
+        /**
+         * Width of the preview linked from image listings (previewUrl).
+         * Default: 640px
+         */
+        @Min(value = 16, message = "Preview width must be at least 16 pixels")
+        private int previewWidth = 640;
+
+        /**
+         * JPEG quality of variants (0-1).
+         * Default: 0.8
+         */
+        private float quality = 0.8f;
+
+        /**
+         * Directory of the on-disk variant cache.
+         * Default: ./uploads/variants
+         */
+        @NotBlank(message = "Variant cache directory must be specified")
+        private String cacheDir = "./uploads/variants";
+
+        /**
+         * Size of the variant cache; least recently used variants are evicted beyond it.
+         * Default: 512MB
+         */
+        private DataSize cacheMaxSize = DataSize.ofMegabytes(512);
+    }
+
     /**
      * Get the full upload directory path with property-specific subdirectory.
      *
@@ -347,6 +347,11 @@ public final class ValidationConstants {
      */
     public static final int ACTIVITY_TRENDS_DAYS = 30;
 
+    /**
+     * Maximum number of buckets in one activity trend (daily buckets across the rollup history fit)
+     */
+    public static final int MAX_ACTIVITY_TREND_BUCKETS = 500;
+
     /**
      * Maximum number of urgent client insights to return
      */
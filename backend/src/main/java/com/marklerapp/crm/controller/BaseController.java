@@ -1,9 +1,20 @@
 package com.marklerapp.crm.controller;
 
+import com.marklerapp.crm.dto.FileContentDto;
 import com.marklerapp.crm.entity.Agent;
 import com.marklerapp.crm.security.CustomUserDetails;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 /**
@@ -39,4 +50,39 @@ public abstract class BaseController {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         return userDetails.getAgent();
     }
+
+    /**
+     * Builds a streaming response for stored file content.
+     *
+     * <p>The blob key is sent as a strong ETag, so a matching If-None-Match is answered with
+     * 304 Not Modified. Spring writes the resource with its Content-Length and answers a Range
+     * request with 206 Partial Content, copying only the requested bytes from the file.
+     * Content served from Supabase Storage is answered with a redirect to its signed URL.</p>
+     *
+     * @param file the file content to stream
+     * @param inline whether browsers should display the file instead of saving it
+     * @return the response entity carrying the content as a resource
+     */
+    protected ResponseEntity<Resource> fileResponse(FileContentDto file, boolean inline) {
+        if (file.getRedirectUrl() != null) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(file.getRedirectUrl())).build();
+        }
+
+        MediaType contentType;
+        try {
+            contentType = MediaType.parseMediaType(file.getContentType());
+        } catch (InvalidMediaTypeException e) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        ContentDisposition disposition = (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+            .filename(file.getFileName(), StandardCharsets.UTF_8)
+            .build();
+
+        return ResponseEntity.ok()
+            .eTag(file.getBlobKey())
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+            .body(file.getContent());
+    }
 }
@@ -1,6 +1,7 @@
 package com.marklerapp.crm.controller;
 
 import com.marklerapp.crm.constants.PaginationConstants;
+import com.marklerapp.crm.dto.ClientContactGapPageDto;
 import com.marklerapp.crm.dto.ClientDto;
 import com.marklerapp.crm.dto.ClientImportResponse;
 import com.marklerapp.crm.entity.Client;
@@ -249,7 +250,7 @@ public class ClientController extends BaseController {
      * Get clients without recent contact
      */
     @GetMapping("/without-recent-contact")
-    @Operation(summary = "Get clients without recent contact", description = "Returns active clients not updated in the last N days")
+    @Operation(summary = "Get clients without recent contact", description = "Returns active clients without a call note in the last N days")
     public ResponseEntity<List<ClientDto>> getClientsWithoutRecentContact(
             @RequestParam(defaultValue = "30") int days,
             Authentication authentication) {
@@ -257,6 +258,23 @@ public class ClientController extends BaseController {
         return ResponseEntity.ok(clientService.getClientsWithoutRecentContact(agentId, days));
     }
 
+    /**
+     * Get clients without recent contact, one keyset page at a time
+     */
+    @GetMapping("/without-recent-contact/page")
+    @Operation(summary = "Get a page of clients without recent contact",
+               description = "Returns active clients without a call note in the last N days, never-contacted first, " +
+                       "then oldest contact first. Pass the returned nextCursor to get the next page.")
+    public ResponseEntity<ClientContactGapPageDto> getClientsWithoutRecentContactPage(
+            @RequestParam(defaultValue = "30") int days,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PaginationConstants.DEFAULT_PAGE_SIZE) int size,
+            Authentication authentication) {
+        UUID agentId = getAgentIdFromAuth(authentication);
+        return ResponseEntity.ok(clientService.getClientsWithoutRecentContact(agentId, days, cursor, size));
+    }
+
     /**
      * Quick pipeline stage update (click-dropdown in header)
      */
@@ -1,17 +1,27 @@
 package com.marklerapp.crm.controller;
 
+import com.marklerapp.crm.dto.ActivityTrendDto;
 import com.marklerapp.crm.dto.DashboardAnalyticsDto;
-import com.marklerapp.crm.service.DashboardAnalyticsService;
+import com.marklerapp.crm.entity.AgentDailyActivity;
+import com.marklerapp.crm.service.ActivityTrendService;
+import com.marklerapp.crm.service.DashboardAnalyticsCache;
+import com.marklerapp.crm.service.DashboardLiveService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -28,12 +38,15 @@ import java.util.UUID;
 @Tag(name = "Dashboard", description = "Dashboard analytics and insights")
 public class DashboardController extends BaseController {
 
-    private final DashboardAnalyticsService dashboardAnalyticsService;
+    private final DashboardAnalyticsCache dashboardAnalyticsCache;
+    private final DashboardLiveService dashboardLiveService;
+    private final ActivityTrendService activityTrendService;
 
     /**
      * Get comprehensive dashboard analytics.
      * Includes conversion funnel, pipeline health, property portfolio,
      * activity trends, and AI-powered insights.
+     * Served from the per-agent cache; a stale entry is returned while it is refreshed.
      *
      * @param authentication Spring Security authentication
      * @return Dashboard analytics DTO with all metrics
@@ -44,8 +57,50 @@ public class DashboardController extends BaseController {
         UUID agentId = getAgentIdFromAuth(authentication);
         log.info("Fetching dashboard analytics for agent: {}", agentId);
 
-        DashboardAnalyticsDto analytics = dashboardAnalyticsService.generateAnalytics(agentId);
+        DashboardAnalyticsDto analytics = dashboardAnalyticsCache.get(agentId);
 
         return ResponseEntity.ok(analytics);
     }
+
+    /**
+     * Activity trend over a window, summed per day, week or month.
+     * Defaults to the dashboard's last 30 days, daily, with all metrics.
+     *
+     * @param authentication Spring Security authentication
+     * @param bucket bucket size
+     * @param from first day of the window (ISO date)
+     * @param to last day of the window, inclusive (ISO date)
+     * @param metrics counters to include
+     * @return one entry per bucket plus window totals
+     */
+    @GetMapping("/analytics/trends")
+    @Operation(summary = "Get activity trend", description = "Calls, outcomes, new clients and new properties per day, week or month")
+    public ResponseEntity<ActivityTrendDto> getActivityTrend(
+            Authentication authentication,
+            @RequestParam(defaultValue = "DAY") AgentDailyActivity.Bucket bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<AgentDailyActivity.Counter> metrics) {
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.info("Fetching {} activity trend for agent: {}", bucket, agentId);
+
+        return ResponseEntity.ok(activityTrendService.getActivityTrend(agentId, bucket, from, to, metrics));
+    }
+
+    /**
+     * Live dashboard as a Server-Sent Events stream.
+     * Sends a {@code snapshot} event with the full analytics first, then {@code delta}
+     * events with the changes and the recomputed sections they affect.
+     *
+     * @param authentication Spring Security authentication
+     * @return SSE stream of dashboard updates
+     */
+    @GetMapping(value = "/analytics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard analytics", description = "Full analytics snapshot followed by incremental deltas as the agent's data changes")
+    public SseEmitter streamDashboardAnalytics(Authentication authentication) {
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.info("Opening live dashboard stream for agent: {}", agentId);
+
+        return dashboardLiveService.subscribe(agentId);
+    }
 }
@@ -2,6 +2,7 @@ package com.marklerapp.crm.controller;
 
 import com.marklerapp.crm.dto.FileAttachmentDto;
 import com.marklerapp.crm.dto.FileAttachmentUploadDto;
+import com.marklerapp.crm.dto.FileContentDto;
 import com.marklerapp.crm.service.FileAttachmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -176,10 +178,13 @@ public class FileAttachmentController extends BaseController {
     // General Attachment Endpoints
     // ========================================
 
+    @Deprecated
     @GetMapping("/{attachmentId}/download")
     @Operation(
         summary = "Download file attachment",
-        description = "Download a file attachment by ID. Returns the file data as Base64 in the response."
+        description = "Download a file attachment by ID. Returns the file data as Base64 in the response. "
+            + "Deprecated: use /attachments/{attachmentId}/content, which streams the file.",
+        deprecated = true
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "File downloaded successfully"),
@@ -199,6 +204,33 @@ public class FileAttachmentController extends BaseController {
         return ResponseEntity.ok(attachment);
     }
 
+    @GetMapping("/{attachmentId}/content")
+    @Operation(
+        summary = "Stream file attachment",
+        description = "Stream the binary content of a file attachment. Supports Range requests and "
+            + "conditional requests with If-None-Match."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "File content"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range of the file content"),
+        @ApiResponse(responseCode = "304", description = "File unchanged since the ETag sent"),
+        @ApiResponse(responseCode = "404", description = "Attachment not found or access denied"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+    })
+    public ResponseEntity<Resource> streamAttachment(
+            @Parameter(description = "Attachment ID") @PathVariable UUID attachmentId,
+            @Parameter(description = "Display inline instead of as a download")
+            @RequestParam(defaultValue = "false") boolean inline,
+            Authentication authentication) {
+
+        log.debug("Request to stream attachment: {}", attachmentId);
+
+        UUID agentId = getAgentIdFromAuth(authentication);
+        FileContentDto content = fileAttachmentService.openAttachmentContent(attachmentId, agentId);
+
+        return fileResponse(content, inline);
+    }
+
     @DeleteMapping("/{attachmentId}")
     @Operation(
         summary = "Delete file attachment",
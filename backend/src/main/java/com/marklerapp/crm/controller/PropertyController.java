@@ -17,6 +17,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -479,9 +480,11 @@ public class PropertyController extends BaseController {
      */
     @PostMapping(value = "/{id}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload property image",
-               description = "Upload an image for a property. Supports JPEG, PNG, WebP, and GIF formats up to 10MB. Thumbnails are automatically generated.")
+               description = "Upload an image for a property. Supports JPEG, PNG, WebP, and GIF formats up to 10MB. "
+                   + "The image is stored immediately; its thumbnail is generated in the background "
+                   + "(see processingStatus and GET /{id}/images/{imageId}/status).")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "Image uploaded successfully",
+        @ApiResponse(responseCode = "202", description = "Image stored, thumbnail generation queued",
                      content = @Content(schema = @Schema(implementation = PropertyImageDto.class))),
         @ApiResponse(responseCode = "400", description = "Invalid file or validation errors"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT token"),
@@ -515,7 +518,7 @@ public class PropertyController extends BaseController {
         PropertyImageDto uploadedImage = propertyImageService.uploadImage(id, file, metadata, agentId);
 
         log.info("Successfully uploaded image: {} for property: {}", uploadedImage.getId(), id);
-        return ResponseEntity.status(HttpStatus.CREATED).body(uploadedImage);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(uploadedImage);
     }
 
     /**
@@ -523,9 +526,10 @@ public class PropertyController extends BaseController {
      */
     @PostMapping(value = "/{id}/images/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Bulk upload property images",
-               description = "Upload multiple images for a property at once. Supports JPEG, PNG, WebP, and GIF formats up to 10MB each. Thumbnails are automatically generated.")
+               description = "Upload multiple images for a property at once. Supports JPEG, PNG, WebP, and GIF formats up to 10MB each. "
+                   + "Thumbnails are generated in the background.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "Images uploaded successfully"),
+        @ApiResponse(responseCode = "202", description = "Images stored, thumbnail generation queued"),
         @ApiResponse(responseCode = "400", description = "Invalid files or validation errors"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT token"),
         @ApiResponse(responseCode = "404", description = "Property not found or access denied")
@@ -557,7 +561,7 @@ public class PropertyController extends BaseController {
         }
 
         log.info("Successfully uploaded {} images for property: {}", uploadedImages.size(), id);
-        return ResponseEntity.status(HttpStatus.CREATED).body(uploadedImages);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(uploadedImages);
     }
 
     /**
@@ -584,6 +588,31 @@ public class PropertyController extends BaseController {
         return ResponseEntity.ok(images);
     }
 
+    /**
+     * Get the processing status of a property image.
+     */
+    @GetMapping("/{id}/images/{imageId}/status")
+    @Operation(summary = "Get property image processing status",
+               description = "Poll whether the thumbnail of an uploaded image has been generated: PENDING, PROCESSING, READY or FAILED.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Processing status retrieved successfully",
+                     content = @Content(schema = @Schema(implementation = ImageProcessingStatusDto.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT token"),
+        @ApiResponse(responseCode = "404", description = "Property or image not found or access denied")
+    })
+    public ResponseEntity<ImageProcessingStatusDto> getPropertyImageStatus(
+            @Parameter(description = "Property ID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Image ID", required = true)
+            @PathVariable UUID imageId,
+            Authentication authentication) {
+
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.debug("Getting processing status of image: {} for property: {} by agent: {}", imageId, id, agentId);
+
+        return ResponseEntity.ok(propertyImageService.getProcessingStatus(id, imageId, agentId));
+    }
+
     /**
      * Delete a property image.
      */
@@ -650,10 +679,67 @@ public class PropertyController extends BaseController {
     }
 
     /**
-     * NOTE: Image file endpoints no longer needed - images are now stored as Base64 in database
-     * and returned directly in the image DTO as data URLs (data:image/jpeg;base64,...)
-     * The imageUrl and thumbnailUrl fields in PropertyImageDto now contain these data URLs.
+     * Stream a property image.
      */
+    @GetMapping("/{id}/images/{imageId}/download")
+    @Operation(summary = "Download property image",
+               description = "Stream the original image file, or with w a JPEG variant scaled to the configured width at or above w "
+                   + "(never wider than the original). Supports Range requests and conditional requests with If-None-Match; "
+                   + "images kept in Supabase Storage redirect to a signed URL of the original.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Image content"),
+        @ApiResponse(responseCode = "400", description = "Invalid width"),
+        @ApiResponse(responseCode = "302", description = "Redirect to the image in Supabase Storage"),
+        @ApiResponse(responseCode = "304", description = "Image unchanged since the ETag sent"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT token"),
+        @ApiResponse(responseCode = "404", description = "Property or image not found or access denied")
+    })
+    public ResponseEntity<Resource> downloadPropertyImage(
+            @Parameter(description = "Property ID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Image ID", required = true)
+            @PathVariable UUID imageId,
+            @Parameter(description = "Requested width in pixels for a scaled variant, e.g. 640")
+            @RequestParam(required = false) Integer w,
+            Authentication authentication) {
+
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.debug("Streaming image: {} (width {}) for property: {} by agent: {}", imageId, w, id, agentId);
+
+        if (w != null) {
+            if (w <= 0) {
+                throw new IllegalArgumentException("Image width must be positive");
+            }
+            return fileResponse(propertyImageService.openImageVariant(id, imageId, agentId, w), false);
+        }
+        return fileResponse(propertyImageService.openImageContent(id, imageId, agentId, false), false);
+    }
+
+    /**
+     * Stream the thumbnail of a property image.
+     */
+    @GetMapping("/{id}/images/{imageId}/thumbnail")
+    @Operation(summary = "Get property image thumbnail",
+               description = "Stream the thumbnail of an image, or the image itself if it has none. Supports conditional requests with If-None-Match.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thumbnail content"),
+        @ApiResponse(responseCode = "302", description = "Redirect to the thumbnail in Supabase Storage"),
+        @ApiResponse(responseCode = "304", description = "Thumbnail unchanged since the ETag sent"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT token"),
+        @ApiResponse(responseCode = "404", description = "Property or image not found or access denied")
+    })
+    public ResponseEntity<Resource> getPropertyImageThumbnail(
+            @Parameter(description = "Property ID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Image ID", required = true)
+            @PathVariable UUID imageId,
+            Authentication authentication) {
+
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.debug("Streaming thumbnail of image: {} for property: {} by agent: {}", imageId, id, agentId);
+
+        return fileResponse(propertyImageService.openImageContent(id, imageId, agentId, true), true);
+    }
 
     // ========================================
     // Statistics and Analytics Operations
@@ -756,9 +842,14 @@ public class PropertyController extends BaseController {
 
     /**
      * Download property expose (PDF brochure)
+     *
+     * @deprecated use {@code GET /{id}/expose/content}, which streams the PDF
      */
+    @Deprecated
     @GetMapping("/{id}/expose/download")
-    @Operation(summary = "Download property expose", description = "Download PDF brochure for a property")
+    @Operation(summary = "Download property expose",
+               description = "Download PDF brochure for a property as Base64 in JSON. Deprecated: use /{id}/expose/content, which streams the PDF.",
+               deprecated = true)
     public ResponseEntity<PropertyExposeDto> downloadExpose(
             @PathVariable UUID id,
             Authentication authentication) {
@@ -770,6 +861,24 @@ public class PropertyController extends BaseController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Stream property expose (PDF brochure)
+     */
+    @GetMapping("/{id}/expose/content")
+    @Operation(summary = "Stream property expose",
+               description = "Stream the PDF brochure of a property. Supports Range requests and conditional requests with If-None-Match.")
+    public ResponseEntity<Resource> streamExpose(
+            @PathVariable UUID id,
+            @Parameter(description = "Display inline instead of as a download")
+            @RequestParam(defaultValue = "false") boolean inline,
+            Authentication authentication) {
+
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.debug("Streaming expose for property: {} by agent: {}", id, agentId);
+
+        return fileResponse(propertyService.openExposeContent(agentId, id), inline);
+    }
+
     /**
      * Delete property expose (PDF brochure)
      */
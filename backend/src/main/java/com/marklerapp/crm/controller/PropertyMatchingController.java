@@ -1,5 +1,6 @@
 package com.marklerapp.crm.controller;
 
+import com.marklerapp.crm.dto.PropertyMatchBatchResponse;
 import com.marklerapp.crm.dto.PropertyMatchRequest;
 import com.marklerapp.crm.dto.PropertyMatchResponse;
 import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
@@ -36,11 +37,12 @@ import java.util.UUID;
  *   <li><b>Features Match:</b> Elevator, balcony, garden, parking, etc.</li>
  * </ul>
  *
- * <p>The controller supports three main matching operations:</p>
+ * <p>The controller supports four main matching operations:</p>
  * <ul>
  *   <li>Find properties matching a client's saved search criteria</li>
  *   <li>Find clients interested in a specific property</li>
  *   <li>Find properties matching custom criteria (ad-hoc search)</li>
+ *   <li>Match all clients against all properties at once (batch)</li>
  * </ul>
  *
  * <p>All matches include detailed scoring breakdowns and reasons for matches/mismatches,
@@ -210,6 +212,7 @@ public class PropertyMatchingController extends BaseController {
      * @param roomWeight optional room weight
      * @param featureWeight optional feature weight
      * @param includeUnavailable whether to include unavailable properties
+     * @param includeReasons whether to build match/mismatch reasons
      * @param authentication the authenticated user (agent)
      * @return PropertyMatchResponse containing matched properties with scores and reasons
      */
@@ -241,6 +244,8 @@ public class PropertyMatchingController extends BaseController {
             @RequestParam(required = false) Integer featureWeight,
             @Parameter(description = "Include unavailable properties (SOLD, RENTED)")
             @RequestParam(required = false, defaultValue = "false") Boolean includeUnavailable,
+            @Parameter(description = "Include match/mismatch reasons (disable for score-only list views)")
+            @RequestParam(required = false, defaultValue = "true") Boolean includeReasons,
             Authentication authentication) {
 
         UUID agentId = getAgentIdFromAuth(authentication);
@@ -253,7 +258,8 @@ public class PropertyMatchingController extends BaseController {
         // Build matching request with query parameters
         PropertyMatchRequest.PropertyMatchRequestBuilder requestBuilder = PropertyMatchRequest.builder()
             .customCriteria(customCriteria)
-            .includeUnavailable(includeUnavailable);
+            .includeUnavailable(includeUnavailable)
+            .includeReasons(includeReasons);
 
         if (matchThreshold != null) requestBuilder.matchThreshold(matchThreshold);
         if (maxResults != null) requestBuilder.maxResults(maxResults);
@@ -274,6 +280,54 @@ public class PropertyMatchingController extends BaseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Match every open client against the agent's whole portfolio.
+     *
+     * <p>Computes the full match matrix in one request, e.g. for the morning overview of
+     * which clients have new suitable properties. The request parameters (threshold,
+     * weights, maxResults, ...) apply per client; clients without any match above the
+     * threshold are omitted.</p>
+     *
+     * @param request optional matching parameters applied to every client
+     * @param authentication the authenticated user (agent)
+     * @return PropertyMatchBatchResponse containing each matched client's top properties
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Match all clients with all properties",
+               description = "Score every open client's saved search criteria against the agent's whole portfolio and return each client's top matches.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching completed successfully",
+                     content = @Content(schema = @Schema(implementation = PropertyMatchBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - invalid or missing JWT token")
+    })
+    public ResponseEntity<PropertyMatchBatchResponse> matchAllClients(
+            @Parameter(description = "Matching request with optional parameters (threshold, weights, etc.)")
+            @Valid @RequestBody(required = false) PropertyMatchRequest request,
+            Authentication authentication) {
+
+        UUID agentId = getAgentIdFromAuth(authentication);
+        log.info("Batch matching all clients by agent: {}", agentId);
+
+        // Use default request if not provided
+        if (request == null) {
+            request = PropertyMatchRequest.builder().build();
+        }
+
+        // Batch matching always uses every client's saved criteria
+        if (request.getClientId() != null || request.getPropertyId() != null || request.getCustomCriteria() != null) {
+            throw new IllegalArgumentException(
+                "When using batch matching, do not provide clientId, propertyId or customCriteria in the request body");
+        }
+
+        PropertyMatchBatchResponse response = propertyMatchingService.matchAllClients(agentId, request);
+
+        log.info("Batch matching found matches for {} of {} clients (execution time: {}ms)",
+            response.getClients().size(), response.getEvaluatedClients(), response.getExecutionTimeMs());
+
+        return ResponseEntity.ok(response);
+    }
+
     // ========================================
     // Convenience Endpoints
     // ========================================
@@ -287,6 +341,7 @@ public class PropertyMatchingController extends BaseController {
      * @param clientId the UUID of the client
      * @param matchThreshold optional match threshold (default: 70)
      * @param maxResults optional maximum results (default: 50)
+     * @param includeReasons whether to build match/mismatch reasons (default: true)
      * @param authentication the authenticated user (agent)
      * @return PropertyMatchResponse containing matched properties
      */
@@ -307,6 +362,8 @@ public class PropertyMatchingController extends BaseController {
             @RequestParam(required = false, defaultValue = "70") Integer matchThreshold,
             @Parameter(description = "Maximum number of results", example = "20")
             @RequestParam(required = false, defaultValue = "20") Integer maxResults,
+            @Parameter(description = "Include match/mismatch reasons (disable for score-only list views)")
+            @RequestParam(required = false, defaultValue = "true") Boolean includeReasons,
             Authentication authentication) {
 
         UUID agentId = getAgentIdFromAuth(authentication);
@@ -315,6 +372,7 @@ public class PropertyMatchingController extends BaseController {
         PropertyMatchRequest request = PropertyMatchRequest.builder()
             .matchThreshold(matchThreshold)
             .maxResults(maxResults)
+            .includeReasons(includeReasons)
             .build();
 
         PropertyMatchResponse response = propertyMatchingService.matchPropertiesForClient(
@@ -332,6 +390,7 @@ public class PropertyMatchingController extends BaseController {
      * @param propertyId the UUID of the property
      * @param matchThreshold optional match threshold (default: 70)
      * @param maxResults optional maximum results (default: 50)
+     * @param includeReasons whether to build match/mismatch reasons (default: true)
      * @param authentication the authenticated user (agent)
      * @return PropertyMatchResponse containing matched clients
      */
@@ -351,6 +410,8 @@ public class PropertyMatchingController extends BaseController {
             @RequestParam(required = false, defaultValue = "70") Integer matchThreshold,
             @Parameter(description = "Maximum number of results", example = "20")
             @RequestParam(required = false, defaultValue = "20") Integer maxResults,
+            @Parameter(description = "Include match/mismatch reasons (disable for score-only list views)")
+            @RequestParam(required = false, defaultValue = "true") Boolean includeReasons,
             Authentication authentication) {
 
         UUID agentId = getAgentIdFromAuth(authentication);
@@ -359,6 +420,7 @@ public class PropertyMatchingController extends BaseController {
         PropertyMatchRequest request = PropertyMatchRequest.builder()
             .matchThreshold(matchThreshold)
             .maxResults(maxResults)
+            .includeReasons(includeReasons)
             .build();
 
         PropertyMatchResponse response = propertyMatchingService.matchClientsForProperty(
@@ -0,0 +1,65 @@
+package com.marklerapp.crm.dto;
+
+import com.marklerapp.crm.entity.AgentDailyActivity.Bucket;
+import com.marklerapp.crm.entity.AgentDailyActivity.Counter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An agent's activity over a window, summed per day, week or month.
+ *
+ * <p>Every bucket in the window is listed, oldest first, including the ones without activity.
+ * The window starts at the beginning of the bucket containing the requested start, so only
+ * the last bucket can be partial.</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityTrendDto {
+
+    /**
+     * Bucket size
+     */
+    private Bucket bucket;
+
+    /**
+     * First day of the first bucket
+     */
+    private LocalDate from;
+
+    /**
+     * Last day of the window (inclusive)
+     */
+    private LocalDate to;
+
+    /**
+     * The metrics in every bucket and in {@link #totals}
+     */
+    private List<Counter> metrics;
+
+    /**
+     * One entry per bucket, oldest first
+     */
+    private List<BucketDto> buckets;
+
+    /**
+     * Each metric summed over the whole window
+     */
+    private Map<Counter, Long> totals;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BucketDto {
+        private LocalDate start;
+        private Map<Counter, Long> values;
+    }
+}
@@ -0,0 +1,32 @@
+package com.marklerapp.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of active clients without recent contact, never-contacted clients first, then
+ * oldest last contact first.
+ *
+ * <p>Pages are continued by cursor rather than by page number, so clients contacted or added
+ * while an agent works through the list neither repeat nor get skipped.</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientContactGapPageDto {
+
+    /**
+     * The page's clients, each with its last contact date (null if never contacted)
+     */
+    private List<ClientDto> clients;
+
+    /**
+     * Cursor of the next page, or null if this is the last page
+     */
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.marklerapp.crm.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,8 @@ import java.util.Map;
  * Dashboard analytics DTO providing comprehensive insights for real estate managers.
  * Focuses on actionable metrics that drive business decisions.
  *
+ * <p>Sections that weren't computed (e.g. in a live dashboard delta) are left out of the JSON.</p>
+ *
  * @author Claude Sonnet 4.5
  * @since Dashboard Analytics Feature
  */
@@ -21,6 +24,7 @@ import java.util.Map;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class DashboardAnalyticsDto {
 
     // ========================================
@@ -53,6 +57,12 @@ public class DashboardAnalyticsDto {
 
     private RevenueDto revenue;
 
+    // ========================================
+    // New Matches (from reverse matching)
+    // ========================================
+
+    private NewMatchesDto newMatches;
+
     // ========================================
     // AI-Powered Insights
     // ========================================
@@ -134,6 +144,28 @@ public class DashboardAnalyticsDto {
         private BigDecimal avgCommissionPerDeal;    // Durchschnittliche Provision je Abschluss (dieses Jahr)
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NewMatchesDto {
+        private Long newMatchesSinceYesterday;
+        private List<NewMatchDto> latest; // Best new matches first
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NewMatchDto {
+        private String clientId;
+        private String clientName;
+        private String propertyId;
+        private String propertyTitle;
+        private Integer matchScore;
+        private LocalDateTime matchedAt;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
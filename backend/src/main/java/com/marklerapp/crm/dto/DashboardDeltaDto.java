@@ -0,0 +1,65 @@
+package com.marklerapp.crm.dto;
+
+import com.marklerapp.crm.event.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One update pushed to a live dashboard: what changed since the previous update and the
+ * dashboard sections those changes affect, recomputed.
+ *
+ * <p>Sections not affected by any of the changes are absent from {@link #sections}; the
+ * client keeps its copy from the snapshot or an earlier delta.</p>
+ *
+ * @see DashboardAnalyticsDto
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDeltaDto {
+
+    /**
+     * The changes behind this update, oldest first (at most the latest few when many coalesced)
+     */
+    private List<ChangeDto> changes;
+
+    /**
+     * Number of changes coalesced into this update, including any not listed in {@link #changes}
+     */
+    private int changeCount;
+
+    /**
+     * The recomputed sections; all others are left out
+     */
+    private DashboardAnalyticsDto sections;
+
+    /**
+     * What kind of record a change is about.
+     */
+    public enum Subject {
+        CALL_NOTE,
+        CLIENT,
+        PROPERTY,
+        VIEWING,
+        /** The daily activity rollup caught up with earlier changes. */
+        ACTIVITY
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChangeDto {
+        private Subject subject;
+        private ChangeType changeType;
+        private UUID entityId;
+        private LocalDateTime occurredAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.marklerapp.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+/**
+ * Binary content of a stored file for the streaming download endpoints.
+ *
+ * <p>The content is a blob store resource read while the response is written, never an
+ * in-memory copy. Images kept in Supabase Storage carry a signed URL to redirect to instead.</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileContentDto {
+
+    /**
+     * File name offered to the client
+     */
+    private String fileName;
+
+    /**
+     * MIME type of the content
+     */
+    private String contentType;
+
+    /**
+     * Blob key of the content; being its SHA-256, it doubles as a strong ETag
+     */
+    private String blobKey;
+
+    /**
+     * The content, or null if it is served from {@link #redirectUrl}
+     */
+    private Resource content;
+
+    /**
+     * Signed Supabase Storage URL of the content, or null if it is served from {@link #content}
+     */
+    private String redirectUrl;
+}
@@ -0,0 +1,37 @@
+package com.marklerapp.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Processing status of one uploaded property image, for clients polling after a 202 upload
+ * response without fetching the image payloads.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageProcessingStatusDto {
+
+    /**
+     * The image
+     */
+    private UUID imageId;
+
+    /**
+     * PENDING or PROCESSING while the thumbnail is generated, then READY or FAILED
+     */
+    private ImageProcessingStatus status;
+
+    /**
+     * Why processing failed, if it did
+     */
+    private String error;
+}
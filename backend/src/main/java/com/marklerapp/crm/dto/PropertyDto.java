@@ -294,7 +294,7 @@ public class PropertyDto {
     private BigDecimal calculatedPricePerSqm;
 
     /**
-     * URL of the main/primary image (computed field)
+     * Path of the endpoint streaming the main/primary image, relative to the API base URL (computed field)
      */
     private String mainImageUrl;
 
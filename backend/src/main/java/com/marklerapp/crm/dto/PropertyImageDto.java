@@ -2,6 +2,7 @@ package com.marklerapp.crm.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
 import com.marklerapp.crm.entity.PropertyImageType;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -154,6 +155,18 @@ public class PropertyImageDto {
     @Builder.Default
     private PropertyImageType imageType = PropertyImageType.GENERAL;
 
+    /**
+     * Progress of thumbnail generation; the thumbnail URL is set once READY (read-only)
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private ImageProcessingStatus processingStatus;
+
+    /**
+     * Why processing failed, if it did (read-only)
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String processingError;
+
     // ========================================
     // Audit Fields (Read-Only)
     // ========================================
@@ -175,17 +188,24 @@ public class PropertyImageDto {
     // ========================================
 
     /**
-     * URL for accessing the full-size image (computed field)
+     * Path of the endpoint streaming the full-size image, relative to the API base URL (computed field)
      */
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String imageUrl;
 
     /**
-     * URL for accessing the thumbnail version (computed field)
+     * Path of the endpoint streaming the thumbnail, relative to the API base URL; set once generated (computed field)
      */
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String thumbnailUrl;
 
+    /**
+     * Path of a scaled, recompressed preview for listings, relative to the API base URL; null if the
+     * original is not wider than the preview (computed field)
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String previewUrl;
+
     /**
      * Formatted file size (e.g., "2.5 MB") (computed field)
      */
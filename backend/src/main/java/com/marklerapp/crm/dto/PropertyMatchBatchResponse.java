@@ -0,0 +1,93 @@
+package com.marklerapp.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the batch matching response: every open client of an agent matched against the
+ * agent's whole portfolio in one request.
+ *
+ * <p>Only clients with at least one match above the threshold are listed, best top match
+ * first. Each entry carries that client's top-N properties in the same shape as the
+ * single-client matching response.</p>
+ *
+ * @see PropertyMatchRequest
+ * @see PropertyMatchResponse
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PropertyMatchBatchResponse {
+
+    /**
+     * Clients with at least one match, ordered by their best match score
+     */
+    private List<ClientMatches> clients;
+
+    /**
+     * Number of clients whose saved criteria were scored
+     */
+    private Integer evaluatedClients;
+
+    /**
+     * Number of properties in the agent's portfolio at the time of scoring
+     */
+    private Integer evaluatedProperties;
+
+    /**
+     * Match threshold used for filtering
+     */
+    private Integer matchThreshold;
+
+    /**
+     * Maximum number of properties returned per client
+     */
+    private Integer maxResultsPerClient;
+
+    /**
+     * Execution time in milliseconds
+     */
+    private Long executionTimeMs;
+
+    // ========================================
+    // Nested Classes
+    // ========================================
+
+    /**
+     * One client's row of the match matrix.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ClientMatches {
+
+        /**
+         * The client whose saved criteria were matched
+         */
+        private ClientDto client;
+
+        /**
+         * The client's best matching properties, best first
+         */
+        private List<PropertyMatchResponse.PropertyMatchResult> properties;
+
+        /**
+         * Total number of properties above the threshold, including those cut off by maxResults
+         */
+        private Integer totalMatches;
+
+        /**
+         * Number of properties returned for this client
+         */
+        private Integer returnedMatches;
+    }
+}
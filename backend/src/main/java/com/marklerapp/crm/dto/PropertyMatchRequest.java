@@ -208,6 +208,15 @@ public class PropertyMatchRequest {
     @Builder.Default
     private Boolean includeUnavailable = false;
 
+    /**
+     * Whether to build the human-readable match/mismatch reasons for each result.
+     * List views that only show scores can turn this off to skip reason formatting entirely;
+     * matchReasons/mismatchReasons are then omitted from the response.
+     * Default: true
+     */
+    @Builder.Default
+    private Boolean includeReasons = true;
+
     // ========================================
     // Validation Methods
     // ========================================
@@ -38,7 +38,7 @@ public class PropertyMatchResponse {
     private List<ClientMatchResult> clients;
 
     /**
-     * Total number of matches found (before pagination)
+     * Total number of matches above the threshold, including those cut off by maxResults
      */
     private Integer totalMatches;
 
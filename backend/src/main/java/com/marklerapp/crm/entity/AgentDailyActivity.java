@@ -0,0 +1,165 @@
+package com.marklerapp.crm.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * One agent's activity on one day: calls (in total and by outcome), new clients and new
+ * properties. The dashboard's activity trends read a month or two of these rows instead of
+ * scanning the agent's whole call-note, client and property history.
+ *
+ * <p>Counters are kept up to date by call note, client and property writes (see
+ * DailyActivityRollupService) and recomputed from the source tables nightly, so a missed
+ * update only lasts until the next reconciliation.</p>
+ *
+ * <p>Each row also stores the start of its week and month, so activity trends can be summed
+ * per week or month with a plain GROUP BY on every database.</p>
+ */
+@Entity
+@Table(name = "agent_daily_activity",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"agent_id", "activity_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgentDailyActivity extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "agent_id", nullable = false)
+    @NotNull(message = "Agent is required")
+    private Agent agent;
+
+    @Column(name = "activity_date", nullable = false)
+    @NotNull(message = "Activity date is required")
+    private LocalDate activityDate;
+
+    /** Monday of the activity date's week; set from {@link #activityDate} on save. */
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    /** First day of the activity date's month; set from {@link #activityDate} on save. */
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Column(name = "call_notes", nullable = false)
+    @Builder.Default
+    private int callNotes = 0;
+
+    @Column(name = "interested_calls", nullable = false)
+    @Builder.Default
+    private int interestedCalls = 0;
+
+    @Column(name = "not_interested_calls", nullable = false)
+    @Builder.Default
+    private int notInterestedCalls = 0;
+
+    @Column(name = "scheduled_viewing_calls", nullable = false)
+    @Builder.Default
+    private int scheduledViewingCalls = 0;
+
+    @Column(name = "offer_made_calls", nullable = false)
+    @Builder.Default
+    private int offerMadeCalls = 0;
+
+    @Column(name = "deal_closed_calls", nullable = false)
+    @Builder.Default
+    private int dealClosedCalls = 0;
+
+    @Column(name = "new_clients", nullable = false)
+    @Builder.Default
+    private int newClients = 0;
+
+    @Column(name = "new_properties", nullable = false)
+    @Builder.Default
+    private int newProperties = 0;
+
+    /**
+     * The counters of a day, as changed by a single write.
+     */
+    public enum Counter {
+        CALL_NOTES,
+        INTERESTED_CALLS,
+        NOT_INTERESTED_CALLS,
+        SCHEDULED_VIEWING_CALLS,
+        OFFER_MADE_CALLS,
+        DEAL_CLOSED_CALLS,
+        NEW_CLIENTS,
+        NEW_PROPERTIES;
+
+        /**
+         * The per-outcome counter for calls with the given outcome, or null for calls without one.
+         */
+        public static Counter forOutcome(CallNote.CallOutcome outcome) {
+            if (outcome == null) {
+                return null;
+            }
+            return switch (outcome) {
+                case INTERESTED -> INTERESTED_CALLS;
+                case NOT_INTERESTED -> NOT_INTERESTED_CALLS;
+                case SCHEDULED_VIEWING -> SCHEDULED_VIEWING_CALLS;
+                case OFFER_MADE -> OFFER_MADE_CALLS;
+                case DEAL_CLOSED -> DEAL_CLOSED_CALLS;
+            };
+        }
+    }
+
+    /**
+     * Time buckets activity trends are summed in. Weeks start on Monday.
+     */
+    public enum Bucket {
+        DAY,
+        WEEK,
+        MONTH;
+
+        /**
+         * First day of the bucket containing {@code date}.
+         */
+        public LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * First day of the bucket after the one starting at {@code start}.
+         */
+        public LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    void assignBuckets() {
+        weekStart = Bucket.WEEK.start(activityDate);
+        monthStart = Bucket.MONTH.start(activityDate);
+    }
+
+    /**
+     * Add {@code amount} (negative to subtract) to one counter.
+     */
+    public void add(Counter counter, int amount) {
+        switch (counter) {
+            case CALL_NOTES -> callNotes += amount;
+            case INTERESTED_CALLS -> interestedCalls += amount;
+            case NOT_INTERESTED_CALLS -> notInterestedCalls += amount;
+            case SCHEDULED_VIEWING_CALLS -> scheduledViewingCalls += amount;
+            case OFFER_MADE_CALLS -> offerMadeCalls += amount;
+            case DEAL_CLOSED_CALLS -> dealClosedCalls += amount;
+            case NEW_CLIENTS -> newClients += amount;
+            case NEW_PROPERTIES -> newProperties += amount;
+        }
+    }
+}
@@ -16,7 +16,10 @@ import java.time.LocalDate;
  * Stores call notes, meeting notes, and other communication records.
  */
 @Entity
-@Table(name = "call_notes")
+@Table(name = "call_notes", indexes = {
+    @Index(name = "idx_call_notes_agent_follow_up", columnList = "agent_id, follow_up_required, follow_up_date"),
+    @Index(name = "idx_call_notes_client_call_date", columnList = "client_id, call_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
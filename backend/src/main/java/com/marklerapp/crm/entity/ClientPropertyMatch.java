@@ -0,0 +1,47 @@
+package com.marklerapp.crm.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * A client/property pair that cleared the match threshold when the property was created or
+ * repriced, persisted by the reverse-match pipeline (see ReverseMatchService).
+ *
+ * <p>{@code createdAt} is when the pair first matched, which is what "new matches since
+ * yesterday" on the dashboard counts; rescoring an existing pair only updates the score.
+ * Rows disappear when a later change drops the pair below the threshold, and cascade with
+ * the client or property.</p>
+ */
+@Entity
+@Table(name = "client_property_matches",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"client_id", "property_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientPropertyMatch extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "agent_id", nullable = false)
+    @NotNull(message = "Agent is required")
+    private Agent agent;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false)
+    @NotNull(message = "Client is required")
+    private Client client;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "property_id", nullable = false)
+    @NotNull(message = "Property is required")
+    private Property property;
+
+    @Column(name = "match_score", nullable = false)
+    @Min(value = 0, message = "Match score must be between 0 and 100")
+    @Max(value = 100, message = "Match score must be between 0 and 100")
+    private Integer matchScore;
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 /**
  * Entity representing a file attachment associated with a property or client.
  * Supports multiple document types (contracts, floor plans, ID documents, certificates, etc.)
- * Stores file data as Base64 encoded string in database (consistent with PropertyImage pattern).
+ * File content lives in the blob store, referenced by its key; rows uploaded before
+ * it keep Base64 data in {@code file_data} until the blob migration has moved it.
  *
  * <p>Security: Each attachment belongs to an agent and is validated for ownership
  * before any operations. Supports GDPR compliance through audit logging.</p>
@@ -57,12 +58,15 @@ public class FileAttachment extends BaseEntity {
     @Size(max = 255, message = "Original file name must not exceed 255 characters")
     private String originalFileName;
 
-    // Base64 File Data (stored directly in database)
+    // Base64 File Data — legacy; kept until the blob migration has moved it to the blob store
     @Lob
-    @Column(name = "file_data", columnDefinition = "TEXT", nullable = false)
-    @NotBlank(message = "File data is required")
+    @Column(name = "file_data", columnDefinition = "TEXT")
     private String fileData;
 
+    // Local blob store key of the file content (set for all new uploads)
+    @Column(name = "blob_key", length = 64)
+    private String blobKey;
+
     @Column(name = "file_size", nullable = false)
     @NotNull(message = "File size is required")
     @Min(value = 1, message = "File size must be positive")
@@ -0,0 +1,21 @@
+package com.marklerapp.crm.entity;
+
+/**
+ * Progress of the background processing (thumbnail generation, hand-off to Supabase Storage)
+ * of an uploaded property image. The original is stored before the upload returns, so an image
+ * is viewable in every state; only its derivatives depend on processing.
+ */
+public enum ImageProcessingStatus {
+
+    /** Stored, waiting for a worker */
+    PENDING,
+
+    /** Claimed by a worker */
+    PROCESSING,
+
+    /** Derivatives generated */
+    READY,
+
+    /** Processing failed; the original is still served */
+    FAILED
+}
@@ -257,14 +257,17 @@ public class Property extends BaseEntity {
     @Size(max = 5000, message = "Notes must not exceed 5000 characters")
     private String notes;
 
-    // Property Expose/Brochure (stored as Base64)
+    // Property Expose/Brochure (content in the blob store; Base64 on rows uploaded before it)
     @Column(name = "expose_file_name")
     @Size(max = 255, message = "Expose file name must not exceed 255 characters")
     private String exposeFileName;
 
     @Lob
     @Column(name = "expose_file_data", columnDefinition = "TEXT")
-    private String exposeFileData; // Base64 encoded PDF
+    private String exposeFileData; // Base64 encoded PDF (legacy)
+
+    @Column(name = "expose_blob_key", length = 64)
+    private String exposeBlobKey;
 
     @Column(name = "expose_file_size")
     private Long exposeFileSize; // Size in bytes
@@ -13,7 +13,8 @@ import lombok.*;
 @Table(name = "property_images", indexes = {
     @Index(name = "idx_property_image_property", columnList = "property_id"),
     @Index(name = "idx_property_image_primary", columnList = "is_primary"),
-    @Index(name = "idx_property_image_order", columnList = "sort_order")
+    @Index(name = "idx_property_image_order", columnList = "sort_order"),
+    @Index(name = "idx_property_image_processing", columnList = "processing_status, created_at")
 })
 @Getter
 @Setter
@@ -56,6 +57,13 @@ public class PropertyImage extends BaseEntity {
     @Column(name = "thumbnail_storage_path", length = 1000)
     private String thumbnailStoragePath;
 
+    // Local blob store keys (set for new uploads without Supabase Storage and for migrated Base64 rows)
+    @Column(name = "image_blob_key", length = 64)
+    private String imageBlobKey;
+
+    @Column(name = "thumbnail_blob_key", length = 64)
+    private String thumbnailBlobKey;
+
     @Column(name = "content_type", nullable = false, length = 100)
     @NotBlank(message = "Content type is required")
     @Size(min = 3, max = 100, message = "Content type must be between 3 and 100 characters")
@@ -104,6 +112,15 @@ public class PropertyImage extends BaseEntity {
     @Builder.Default
     private PropertyImageType imageType = PropertyImageType.GENERAL;
 
+    // Background processing (thumbnail generation); rows uploaded before it existed are READY
+    @Column(name = "processing_status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private ImageProcessingStatus processingStatus = ImageProcessingStatus.READY;
+
+    @Column(name = "processing_error", length = 500)
+    private String processingError;
+
     /**
      * Get file extension from filename
      */
@@ -121,6 +138,20 @@ public class PropertyImage extends BaseEntity {
         return contentType != null && contentType.startsWith("image/");
     }
 
+    /**
+     * Check if the image content is stored anywhere (Supabase Storage, blob store or legacy Base64 column)
+     */
+    public boolean hasContent() {
+        return storagePath != null || imageBlobKey != null || imageData != null;
+    }
+
+    /**
+     * Check if a thumbnail is stored anywhere (Supabase Storage, blob store or legacy Base64 column)
+     */
+    public boolean hasThumbnail() {
+        return thumbnailStoragePath != null || thumbnailBlobKey != null || thumbnailData != null;
+    }
+
     /**
      * Get file size in a human-readable format
      */
@@ -0,0 +1,15 @@
+package com.marklerapp.crm.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link com.marklerapp.crm.service.CallNoteService} whenever a call note is
+ * created, updated or deleted. Listeners that act on persisted state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param agentId the owning agent
+ * @param callNoteId the call note that changed
+ * @param changeType what happened to it
+ */
+public record CallNoteChangedEvent(UUID agentId, UUID callNoteId, ChangeType changeType) {
+}
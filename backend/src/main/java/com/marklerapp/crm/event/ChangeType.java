@@ -0,0 +1,10 @@
+package com.marklerapp.crm.event;
+
+/**
+ * What happened to the entity a change event is about.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,15 @@
+package com.marklerapp.crm.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link com.marklerapp.crm.service.ClientService} whenever a client is
+ * created, updated or deleted. Listeners that act on persisted state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param agentId the owning agent
+ * @param clientId the client that changed
+ * @param changeType what happened to it
+ */
+public record ClientChangedEvent(UUID agentId, UUID clientId, ChangeType changeType) {
+}
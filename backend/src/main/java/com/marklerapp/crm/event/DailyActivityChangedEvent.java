@@ -0,0 +1,88 @@
+package com.marklerapp.crm.event;
+
+import com.marklerapp.crm.entity.AgentDailyActivity.Counter;
+import com.marklerapp.crm.entity.CallNote;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by {@link com.marklerapp.crm.service.CallNoteService},
+ * {@link com.marklerapp.crm.service.ClientService} and
+ * {@link com.marklerapp.crm.service.PropertyService} when a write changes an agent's daily
+ * activity counters, and applied to the rollup once the write has committed.
+ *
+ * @param agentId the agent whose counters change
+ * @param deltas the individual counter changes
+ */
+public record DailyActivityChangedEvent(UUID agentId, List<Delta> deltas) {
+
+    /**
+     * A change of one counter on one day.
+     */
+    public record Delta(LocalDate date, Counter counter, int amount) {
+    }
+
+    /**
+     * Collects deltas for one event. Timestamps that are null are skipped, so callers
+     * needn't check entities that were never persisted.
+     */
+    public static Builder forAgent(UUID agentId) {
+        return new Builder(agentId);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    public static final class Builder {
+
+        private final UUID agentId;
+        private final List<Delta> deltas = new ArrayList<>();
+
+        private Builder(UUID agentId) {
+            this.agentId = agentId;
+        }
+
+        /**
+         * A call made at {@code callDate} was added (+1) or removed (-1).
+         */
+        public Builder callNote(LocalDateTime callDate, CallNote.CallOutcome outcome, int amount) {
+            if (callDate != null) {
+                deltas.add(new Delta(callDate.toLocalDate(), Counter.CALL_NOTES, amount));
+                Counter outcomeCounter = Counter.forOutcome(outcome);
+                if (outcomeCounter != null) {
+                    deltas.add(new Delta(callDate.toLocalDate(), outcomeCounter, amount));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * A client created at {@code createdAt} was added (+1) or removed (-1).
+         */
+        public Builder client(LocalDateTime createdAt, int amount) {
+            if (createdAt != null) {
+                deltas.add(new Delta(createdAt.toLocalDate(), Counter.NEW_CLIENTS, amount));
+            }
+            return this;
+        }
+
+        /**
+         * A property created at {@code createdAt} was added (+1) or removed (-1).
+         */
+        public Builder property(LocalDateTime createdAt, int amount) {
+            if (createdAt != null) {
+                deltas.add(new Delta(createdAt.toLocalDate(), Counter.NEW_PROPERTIES, amount));
+            }
+            return this;
+        }
+
+        public DailyActivityChangedEvent build() {
+            return new DailyActivityChangedEvent(agentId, List.copyOf(deltas));
+        }
+    }
+}
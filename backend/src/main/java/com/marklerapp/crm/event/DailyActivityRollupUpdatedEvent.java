@@ -0,0 +1,12 @@
+package com.marklerapp.crm.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link com.marklerapp.crm.service.DailyActivityRollupService} after it has
+ * committed new counters for an agent, so readers of the rollup know it moved on.
+ *
+ * @param agentId the agent whose rollup rows changed
+ */
+public record DailyActivityRollupUpdatedEvent(UUID agentId) {
+}
@@ -0,0 +1,19 @@
+package com.marklerapp.crm.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link com.marklerapp.crm.service.PropertyService} whenever a property is
+ * created, updated or deleted. Listeners that act on persisted state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param agentId the owning agent
+ * @param propertyId the property that changed
+ * @param changeType what happened to it
+ * @param matchingFieldsChanged whether any field that client matching filters or scores on
+ *                              changed (price, costs, area, rooms, status, type, location);
+ *                              always true for CREATED and DELETED
+ */
+public record PropertyChangedEvent(UUID agentId, UUID propertyId, ChangeType changeType,
+                                   boolean matchingFieldsChanged) {
+}
@@ -0,0 +1,15 @@
+package com.marklerapp.crm.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link com.marklerapp.crm.service.ViewingService} whenever a viewing is
+ * created, updated or deleted. Listeners that act on persisted state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param agentId the owning agent
+ * @param viewingId the viewing that changed
+ * @param changeType what happened to it
+ */
+public record ViewingChangedEvent(UUID agentId, UUID viewingId, ChangeType changeType) {
+}
@@ -2,8 +2,14 @@ package com.marklerapp.crm.mapper;
 
 import com.marklerapp.crm.dto.FileAttachmentDto;
 import com.marklerapp.crm.entity.FileAttachment;
+import com.marklerapp.crm.exception.FileNotFoundException;
+import com.marklerapp.crm.exception.FileStorageException;
+import com.marklerapp.crm.service.BlobStore;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+
 /**
  * Mapper for converting FileAttachment entities to DTOs and vice versa.
  * Handles data URL generation and computed field population.
@@ -12,8 +18,11 @@ import org.springframework.stereotype.Component;
  * @since File Attachment Feature
  */
 @Component
+@RequiredArgsConstructor
 public class FileAttachmentMapper {
 
+    private final BlobStore blobStore;
+
     /**
      * Convert FileAttachment entity to DTO without file data.
      * Used for listing attachments where full file data is not needed.
@@ -64,7 +73,9 @@ public class FileAttachmentMapper {
         dto.setDownloadUrl("/api/v1/attachments/" + attachment.getId() + "/download");
 
         // Include file data if requested (for direct display)
-        if (includeFileData && attachment.getFileData() != null) {
+        if (includeFileData && attachment.getBlobKey() != null) {
+            dto.setDataUrl(readDataUrl(attachment));
+        } else if (includeFileData && attachment.getFileData() != null) {
             String dataUrl = "data:" + attachment.getMimeType() + ";base64," + attachment.getFileData();
             dto.setDataUrl(dataUrl);
         }
@@ -82,4 +93,17 @@ public class FileAttachmentMapper {
     public FileAttachmentDto toDtoWithFileData(FileAttachment attachment) {
         return toDto(attachment, true);
     }
+
+    /**
+     * Read the attachment's content from the blob store as a data URL.
+     */
+    private String readDataUrl(FileAttachment attachment) {
+        try {
+            return blobStore.toDataUrl(attachment.getBlobKey(), attachment.getMimeType());
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException("Attachment content not found: " + attachment.getId(), e);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read attachment " + attachment.getId(), e);
+        }
+    }
 }
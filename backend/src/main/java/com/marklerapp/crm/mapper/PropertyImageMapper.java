@@ -2,10 +2,13 @@ package com.marklerapp.crm.mapper;
 
 import com.marklerapp.crm.dto.PropertyImageDto;
 import com.marklerapp.crm.entity.PropertyImage;
+import com.marklerapp.crm.service.ImageVariantService;
+import com.marklerapp.crm.util.ImageUrlUtil;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Builder;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
 
@@ -32,11 +35,14 @@ import java.util.List;
  * @see PropertyImageDto
  */
 @Mapper(componentModel = "spring")
-public interface PropertyImageMapper {
+public abstract class PropertyImageMapper {
+
+    @Autowired
+    protected ImageVariantService imageVariantService;
 
     /**
      * Convert PropertyImage entity to DTO.
-     * Maps all fields and computes imageUrl, thumbnailUrl, formattedFileSize, fileExtension, and aspectRatio.
+     * Maps all fields and computes imageUrl, thumbnailUrl, previewUrl, formattedFileSize, fileExtension, and aspectRatio.
      *
      * @param image the property image entity
      * @return the property image DTO
@@ -47,7 +53,8 @@ public interface PropertyImageMapper {
     @Mapping(target = "aspectRatio", expression = "java(image.getAspectRatio())")
     @Mapping(target = "imageUrl", expression = "java(createImageUrl(image))")
     @Mapping(target = "thumbnailUrl", expression = "java(createThumbnailUrl(image))")
-    PropertyImageDto toDto(PropertyImage image);
+    @Mapping(target = "previewUrl", expression = "java(createPreviewUrl(image))")
+    public abstract PropertyImageDto toDto(PropertyImage image);
 
     /**
      * Convert PropertyImageDto to entity.
@@ -64,12 +71,16 @@ public interface PropertyImageMapper {
     @Mapping(target = "thumbnailData", ignore = true)
     @Mapping(target = "storagePath", ignore = true)
     @Mapping(target = "thumbnailStoragePath", ignore = true)
+    @Mapping(target = "imageBlobKey", ignore = true)
+    @Mapping(target = "thumbnailBlobKey", ignore = true)
+    @Mapping(target = "processingStatus", ignore = true)
+    @Mapping(target = "processingError", ignore = true)
     @Mapping(target = "isMainImage", ignore = true)
     @Mapping(target = "displayOrder", ignore = true)
     @Mapping(target = "mimeType", ignore = true)
     @Mapping(target = "fileName", ignore = true)
     @BeanMapping(builder = @Builder(disableBuilder = true))
-    PropertyImage toEntity(PropertyImageDto dto);
+    public abstract PropertyImage toEntity(PropertyImageDto dto);
 
     /**
      * Convert list of PropertyImage entities to list of DTOs.
@@ -77,31 +88,47 @@ public interface PropertyImageMapper {
      * @param images the list of property image entities
      * @return the list of property image DTOs
      */
-    List<PropertyImageDto> toDtoList(List<PropertyImage> images);
+    public abstract List<PropertyImageDto> toDtoList(List<PropertyImage> images);
+
+    /**
+     * Helper method to link the streaming endpoint of the full-size image.
+     *
+     * @param image the property image entity
+     * @return path of the image endpoint or null if there is no image content
+     */
+    protected String createImageUrl(PropertyImage image) {
+        if (image.getProperty() == null || !image.hasContent()) {
+            return null;
+        }
+        return ImageUrlUtil.imageUrl(image.getProperty().getId(), image.getId());
+    }
 
     /**
-     * Helper method to create Base64 data URL for full-size image.
+     * Helper method to link the streaming endpoint of the thumbnail.
      *
      * @param image the property image entity
-     * @return Base64 data URL or null if no image data
+     * @return path of the thumbnail endpoint or null if no thumbnail has been generated
      */
-    default String createImageUrl(PropertyImage image) {
-        if (image.getImageData() == null) {
+    protected String createThumbnailUrl(PropertyImage image) {
+        if (image.getProperty() == null || !image.hasThumbnail()) {
             return null;
         }
-        return "data:" + image.getContentType() + ";base64," + image.getImageData();
+        return ImageUrlUtil.thumbnailUrl(image.getProperty().getId(), image.getId());
     }
 
     /**
-     * Helper method to create Base64 data URL for thumbnail.
+     * Helper method to link the scaled listing preview of the image.
      *
      * @param image the property image entity
-     * @return Base64 data URL or null if no thumbnail data
+     * @return path of the preview variant or null if the image is not wider than the preview or
+     *         the preview is not available yet
      */
-    default String createThumbnailUrl(PropertyImage image) {
-        if (image.getThumbnailData() == null) {
+    protected String createPreviewUrl(PropertyImage image) {
+        Integer width = imageVariantService.previewWidth(
+            image.getImageBlobKey(), image.getWidth(), image.getProcessingStatus());
+        if (image.getProperty() == null || width == null) {
             return null;
         }
-        return "data:" + image.getContentType() + ";base64," + image.getThumbnailData();
+        return ImageUrlUtil.variantUrl(image.getProperty().getId(), image.getId(), width);
     }
 }
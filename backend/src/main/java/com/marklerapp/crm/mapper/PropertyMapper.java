@@ -2,6 +2,8 @@ package com.marklerapp.crm.mapper;
 
 import com.marklerapp.crm.dto.PropertyDto;
 import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertyImage;
+import com.marklerapp.crm.util.ImageUrlUtil;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Builder;
 import org.mapstruct.Mapper;
@@ -61,6 +63,7 @@ public interface PropertyMapper {
     @Mapping(target = "agent", ignore = true)
     @Mapping(target = "images", ignore = true)
     @Mapping(target = "exposeFileData", ignore = true)
+    @Mapping(target = "exposeBlobKey", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @BeanMapping(builder = @Builder(disableBuilder = true))
@@ -85,24 +88,12 @@ public interface PropertyMapper {
             return null;
         }
 
-        // Find primary image
-        return property.getImages().stream()
+        // Find primary image; if no primary, use first image
+        PropertyImage image = property.getImages().stream()
             .filter(img -> Boolean.TRUE.equals(img.getIsPrimary()))
             .findFirst()
-            .map(img -> {
-                if (img.getImageData() != null) {
-                    return "data:" + img.getContentType() + ";base64," + img.getImageData();
-                }
-                return null;
-            })
-            .orElseGet(() -> {
-                // If no primary, return first image
-                var firstImage = property.getImages().get(0);
-                if (firstImage.getImageData() != null) {
-                    return "data:" + firstImage.getContentType() + ";base64," + firstImage.getImageData();
-                }
-                return null;
-            });
+            .orElseGet(() -> property.getImages().get(0));
+        return image.hasContent() ? ImageUrlUtil.imageUrl(property.getId(), image.getId()) : null;
     }
 
     /**
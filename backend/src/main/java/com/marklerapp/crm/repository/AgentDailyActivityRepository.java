@@ -0,0 +1,86 @@
+package com.marklerapp.crm.repository;
+
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AgentDailyActivityRepository extends JpaRepository<AgentDailyActivity, UUID> {
+
+    /**
+     * Counter totals of one bucket (a day, week or month) of an agent's activity.
+     */
+    interface ActivityBucket {
+        LocalDate getBucketStart();
+        long getCallNotes();
+        long getInterestedCalls();
+        long getNotInterestedCalls();
+        long getScheduledViewingCalls();
+        long getOfferMadeCalls();
+        long getDealClosedCalls();
+        long getNewClients();
+        long getNewProperties();
+
+        default long get(AgentDailyActivity.Counter counter) {
+            return switch (counter) {
+                case CALL_NOTES -> getCallNotes();
+                case INTERESTED_CALLS -> getInterestedCalls();
+                case NOT_INTERESTED_CALLS -> getNotInterestedCalls();
+                case SCHEDULED_VIEWING_CALLS -> getScheduledViewingCalls();
+                case OFFER_MADE_CALLS -> getOfferMadeCalls();
+                case DEAL_CLOSED_CALLS -> getDealClosedCalls();
+                case NEW_CLIENTS -> getNewClients();
+                case NEW_PROPERTIES -> getNewProperties();
+            };
+        }
+    }
+
+    String BUCKET_TOTALS = "SUM(a.callNotes) AS callNotes, SUM(a.interestedCalls) AS interestedCalls, " +
+            "SUM(a.notInterestedCalls) AS notInterestedCalls, SUM(a.scheduledViewingCalls) AS scheduledViewingCalls, " +
+            "SUM(a.offerMadeCalls) AS offerMadeCalls, SUM(a.dealClosedCalls) AS dealClosedCalls, " +
+            "SUM(a.newClients) AS newClients, SUM(a.newProperties) AS newProperties " +
+            "FROM AgentDailyActivity a WHERE a.agent = :agent AND a.activityDate >= :from AND a.activityDate <= :to ";
+
+    /**
+     * An agent's activity per day within {@code [from, to]}, oldest first. Days without activity are absent.
+     */
+    @Query("SELECT a.activityDate AS bucketStart, " + BUCKET_TOTALS +
+           "GROUP BY a.activityDate ORDER BY a.activityDate")
+    List<ActivityBucket> sumByDay(@Param("agent") Agent agent,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+
+    /**
+     * An agent's activity per week (starting Monday) within {@code [from, to]}, oldest first.
+     */
+    @Query("SELECT a.weekStart AS bucketStart, " + BUCKET_TOTALS +
+           "GROUP BY a.weekStart ORDER BY a.weekStart")
+    List<ActivityBucket> sumByWeek(@Param("agent") Agent agent,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    /**
+     * An agent's activity per month within {@code [from, to]}, oldest first.
+     */
+    @Query("SELECT a.monthStart AS bucketStart, " + BUCKET_TOTALS +
+           "GROUP BY a.monthStart ORDER BY a.monthStart")
+    List<ActivityBucket> sumByMonth(@Param("agent") Agent agent,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Query("SELECT a FROM AgentDailyActivity a WHERE a.agent.id = :agentId AND a.activityDate IN :dates")
+    List<AgentDailyActivity> findByAgentIdAndDates(@Param("agentId") UUID agentId,
+                                                   @Param("dates") List<LocalDate> dates);
+
+    @Modifying
+    @Query("DELETE FROM AgentDailyActivity a WHERE a.agent = :agent AND a.activityDate >= :from")
+    void deleteDaysFrom(@Param("agent") Agent agent, @Param("from") LocalDate from);
+}
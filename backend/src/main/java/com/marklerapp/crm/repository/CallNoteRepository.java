@@ -71,26 +71,45 @@ public interface CallNoteRepository extends JpaRepository<CallNote, UUID> {
     List<CallNote> findByAgentAndClientOrderByCallDateDesc(@Param("agent") Agent agent, @Param("client") Client client);
 
     /**
-     * Find call notes that require follow-up
-     * Uses JOIN FETCH to prevent N+1 query problem
+     * Find an agent's call notes that require follow-up, earliest follow-up first
+     * Uses JOIN FETCH to prevent N+1 query problem; backed by idx_call_notes_agent_follow_up
      */
     @Query("SELECT cn FROM CallNote cn " +
            "LEFT JOIN FETCH cn.agent " +
            "LEFT JOIN FETCH cn.client " +
            "LEFT JOIN FETCH cn.property " +
-           "WHERE cn.followUpRequired = true AND cn.followUpDate IS NOT NULL")
-    List<CallNote> findCallNotesRequiringFollowUp();
+           "WHERE cn.agent = :agent AND cn.followUpRequired = true AND cn.followUpDate IS NOT NULL " +
+           "ORDER BY cn.followUpDate ASC")
+    List<CallNote> findFollowUpsByAgent(@Param("agent") Agent agent);
 
     /**
-     * Find call notes with follow-up date before or equal to a specific date
-     * Uses JOIN FETCH to prevent N+1 query problem
+     * Find an agent's call notes with follow-up date before or equal to a specific date
+     * Uses JOIN FETCH to prevent N+1 query problem; backed by idx_call_notes_agent_follow_up
      */
     @Query("SELECT cn FROM CallNote cn " +
            "LEFT JOIN FETCH cn.agent " +
            "LEFT JOIN FETCH cn.client " +
            "LEFT JOIN FETCH cn.property " +
-           "WHERE cn.followUpRequired = true AND cn.followUpDate <= :date")
-    List<CallNote> findOverdueFollowUps(@Param("date") LocalDate date);
+           "WHERE cn.agent = :agent AND cn.followUpRequired = true AND cn.followUpDate <= :date " +
+           "ORDER BY cn.followUpDate ASC")
+    List<CallNote> findOverdueFollowUpsByAgent(@Param("agent") Agent agent, @Param("date") LocalDate date);
+
+    /**
+     * Count an agent's follow-ups due on or before a specific date
+     */
+    @Query("SELECT COUNT(cn) FROM CallNote cn " +
+           "WHERE cn.agent = :agent AND cn.followUpRequired = true AND cn.followUpDate <= :date")
+    long countOverdueFollowUpsByAgent(@Param("agent") Agent agent, @Param("date") LocalDate date);
+
+    /**
+     * Count an agent's follow-ups due within {@code [from, to)}
+     */
+    @Query("SELECT COUNT(cn) FROM CallNote cn " +
+           "WHERE cn.agent = :agent AND cn.followUpRequired = true " +
+           "AND cn.followUpDate >= :from AND cn.followUpDate < :to")
+    long countFollowUpsByAgentDueBetween(@Param("agent") Agent agent,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
 
     /**
      * Find call notes within a date range for a specific client
@@ -144,6 +163,101 @@ public interface CallNoteRepository extends JpaRepository<CallNote, UUID> {
     @Query("SELECT cn.client.id, MAX(cn.callDate) FROM CallNote cn WHERE cn.client.id IN :clientIds GROUP BY cn.client.id")
     List<Object[]> findLastContactDateForClients(@Param("clientIds") List<UUID> clientIds);
 
+    /**
+     * Last call date per client for all clients of an agent, in one grouped query.
+     * Returns Object[] pairs: [clientId (UUID), maxCallDate (LocalDateTime)].
+     * Clients without any call note have no row.
+     */
+    @Query("SELECT cn.client.id, MAX(cn.callDate) FROM CallNote cn WHERE cn.client.agent = :agent GROUP BY cn.client.id")
+    List<Object[]> findLastContactDateByClientForAgent(@Param("agent") Agent agent);
+
+    /**
+     * A client with the date of one of their calls, read without loading the call note.
+     */
+    interface ClientContact {
+        UUID getClientId();
+        String getFirstName();
+        String getLastName();
+        LocalDateTime getCallDate();
+        LocalDate getFollowUpDate();
+
+        default String getFullName() {
+            return getFirstName() + " " + getLastName();
+        }
+    }
+
+    /**
+     * Clients of an agent's overdue follow-ups (due on or before a date), earliest first.
+     * Backed by idx_call_notes_agent_follow_up
+     */
+    @Query("SELECT c.id AS clientId, c.firstName AS firstName, c.lastName AS lastName, " +
+           "cn.callDate AS callDate, cn.followUpDate AS followUpDate " +
+           "FROM CallNote cn JOIN cn.client c " +
+           "WHERE cn.agent = :agent AND cn.followUpRequired = true AND cn.followUpDate <= :date " +
+           "ORDER BY cn.followUpDate ASC")
+    List<ClientContact> findOverdueFollowUpContactsByAgent(@Param("agent") Agent agent, @Param("date") LocalDate date);
+
+    /**
+     * Each client's latest call for all clients of an agent, limited to latest calls with the
+     * given outcome that were made before a cutoff.
+     */
+    @Query("SELECT c.id AS clientId, c.firstName AS firstName, c.lastName AS lastName, " +
+           "cn.callDate AS callDate, cn.followUpDate AS followUpDate " +
+           "FROM CallNote cn JOIN cn.client c " +
+           "WHERE c.agent = :agent AND cn.outcome = :outcome AND cn.callDate < :before " +
+           "AND cn.callDate = (SELECT MAX(latest.callDate) FROM CallNote latest WHERE latest.client = c)")
+    List<ClientContact> findLatestContactsByOutcomeBefore(
+        @Param("agent") Agent agent,
+        @Param("outcome") CallNote.CallOutcome outcome,
+        @Param("before") LocalDateTime before
+    );
+
+    /**
+     * Number of clients per call outcome.
+     */
+    interface OutcomeCount {
+        CallNote.CallOutcome getOutcome();
+        long getClients();
+    }
+
+    /**
+     * Clients grouped by the outcome of their latest call with an outcome, over an agent's calls.
+     * Numbers the agent's calls per client newest first in one pass; each client counts exactly
+     * once, calls on the same date are ordered by ID.
+     */
+    @Query("SELECT latest.outcome AS outcome, COUNT(*) AS clients FROM (" +
+           "SELECT cn.outcome AS outcome, ROW_NUMBER() OVER (PARTITION BY cn.client.id " +
+           "ORDER BY cn.callDate DESC, cn.id DESC) AS rn " +
+           "FROM CallNote cn WHERE cn.agent = :agent AND cn.outcome IS NOT NULL) latest " +
+           "WHERE latest.rn = 1 " +
+           "GROUP BY latest.outcome")
+    List<OutcomeCount> countClientsByLatestOutcome(@Param("agent") Agent agent);
+
+    /**
+     * Same as {@link #countClientsByLatestOutcome} without window functions, through a correlated
+     * MAX subquery. A client whose latest calls share their call date counts for each of their outcomes.
+     */
+    @Query("SELECT cn.outcome AS outcome, COUNT(DISTINCT cn.client.id) AS clients FROM CallNote cn " +
+           "WHERE cn.agent = :agent AND cn.outcome IS NOT NULL " +
+           "AND cn.callDate = (SELECT MAX(latest.callDate) FROM CallNote latest " +
+           "WHERE latest.client = cn.client AND latest.agent = :agent AND latest.outcome IS NOT NULL) " +
+           "GROUP BY cn.outcome")
+    List<OutcomeCount> countClientsByLatestOutcomePortable(@Param("agent") Agent agent);
+
+    /**
+     * Call date and outcome of an agent's calls since a date, for recomputing the daily
+     * activity rollup. Returns Object[] pairs: [callDate (LocalDateTime), outcome (CallOutcome)]
+     */
+    @Query("SELECT cn.callDate, cn.outcome FROM CallNote cn WHERE cn.agent = :agent AND cn.callDate >= :since")
+    List<Object[]> findCallActivityByAgentSince(@Param("agent") Agent agent, @Param("since") LocalDateTime since);
+
+    /**
+     * Call date and outcome of all calls with a client, as pairs like
+     * {@link #findCallActivityByAgentSince}; read before the client's notes cascade away.
+     */
+    @Query("SELECT cn.callDate, cn.outcome FROM CallNote cn WHERE cn.client = :client")
+    List<Object[]> findCallActivityByClient(@Param("client") Client client);
+
     /**
      * Count total call notes for a specific client
      */
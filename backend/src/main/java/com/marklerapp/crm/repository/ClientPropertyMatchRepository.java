@@ -0,0 +1,52 @@
+package com.marklerapp.crm.repository;
+
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.ClientPropertyMatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ClientPropertyMatchRepository extends JpaRepository<ClientPropertyMatch, UUID> {
+
+    /**
+     * All persisted matches of one property, with their clients, for rescoring after a change.
+     */
+    @Query("SELECT m FROM ClientPropertyMatch m JOIN FETCH m.client WHERE m.property.id = :propertyId")
+    List<ClientPropertyMatch> findByPropertyId(@Param("propertyId") UUID propertyId);
+
+    long countByAgentAndCreatedAtAfter(Agent agent, LocalDateTime since);
+
+    /**
+     * Client and property of a match with its score, read without loading either entity.
+     */
+    interface NewMatch {
+        UUID getClientId();
+        String getClientFirstName();
+        String getClientLastName();
+        UUID getPropertyId();
+        String getPropertyTitle();
+        Integer getMatchScore();
+        LocalDateTime getCreatedAt();
+
+        default String getClientFullName() {
+            return getClientFirstName() + " " + getClientLastName();
+        }
+    }
+
+    /**
+     * Matches first recorded after {@code since}, best score first.
+     */
+    @Query("SELECT c.id AS clientId, c.firstName AS clientFirstName, c.lastName AS clientLastName, " +
+           "p.id AS propertyId, p.title AS propertyTitle, m.matchScore AS matchScore, m.createdAt AS createdAt " +
+           "FROM ClientPropertyMatch m JOIN m.client c JOIN m.property p " +
+           "WHERE m.agent = :agent AND m.createdAt > :since ORDER BY m.matchScore DESC, m.createdAt DESC")
+    List<NewMatch> findNewMatches(@Param("agent") Agent agent, @Param("since") LocalDateTime since,
+                                  Pageable pageable);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,6 +21,16 @@ import java.util.UUID;
 @Repository
 public interface ClientRepository extends JpaRepository<Client, UUID> {
 
+    /**
+     * An active client and its last call date (null if never contacted), with the key the
+     * contact-gap pages are ordered and continued by.
+     */
+    interface ContactGap {
+        UUID getClientId();
+        LocalDateTime getLastContactDate();
+        LocalDateTime getSortKey();
+    }
+
     /**
      * Find clients by agent
      * Uses JOIN FETCH to prevent N+1 query problem
@@ -91,6 +102,12 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
     @Query("SELECT c FROM Client c LEFT JOIN FETCH c.searchCriteria WHERE c.agent = :agent")
     List<Client> findByAgentWithSearchCriteria(@Param("agent") Agent agent);
 
+    /**
+     * Find clients by ID with their search criteria
+     */
+    @Query("SELECT c FROM Client c LEFT JOIN FETCH c.searchCriteria WHERE c.id IN :ids")
+    List<Client> findWithSearchCriteriaByIdIn(@Param("ids") Collection<UUID> ids);
+
     /**
      * Check if client exists by email within agent's clients
      */
@@ -108,6 +125,12 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
     List<Client> findRecentClientsByAgent(@Param("agent") Agent agent,
                                          @Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
 
+    /**
+     * Creation times of an agent's clients created since a date, for recomputing the daily activity rollup
+     */
+    @Query("SELECT c.createdAt FROM Client c WHERE c.agent = :agent AND c.createdAt >= :since")
+    List<LocalDateTime> findCreatedAtByAgentSince(@Param("agent") Agent agent, @Param("since") LocalDateTime since);
+
     /**
      * Find active clients (non-CLOSED) grouped by pipeline stage for Kanban view
      */
@@ -118,12 +141,29 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
     List<Client> findActiveClientsByAgent(@Param("agent") Agent agent);
 
     /**
-     * Find clients without recent update (proxy for no-contact — replaced by lastContactDate in service)
+     * One keyset page of an agent's active clients without a call note since {@code cutoff},
+     * never-contacted clients first, then oldest last contact first.
+     *
+     * <p>Each client is left-joined to its call notes and grouped in one pass; the
+     * {@code call_notes(client_id, call_date)} index covers the join and the MAX, so call notes
+     * are read from the index only. The page continues strictly after
+     * {@code (afterKey, afterId)}, where the key is the last call date or {@code never}.</p>
      */
-    @Query("SELECT c FROM Client c WHERE c.agent = :agent " +
-           "AND c.pipelineStage NOT IN ('WON', 'LOST') " +
-           "ORDER BY c.updatedAt ASC")
-    List<Client> findActiveClientsOrderedByUpdatedAt(@Param("agent") Agent agent);
+    @Query("SELECT c.id AS clientId, MAX(cn.callDate) AS lastContactDate, " +
+           "COALESCE(MAX(cn.callDate), :never) AS sortKey " +
+           "FROM Client c LEFT JOIN CallNote cn ON cn.client = c " +
+           "WHERE c.agent = :agent AND c.pipelineStage NOT IN ('WON', 'LOST') " +
+           "GROUP BY c.id " +
+           "HAVING COALESCE(MAX(cn.callDate), :never) < :cutoff " +
+           "AND (COALESCE(MAX(cn.callDate), :never) > :afterKey " +
+           "OR (COALESCE(MAX(cn.callDate), :never) = :afterKey AND c.id > :afterId)) " +
+           "ORDER BY sortKey, c.id")
+    List<ContactGap> findContactGapsAfter(@Param("agent") Agent agent,
+                                          @Param("cutoff") LocalDateTime cutoff,
+                                          @Param("never") LocalDateTime never,
+                                          @Param("afterKey") LocalDateTime afterKey,
+                                          @Param("afterId") UUID afterId,
+                                          Pageable pageable);
 
     /**
      * Find clients by postal code pattern
@@ -1,6 +1,7 @@
 package com.marklerapp.crm.repository;
 
 import com.marklerapp.crm.entity.*;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -116,4 +117,22 @@ public interface FileAttachmentRepository extends JpaRepository<FileAttachment,
      */
     @Query("SELECT COALESCE(SUM(f.fileSize), 0) FROM FileAttachment f WHERE f.client = :client")
     long calculateTotalFileSizeByClient(@Param("client") Client client);
+
+    /**
+     * Attachments still holding Base64 file data, after {@code afterId} in id order (blob migration).
+     *
+     * @param afterId id the page starts after
+     * @param pageable page size
+     * @return attachments with Base64 file data
+     */
+    @Query("SELECT f FROM FileAttachment f WHERE f.fileData IS NOT NULL AND f.id > :afterId ORDER BY f.id")
+    List<FileAttachment> findWithBase64PayloadAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    /**
+     * Every blob key an attachment references (blob garbage collection).
+     *
+     * @return distinct blob keys
+     */
+    @Query("SELECT DISTINCT f.blobKey FROM FileAttachment f WHERE f.blobKey IS NOT NULL")
+    List<String> findReferencedBlobKeys();
 }
@@ -1,13 +1,17 @@
 package com.marklerapp.crm.repository;
 
+import com.marklerapp.crm.entity.ImageProcessingStatus;
 import com.marklerapp.crm.entity.Property;
 import com.marklerapp.crm.entity.PropertyImage;
 import com.marklerapp.crm.entity.PropertyImageType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -118,4 +122,46 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, UU
      */
     @Query("SELECT pi.imageType, COUNT(pi) FROM PropertyImage pi WHERE pi.property = :property GROUP BY pi.imageType")
     List<Object[]> getImageStatsByType(@Param("property") Property property);
-}
\ No newline at end of file
+
+    /**
+     * Images still holding a Base64 payload, after {@code afterId} in id order (blob migration)
+     */
+    @Query("SELECT pi FROM PropertyImage pi " +
+           "WHERE (pi.imageData IS NOT NULL OR pi.thumbnailData IS NOT NULL) AND pi.id > :afterId " +
+           "ORDER BY pi.id")
+    List<PropertyImage> findWithBase64PayloadAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    /**
+     * Every blob key an image or thumbnail references (blob garbage collection)
+     */
+    @Query("SELECT pi.imageBlobKey FROM PropertyImage pi WHERE pi.imageBlobKey IS NOT NULL " +
+           "UNION SELECT pi.thumbnailBlobKey FROM PropertyImage pi WHERE pi.thumbnailBlobKey IS NOT NULL")
+    List<String> findReferencedBlobKeys();
+
+    /**
+     * Move an image from one processing status to another if it is still in the first; the
+     * returned count (0 or 1) tells whether this caller made the transition (image processing)
+     */
+    @Modifying
+    @Query("UPDATE PropertyImage pi SET pi.processingStatus = :to WHERE pi.id = :id AND pi.processingStatus = :from")
+    int transitionProcessingStatus(@Param("id") UUID id,
+                                   @Param("from") ImageProcessingStatus from,
+                                   @Param("to") ImageProcessingStatus to);
+
+    /**
+     * Move every image in one processing status to another (image processing)
+     */
+    @Modifying
+    @Query("UPDATE PropertyImage pi SET pi.processingStatus = :to WHERE pi.processingStatus = :from")
+    int transitionAllProcessingStatus(@Param("from") ImageProcessingStatus from,
+                                      @Param("to") ImageProcessingStatus to);
+
+    /**
+     * Ids of images in a processing status uploaded before a time, oldest first (image processing)
+     */
+    @Query("SELECT pi.id FROM PropertyImage pi WHERE pi.processingStatus = :status AND pi.createdAt < :before " +
+           "ORDER BY pi.createdAt")
+    List<UUID> findIdsByProcessingStatusCreatedBefore(@Param("status") ImageProcessingStatus status,
+                                                     @Param("before") LocalDateTime before,
+                                                     Pageable pageable);
+}
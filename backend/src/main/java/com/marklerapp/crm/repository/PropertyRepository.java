@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -46,6 +47,14 @@ public interface PropertyRepository extends JpaRepository<Property, UUID> {
            "WHERE p.agent.id = :agentId")
     Page<Property> findByAgentId(@Param("agentId") UUID agentId, Pageable pageable);
 
+    /**
+     * Find properties by ID with the agent fetched, for hydrating a known set of results
+     */
+    @Query("SELECT p FROM Property p " +
+           "LEFT JOIN FETCH p.agent " +
+           "WHERE p.id IN :ids")
+    List<Property> findByIdIn(@Param("ids") Collection<UUID> ids);
+
     /**
      * Find properties by agent and status
      */
@@ -218,6 +227,12 @@ public interface PropertyRepository extends JpaRepository<Property, UUID> {
     List<Property> findRecentPropertiesByAgent(@Param("agent") Agent agent,
                                               @Param("since") LocalDateTime since);
 
+    /**
+     * Creation times of an agent's properties created since a date, for recomputing the daily activity rollup
+     */
+    @Query("SELECT p.createdAt FROM Property p WHERE p.agent = :agent AND p.createdAt >= :since")
+    List<LocalDateTime> findCreatedAtByAgentSince(@Param("agent") Agent agent, @Param("since") LocalDateTime since);
+
     /**
      * Find properties available from a specific date
      */
@@ -299,4 +314,99 @@ public interface PropertyRepository extends JpaRepository<Property, UUID> {
            "WHERE p.agent = :agent " +
            "ORDER BY p.createdAt DESC")
     List<Property> findByAgentOrderByCreatedAtDesc(@Param("agent") Agent agent);
-}
\ No newline at end of file
+
+    // Dashboard analytics: aggregates and column projections only, so no Property entity
+    // (and none of its image or exposé payloads) is loaded to compute a figure
+
+    /**
+     * Number of properties, total price and total commission for one status and type.
+     */
+    interface PortfolioGroup {
+        PropertyStatus getStatus();
+        PropertyType getPropertyType();
+        long getTotal();
+        BigDecimal getTotalPrice();
+        BigDecimal getTotalCommission();
+    }
+
+    /**
+     * An agent's properties grouped by status and type
+     */
+    @Query("SELECT p.status AS status, p.propertyType AS propertyType, COUNT(p) AS total, " +
+           "SUM(p.price) AS totalPrice, SUM(p.commission) AS totalCommission " +
+           "FROM Property p WHERE p.agent = :agent " +
+           "GROUP BY p.status, p.propertyType")
+    List<PortfolioGroup> findPortfolioGroupsByAgent(@Param("agent") Agent agent);
+
+    /**
+     * A property as shown in the dashboard's longest-on-market list.
+     */
+    interface OnMarket {
+        UUID getId();
+        String getTitle();
+        String getAddressCity();
+        BigDecimal getPrice();
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * An agent's properties in a status, longest listed first
+     */
+    @Query("SELECT p.id AS id, p.title AS title, p.addressCity AS addressCity, p.price AS price, " +
+           "p.createdAt AS createdAt FROM Property p " +
+           "WHERE p.agent = :agent AND p.status = :status " +
+           "ORDER BY p.createdAt ASC")
+    List<OnMarket> findLongestOnMarket(@Param("agent") Agent agent,
+                                       @Param("status") PropertyStatus status,
+                                       Pageable pageable);
+
+    /**
+     * Creation times of an agent's properties in a status
+     */
+    @Query("SELECT p.createdAt FROM Property p WHERE p.agent = :agent AND p.status = :status")
+    List<LocalDateTime> findCreatedAtByAgentAndStatus(@Param("agent") Agent agent,
+                                                      @Param("status") PropertyStatus status);
+
+    /**
+     * Count an agent's properties with at least one image
+     */
+    @Query("SELECT COUNT(p) FROM Property p WHERE p.agent = :agent " +
+           "AND EXISTS (SELECT i.id FROM PropertyImage i WHERE i.property = p)")
+    long countWithImagesByAgent(@Param("agent") Agent agent);
+
+    /**
+     * Count an agent's properties with an uploaded exposé
+     */
+    @Query("SELECT COUNT(p) FROM Property p WHERE p.agent = :agent " +
+           "AND p.exposeFileName IS NOT NULL AND p.exposeFileName <> ''")
+    long countWithExposeByAgent(@Param("agent") Agent agent);
+
+    /**
+     * Every blob key an exposé references (blob garbage collection)
+     */
+    @Query("SELECT DISTINCT p.exposeBlobKey FROM Property p WHERE p.exposeBlobKey IS NOT NULL")
+    List<String> findReferencedExposeBlobKeys();
+
+    /**
+     * Total commission of an agent's properties in the given statuses; null if there is none
+     */
+    @Query("SELECT SUM(p.commission) FROM Property p WHERE p.agent = :agent AND p.status IN :statuses")
+    BigDecimal sumCommissionByAgentAndStatusIn(@Param("agent") Agent agent,
+                                               @Param("statuses") Collection<PropertyStatus> statuses);
+
+    /**
+     * Total commission of an agent's properties in the given statuses that were last updated
+     * on or after a date; null if there is none
+     */
+    @Query("SELECT SUM(p.commission) FROM Property p WHERE p.agent = :agent AND p.status IN :statuses " +
+           "AND p.updatedAt >= :since")
+    BigDecimal sumCommissionByAgentAndStatusInUpdatedSince(@Param("agent") Agent agent,
+                                                           @Param("statuses") Collection<PropertyStatus> statuses,
+                                                           @Param("since") LocalDateTime since);
+
+    /**
+     * Count an agent's properties in the given statuses that were last updated on or after a date
+     */
+    long countByAgentAndStatusInAndUpdatedAtGreaterThanEqual(Agent agent, Collection<PropertyStatus> statuses,
+                                                             LocalDateTime since);
+}
@@ -48,4 +48,6 @@ public interface ViewingRepository extends JpaRepository<Viewing, UUID> {
     List<Viewing> findByProperty_Id(UUID propertyId);
 
     List<Viewing> findByClient_Id(UUID clientId);
+
+    List<Viewing> findByAgent_Id(UUID agentId);
 }
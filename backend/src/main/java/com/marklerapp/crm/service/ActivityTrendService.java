@@ -0,0 +1,111 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.marklerapp.crm.constants.ValidationConstants;
+import com.marklerapp.crm.dto.ActivityTrendDto;
+import com.marklerapp.crm.dto.ActivityTrendDto.BucketDto;
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity.Bucket;
+import com.marklerapp.crm.entity.AgentDailyActivity.Counter;
+import com.marklerapp.crm.repository.AgentDailyActivityRepository.ActivityBucket;
+import com.marklerapp.crm.repository.AgentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Activity trends over arbitrary windows with day, week or month buckets.
+ *
+ * <p>Buckets are summed in the database from the daily activity rollup (see
+ * {@link DailyActivityRollupService}), so the cost of a trend depends on the days in its
+ * window, never on the agent's call notes, clients or properties: a year in monthly buckets
+ * reads at most 366 rollup rows and returns 12.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityTrendService {
+
+    private final AgentRepository agentRepository;
+    private final DailyActivityRollupService dailyActivityRollupService;
+
+    /**
+     * Sum an agent's activity per bucket.
+     *
+     * @param agentId the agent's UUID
+     * @param bucket bucket size
+     * @param from first day of the window, or null for the dashboard's default window
+     * @param to last day of the window (inclusive), or null for today
+     * @param metrics counters to return, or null/empty for all of them
+     * @return one entry per bucket, including empty ones
+     * @throws IllegalArgumentException if the window is empty, starts before the rollup history
+     *                                  or has too many buckets
+     */
+    @Transactional(readOnly = true)
+    public ActivityTrendDto getActivityTrend(UUID agentId, Bucket bucket, LocalDate from, LocalDate to,
+                                             Set<Counter> metrics) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = to != null ? to : today;
+        LocalDate start = bucket.start(from != null ? from : end.minusDays(ValidationConstants.ACTIVITY_TRENDS_DAYS - 1L));
+        Set<Counter> selected = metrics == null || metrics.isEmpty() ? EnumSet.allOf(Counter.class) : EnumSet.copyOf(metrics);
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Activity trend window must not end before it starts");
+        }
+        LocalDate historyStart = dailyActivityRollupService.historyStart(today);
+        if (start.isBefore(historyStart)) {
+            throw new IllegalArgumentException("Activity trends are available from " + historyStart + " on");
+        }
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        for (LocalDate bucketStart = start; !bucketStart.isAfter(end); bucketStart = bucket.next(bucketStart)) {
+            if (bucketStarts.size() == ValidationConstants.MAX_ACTIVITY_TREND_BUCKETS) {
+                throw new IllegalArgumentException("Activity trend must not have more than "
+                        + ValidationConstants.MAX_ACTIVITY_TREND_BUCKETS + " buckets; use a larger bucket");
+            }
+            bucketStarts.add(bucketStart);
+        }
+
+        Agent agent = agentRepository.findById(agentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent not found: " + agentId));
+
+        Map<LocalDate, ActivityBucket> sums = new HashMap<>();
+        for (ActivityBucket sum : dailyActivityRollupService.findBuckets(agent, bucket, start, end)) {
+            sums.put(sum.getBucketStart(), sum);
+        }
+
+        Map<Counter, Long> totals = new EnumMap<>(Counter.class);
+        selected.forEach(counter -> totals.put(counter, 0L));
+        List<BucketDto> buckets = new ArrayList<>(bucketStarts.size());
+        for (LocalDate bucketStart : bucketStarts) {
+            ActivityBucket sum = sums.get(bucketStart);
+            Map<Counter, Long> values = new EnumMap<>(Counter.class);
+            for (Counter counter : selected) {
+                long value = sum != null ? sum.get(counter) : 0L;
+                values.put(counter, value);
+                totals.merge(counter, value, Long::sum);
+            }
+            buckets.add(BucketDto.builder().start(bucketStart).values(values).build());
+        }
+
+        log.debug("Activity trend for agent {}: {} {} buckets from {} to {}", agentId, buckets.size(), bucket, start, end);
+        return ActivityTrendDto.builder()
+                .bucket(bucket)
+                .from(start)
+                .to(end)
+                .metrics(List.copyOf(selected))
+                .buckets(buckets)
+                .totals(totals)
+                .build();
+    }
+}
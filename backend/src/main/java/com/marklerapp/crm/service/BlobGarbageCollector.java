@@ -0,0 +1,72 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.repository.FileAttachmentRepository;
+import com.marklerapp.crm.repository.PropertyImageRepository;
+import com.marklerapp.crm.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Removes blobs no image, attachment or exposé references any more.
+ *
+ * <p>Blobs are shared between rows with identical content, so deleting a row leaves its blob
+ * behind; this sweep collects them. Only blobs last written before the grace period
+ * ({@code app.file-storage.blob-store.orphan-grace-period}) are candidates: a blob stored for a
+ * transaction that has not committed yet, or stored again for a new row, is always younger.
+ * Abandoned temp files of interrupted writes go the same way.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BlobGarbageCollector {
+
+    private final BlobStore blobStore;
+    private final PropertyImageRepository propertyImageRepository;
+    private final FileAttachmentRepository fileAttachmentRepository;
+    private final PropertyRepository propertyRepository;
+    private final FileStorageProperties fileStorageProperties;
+
+    /**
+     * Delete unreferenced blobs older than the grace period.
+     *
+     * @return the number of blobs deleted
+     */
+    @Scheduled(cron = "${app.file-storage.blob-store.orphan-sweep-cron:0 45 * * * *}")
+    public int sweep() {
+        long cutoff = System.currentTimeMillis() - fileStorageProperties.getBlobStore().getOrphanGracePeriod().toMillis();
+        try {
+            // Read the candidates before the references, so a blob referenced in between is kept
+            Set<String> candidates = new HashSet<>();
+            try (Stream<String> keys = blobStore.keysOlderThan(cutoff)) {
+                keys.forEach(candidates::add);
+            }
+            candidates.removeAll(propertyImageRepository.findReferencedBlobKeys());
+            candidates.removeAll(fileAttachmentRepository.findReferencedBlobKeys());
+            candidates.removeAll(propertyRepository.findReferencedExposeBlobKeys());
+
+            int deleted = 0;
+            for (String key : candidates) {
+                // Skips blobs stored again for a new row since they were listed
+                if (blobStore.deleteIfOlderThan(key, cutoff)) {
+                    deleted++;
+                }
+            }
+            int purged = blobStore.purgeIncompleteWrites(cutoff);
+            if (deleted > 0 || purged > 0) {
+                log.info("Blob sweep deleted {} unreferenced blob(s) and {} incomplete write(s)", deleted, purged);
+            }
+            return deleted;
+        } catch (IOException e) {
+            log.warn("Blob sweep failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
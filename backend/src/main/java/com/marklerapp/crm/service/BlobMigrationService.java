@@ -0,0 +1,144 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.entity.FileAttachment;
+import com.marklerapp.crm.entity.PropertyImage;
+import com.marklerapp.crm.repository.FileAttachmentRepository;
+import com.marklerapp.crm.repository.PropertyImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background migration of Base64 payloads out of {@code property_images} and
+ * {@code file_attachments} into the {@link BlobStore}.
+ *
+ * <p>Each run moves one small batch of images and one of attachments, each in its own
+ * transaction: the decoded content is stored, the row gets the blob key and its Base64
+ * column is cleared. Batches walk the rows in id order, so a row that cannot be migrated
+ * (malformed Base64) is skipped instead of blocking the rest. Once a full pass over the
+ * remaining rows migrates nothing, the migration stops until the next start.</p>
+ *
+ * <p>If a batch's transaction fails after its blobs were stored, the blobs are orphans and
+ * {@link BlobGarbageCollector} removes them. Freed table space is reclaimed by the database's
+ * own vacuuming.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BlobMigrationService {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final PropertyImageRepository propertyImageRepository;
+    private final FileAttachmentRepository fileAttachmentRepository;
+    private final BlobStore blobStore;
+    private final FileStorageProperties fileStorageProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    // Only touched by the scheduler thread
+    private UUID imageCursor = FIRST_ID;
+    private UUID attachmentCursor = FIRST_ID;
+    private int migratedThisPass;
+    private boolean finished;
+
+    /**
+     * Migrate the next batch of images and attachments.
+     */
+    @Scheduled(initialDelayString = "${app.file-storage.blob-store.migration-initial-delay-ms:60000}",
+               fixedDelayString = "${app.file-storage.blob-store.migration-interval-ms:10000}")
+    public void migrateNextBatch() {
+        if (finished) {
+            return;
+        }
+        int batchSize = fileStorageProperties.getBlobStore().getMigrationBatchSize();
+        Batch images = transactionTemplate.execute(status -> migrateImages(batchSize));
+        Batch attachments = transactionTemplate.execute(status -> migrateAttachments(batchSize));
+
+        imageCursor = images.next();
+        attachmentCursor = attachments.next();
+        migratedThisPass += images.migrated() + attachments.migrated();
+        if (images.migrated() + attachments.migrated() > 0) {
+            log.info("Moved {} image(s) and {} attachment(s) from Base64 columns into the blob store",
+                    images.migrated(), attachments.migrated());
+        }
+
+        if (imageCursor == null && attachmentCursor == null) {
+            if (migratedThisPass == 0) {
+                finished = true;
+                log.info("Blob migration finished; rows reported as not movable keep their Base64 payload");
+            }
+            imageCursor = FIRST_ID;
+            attachmentCursor = FIRST_ID;
+            migratedThisPass = 0;
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    private Batch migrateImages(int batchSize) {
+        if (imageCursor == null) {
+            return Batch.DONE;
+        }
+        List<PropertyImage> images = propertyImageRepository.findWithBase64PayloadAfter(
+                imageCursor, PageRequest.of(0, batchSize));
+        int migrated = 0;
+        for (PropertyImage image : images) {
+            try {
+                String imageKey = store(image.getImageData());
+                String thumbnailKey = store(image.getThumbnailData());
+                if (imageKey != null) {
+                    image.setImageBlobKey(imageKey);
+                    image.setImageData(null);
+                }
+                if (thumbnailKey != null) {
+                    image.setThumbnailBlobKey(thumbnailKey);
+                    image.setThumbnailData(null);
+                }
+                migrated++;
+            } catch (IllegalArgumentException | IOException e) {
+                log.warn("Could not move image {} into the blob store: {}", image.getId(), e.getMessage());
+            }
+        }
+        return new Batch(migrated, images.size() < batchSize ? null : images.get(images.size() - 1).getId());
+    }
+
+    private Batch migrateAttachments(int batchSize) {
+        if (attachmentCursor == null) {
+            return Batch.DONE;
+        }
+        List<FileAttachment> attachments = fileAttachmentRepository.findWithBase64PayloadAfter(
+                attachmentCursor, PageRequest.of(0, batchSize));
+        int migrated = 0;
+        for (FileAttachment attachment : attachments) {
+            try {
+                attachment.setBlobKey(store(attachment.getFileData()));
+                attachment.setFileData(null);
+                migrated++;
+            } catch (IllegalArgumentException | IOException e) {
+                log.warn("Could not move attachment {} into the blob store: {}", attachment.getId(), e.getMessage());
+            }
+        }
+        return new Batch(migrated, attachments.size() < batchSize ? null : attachments.get(attachments.size() - 1).getId());
+    }
+
+    private String store(String base64) throws IOException {
+        return base64 == null ? null : blobStore.putBase64(base64).key();
+    }
+
+    /**
+     * Rows migrated by one batch and the id the next batch starts after (null at the end of a pass).
+     */
+    private record Batch(int migrated, UUID next) {
+        static final Batch DONE = new Batch(0, null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.marklerapp.crm.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, content-addressed storage for image and attachment payloads.
+ *
+ * <p>A blob's key is derived from its content, so storing the same bytes twice yields the
+ * same key and one stored copy. Rows reference blobs by key; several rows may share one.
+ * Deleting a row therefore never deletes its blob directly: blobs no row references any more
+ * are removed by {@link BlobGarbageCollector}.</p>
+ *
+ * @see LocalBlobStore
+ */
+public interface BlobStore {
+
+    /**
+     * Store content, reading the stream to its end. The stream is not closed.
+     *
+     * @return the key and size of the stored content
+     */
+    StoredBlob put(InputStream content) throws IOException;
+
+    /**
+     * Store in-memory content.
+     *
+     * @return the key and size of the stored content
+     */
+    default StoredBlob put(byte[] content) throws IOException {
+        return put(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Store Base64-encoded content, as carried by legacy rows and the JSON exposé upload.
+     *
+     * @return the key and size of the stored content
+     * @throws IllegalArgumentException if the content is not valid Base64
+     */
+    default StoredBlob putBase64(String base64) throws IOException {
+        return put(Base64.getDecoder().decode(base64));
+    }
+
+    /**
+     * Open a stored blob for reading.
+     *
+     * @throws java.io.FileNotFoundException if no blob has this key
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * A stored blob as a {@link Resource} of known length, so a download (or a byte range of
+     * it) can be streamed into the response without loading the blob into memory.
+     *
+     * @throws java.io.FileNotFoundException if no blob has this key
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    Resource resource(String key) throws IOException;
+
+    /**
+     * Whether a blob with this key is stored.
+     */
+    boolean exists(String key);
+
+    /**
+     * Remove a blob unless it was written (or stored again) since {@code olderThanMillis}, an
+     * epoch timestamp. Only {@link BlobGarbageCollector} calls this, once no row references it.
+     *
+     * @return whether the blob was removed
+     */
+    boolean deleteIfOlderThan(String key, long olderThanMillis) throws IOException;
+
+    /**
+     * Keys of the blobs last written (or stored again) before {@code olderThanMillis}, an
+     * epoch timestamp. The stream must be closed.
+     */
+    Stream<String> keysOlderThan(long olderThanMillis) throws IOException;
+
+    /**
+     * Remove leftovers of writes that never completed, started before {@code olderThanMillis}.
+     *
+     * @return the number of leftovers removed
+     */
+    int purgeIncompleteWrites(long olderThanMillis) throws IOException;
+
+    /**
+     * Inline {@code data:} URL of a blob, only for the deprecated JSON download of attachments;
+     * everything else links a streaming endpoint instead.
+     */
+    default String toDataUrl(String key, String contentType) throws IOException {
+        try (InputStream in = open(key)) {
+            return "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(in.readAllBytes());
+        }
+    }
+
+    /**
+     * Key and size of a stored blob.
+     */
+    record StoredBlob(String key, long size) {
+    }
+}
@@ -8,6 +8,9 @@ import com.marklerapp.crm.entity.Agent;
 import com.marklerapp.crm.entity.Property;
 import com.marklerapp.crm.entity.PropertyType;
 import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.event.CallNoteChangedEvent;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.DailyActivityChangedEvent;
 import com.marklerapp.crm.mapper.CallNoteMapper;
 import com.marklerapp.crm.repository.CallNoteRepository;
 import com.marklerapp.crm.repository.ClientRepository;
@@ -15,6 +18,7 @@ import com.marklerapp.crm.repository.AgentRepository;
 import com.marklerapp.crm.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -42,6 +47,7 @@ public class CallNoteService {
     private final PropertyRepository propertyRepository;
     private final CallNoteMapper callNoteMapper;
     private final OwnershipValidator ownershipValidator;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new call note for a client
@@ -93,6 +99,10 @@ public class CallNoteService {
             .build();
 
         CallNote savedCallNote = callNoteRepository.save(callNote);
+        eventPublisher.publishEvent(DailyActivityChangedEvent.forAgent(agentId)
+            .callNote(savedCallNote.getCallDate(), savedCallNote.getOutcome(), 1)
+            .build());
+        eventPublisher.publishEvent(new CallNoteChangedEvent(agentId, savedCallNote.getId(), ChangeType.CREATED));
         log.info("Successfully created call note with id: {}", savedCallNote.getId());
 
         return callNoteMapper.toResponse(savedCallNote);
@@ -131,6 +141,10 @@ public class CallNoteService {
             existingCallNote.setProperty(null);
         }
 
+        // Remembered to move the call between days/outcomes in the daily activity rollup
+        LocalDateTime previousCallDate = existingCallNote.getCallDate();
+        CallNote.CallOutcome previousOutcome = existingCallNote.getOutcome();
+
         existingCallNote.setCallDate(request.getCallDate());
         existingCallNote.setDurationMinutes(request.getDurationMinutes());
         existingCallNote.setCallType(request.getCallType());
@@ -142,6 +156,14 @@ public class CallNoteService {
         existingCallNote.setOutcome(request.getOutcome());
 
         CallNote updatedCallNote = callNoteRepository.save(existingCallNote);
+        if (!Objects.equals(previousCallDate, updatedCallNote.getCallDate())
+                || previousOutcome != updatedCallNote.getOutcome()) {
+            eventPublisher.publishEvent(DailyActivityChangedEvent.forAgent(agentId)
+                .callNote(previousCallDate, previousOutcome, -1)
+                .callNote(updatedCallNote.getCallDate(), updatedCallNote.getOutcome(), 1)
+                .build());
+        }
+        eventPublisher.publishEvent(new CallNoteChangedEvent(agentId, updatedCallNote.getId(), ChangeType.UPDATED));
         log.info("Successfully updated call note with id: {}", updatedCallNote.getId());
 
         return callNoteMapper.toResponse(updatedCallNote);
@@ -183,6 +205,10 @@ public class CallNoteService {
         }
 
         callNoteRepository.delete(callNote);
+        eventPublisher.publishEvent(DailyActivityChangedEvent.forAgent(agentId)
+            .callNote(callNote.getCallDate(), callNote.getOutcome(), -1)
+            .build());
+        eventPublisher.publishEvent(new CallNoteChangedEvent(agentId, callNoteId, ChangeType.DELETED));
         log.info("Successfully deleted call note with id: {}", callNoteId);
     }
 
@@ -243,12 +269,7 @@ public class CallNoteService {
         Agent agent = agentRepository.findById(agentId)
             .orElseThrow(() -> new ResourceNotFoundException("Agent not found with id: " + agentId));
 
-        List<CallNote> followUpCallNotes = callNoteRepository.findCallNotesRequiringFollowUp()
-            .stream()
-            .filter(cn -> cn.getAgent().getId().equals(agentId))
-            .collect(Collectors.toList());
-
-        return followUpCallNotes.stream()
+        return callNoteRepository.findFollowUpsByAgent(agent).stream()
             .map(callNoteMapper::toFollowUpReminder)
             .collect(Collectors.toList());
     }
@@ -258,12 +279,10 @@ public class CallNoteService {
      */
     @Transactional(readOnly = true)
     public List<CallNoteDto.FollowUpReminder> getOverdueFollowUps(UUID agentId) {
-        List<CallNote> overdueCallNotes = callNoteRepository.findOverdueFollowUps(LocalDate.now())
-            .stream()
-            .filter(cn -> cn.getAgent().getId().equals(agentId))
-            .collect(Collectors.toList());
+        Agent agent = agentRepository.findById(agentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Agent not found with id: " + agentId));
 
-        return overdueCallNotes.stream()
+        return callNoteRepository.findOverdueFollowUpsByAgent(agent, LocalDate.now()).stream()
             .map(callNoteMapper::toFollowUpReminder)
             .collect(Collectors.toList());
     }
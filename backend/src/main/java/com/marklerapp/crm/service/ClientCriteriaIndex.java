@@ -0,0 +1,397 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertySearchCriteria;
+import com.marklerapp.crm.entity.PropertyType;
+import com.marklerapp.crm.repository.ClientRepository;
+import com.marklerapp.crm.util.TransactionSyncUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.marklerapp.crm.service.MatchScoringKernel.NONE;
+
+/**
+ * Resident, per-agent inverted index over client search criteria, answering "which of this
+ * agent's clients could a new or repriced property be news for" without rescoring them all.
+ *
+ * <p>Each matchable client (criteria present, pipeline not WON/LOST) gets an ordinal and is
+ * posted under every value it admits, per dimension: listing type, property type, bucketed
+ * purchase budget, cold and warm rent, bucketed living area, and — when restrictToSearchRadius
+ * is set — its pin in a {@link GeoGrid}. A lookup intersects the postings for the property's
+ * values as bit sets and checks only the surviving clients against their exact envelope.</p>
+ *
+ * <p>The envelope is the hard part of a match: within budget (including the 10% flexibility),
+ * within the area range (including the 15% tolerance), one of the listed property types and
+ * inside the search radius. It is stricter than pull matching on purpose — a property over
+ * a client's budget can still clear the score threshold there, but isn't news worth pushing.
+ * Missing property values never exclude a client, mirroring the neutral scores they get.
+ * Survivors are scored with the regular matching weights by the caller.</p>
+ *
+ * <p>Rather than patching postings on every client edit, {@link ClientService} evicts the
+ * agent after any client or criteria change and the next lookup rebuilds it; an agent's
+ * clients number in the hundreds, and edits are rare next to property saves.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientCriteriaIndex {
+
+    private final ClientRepository clientRepository;
+
+    private final Map<UUID, Postings> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Evictions committed so far (any agent); lets a load tell whether an eviction may have
+     * happened while it was reading
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * IDs of the agent's clients whose criteria envelope admits the property, loading the
+     * agent's postings on first access.
+     */
+    public List<UUID> candidatesFor(UUID agentId, Property property) {
+        return postingsFor(agentId).candidatesFor(PropertyMatchIndex.Row.of(property));
+    }
+
+    /**
+     * Drop an agent's postings once the surrounding transaction commits; the next lookup
+     * rebuilds them from the database.
+     */
+    public void evict(UUID agentId) {
+        TransactionSyncUtil.runAfterCommit(() -> {
+            evictions.incrementAndGet();
+            postings.remove(agentId);
+        });
+    }
+
+    /**
+     * Current postings of an agent, loading them on first access.
+     *
+     * <p>The query runs outside the map, as in {@link PropertyMatchIndex#portfolioFor}:
+     * {@code computeIfAbsent} would hold the map bin's lock for its duration, stalling other
+     * agents hashed to the same bin as well as the after-commit eviction. Postings that an
+     * eviction may have missed while they were loading are served to this caller only and
+     * not kept.</p>
+     */
+    private Postings postingsFor(UUID agentId) {
+        Postings cached = postings.get(agentId);
+        if (cached != null) {
+            return cached;
+        }
+        long evictionsBefore = evictions.get();
+        Postings loaded = load(agentId);
+        Postings existing = postings.putIfAbsent(agentId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        // The counter moves before the removal, so an eviction that ran while we were loading
+        // is seen here; one that runs after this check removes what we stored
+        if (evictions.get() != evictionsBefore) {
+            postings.remove(agentId, loaded);
+        }
+        return loaded;
+    }
+
+    private Postings load(UUID agentId) {
+        Agent agent = new Agent();
+        agent.setId(agentId);
+        List<Envelope> envelopes = clientRepository.findByAgentWithSearchCriteria(agent).stream()
+                .filter(client -> client.getSearchCriteria() != null)
+                .filter(client -> client.getPipelineStage() != Client.PipelineStage.WON
+                        && client.getPipelineStage() != Client.PipelineStage.LOST)
+                .map(Envelope::of)
+                .toList();
+        log.debug("Loaded criteria index for agent {} with {} matchable clients", agentId, envelopes.size());
+        return Postings.of(envelopes);
+    }
+
+    // ========================================
+    // Envelope / Postings
+    // ========================================
+
+    /**
+     * The hard constraints of one client's criteria. {@code latitude}/{@code longitude} are
+     * NaN unless the radius gate applies.
+     */
+    record Envelope(UUID clientId, ListingType listingType, MatchScoringKernel.Bounds bounds,
+                    boolean typesConstrained, Set<PropertyType> propertyTypes,
+                    double latitude, double longitude, double radiusKm) {
+
+        static Envelope of(Client client) {
+            PropertySearchCriteria criteria = client.getSearchCriteria();
+
+            String[] typeNames = criteria.getPropertyTypesArray();
+            Set<PropertyType> types = EnumSet.noneOf(PropertyType.class);
+            for (String name : typeNames) {
+                for (PropertyType type : PropertyType.values()) {
+                    if (type.name().equalsIgnoreCase(name.trim())) {
+                        types.add(type);
+                    }
+                }
+            }
+
+            boolean radiusGated = Boolean.TRUE.equals(criteria.getRestrictToSearchRadius())
+                    && criteria.getLatitude() != null && criteria.getLongitude() != null
+                    && criteria.getSearchRadiusKm() != null;
+
+            return new Envelope(client.getId(), PropertyMatchingService.desiredListingTypeFor(client.getClientType()),
+                    MatchScoringKernel.Bounds.of(criteria), typeNames.length > 0, types,
+                    radiusGated ? criteria.getLatitude().doubleValue() : Double.NaN,
+                    radiusGated ? criteria.getLongitude().doubleValue() : Double.NaN,
+                    radiusGated ? criteria.getSearchRadiusKm() : Double.NaN);
+        }
+
+        boolean admits(PropertyMatchIndex.Row property) {
+            if (listingType != null && listingType != property.listingType()) {
+                return false;
+            }
+            if (typesConstrained && property.propertyType() != null
+                    && !propertyTypes.contains(property.propertyType())) {
+                return false;
+            }
+            if (property.price() != NONE) {
+                PriceBasis basis = priceBasis(property.listingType());
+                long value = basis == PriceBasis.WARM_RENT ? property.warmRent() : property.price();
+                if (!withinBudget(value, minPrice(basis), maxPrice(basis))) {
+                    return false;
+                }
+            }
+            if (property.area() != NONE && !withinArea(property.area(), bounds.minArea(), bounds.maxArea())) {
+                return false;
+            }
+            return !isRadiusGated() || Double.isNaN(property.latitude()) || Double.isNaN(property.longitude())
+                    || GeoGrid.withinRadius(latitude, longitude, property.latitude(), property.longitude(), radiusKm);
+        }
+
+        /**
+         * Which criteria range the property's price is judged against, following the same
+         * precedence as {@link MatchScoringKernel#priceScore}: purchase budget for sales; warm
+         * rent, then cold rent, then budget for everything else.
+         */
+        PriceBasis priceBasis(ListingType propertyListingType) {
+            if (propertyListingType == ListingType.SALE) {
+                return PriceBasis.BUDGET;
+            }
+            if (bounds.minWarmRent() != NONE || bounds.maxWarmRent() != NONE) {
+                return PriceBasis.WARM_RENT;
+            }
+            if (bounds.minColdRent() != NONE || bounds.maxColdRent() != NONE) {
+                return PriceBasis.COLD_RENT;
+            }
+            return PriceBasis.BUDGET;
+        }
+
+        long minPrice(PriceBasis basis) {
+            return switch (basis) {
+                case BUDGET -> bounds.minBudget();
+                case COLD_RENT -> bounds.minColdRent();
+                case WARM_RENT -> bounds.minWarmRent();
+            };
+        }
+
+        long maxPrice(PriceBasis basis) {
+            return switch (basis) {
+                case BUDGET -> bounds.maxBudget();
+                case COLD_RENT -> bounds.maxColdRent();
+                case WARM_RENT -> bounds.maxWarmRent();
+            };
+        }
+
+        boolean isRadiusGated() {
+            return !Double.isNaN(latitude);
+        }
+
+        private static boolean withinBudget(long value, long min, long max) {
+            return (min == NONE || value >= min)
+                    && (max == NONE || value * 100 <= max * MatchScoringKernel.BUDGET_FLEXIBILITY_PERCENT);
+        }
+
+        private static boolean withinArea(long value, long min, long max) {
+            return (min == NONE || value >= min)
+                    && (max == NONE || value * 100 <= max * MatchScoringKernel.AREA_TOLERANCE_PERCENT);
+        }
+    }
+
+    enum PriceBasis {
+        BUDGET,
+        COLD_RENT,
+        WARM_RENT
+    }
+
+    /**
+     * Immutable postings of one agent's clients, addressed by ordinal.
+     */
+    static final class Postings {
+
+        private final Envelope[] envelopes;
+        private final BitSet anyListingType = new BitSet();
+        private final Map<ListingType, BitSet> byListingType = new EnumMap<>(ListingType.class);
+        private final Map<PropertyType, BitSet> byPropertyType = new EnumMap<>(PropertyType.class);
+        private final ValueBuckets saleBudget = new ValueBuckets();
+        private final ValueBuckets rentPrice = new ValueBuckets();
+        private final ValueBuckets rentWarm = new ValueBuckets();
+        private final ValueBuckets area = new ValueBuckets();
+        private final GeoGrid pins;
+        private final double maxRadiusKm;
+
+        private Postings(Envelope[] envelopes) {
+            this.envelopes = envelopes;
+            for (ListingType type : ListingType.values()) {
+                byListingType.put(type, new BitSet());
+            }
+            for (PropertyType type : PropertyType.values()) {
+                byPropertyType.put(type, new BitSet());
+            }
+
+            double[] latitude = new double[envelopes.length];
+            double[] longitude = new double[envelopes.length];
+            double maxRadius = 0;
+            for (int i = 0; i < envelopes.length; i++) {
+                Envelope envelope = envelopes[i];
+                MatchScoringKernel.Bounds bounds = envelope.bounds();
+
+                if (envelope.listingType() == null) {
+                    anyListingType.set(i);
+                }
+                for (ListingType type : ListingType.values()) {
+                    if (envelope.listingType() == null || envelope.listingType() == type) {
+                        byListingType.get(type).set(i);
+                    }
+                }
+                for (PropertyType type : PropertyType.values()) {
+                    if (!envelope.typesConstrained() || envelope.propertyTypes().contains(type)) {
+                        byPropertyType.get(type).set(i);
+                    }
+                }
+
+                saleBudget.add(i, bounds.minBudget(),
+                        flexibleMax(bounds.maxBudget(), MatchScoringKernel.BUDGET_FLEXIBILITY_PERCENT));
+                // Rentals are judged on warm rent or on the price column depending on the client,
+                // so each client is open-ended in whichever structure doesn't apply to them
+                PriceBasis rentBasis = envelope.priceBasis(ListingType.RENT);
+                long minRent = envelope.minPrice(rentBasis);
+                long maxRent = flexibleMax(envelope.maxPrice(rentBasis), MatchScoringKernel.BUDGET_FLEXIBILITY_PERCENT);
+                if (rentBasis == PriceBasis.WARM_RENT) {
+                    rentWarm.add(i, minRent, maxRent);
+                    rentPrice.add(i, NONE, NONE);
+                } else {
+                    rentPrice.add(i, minRent, maxRent);
+                    rentWarm.add(i, NONE, NONE);
+                }
+                area.add(i, bounds.minArea(), flexibleMax(bounds.maxArea(), MatchScoringKernel.AREA_TOLERANCE_PERCENT));
+
+                latitude[i] = envelope.latitude();
+                longitude[i] = envelope.longitude();
+                if (envelope.isRadiusGated()) {
+                    maxRadius = Math.max(maxRadius, envelope.radiusKm());
+                }
+            }
+            this.pins = GeoGrid.build(latitude, longitude, envelopes.length);
+            this.maxRadiusKm = maxRadius;
+        }
+
+        static Postings of(List<Envelope> envelopes) {
+            return new Postings(envelopes.toArray(new Envelope[0]));
+        }
+
+        int size() {
+            return envelopes.length;
+        }
+
+        List<UUID> candidatesFor(PropertyMatchIndex.Row property) {
+            BitSet candidates = (BitSet) (property.listingType() != null
+                    ? byListingType.get(property.listingType())
+                    : anyListingType).clone();
+            if (property.propertyType() != null) {
+                candidates.and(byPropertyType.get(property.propertyType()));
+            }
+            if (property.price() != NONE) {
+                if (property.listingType() == ListingType.SALE) {
+                    candidates.and(saleBudget.lookup(property.price()));
+                } else {
+                    candidates.and(rentPrice.lookup(property.price()));
+                    candidates.and(rentWarm.lookup(property.warmRent()));
+                }
+            }
+            if (property.area() != NONE) {
+                candidates.and(area.lookup(property.area()));
+            }
+            if (!Double.isNaN(property.latitude()) && !Double.isNaN(property.longitude())) {
+                BitSet nearby = new BitSet(envelopes.length);
+                for (int ordinal : pins.ungeocodedRows()) {
+                    nearby.set(ordinal);
+                }
+                for (int ordinal : pins.rowsWithin(property.latitude(), property.longitude(), maxRadiusKm)) {
+                    nearby.set(ordinal);
+                }
+                candidates.and(nearby);
+            }
+
+            List<UUID> clientIds = new ArrayList<>();
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (envelopes[i].admits(property)) {
+                    clientIds.add(envelopes[i].clientId());
+                }
+            }
+            return clientIds;
+        }
+
+        private static long flexibleMax(long max, long percent) {
+            return max == NONE ? NONE : max * percent / 100;
+        }
+    }
+
+    /**
+     * Postings over a value range in logarithmic buckets: the bucket index is the value's
+     * highest set bit plus the next two bits, so buckets are at most ~25% wide at any scale.
+     * A client is posted in every bucket its [min, max] interval touches; NONE bounds are open.
+     */
+    static final class ValueBuckets {
+
+        private static final int BUCKETS = 256;
+
+        private final BitSet[] buckets = new BitSet[BUCKETS];
+
+        ValueBuckets() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new BitSet();
+            }
+        }
+
+        void add(int ordinal, long min, long max) {
+            int from = min == NONE ? 0 : bucket(min);
+            int to = max == NONE ? BUCKETS - 1 : bucket(max);
+            for (int i = from; i <= to; i++) {
+                buckets[i].set(ordinal);
+            }
+        }
+
+        BitSet lookup(long value) {
+            return buckets[bucket(value)];
+        }
+
+        static int bucket(long value) {
+            if (value < 4) {
+                return (int) Math.max(0, value);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            return (exponent << 2) | (int) ((value >>> (exponent - 2)) & 3);
+        }
+    }
+}
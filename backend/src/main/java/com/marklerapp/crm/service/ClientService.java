@@ -1,14 +1,20 @@
 package com.marklerapp.crm.service;
 
 import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.marklerapp.crm.constants.PaginationConstants;
 import com.marklerapp.crm.constants.ValidationConstants;
+import com.marklerapp.crm.dto.ClientContactGapPageDto;
 import com.marklerapp.crm.dto.ClientDto;
 import com.marklerapp.crm.dto.ClientImportResponse;
 import com.marklerapp.crm.dto.ClientImportRowResult;
 import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
 import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.CallNote;
 import com.marklerapp.crm.entity.Client;
 import com.marklerapp.crm.entity.PropertySearchCriteria;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.ClientChangedEvent;
+import com.marklerapp.crm.event.DailyActivityChangedEvent;
 import com.marklerapp.crm.mapper.ClientMapper;
 import com.marklerapp.crm.mapper.PropertySearchCriteriaMapper;
 import com.marklerapp.crm.repository.AgentRepository;
@@ -22,7 +28,9 @@ import com.marklerapp.crm.util.DuplicateMatchUtil;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -32,7 +40,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +70,19 @@ public class ClientService {
     private final ViewingRepository viewingRepository;
     private final FileAttachmentRepository fileAttachmentRepository;
     private final ClientDeletionAuditService clientDeletionAuditService;
+    private final ClientCriteriaIndex clientCriteriaIndex;
+    private final MatchScoreCache matchScoreCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Sort key of never-contacted clients in contact-gap pages, before any real call date
+     */
+    private static final LocalDateTime NEVER_CONTACTED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Lowest UUID, so a first page starts before every client with the same sort key
+     */
+    private static final UUID FIRST_CLIENT_ID = new UUID(0L, 0L);
 
     /**
      * Get all clients for an agent with pagination
@@ -170,6 +193,11 @@ public class ClientService {
         if (clientDto.getSearchCriteria() != null) {
             createSearchCriteria(savedClient, clientDto.getSearchCriteria());
         }
+        clientCriteriaIndex.evict(agentId);
+        eventPublisher.publishEvent(DailyActivityChangedEvent.forAgent(agentId)
+                .client(savedClient.getCreatedAt(), 1)
+                .build());
+        eventPublisher.publishEvent(new ClientChangedEvent(agentId, savedClient.getId(), ChangeType.CREATED));
 
         log.info("Client created with ID: {} for agent: {}", savedClient.getId(), agentId);
         return clientMapper.toDto(savedClient);
@@ -274,7 +302,10 @@ public class ClientService {
         // Update search criteria if provided
         if (clientDto.getSearchCriteria() != null) {
             updateSearchCriteria(savedClient, clientDto.getSearchCriteria());
+            matchScoreCache.invalidateClient(clientId);
         }
+        clientCriteriaIndex.evict(agentId);
+        eventPublisher.publishEvent(new ClientChangedEvent(agentId, clientId, ChangeType.UPDATED));
 
         log.info("Client updated: {} for agent: {}", clientId, agentId);
         return clientMapper.toDto(savedClient);
@@ -294,6 +325,9 @@ public class ClientService {
         }
         client.setPipelineStage(stage);
         Client saved = clientRepository.save(client);
+        // WON/LOST clients drop out of reverse matching, reopened ones come back
+        clientCriteriaIndex.evict(agentId);
+        eventPublisher.publishEvent(new ClientChangedEvent(agentId, clientId, ChangeType.UPDATED));
         log.info("Pipeline stage for client {} set to {} by agent {}", clientId, stage, agentId);
         return clientMapper.toDto(saved);
     }
@@ -323,6 +357,13 @@ public class ClientService {
         int fileAttachmentsCount = (int) fileAttachmentRepository.countByClient(client);
         boolean hadSearchCriteria = client.getSearchCriteria() != null;
 
+        // The client's calls cascade away with it, so they leave the daily activity rollup too
+        DailyActivityChangedEvent.Builder activityChange = DailyActivityChangedEvent.forAgent(agentId)
+                .client(client.getCreatedAt(), -1);
+        for (Object[] call : callNoteRepository.findCallActivityByClient(client)) {
+            activityChange.callNote((LocalDateTime) call[0], (CallNote.CallOutcome) call[1], -1);
+        }
+
         clientDeletionAuditService.logDeletion(
             client, client.getAgent(), callNotesCount, viewingsCount, fileAttachmentsCount, hadSearchCriteria
         );
@@ -333,6 +374,10 @@ public class ClientService {
         }
 
         clientRepository.delete(client);
+        clientCriteriaIndex.evict(agentId);
+        matchScoreCache.invalidateClient(clientId);
+        eventPublisher.publishEvent(activityChange.build());
+        eventPublisher.publishEvent(new ClientChangedEvent(agentId, clientId, ChangeType.DELETED));
 
         log.info("Client deleted: {} for agent: {}", clientId, agentId);
     }
@@ -390,27 +435,101 @@ public class ClientService {
     }
 
     /**
-     * Get clients without recent contact based on actual call note dates.
+     * Get all clients without recent contact based on actual call note dates, never-contacted
+     * clients first. Runs the paged query (see {@link #getClientsWithoutRecentContact(UUID, int, String, int)})
+     * once without a limit, so the call notes are grouped a single time.
      */
     @Transactional(readOnly = true)
     public List<ClientDto> getClientsWithoutRecentContact(UUID agentId, int days) {
         Agent agent = getAgentById(agentId);
-        List<Client> clients = clientRepository.findActiveClientsOrderedByUpdatedAt(agent);
-        Map<UUID, LocalDateTime> lastContactMap = buildLastContactMap(clients);
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
-        return clients.stream()
-                .filter(c -> {
-                    LocalDateTime last = lastContactMap.get(c.getId());
-                    return last == null || last.isBefore(cutoff);
-                })
-                .map(c -> {
-                    ClientDto dto = clientMapper.toDto(c);
-                    dto.setLastContactDate(lastContactMap.get(c.getId()));
-                    return dto;
-                })
-                .sorted(Comparator.comparing(ClientDto::getLastContactDate,
-                        Comparator.nullsFirst(Comparator.naturalOrder())))
-                .collect(Collectors.toList());
+        List<ClientRepository.ContactGap> gaps = clientRepository.findContactGapsAfter(
+                agent, LocalDateTime.now().minusDays(days), NEVER_CONTACTED, NEVER_CONTACTED, FIRST_CLIENT_ID,
+                Pageable.unpaged());
+        return toContactGapDtos(gaps);
+    }
+
+    /**
+     * Get one page of clients without a call note in the last {@code days} days, never-contacted
+     * clients first, then oldest last contact first.
+     *
+     * <p>The database picks the page in one grouped pass over the agent's active clients and the
+     * {@code call_notes(client_id, call_date)} index, and only the page's clients are loaded.</p>
+     *
+     * @param agentId the agent's UUID
+     * @param days days without contact
+     * @param cursor the previous page's {@code nextCursor}, or null for the first page
+     * @param size page size, capped at {@link PaginationConstants#MAX_PAGE_SIZE}
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public ClientContactGapPageDto getClientsWithoutRecentContact(UUID agentId, int days, String cursor, int size) {
+        Agent agent = getAgentById(agentId);
+        return findContactGapPage(agent, LocalDateTime.now().minusDays(days), cursor, size);
+    }
+
+    private ClientContactGapPageDto findContactGapPage(Agent agent, LocalDateTime cutoff, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), PaginationConstants.MAX_PAGE_SIZE);
+        ContactGapCursor after = cursor == null || cursor.isBlank()
+                ? new ContactGapCursor(NEVER_CONTACTED, FIRST_CLIENT_ID)
+                : ContactGapCursor.decode(cursor);
+
+        // One row more than the page tells whether another page follows
+        List<ClientRepository.ContactGap> gaps = clientRepository.findContactGapsAfter(
+                agent, cutoff, NEVER_CONTACTED, after.sortKey(), after.clientId(), PageRequest.of(0, pageSize + 1));
+        boolean hasNext = gaps.size() > pageSize;
+        if (hasNext) {
+            gaps = gaps.subList(0, pageSize);
+        }
+
+        ClientRepository.ContactGap last = hasNext ? gaps.get(gaps.size() - 1) : null;
+        return ClientContactGapPageDto.builder()
+                .clients(toContactGapDtos(gaps))
+                .nextCursor(last != null ? new ContactGapCursor(last.getSortKey(), last.getClientId()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Load the clients of contact gaps in one query, in the gaps' order, with their last contact dates.
+     */
+    private List<ClientDto> toContactGapDtos(List<ClientRepository.ContactGap> gaps) {
+        Map<UUID, Client> clientsById = clientRepository.findAllById(
+                        gaps.stream().map(ClientRepository.ContactGap::getClientId).toList())
+                .stream()
+                .collect(Collectors.toMap(Client::getId, c -> c));
+        List<ClientDto> dtos = new ArrayList<>(gaps.size());
+        for (ClientRepository.ContactGap gap : gaps) {
+            Client client = clientsById.get(gap.getClientId());
+            if (client != null) { // deleted since the gaps were read
+                ClientDto dto = clientMapper.toDto(client);
+                dto.setLastContactDate(gap.getLastContactDate());
+                dtos.add(dto);
+            }
+        }
+        return dtos;
+    }
+
+    /**
+     * Position after the last client of a contact-gap page, sent to clients as an opaque string.
+     */
+    private record ContactGapCursor(LocalDateTime sortKey, UUID clientId) {
+
+        String encode() {
+            String position = sortKey + "|" + clientId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ContactGapCursor decode(String cursor) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (position.length == 2) {
+                    return new ContactGapCursor(LocalDateTime.parse(position[0]), UUID.fromString(position[1]));
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 
     private Map<UUID, LocalDateTime> buildLastContactMap(List<Client> clients) {
@@ -0,0 +1,199 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
+import com.marklerapp.crm.entity.PropertySearchCriteria;
+import com.marklerapp.crm.entity.PropertyType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Search criteria compiled once per match request into the form scoring reads: numeric
+ * bounds, the pin as doubles, preferred cities lowercased into a set, preferred postal
+ * codes parsed into a sorted int array and preferred property types as an EnumSet.
+ *
+ * <p>Scoring a candidate against compiled criteria is a handful of lookups — no trimming,
+ * regex matching or parsing of the preferred locations per property, however many the
+ * client has. The property side is normalized the same way once per portfolio row (see
+ * {@link PropertyMatchIndex.Portfolio#cityKey(int)} and
+ * {@link PropertyMatchIndex.Portfolio#postalCodeNumber(int)}).</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+final class CompiledCriteria {
+
+    /** Marker for a postal code that is missing or not a number. */
+    static final int NO_POSTAL_CODE = Integer.MIN_VALUE;
+
+    private final MatchScoringKernel.Bounds bounds;
+
+    private final boolean pinned;
+    private final double latitude;
+    private final double longitude;
+    private final int searchRadiusKm;
+    private final boolean restrictToSearchRadius;
+
+    private final boolean hasLocationPreferences;
+    private final Set<String> cities;
+    private final int[] postalCodes;
+
+    private final boolean hasTypePreferences;
+    private final Set<PropertyType> propertyTypes;
+
+    private CompiledCriteria(MatchScoringKernel.Bounds bounds, BigDecimal latitude, BigDecimal longitude,
+                             Integer searchRadiusKm, Boolean restrictToSearchRadius,
+                             List<String> preferredLocations, List<String> preferredTypes) {
+        this.bounds = bounds;
+
+        this.pinned = latitude != null && longitude != null && searchRadiusKm != null;
+        this.latitude = pinned ? latitude.doubleValue() : Double.NaN;
+        this.longitude = pinned ? longitude.doubleValue() : Double.NaN;
+        this.searchRadiusKm = pinned ? searchRadiusKm : 0;
+        this.restrictToSearchRadius = Boolean.TRUE.equals(restrictToSearchRadius);
+
+        this.hasLocationPreferences = preferredLocations != null && !preferredLocations.isEmpty();
+        Set<String> cityKeys = new HashSet<>();
+        int[] codes = new int[hasLocationPreferences ? preferredLocations.size() : 0];
+        int codeCount = 0;
+        if (hasLocationPreferences) {
+            for (String location : preferredLocations) {
+                String trimmed = location.trim();
+                cityKeys.add(trimmed.toLowerCase(Locale.ROOT));
+                int code = parsePostalCode(trimmed);
+                if (code != NO_POSTAL_CODE) {
+                    codes[codeCount++] = code;
+                }
+            }
+        }
+        this.cities = Set.copyOf(cityKeys);
+        this.postalCodes = Arrays.stream(codes, 0, codeCount).sorted().distinct().toArray();
+
+        this.hasTypePreferences = preferredTypes != null && !preferredTypes.isEmpty();
+        Set<PropertyType> types = EnumSet.noneOf(PropertyType.class);
+        if (hasTypePreferences) {
+            for (String preferredType : preferredTypes) {
+                for (PropertyType type : PropertyType.values()) {
+                    if (type.name().equalsIgnoreCase(preferredType.trim())) {
+                        types.add(type);
+                    }
+                }
+            }
+        }
+        this.propertyTypes = types;
+    }
+
+    static CompiledCriteria of(PropertySearchCriteriaDto criteria) {
+        return new CompiledCriteria(MatchScoringKernel.Bounds.of(criteria),
+                criteria.getLatitude(), criteria.getLongitude(), criteria.getSearchRadiusKm(),
+                criteria.getRestrictToSearchRadius(), criteria.getPreferredLocations(), criteria.getPropertyTypes());
+    }
+
+    static CompiledCriteria of(PropertySearchCriteria criteria) {
+        return new CompiledCriteria(MatchScoringKernel.Bounds.of(criteria),
+                criteria.getLatitude(), criteria.getLongitude(), criteria.getSearchRadiusKm(),
+                criteria.getRestrictToSearchRadius(),
+                criteria.getPreferredLocations() != null ? List.of(criteria.getPreferredLocationsArray()) : null,
+                criteria.getPropertyTypes() != null ? List.of(criteria.getPropertyTypesArray()) : null);
+    }
+
+    /**
+     * A five-digit German postal code as a number, or {@link #NO_POSTAL_CODE} if the text
+     * isn't exactly five ASCII digits.
+     */
+    static int parsePostalCode(String text) {
+        if (text == null || text.length() != 5) {
+            return NO_POSTAL_CODE;
+        }
+        int code = 0;
+        for (int i = 0; i < 5; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_POSTAL_CODE;
+            }
+            code = code * 10 + (c - '0');
+        }
+        return code;
+    }
+
+    // ========================================
+    // Lookups
+    // ========================================
+
+    MatchScoringKernel.Bounds bounds() {
+        return bounds;
+    }
+
+    /**
+     * Whether the criteria carry a map pin with a search radius.
+     */
+    boolean isPinned() {
+        return pinned;
+    }
+
+    double latitude() {
+        return latitude;
+    }
+
+    double longitude() {
+        return longitude;
+    }
+
+    int searchRadiusKm() {
+        return searchRadiusKm;
+    }
+
+    /**
+     * Whether the criteria ask for the hard radius filter and carry everything it needs.
+     */
+    boolean radiusGateApplies() {
+        return pinned && restrictToSearchRadius;
+    }
+
+    boolean hasLocationPreferences() {
+        return hasLocationPreferences;
+    }
+
+    /**
+     * Whether a property city, lowercased as by {@link PropertyMatchIndex.Portfolio#cityKey(int)},
+     * is one of the preferred locations.
+     */
+    boolean prefersCity(String cityKey) {
+        return cityKey != null && cities.contains(cityKey);
+    }
+
+    /**
+     * Whether a five-digit postal code is one of the preferred locations.
+     */
+    boolean prefersPostalCode(int postalCode) {
+        return postalCode != NO_POSTAL_CODE && Arrays.binarySearch(postalCodes, postalCode) >= 0;
+    }
+
+    /**
+     * Whether any preferred postal code lies within {@code range} of the given one.
+     */
+    boolean hasPostalCodeNear(int postalCode, int range) {
+        if (postalCode == NO_POSTAL_CODE || postalCodes.length == 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(postalCodes, postalCode);
+        if (index >= 0) {
+            return true;
+        }
+        int insertion = -index - 1;
+        return (insertion < postalCodes.length && (long) postalCodes[insertion] - postalCode <= range)
+                || (insertion > 0 && (long) postalCode - postalCodes[insertion - 1] <= range);
+    }
+
+    boolean hasTypePreferences() {
+        return hasTypePreferences;
+    }
+
+    boolean prefersType(PropertyType propertyType) {
+        return propertyTypes.contains(propertyType);
+    }
+}
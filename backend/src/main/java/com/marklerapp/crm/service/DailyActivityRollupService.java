@@ -0,0 +1,227 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.constants.ValidationConstants;
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity;
+import com.marklerapp.crm.entity.CallNote.CallOutcome;
+import com.marklerapp.crm.event.DailyActivityChangedEvent;
+import com.marklerapp.crm.event.DailyActivityRollupUpdatedEvent;
+import com.marklerapp.crm.repository.AgentDailyActivityRepository;
+import com.marklerapp.crm.repository.AgentRepository;
+import com.marklerapp.crm.repository.CallNoteRepository;
+import com.marklerapp.crm.repository.ClientRepository;
+import com.marklerapp.crm.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link AgentDailyActivity}: per agent and day, the calls (in total and by
+ * outcome), new clients and new properties that the dashboard's activity trends show.
+ *
+ * <p>Writes are applied incrementally from {@link DailyActivityChangedEvent}s after the
+ * originating transaction commits, on the async executor. Every write to the rollup runs
+ * under one lock, so two events creating the same day's row can't race each other on a
+ * single instance. A nightly job recomputes the last {@code app.analytics.rollup.history-months}
+ * of rows from the source tables, which repairs anything an incremental update missed (a crash
+ * between commit and listener, a cascade delete nobody published) and covers the longest
+ * activity trend that can be requested.</p>
+ *
+ * <p>Every committed rollup write publishes a {@link DailyActivityRollupUpdatedEvent}, so
+ * the live dashboard can refresh the activity trends once they reflect the change.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyActivityRollupService {
+
+    private final AgentDailyActivityRepository dailyActivityRepository;
+    private final AgentRepository agentRepository;
+    private final CallNoteRepository callNoteRepository;
+    private final ClientRepository clientRepository;
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Object writeLock = new Object();
+
+    @Value("${app.analytics.rollup.history-months:13}")
+    private int historyMonths;
+
+    /**
+     * First day the dashboard reads: the start of last month or the start of the daily chart,
+     * whichever is earlier.
+     */
+    public static LocalDate windowStart(LocalDate today) {
+        LocalDate startOfLastMonth = today.withDayOfMonth(1).minusMonths(1);
+        LocalDate chartStart = today.minusDays(ValidationConstants.ACTIVITY_TRENDS_DAYS - 1L);
+        return chartStart.isBefore(startOfLastMonth) ? chartStart : startOfLastMonth;
+    }
+
+    /**
+     * First day the rollup is kept complete: {@code history-months} months before the start of
+     * this month, or {@link #windowStart} if that is earlier. Reconciliation recomputes from here on.
+     */
+    public LocalDate historyStart(LocalDate today) {
+        LocalDate historyStart = today.withDayOfMonth(1).minusMonths(historyMonths);
+        LocalDate windowStart = windowStart(today);
+        return windowStart.isBefore(historyStart) ? windowStart : historyStart;
+    }
+
+    /**
+     * An agent's activity within {@code [from, to]} summed per bucket, oldest first. Buckets
+     * without activity are absent; the first and last bucket only cover the days in range.
+     */
+    @Transactional(readOnly = true)
+    public List<AgentDailyActivityRepository.ActivityBucket> findBuckets(Agent agent, AgentDailyActivity.Bucket bucket,
+                                                                         LocalDate from, LocalDate to) {
+        return switch (bucket) {
+            case DAY -> dailyActivityRepository.sumByDay(agent, from, to);
+            case WEEK -> dailyActivityRepository.sumByWeek(agent, from, to);
+            case MONTH -> dailyActivityRepository.sumByMonth(agent, from, to);
+        };
+    }
+
+    // ========================================
+    // Incremental Updates
+    // ========================================
+
+    /**
+     * Also runs for events published outside a transaction (e.g. the CSV import, which creates
+     * clients one by one without an enclosing transaction).
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyActivityChanged(DailyActivityChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        try {
+            apply(event);
+        } catch (RuntimeException e) {
+            // The write itself is committed either way; the nightly reconciliation repairs the counters
+            log.error("Updating the daily activity rollup failed for agent {}: {}",
+                    event.agentId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add an event's deltas to the agent's day rows, creating rows for days not seen yet.
+     */
+    public void apply(DailyActivityChangedEvent event) {
+        List<LocalDate> dates = event.deltas().stream()
+                .map(DailyActivityChangedEvent.Delta::date)
+                .distinct()
+                .toList();
+
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<LocalDate, AgentDailyActivity> days = dailyActivityRepository
+                        .findByAgentIdAndDates(event.agentId(), dates).stream()
+                        .collect(Collectors.toMap(AgentDailyActivity::getActivityDate, Function.identity()));
+                for (DailyActivityChangedEvent.Delta delta : event.deltas()) {
+                    days.computeIfAbsent(delta.date(), date -> AgentDailyActivity.builder()
+                                    .agent(agentRepository.getReferenceById(event.agentId()))
+                                    .activityDate(date)
+                                    .build())
+                            .add(delta.counter(), delta.amount());
+                }
+                dailyActivityRepository.saveAll(days.values());
+            });
+        }
+        eventPublisher.publishEvent(new DailyActivityRollupUpdatedEvent(event.agentId()));
+    }
+
+    // ========================================
+    // Reconciliation
+    // ========================================
+
+    /**
+     * Recompute every agent's recent rollup rows from the source tables.
+     */
+    @Scheduled(cron = "${app.analytics.rollup.reconcile-cron:0 30 2 * * *}")
+    public void reconcileAll() {
+        List<UUID> agentIds = agentRepository.findAll().stream().map(Agent::getId).toList();
+        int failed = 0;
+        for (UUID agentId : agentIds) {
+            try {
+                reconcile(agentId);
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("Reconciling the daily activity rollup failed for agent {}: {}", agentId, e.getMessage(), e);
+            }
+        }
+        log.info("Reconciled daily activity rollup for {} agents ({} failed)", agentIds.size(), failed);
+    }
+
+    /**
+     * Fill the rollup for existing data once the application is up, instead of showing empty
+     * trends until the first nightly run.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcileAll();
+    }
+
+    /**
+     * Replace an agent's rollup rows from {@link #historyStart} on with counts recomputed from
+     * their call notes, clients and properties.
+     *
+     * @param agentId the agent to reconcile
+     */
+    public void reconcile(UUID agentId) {
+        LocalDate from = historyStart(LocalDate.now());
+        LocalDateTime since = from.atStartOfDay();
+
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Agent agent = agentRepository.getReferenceById(agentId);
+                Map<LocalDate, AgentDailyActivity> days = new TreeMap<>();
+                Function<LocalDateTime, AgentDailyActivity> day = timestamp -> days.computeIfAbsent(
+                        timestamp.toLocalDate(), date -> AgentDailyActivity.builder()
+                                .agent(agent)
+                                .activityDate(date)
+                                .build());
+
+                for (Object[] call : callNoteRepository.findCallActivityByAgentSince(agent, since)) {
+                    AgentDailyActivity activity = day.apply((LocalDateTime) call[0]);
+                    activity.add(AgentDailyActivity.Counter.CALL_NOTES, 1);
+                    AgentDailyActivity.Counter outcome = AgentDailyActivity.Counter.forOutcome((CallOutcome) call[1]);
+                    if (outcome != null) {
+                        activity.add(outcome, 1);
+                    }
+                }
+                for (LocalDateTime createdAt : clientRepository.findCreatedAtByAgentSince(agent, since)) {
+                    day.apply(createdAt).add(AgentDailyActivity.Counter.NEW_CLIENTS, 1);
+                }
+                for (LocalDateTime createdAt : propertyRepository.findCreatedAtByAgentSince(agent, since)) {
+                    day.apply(createdAt).add(AgentDailyActivity.Counter.NEW_PROPERTIES, 1);
+                }
+
+                // Bulk delete runs immediately, before the recomputed rows for the same days are inserted
+                dailyActivityRepository.deleteDaysFrom(agent, from);
+                dailyActivityRepository.saveAll(days.values());
+            });
+        }
+        eventPublisher.publishEvent(new DailyActivityRollupUpdatedEvent(agentId));
+    }
+}
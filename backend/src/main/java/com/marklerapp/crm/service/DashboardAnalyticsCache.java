@@ -0,0 +1,237 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.DashboardAnalyticsDto;
+import com.marklerapp.crm.event.CallNoteChangedEvent;
+import com.marklerapp.crm.event.ClientChangedEvent;
+import com.marklerapp.crm.event.DailyActivityRollupUpdatedEvent;
+import com.marklerapp.crm.event.PropertyChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-agent cache of the computed {@link DashboardAnalyticsDto}. Agents reload the dashboard
+ * far more often than their data changes, and one computation runs about a dozen queries.
+ *
+ * <p>An entry is fresh for {@code app.analytics.cache.ttl} and until the agent's data changes:
+ * the change events of call notes, clients and properties, and the daily activity rollup
+ * catching up, mark it stale once the changing transaction has committed. Viewings never
+ * invalidate anything, since no dashboard section reads them.</p>
+ *
+ * <p>Stale entries are served stale-while-revalidate: the request gets the cached DTO right
+ * away and one refresh per agent runs on the async {@code taskExecutor}. Only a missing entry,
+ * or one older than {@code app.analytics.cache.max-stale}, is computed on the request thread.
+ * As in {@link MatchScoreCache}, a computation takes a stamp before it reads anything, and its
+ * result counts as stale if the agent's data changed since that stamp.</p>
+ *
+ * <p>Lookups are published as {@code cache.gets} with {@code cache=dashboardAnalytics} and
+ * {@code result} hit, stale or miss (the hit ratio counts stale serves as hits), computation
+ * durations in the {@value #REFRESH_TIMER} timer tagged {@code mode} sync or async.</p>
+ */
+@Slf4j
+@Component
+public class DashboardAnalyticsCache implements MeterBinder {
+
+    static final String CACHE_NAME = "dashboardAnalytics";
+    static final String REFRESH_TIMER = "dashboard.analytics.refresh";
+
+    private final DashboardAnalyticsService dashboardAnalyticsService;
+    private final Executor taskExecutor;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final InvalidationStamps<UUID> invalidations = new InvalidationStamps<>(new AtomicLong());
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    private Timer syncRefreshTimer;
+    private Timer asyncRefreshTimer;
+
+    @Autowired
+    public DashboardAnalyticsCache(DashboardAnalyticsService dashboardAnalyticsService,
+                                   @Qualifier("taskExecutor") Executor taskExecutor,
+                                   @Value("${app.analytics.cache.ttl:30s}") Duration ttl,
+                                   @Value("${app.analytics.cache.max-stale:10m}") Duration maxStale) {
+        this(dashboardAnalyticsService, taskExecutor, ttl, maxStale, System::nanoTime);
+    }
+
+    DashboardAnalyticsCache(DashboardAnalyticsService dashboardAnalyticsService, Executor taskExecutor,
+                            Duration ttl, Duration maxStale, LongSupplier nanoClock) {
+        if (ttl.isNegative() || maxStale.compareTo(ttl) < 0) {
+            throw new IllegalArgumentException("Dashboard cache max-stale must be at least its (non-negative) TTL");
+        }
+        this.dashboardAnalyticsService = dashboardAnalyticsService;
+        this.taskExecutor = taskExecutor;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * The agent's dashboard: cached if fresh, cached while a refresh runs if stale, computed
+     * on the calling thread if absent or too old to serve.
+     *
+     * @param agentId the agent's UUID
+     * @return the dashboard analytics
+     */
+    public DashboardAnalyticsDto get(UUID agentId) {
+        Entry entry = entries.get(agentId);
+        if (entry != null) {
+            long age = nanoClock.getAsLong() - entry.loadedAt();
+            if (age < ttlNanos && !isInvalidated(agentId, entry)) {
+                hits.increment();
+                return entry.value();
+            }
+            if (age < maxStaleNanos) {
+                staleHits.increment();
+                refreshAsync(agentId);
+                return entry.value();
+            }
+        }
+        misses.increment();
+        return load(agentId, syncRefreshTimer);
+    }
+
+    /**
+     * Mark the agent's entry stale; the next read serves it once more and refreshes it.
+     */
+    public void invalidate(UUID agentId) {
+        invalidations.invalidate(agentId);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private boolean isInvalidated(UUID agentId, Entry entry) {
+        return invalidations.isStale(agentId, entry.stamp());
+    }
+
+    private void refreshAsync(UUID agentId) {
+        if (!refreshing.add(agentId)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    load(agentId, asyncRefreshTimer);
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    log.warn("Refreshing cached dashboard analytics failed for agent {}: {}", agentId, e.getMessage());
+                } finally {
+                    refreshing.remove(agentId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor is saturated; the stale entry stays and the next read tries again
+            refreshing.remove(agentId);
+        }
+    }
+
+    private DashboardAnalyticsDto load(UUID agentId, Timer timer) {
+        long stamp = invalidations.current();
+        long start = nanoClock.getAsLong();
+        DashboardAnalyticsDto value = dashboardAnalyticsService.generateAnalytics(agentId);
+        long loadedAt = nanoClock.getAsLong();
+        if (timer != null) { // null until the meters are bound
+            timer.record(Duration.ofNanos(loadedAt - start));
+        }
+        // A slower computation that started earlier must not replace a newer result
+        entries.merge(agentId, new Entry(value, loadedAt, stamp),
+                (current, loaded) -> loaded.stamp() >= current.stamp() ? loaded : current);
+        return value;
+    }
+
+    // ========================================
+    // Invalidation
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCallNoteChanged(CallNoteChangedEvent event) {
+        invalidate(event.agentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        invalidate(event.agentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        invalidate(event.agentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyActivityRollupUpdated(DailyActivityRollupUpdatedEvent event) {
+        invalidate(event.agentId());
+    }
+
+    // ========================================
+    // Metrics
+    // ========================================
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Dashboard requests served from a fresh cache entry")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", staleHits, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "stale")
+                .description("Dashboard requests served from a stale entry while it is refreshed")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Dashboard requests computed on the request thread")
+                .register(registry);
+        FunctionCounter.builder("cache.refresh.failures", refreshFailures, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME)
+                .description("Background refreshes that failed; the stale entry stays")
+                .register(registry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tags("cache", CACHE_NAME)
+                .description("Agents with a cached dashboard")
+                .register(registry);
+        syncRefreshTimer = refreshTimer(registry, "sync");
+        asyncRefreshTimer = refreshTimer(registry, "async");
+    }
+
+    private static Timer refreshTimer(MeterRegistry registry, String mode) {
+        return Timer.builder(REFRESH_TIMER)
+                .description("Time to compute a dashboard for the cache")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * A computed dashboard, when it was computed and the invalidation stamp it was computed at.
+     */
+    private record Entry(DashboardAnalyticsDto value, long loadedAt, long stamp) {
+    }
+}
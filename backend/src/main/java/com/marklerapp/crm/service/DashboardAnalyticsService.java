@@ -3,33 +3,49 @@ package com.marklerapp.crm.service;
 import com.marklerapp.crm.constants.ValidationConstants;
 import com.marklerapp.crm.dto.DashboardAnalyticsDto;
 import com.marklerapp.crm.dto.DashboardAnalyticsDto.*;
-import com.marklerapp.crm.entity.CallNote;
 import com.marklerapp.crm.entity.CallNote.CallOutcome;
-import com.marklerapp.crm.entity.Client;
-import com.marklerapp.crm.entity.Property;
 import com.marklerapp.crm.entity.PropertyStatus;
 import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity.Bucket;
+import com.marklerapp.crm.entity.AgentDailyActivity.Counter;
+import com.marklerapp.crm.repository.AgentDailyActivityRepository.ActivityBucket;
 import com.marklerapp.crm.repository.AgentRepository;
 import com.marklerapp.crm.repository.CallNoteRepository;
+import com.marklerapp.crm.repository.ClientPropertyMatchRepository;
 import com.marklerapp.crm.repository.ClientRepository;
 import com.marklerapp.crm.repository.PropertyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Service for generating comprehensive dashboard analytics.
  * Provides actionable insights for real estate managers.
  *
+ * <p>The sections of the dashboard are independent of each other and computed concurrently
+ * on the {@code dashboardExecutor}, each in its own read-only transaction, so the response
+ * takes about as long as the slowest section rather than the sum of all of them. Each
+ * section's duration is recorded in the {@value #SECTION_TIMER} timer, tagged by section.</p>
+ *
  * @author Claude Sonnet 4.5
  * @since Dashboard Analytics Feature
  */
@@ -38,10 +54,53 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DashboardAnalyticsService {
 
+    static final String SECTION_TIMER = "dashboard.analytics.section";
+
     private final AgentRepository agentRepository;
     private final ClientRepository clientRepository;
     private final PropertyRepository propertyRepository;
     private final CallNoteRepository callNoteRepository;
+    private final ClientPropertyMatchRepository clientPropertyMatchRepository;
+    private final DailyActivityRollupService dailyActivityRollupService;
+    private final PlatformTransactionManager transactionManager;
+    @Qualifier("dashboardExecutor")
+    private final Executor dashboardExecutor;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Count clients by latest outcome without window functions, for databases or dialects that
+     * don't render them (the SQLite dev profile). Ties on the latest call date count twice there.
+     */
+    @Value("${app.analytics.latest-outcome.portable-query:false}")
+    private boolean portableLatestOutcomeQuery;
+
+    private static final int NEW_MATCHES_SHOWN = 5;
+    private static final int LONGEST_ON_MARKET_SHOWN = 5;
+
+    private static final Set<PropertyStatus> CLOSED_STATUSES = EnumSet.of(PropertyStatus.SOLD, PropertyStatus.RENTED);
+    private static final Set<PropertyStatus> PIPELINE_STATUSES = EnumSet.of(PropertyStatus.AVAILABLE, PropertyStatus.RESERVED);
+
+    /**
+     * The sections of the dashboard, each computed (and timed) on its own.
+     */
+    public enum Section {
+        CONVERSION_FUNNEL,
+        PIPELINE_HEALTH,
+        PROPERTY_PORTFOLIO,
+        ACTIVITY_TRENDS,
+        REVENUE,
+        NEW_MATCHES,
+        CLIENTS_NEEDING_ATTENTION,
+        /** Derived from pipeline health and the property portfolio. */
+        SUGGESTED_ACTIONS;
+
+        /**
+         * Tag value of the section in the {@value #SECTION_TIMER} timer.
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
 
     /**
      * Generate complete dashboard analytics for an agent.
@@ -49,59 +108,149 @@ public class DashboardAnalyticsService {
      * @param agentId The agent's UUID
      * @return Comprehensive analytics DTO
      */
-    @Transactional(readOnly = true)
     public DashboardAnalyticsDto generateAnalytics(UUID agentId) {
-        log.info("Generating dashboard analytics for agent: {}", agentId);
+        return generateAnalytics(agentId, EnumSet.allOf(Section.class));
+    }
 
-        // Fetch the Agent entity
-        Agent agent = agentRepository.findById(agentId)
-                .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + agentId));
+    /**
+     * Generate the given sections of the dashboard for an agent; all other sections of the
+     * result are {@code null}.
+     *
+     * @param agentId The agent's UUID
+     * @param sections The sections to compute
+     * @return Analytics DTO with only the requested sections set
+     */
+    public DashboardAnalyticsDto generateAnalytics(UUID agentId, Set<Section> sections) {
+        log.info("Generating dashboard analytics for agent: {} (sections: {})", agentId, sections);
+
+        // Suggested actions are derived from two other sections, which are computed for them too
+        Set<Section> computed = EnumSet.noneOf(Section.class);
+        computed.addAll(sections);
+        if (computed.contains(Section.SUGGESTED_ACTIONS)) {
+            computed.add(Section.PIPELINE_HEALTH);
+            computed.add(Section.PROPERTY_PORTFOLIO);
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // The agent is loaded on the executor as well: the request thread never touches the
+        // database, so it doesn't hold a pooled connection while it waits for the sections
+        CompletableFuture<Agent> agent = CompletableFuture.supplyAsync(() -> timed("agent", () ->
+                readOnly.execute(status -> agentRepository.findById(agentId)
+                        .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + agentId)))),
+                dashboardExecutor);
+
+        // The funnel and pipeline health both read the clients per latest outcome: query it once
+        CompletableFuture<LatestOutcomes> latestOutcomes =
+                computed.contains(Section.CONVERSION_FUNNEL) || computed.contains(Section.PIPELINE_HEALTH)
+                        ? step(agent, "latest_outcomes", readOnly,
+                                loaded -> new LatestOutcomes(loaded, countClientsByLatestOutcome(loaded)))
+                        : CompletableFuture.completedFuture(null);
+
+        CompletableFuture<ConversionFunnelDto> conversionFunnel =
+                section(latestOutcomes, Section.CONVERSION_FUNNEL, computed, readOnly,
+                        latest -> calculateConversionFunnel(latest.agent(), latest.clientsByOutcome()));
+        CompletableFuture<PipelineHealthDto> pipelineHealth =
+                section(latestOutcomes, Section.PIPELINE_HEALTH, computed, readOnly,
+                        latest -> calculatePipelineHealth(latest.agent(), latest.clientsByOutcome()));
+        CompletableFuture<PropertyPortfolioDto> propertyPortfolio =
+                section(agent, Section.PROPERTY_PORTFOLIO, computed, readOnly, this::calculatePropertyPortfolio);
+        CompletableFuture<ActivityTrendsDto> activityTrends =
+                section(agent, Section.ACTIVITY_TRENDS, computed, readOnly, this::calculateActivityTrends);
+        CompletableFuture<RevenueDto> revenue =
+                section(agent, Section.REVENUE, computed, readOnly, this::calculateRevenue);
+        CompletableFuture<NewMatchesDto> newMatches =
+                section(agent, Section.NEW_MATCHES, computed, readOnly, this::calculateNewMatches);
+        CompletableFuture<List<ClientInsightDto>> clientsNeedingAttention =
+                section(agent, Section.CLIENTS_NEEDING_ATTENTION, computed, readOnly,
+                        this::identifyClientsNeedingAttention);
+
+        // Surfaces an unknown agent even when no section was requested
+        await(agent);
 
         return DashboardAnalyticsDto.builder()
-                .conversionFunnel(calculateConversionFunnel(agent))
-                .pipelineHealth(calculatePipelineHealth(agent))
-                .propertyPortfolio(calculatePropertyPortfolio(agent))
-                .activityTrends(calculateActivityTrends(agent))
-                .revenue(calculateRevenue(agent))
-                .clientsNeedingAttention(identifyClientsNeedingAttention(agent))
-                .suggestedActions(generateSuggestedActions(agent))
+                .conversionFunnel(requested(sections, Section.CONVERSION_FUNNEL, conversionFunnel))
+                .pipelineHealth(requested(sections, Section.PIPELINE_HEALTH, pipelineHealth))
+                .propertyPortfolio(requested(sections, Section.PROPERTY_PORTFOLIO, propertyPortfolio))
+                .activityTrends(requested(sections, Section.ACTIVITY_TRENDS, activityTrends))
+                .revenue(requested(sections, Section.REVENUE, revenue))
+                .newMatches(requested(sections, Section.NEW_MATCHES, newMatches))
+                .clientsNeedingAttention(requested(sections, Section.CLIENTS_NEEDING_ATTENTION, clientsNeedingAttention))
+                .suggestedActions(sections.contains(Section.SUGGESTED_ACTIONS)
+                        ? generateSuggestedActions(await(pipelineHealth), await(propertyPortfolio))
+                        : null)
                 .build();
     }
 
     // ========================================
-    // Conversion Funnel Calculation
+    // Section Execution
     // ========================================
 
-    private ConversionFunnelDto calculateConversionFunnel(Agent agent) {
-        List<Client> allClients = clientRepository.findByAgent(agent);
-        long totalClients = allClients.size();
+    /**
+     * Compute one section on the dashboard executor once its input (the agent, or a shared
+     * intermediate result) is ready. Sections not to be computed complete with {@code null} right away.
+     */
+    private <I, T> CompletableFuture<T> section(CompletableFuture<I> input, Section section, Set<Section> computed,
+                                                TransactionTemplate readOnly, Function<I, T> calculation) {
+        if (!computed.contains(section)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return step(input, section.tag(), readOnly, calculation);
+    }
+
+    /**
+     * Run a timed calculation on the dashboard executor in its own read-only transaction once
+     * its input is ready.
+     */
+    private <I, T> CompletableFuture<T> step(CompletableFuture<I> input, String name,
+                                             TransactionTemplate readOnly, Function<I, T> calculation) {
+        return input.thenApplyAsync(ready -> timed(name, () ->
+                readOnly.execute(status -> calculation.apply(ready))), dashboardExecutor);
+    }
+
+    private static <T> T requested(Set<Section> sections, Section section, CompletableFuture<T> result) {
+        T value = await(result);
+        return sections.contains(section) ? value : null;
+    }
 
-        // Get all call notes to analyze outcomes
-        List<CallNote> allCallNotes = callNoteRepository.findByAgentOrderByCallDateDesc(agent, Pageable.unpaged()).getContent();
+    private <T> T timed(String section, Supplier<T> calculation) {
+        return Timer.builder(SECTION_TIMER)
+                .description("Time to compute one section of the dashboard analytics")
+                .tag("section", section)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(calculation);
+    }
 
-        // Count unique clients by their latest outcome
-        Map<UUID, CallOutcome> latestOutcomeByClient = new HashMap<>();
-        for (CallNote note : allCallNotes) {
-            if (note.getOutcome() != null && !latestOutcomeByClient.containsKey(note.getClient().getId())) {
-                latestOutcomeByClient.put(note.getClient().getId(), note.getOutcome());
+    /**
+     * Wait for a section and rethrow its failure as is (e.g. the agent not being found).
+     */
+    private static <T> T await(CompletableFuture<T> section) {
+        try {
+            return section.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
         }
+    }
 
-        long interested = latestOutcomeByClient.values().stream()
-                .filter(o -> o == CallOutcome.INTERESTED)
-                .count();
-
-        long scheduledViewings = latestOutcomeByClient.values().stream()
-                .filter(o -> o == CallOutcome.SCHEDULED_VIEWING)
-                .count();
+    // ========================================
+    // Conversion Funnel Calculation
+    // ========================================
 
-        long offersMade = latestOutcomeByClient.values().stream()
-                .filter(o -> o == CallOutcome.OFFER_MADE)
-                .count();
+    private ConversionFunnelDto calculateConversionFunnel(Agent agent, Map<CallOutcome, Long> clientsByLatestOutcome) {
+        long totalClients = clientRepository.countByAgent(agent);
 
-        long dealsClosed = latestOutcomeByClient.values().stream()
-                .filter(o -> o == CallOutcome.DEAL_CLOSED)
-                .count();
+        long interested = clientsByLatestOutcome.getOrDefault(CallOutcome.INTERESTED, 0L);
+        long scheduledViewings = clientsByLatestOutcome.getOrDefault(CallOutcome.SCHEDULED_VIEWING, 0L);
+        long offersMade = clientsByLatestOutcome.getOrDefault(CallOutcome.OFFER_MADE, 0L);
+        long dealsClosed = clientsByLatestOutcome.getOrDefault(CallOutcome.DEAL_CLOSED, 0L);
 
         // Calculate conversion rates
         double interestedRate = totalClients > 0 ? (interested * 100.0 / totalClients) : 0.0;
@@ -128,68 +277,38 @@ public class DashboardAnalyticsService {
     // Pipeline Health Calculation
     // ========================================
 
-    private PipelineHealthDto calculatePipelineHealth(Agent agent) {
-        List<CallNote> allCallNotes = callNoteRepository.findByAgentOrderByCallDateDesc(agent, Pageable.unpaged()).getContent();
-
-        // Latest outcome per client
-        Map<UUID, CallOutcome> latestOutcomeByClient = new HashMap<>();
-        for (CallNote note : allCallNotes) {
-            if (note.getOutcome() != null && !latestOutcomeByClient.containsKey(note.getClient().getId())) {
-                latestOutcomeByClient.put(note.getClient().getId(), note.getOutcome());
-            }
-        }
-
-        // Count by outcome
-        Map<String, Long> clientsByOutcome = latestOutcomeByClient.values().stream()
-                .collect(Collectors.groupingBy(Enum::name, Collectors.counting()));
+    private PipelineHealthDto calculatePipelineHealth(Agent agent, Map<CallOutcome, Long> clientsByLatestOutcome) {
+        // Count by latest outcome per client
+        Map<String, Long> clientsByOutcome = clientsByLatestOutcome.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().name(), Map.Entry::getValue));
 
         // Follow-ups
         LocalDateTime now = LocalDateTime.now();
         LocalDate today = LocalDate.now();
-        LocalDateTime oneWeekFromNow = now.plusWeeks(1);
-        LocalDateTime twoWeeksFromNow = now.plusWeeks(2);
 
-        // Get all overdue follow-ups for this agent
-        List<CallNote> allOverdue = callNoteRepository.findOverdueFollowUps(today);
-        long overdueFollowUps = allOverdue.stream()
-                .filter(note -> note.getAgent().getId().equals(agent.getId()))
-                .count();
+        // Follow-up counts come straight from the agent's rows in the follow-up index
+        long overdueFollowUps = callNoteRepository.countOverdueFollowUpsByAgent(agent, today);
+        long followUpsDueThisWeek = callNoteRepository.countFollowUpsByAgentDueBetween(
+                agent, today, today.plusWeeks(1));
+        long followUpsDueNextWeek = callNoteRepository.countFollowUpsByAgentDueBetween(
+                agent, today.plusWeeks(1), today.plusWeeks(2));
 
-        // Get all follow-ups requiring action and filter by agent and date ranges
-        List<CallNote> allFollowUps = callNoteRepository.findCallNotesRequiringFollowUp();
-        long followUpsDueThisWeek = allFollowUps.stream()
-                .filter(note -> note.getAgent().getId().equals(agent.getId()))
-                .filter(note -> note.getFollowUpDate() != null)
-                .filter(note -> !note.getFollowUpDate().isBefore(today) && note.getFollowUpDate().isBefore(today.plusWeeks(1)))
-                .count();
-        long followUpsDueNextWeek = allFollowUps.stream()
-                .filter(note -> note.getAgent().getId().equals(agent.getId()))
-                .filter(note -> note.getFollowUpDate() != null)
-                .filter(note -> !note.getFollowUpDate().isBefore(today.plusWeeks(1)) && note.getFollowUpDate().isBefore(today.plusWeeks(2)))
-                .count();
+        // Last call date per client in one grouped query; clients never called have no entry
+        Collection<LocalDateTime> lastContactDates = findLastContactDates(agent).values();
 
-        // Clients without recent contact (30+ days)
+        // Clients without recent contact (30+ days), including clients never contacted
         LocalDateTime thirtyDaysAgo = now.minusDays(ValidationConstants.DAYS_WITHOUT_CONTACT_THRESHOLD);
-        List<Client> allClients = clientRepository.findByAgent(agent);
-        long clientsWithoutRecentContact = allClients.stream()
-                .filter(client -> {
-                    List<CallNote> clientNotes = callNoteRepository.findByClientOrderByCallDateDesc(client, Pageable.unpaged()).getContent();
-                    return clientNotes.isEmpty() || clientNotes.get(0).getCallDate().isBefore(thirtyDaysAgo);
-                })
+        long clientsContactedRecently = lastContactDates.stream()
+                .filter(lastContact -> !lastContact.isBefore(thirtyDaysAgo))
                 .count();
+        long clientsWithoutRecentContact = clientRepository.countByAgent(agent) - clientsContactedRecently;
 
         // Average days since last contact
         int totalDays = 0;
-        int clientCount = 0;
-        for (Client client : allClients) {
-            List<CallNote> clientNotes = callNoteRepository.findByClientOrderByCallDateDesc(client, Pageable.unpaged()).getContent();
-            if (!clientNotes.isEmpty()) {
-                long daysSince = ChronoUnit.DAYS.between(clientNotes.get(0).getCallDate(), now);
-                totalDays += daysSince;
-                clientCount++;
-            }
+        for (LocalDateTime lastContact : lastContactDates) {
+            totalDays += ChronoUnit.DAYS.between(lastContact, now);
         }
-        int averageDays = clientCount > 0 ? totalDays / clientCount : 0;
+        int averageDays = lastContactDates.isEmpty() ? 0 : totalDays / lastContactDates.size();
 
         return PipelineHealthDto.builder()
                 .clientsByOutcome(clientsByOutcome)
@@ -206,33 +325,36 @@ public class DashboardAnalyticsService {
     // ========================================
 
     private PropertyPortfolioDto calculatePropertyPortfolio(Agent agent) {
-        List<Property> allProperties = propertyRepository.findByAgent(agent, Pageable.unpaged()).getContent();
+        // Counts and totals per status and type, grouped in the database
+        List<PropertyRepository.PortfolioGroup> groups = propertyRepository.findPortfolioGroupsByAgent(agent);
 
-        long totalProperties = allProperties.size();
+        long totalProperties = groups.stream().mapToLong(PropertyRepository.PortfolioGroup::getTotal).sum();
 
         // Properties by status
-        Map<String, Long> propertiesByStatus = allProperties.stream()
-                .collect(Collectors.groupingBy(p -> p.getStatus().name(), Collectors.counting()));
+        Map<String, Long> propertiesByStatus = groups.stream()
+                .collect(Collectors.groupingBy(g -> g.getStatus().name(),
+                        Collectors.summingLong(PropertyRepository.PortfolioGroup::getTotal)));
 
         // Properties by type
-        Map<String, Long> propertiesByType = allProperties.stream()
-                .collect(Collectors.groupingBy(p -> p.getPropertyType().name(), Collectors.counting()));
+        Map<String, Long> propertiesByType = groups.stream()
+                .collect(Collectors.groupingBy(g -> g.getPropertyType().name(),
+                        Collectors.summingLong(PropertyRepository.PortfolioGroup::getTotal)));
 
         // Average days on market (for AVAILABLE properties)
         LocalDateTime now = LocalDateTime.now();
-        List<Property> availableProperties = allProperties.stream()
-                .filter(p -> p.getStatus() == PropertyStatus.AVAILABLE)
-                .toList();
+        List<LocalDateTime> listedSince = propertyRepository.findCreatedAtByAgentAndStatus(agent, PropertyStatus.AVAILABLE);
 
         int totalDaysOnMarket = 0;
-        for (Property property : availableProperties) {
-            long daysOnMarket = ChronoUnit.DAYS.between(property.getCreatedAt(), now);
+        for (LocalDateTime createdAt : listedSince) {
+            long daysOnMarket = ChronoUnit.DAYS.between(createdAt, now);
             totalDaysOnMarket += daysOnMarket;
         }
-        int averageDaysOnMarket = availableProperties.isEmpty() ? 0 : totalDaysOnMarket / availableProperties.size();
+        int averageDaysOnMarket = listedSince.isEmpty() ? 0 : totalDaysOnMarket / listedSince.size();
 
         // Objekte die am längsten hängen — Grundlage fürs Preisreduktions-Gespräch mit dem Eigentümer
-        List<PropertyOnMarketDto> longestOnMarket = availableProperties.stream()
+        List<PropertyOnMarketDto> longestOnMarket = propertyRepository
+                .findLongestOnMarket(agent, PropertyStatus.AVAILABLE, PageRequest.of(0, LONGEST_ON_MARKET_SHOWN))
+                .stream()
                 .map(p -> PropertyOnMarketDto.builder()
                         .propertyId(p.getId().toString())
                         .title(p.getTitle())
@@ -240,23 +362,16 @@ public class DashboardAnalyticsService {
                         .daysOnMarket((int) ChronoUnit.DAYS.between(p.getCreatedAt(), now))
                         .price(p.getPrice())
                         .build())
-                .sorted(Comparator.comparing(PropertyOnMarketDto::getDaysOnMarket).reversed())
-                .limit(5)
                 .collect(Collectors.toList());
 
         // Properties with images and expose
-        long propertiesWithImages = allProperties.stream()
-                .filter(p -> p.getImages() != null && !p.getImages().isEmpty())
-                .count();
-
-        long propertiesWithExpose = allProperties.stream()
-                .filter(p -> p.getExposeFileName() != null && !p.getExposeFileName().isEmpty())
-                .count();
+        long propertiesWithImages = propertyRepository.countWithImagesByAgent(agent);
+        long propertiesWithExpose = propertyRepository.countWithExposeByAgent(agent);
 
         // Total portfolio value
-        BigDecimal totalValue = allProperties.stream()
-                .filter(p -> p.getPrice() != null)
-                .map(Property::getPrice)
+        BigDecimal totalValue = groups.stream()
+                .map(PropertyRepository.PortfolioGroup::getTotalPrice)
+                .filter(Objects::nonNull)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         return PropertyPortfolioDto.builder()
@@ -276,28 +391,17 @@ public class DashboardAnalyticsService {
     // ========================================
 
     private RevenueDto calculateRevenue(Agent agent) {
-        List<Property> allProperties = propertyRepository.findByAgent(agent, Pageable.unpaged()).getContent();
-        int currentYear = LocalDate.now().getYear();
+        LocalDateTime startOfYear = LocalDate.now().withDayOfYear(1).atStartOfDay();
 
         // Abgeschlossene Objekte dieses Jahr (Status SOLD/RENTED, in diesem Jahr aktualisiert)
-        List<Property> closedThisYear = allProperties.stream()
-                .filter(p -> p.getStatus() == PropertyStatus.SOLD || p.getStatus() == PropertyStatus.RENTED)
-                .filter(p -> p.getUpdatedAt() != null && p.getUpdatedAt().getYear() == currentYear)
-                .toList();
-
-        BigDecimal realizedCommission = closedThisYear.stream()
-                .map(Property::getCommission)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long dealsClosedYtd = closedThisYear.size();
+        BigDecimal realizedCommission = orZero(propertyRepository.sumCommissionByAgentAndStatusInUpdatedSince(
+                agent, CLOSED_STATUSES, startOfYear));
+        long dealsClosedYtd = propertyRepository.countByAgentAndStatusInAndUpdatedAtGreaterThanEqual(
+                agent, CLOSED_STATUSES, startOfYear);
 
         // Provision die noch im Bestand steckt (verfügbar/reserviert)
-        BigDecimal pipelineCommission = allProperties.stream()
-                .filter(p -> p.getStatus() == PropertyStatus.AVAILABLE || p.getStatus() == PropertyStatus.RESERVED)
-                .map(Property::getCommission)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal pipelineCommission = orZero(propertyRepository.sumCommissionByAgentAndStatusIn(
+                agent, PIPELINE_STATUSES));
 
         BigDecimal avgCommission = dealsClosedYtd > 0
                 ? realizedCommission.divide(BigDecimal.valueOf(dealsClosedYtd), 2, java.math.RoundingMode.HALF_UP)
@@ -311,83 +415,83 @@ public class DashboardAnalyticsService {
                 .build();
     }
 
+    private static BigDecimal orZero(BigDecimal sum) {
+        return sum != null ? sum : BigDecimal.ZERO;
+    }
+
+    // ========================================
+    // New Matches Calculation
+    // ========================================
+
+    private NewMatchesDto calculateNewMatches(Agent agent) {
+        LocalDateTime since = LocalDateTime.now().minusDays(1);
+
+        List<NewMatchDto> latest = clientPropertyMatchRepository
+                .findNewMatches(agent, since, PageRequest.of(0, NEW_MATCHES_SHOWN)).stream()
+                .map(match -> NewMatchDto.builder()
+                        .clientId(match.getClientId().toString())
+                        .clientName(match.getClientFullName())
+                        .propertyId(match.getPropertyId().toString())
+                        .propertyTitle(match.getPropertyTitle())
+                        .matchScore(match.getMatchScore())
+                        .matchedAt(match.getCreatedAt())
+                        .build())
+                .toList();
+
+        return NewMatchesDto.builder()
+                .newMatchesSinceYesterday(clientPropertyMatchRepository.countByAgentAndCreatedAtAfter(agent, since))
+                .latest(latest)
+                .build();
+    }
+
     // ========================================
     // Activity Trends Calculation
     // ========================================
 
     private ActivityTrendsDto calculateActivityTrends(Agent agent) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfThisMonth = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime startOfLastMonth = startOfThisMonth.minusMonths(1);
+        // Everything here comes from the daily rollup, summed per month and per day in the
+        // database, instead of the agent's history
+        LocalDate today = LocalDate.now();
+        LocalDate startOfThisMonth = today.withDayOfMonth(1);
+        LocalDate startOfLastMonth = startOfThisMonth.minusMonths(1);
 
-        // Call notes this month vs last month
-        List<CallNote> thisMonthNotes = callNoteRepository.findRecentCallNotesByAgent(agent, startOfThisMonth);
-        long callNotesThisMonth = thisMonthNotes.stream()
-                .filter(n -> n.getCallDate().isBefore(now))
-                .count();
+        Map<LocalDate, ActivityBucket> months = byStart(
+                dailyActivityRollupService.findBuckets(agent, Bucket.MONTH, startOfLastMonth, today));
+        ActivityBucket thisMonth = months.get(startOfThisMonth);
+        ActivityBucket lastMonth = months.get(startOfLastMonth);
 
-        List<CallNote> lastMonthNotes = callNoteRepository.findRecentCallNotesByAgent(agent, startOfLastMonth);
-        long callNotesLastMonth = lastMonthNotes.stream()
-                .filter(n -> n.getCallDate().isBefore(startOfThisMonth))
-                .count();
+        // Call notes this month vs last month
+        long callNotesThisMonth = total(thisMonth, Counter.CALL_NOTES);
+        long callNotesLastMonth = total(lastMonth, Counter.CALL_NOTES);
 
         int callNotesGrowth = callNotesLastMonth > 0 ?
                 (int) (((callNotesThisMonth - callNotesLastMonth) * 100.0) / callNotesLastMonth) : 0;
 
         // New clients this month vs last month
-        List<Client> recentClients = clientRepository.findRecentClientsByAgent(agent, startOfLastMonth);
-        long newClientsThisMonth = recentClients.stream()
-                .filter(c -> c.getCreatedAt().isAfter(startOfThisMonth) && c.getCreatedAt().isBefore(now))
-                .count();
-        long newClientsLastMonth = recentClients.stream()
-                .filter(c -> c.getCreatedAt().isAfter(startOfLastMonth) && c.getCreatedAt().isBefore(startOfThisMonth))
-                .count();
+        long newClientsThisMonth = total(thisMonth, Counter.NEW_CLIENTS);
+        long newClientsLastMonth = total(lastMonth, Counter.NEW_CLIENTS);
 
         // Deals closed this month vs last month
-        long dealsClosedThisMonth = thisMonthNotes.stream()
-                .filter(n -> n.getOutcome() == CallOutcome.DEAL_CLOSED)
-                .filter(n -> n.getCallDate().isBefore(now))
-                .count();
-
-        long dealsClosedLastMonth = lastMonthNotes.stream()
-                .filter(n -> n.getOutcome() == CallOutcome.DEAL_CLOSED)
-                .filter(n -> n.getCallDate().isBefore(startOfThisMonth))
-                .count();
+        long dealsClosedThisMonth = total(thisMonth, Counter.DEAL_CLOSED_CALLS);
+        long dealsClosedLastMonth = total(lastMonth, Counter.DEAL_CLOSED_CALLS);
 
         // New properties this month vs last month
-        List<Property> recentProperties = propertyRepository.findRecentPropertiesByAgent(agent, startOfLastMonth);
-        long newPropertiesThisMonth = recentProperties.stream()
-                .filter(p -> p.getCreatedAt().isAfter(startOfThisMonth) && p.getCreatedAt().isBefore(now))
-                .count();
-        long newPropertiesLastMonth = recentProperties.stream()
-                .filter(p -> p.getCreatedAt().isAfter(startOfLastMonth) && p.getCreatedAt().isBefore(startOfThisMonth))
-                .count();
-
-        // Last 30 days daily activity (for charts) — pro Tag gruppiert, Lücken mit 0 gefüllt
-        LocalDate startDay = LocalDate.now().minusDays(ValidationConstants.ACTIVITY_TRENDS_DAYS - 1L);
-        LocalDateTime windowStart = startDay.atStartOfDay();
-
-        List<CallNote> windowNotes = callNoteRepository.findRecentCallNotesByAgent(agent, windowStart);
-        Map<LocalDate, Long> callsByDay = windowNotes.stream()
-                .filter(n -> n.getCallDate() != null && !n.getCallDate().isAfter(now))
-                .collect(Collectors.groupingBy(n -> n.getCallDate().toLocalDate(), Collectors.counting()));
-        Map<LocalDate, Long> dealsByDay = windowNotes.stream()
-                .filter(n -> n.getOutcome() == CallOutcome.DEAL_CLOSED)
-                .filter(n -> n.getCallDate() != null && !n.getCallDate().isAfter(now))
-                .collect(Collectors.groupingBy(n -> n.getCallDate().toLocalDate(), Collectors.counting()));
-
-        Map<LocalDate, Long> newClientsByDay = clientRepository.findRecentClientsByAgent(agent, windowStart).stream()
-                .filter(c -> c.getCreatedAt() != null && !c.getCreatedAt().isBefore(windowStart) && !c.getCreatedAt().isAfter(now))
-                .collect(Collectors.groupingBy(c -> c.getCreatedAt().toLocalDate(), Collectors.counting()));
+        long newPropertiesThisMonth = total(thisMonth, Counter.NEW_PROPERTIES);
+        long newPropertiesLastMonth = total(lastMonth, Counter.NEW_PROPERTIES);
 
+        // Last 30 days daily activity (for charts) — Tage ohne Zeile mit 0 gefüllt
+        LocalDate startDay = today.minusDays(ValidationConstants.ACTIVITY_TRENDS_DAYS - 1L);
+        Map<LocalDate, ActivityBucket> days = byStart(
+                dailyActivityRollupService.findBuckets(agent, Bucket.DAY, startDay, today));
         List<DailyActivityDto> dailyActivity = new ArrayList<>();
         for (int i = 0; i < ValidationConstants.ACTIVITY_TRENDS_DAYS; i++) {
             LocalDate day = startDay.plusDays(i);
+            ActivityBucket activity = days.get(day);
             dailyActivity.add(DailyActivityDto.builder()
                     .date(day.atStartOfDay())
-                    .callNotes(callsByDay.getOrDefault(day, 0L))
-                    .newClients(newClientsByDay.getOrDefault(day, 0L))
-                    .dealsClosed(dealsByDay.getOrDefault(day, 0L))
+                    .callNotes(total(activity, Counter.CALL_NOTES))
+                    .newClients(total(activity, Counter.NEW_CLIENTS))
+                    .dealsClosed(total(activity, Counter.DEAL_CLOSED_CALLS))
                     .build());
         }
 
@@ -405,6 +509,46 @@ public class DashboardAnalyticsService {
                 .build();
     }
 
+    private static Map<LocalDate, ActivityBucket> byStart(List<ActivityBucket> buckets) {
+        return buckets.stream().collect(Collectors.toMap(ActivityBucket::getBucketStart, Function.identity()));
+    }
+
+    private static long total(ActivityBucket bucket, Counter counter) {
+        return bucket != null ? bucket.get(counter) : 0L;
+    }
+
+    // ========================================
+    // Outcome and Last Contact Lookups
+    // ========================================
+
+    /**
+     * An agent with their clients per latest call outcome, the shared input of two sections.
+     */
+    private record LatestOutcomes(Agent agent, Map<CallOutcome, Long> clientsByOutcome) {
+    }
+
+    /**
+     * Clients per outcome of their latest call with an outcome, counted in the database.
+     */
+    private Map<CallOutcome, Long> countClientsByLatestOutcome(Agent agent) {
+        List<CallNoteRepository.OutcomeCount> rows = portableLatestOutcomeQuery
+                ? callNoteRepository.countClientsByLatestOutcomePortable(agent)
+                : callNoteRepository.countClientsByLatestOutcome(agent);
+        Map<CallOutcome, Long> clientsByOutcome = new EnumMap<>(CallOutcome.class);
+        for (CallNoteRepository.OutcomeCount row : rows) {
+            clientsByOutcome.put(row.getOutcome(), row.getClients());
+        }
+        return clientsByOutcome;
+    }
+
+    private Map<UUID, LocalDateTime> findLastContactDates(Agent agent) {
+        Map<UUID, LocalDateTime> lastContactByClient = new HashMap<>();
+        for (Object[] row : callNoteRepository.findLastContactDateByClientForAgent(agent)) {
+            lastContactByClient.put((UUID) row[0], (LocalDateTime) row[1]);
+        }
+        return lastContactByClient;
+    }
+
     // ========================================
     // AI-Powered Insights
     // ========================================
@@ -415,15 +559,12 @@ public class DashboardAnalyticsService {
         LocalDate today = LocalDate.now();
 
         // 1. Clients with overdue follow-ups (HIGHEST PRIORITY)
-        List<CallNote> allOverdue = callNoteRepository.findOverdueFollowUps(today);
-        List<CallNote> overdueNotes = allOverdue.stream()
-                .filter(note -> note.getAgent().getId().equals(agent.getId()))
-                .toList();
-        for (CallNote note : overdueNotes) {
+        List<CallNoteRepository.ClientContact> overdue = callNoteRepository.findOverdueFollowUpContactsByAgent(agent, today);
+        for (CallNoteRepository.ClientContact note : overdue) {
             long daysSince = ChronoUnit.DAYS.between(note.getFollowUpDate(), now);
             insights.add(ClientInsightDto.builder()
-                    .clientId(note.getClient().getId().toString())
-                    .clientName(note.getClient().getFullName())
+                    .clientId(note.getClientId().toString())
+                    .clientName(note.getFullName())
                     .urgency("HIGH")
                     .reason(String.format("Follow-up overdue by %d days", daysSince))
                     .lastContactDate(note.getCallDate())
@@ -432,30 +573,32 @@ public class DashboardAnalyticsService {
                     .build());
         }
 
-        // 2. Hot leads (INTERESTED clients not contacted in 7+ days)
-        List<Client> allClients = clientRepository.findByAgent(agent);
+        // 2. Hot leads (INTERESTED clients not contacted in 7+ days) — each client's latest
+        // note comes from one query, already narrowed to INTERESTED outcomes older than 7 days
         LocalDateTime sevenDaysAgo = now.minusDays(ValidationConstants.HOT_LEAD_DAYS_THRESHOLD);
-
-        for (Client client : allClients) {
-            List<CallNote> clientNotes = callNoteRepository.findByClientOrderByCallDateDesc(client, Pageable.unpaged()).getContent();
-            if (!clientNotes.isEmpty()) {
-                CallNote lastNote = clientNotes.get(0);
-                if (lastNote.getOutcome() == CallOutcome.INTERESTED &&
-                        lastNote.getCallDate().isBefore(sevenDaysAgo) &&
-                        overdueNotes.stream().noneMatch(n -> n.getClient().getId().equals(client.getId()))) {
-
-                    long daysSince = ChronoUnit.DAYS.between(lastNote.getCallDate(), now);
-                    insights.add(ClientInsightDto.builder()
-                            .clientId(client.getId().toString())
-                            .clientName(client.getFullName())
-                            .urgency("MEDIUM")
-                            .reason(String.format("Interested client - no contact in %d days", daysSince))
-                            .lastContactDate(lastNote.getCallDate())
-                            .daysSinceContact((int) daysSince)
-                            .recommendedAction("Send property matches or schedule viewing")
-                            .build());
-                }
+        Set<UUID> overdueClientIds = overdue.stream()
+                .map(CallNoteRepository.ClientContact::getClientId)
+                .collect(Collectors.toSet());
+        Set<UUID> hotLeadClientIds = new HashSet<>();
+
+        List<CallNoteRepository.ClientContact> staleInterested = callNoteRepository.findLatestContactsByOutcomeBefore(
+                agent, CallOutcome.INTERESTED, sevenDaysAgo);
+        for (CallNoteRepository.ClientContact lastNote : staleInterested) {
+            // Two notes sharing the latest call date would list the client twice
+            if (overdueClientIds.contains(lastNote.getClientId()) || !hotLeadClientIds.add(lastNote.getClientId())) {
+                continue;
             }
+
+            long daysSince = ChronoUnit.DAYS.between(lastNote.getCallDate(), now);
+            insights.add(ClientInsightDto.builder()
+                    .clientId(lastNote.getClientId().toString())
+                    .clientName(lastNote.getFullName())
+                    .urgency("MEDIUM")
+                    .reason(String.format("Interested client - no contact in %d days", daysSince))
+                    .lastContactDate(lastNote.getCallDate())
+                    .daysSinceContact((int) daysSince)
+                    .recommendedAction("Send property matches or schedule viewing")
+                    .build());
         }
 
         // Limit to top N most urgent
@@ -469,11 +612,10 @@ public class DashboardAnalyticsService {
                 .collect(Collectors.toList());
     }
 
-    private List<String> generateSuggestedActions(Agent agent) {
+    private List<String> generateSuggestedActions(PipelineHealthDto health, PropertyPortfolioDto portfolio) {
         List<String> actions = new ArrayList<>();
 
         // Check pipeline health
-        PipelineHealthDto health = calculatePipelineHealth(agent);
 
         if (health.getOverdueFollowUps() > 0) {
             actions.add(String.format("🚨 Contact %d clients with overdue follow-ups", health.getOverdueFollowUps()));
@@ -488,7 +630,6 @@ public class DashboardAnalyticsService {
         }
 
         // Check property portfolio
-        PropertyPortfolioDto portfolio = calculatePropertyPortfolio(agent);
         long propertiesWithoutImages = portfolio.getTotalProperties() - portfolio.getPropertiesWithImages();
         if (propertiesWithoutImages > 0) {
             actions.add(String.format("📸 Add images to %d properties", propertiesWithoutImages));
@@ -0,0 +1,298 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.DashboardAnalyticsDto;
+import com.marklerapp.crm.dto.DashboardDeltaDto;
+import com.marklerapp.crm.dto.DashboardDeltaDto.ChangeDto;
+import com.marklerapp.crm.dto.DashboardDeltaDto.Subject;
+import com.marklerapp.crm.event.CallNoteChangedEvent;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.ClientChangedEvent;
+import com.marklerapp.crm.event.DailyActivityRollupUpdatedEvent;
+import com.marklerapp.crm.event.PropertyChangedEvent;
+import com.marklerapp.crm.event.ViewingChangedEvent;
+import com.marklerapp.crm.service.DashboardAnalyticsService.Section;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Live dashboard over Server-Sent Events.
+ *
+ * <p>A subscriber first receives a {@code snapshot} event with the full dashboard. After that,
+ * the change events the services publish for the agent's call notes, clients, properties and
+ * viewings are collected for a short coalescing delay and then pushed as a single {@code delta}
+ * event: the changes themselves plus only the sections they affect, recomputed. A burst of
+ * changes (e.g. a CSV import) therefore costs one partial recomputation, not one per change.
+ * Activity trends are refreshed once the daily activity rollup has caught up
+ * ({@link DailyActivityRollupUpdatedEvent}), since they are read from it.</p>
+ *
+ * <p>Agents without an open stream cost nothing: their events are dropped on arrival. A comment
+ * line is sent periodically so proxies keep idle streams open and closed ones are noticed.</p>
+ */
+@Slf4j
+@Service
+public class DashboardLiveService {
+
+    /** Most changes listed in one delta; {@link DashboardDeltaDto#getChangeCount()} has the total. */
+    static final int CHANGES_SHOWN = 50;
+
+    private static final Map<Subject, Set<Section>> AFFECTED_SECTIONS = Map.of(
+            Subject.CALL_NOTE, EnumSet.of(Section.CONVERSION_FUNNEL, Section.PIPELINE_HEALTH,
+                    Section.CLIENTS_NEEDING_ATTENTION, Section.SUGGESTED_ACTIONS),
+            Subject.CLIENT, EnumSet.of(Section.CONVERSION_FUNNEL, Section.PIPELINE_HEALTH,
+                    Section.CLIENTS_NEEDING_ATTENTION, Section.NEW_MATCHES, Section.SUGGESTED_ACTIONS),
+            Subject.PROPERTY, EnumSet.of(Section.PROPERTY_PORTFOLIO, Section.REVENUE,
+                    Section.NEW_MATCHES, Section.SUGGESTED_ACTIONS),
+            // No section reads viewings; the change is still listed so the client can react to it
+            Subject.VIEWING, EnumSet.noneOf(Section.class),
+            Subject.ACTIVITY, EnumSet.of(Section.ACTIVITY_TRENDS));
+
+    private final DashboardAnalyticsService dashboardAnalyticsService;
+    private final TaskScheduler taskScheduler;
+    private final Executor taskExecutor;
+    private final long timeoutMillis;
+    private final Duration coalesceDelay;
+
+    private final Map<UUID, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    public DashboardLiveService(DashboardAnalyticsService dashboardAnalyticsService,
+                                TaskScheduler taskScheduler,
+                                @Qualifier("taskExecutor") Executor taskExecutor,
+                                @Value("${app.analytics.live.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${app.analytics.live.coalesce-ms:500}") long coalesceMillis) {
+        this.dashboardAnalyticsService = dashboardAnalyticsService;
+        this.taskScheduler = taskScheduler;
+        this.taskExecutor = taskExecutor;
+        this.timeoutMillis = timeoutMillis;
+        this.coalesceDelay = Duration.ofMillis(coalesceMillis);
+    }
+
+    // ========================================
+    // Subscriptions
+    // ========================================
+
+    /**
+     * Open a live dashboard stream for an agent and send the current snapshot on it.
+     *
+     * <p>The stream is registered before the snapshot is computed, so no change committed in
+     * between is missed.</p>
+     *
+     * @param agentId the agent's UUID
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(UUID agentId) {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        subscribers.compute(agentId, (id, emitters) -> {
+            Set<SseEmitter> registered = emitters != null ? emitters : new CopyOnWriteArraySet<>();
+            registered.add(emitter);
+            return registered;
+        });
+        emitter.onCompletion(() -> unsubscribe(agentId, emitter));
+        emitter.onTimeout(() -> unsubscribe(agentId, emitter));
+        emitter.onError(e -> unsubscribe(agentId, emitter));
+
+        DashboardAnalyticsDto snapshot;
+        try {
+            snapshot = dashboardAnalyticsService.generateAnalytics(agentId);
+        } catch (RuntimeException e) {
+            unsubscribe(agentId, emitter);
+            throw e;
+        }
+        send(agentId, emitter, () -> SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+        log.info("Live dashboard opened for agent {} ({} open)", agentId, subscriberCount(agentId));
+        return emitter;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    int subscriberCount(UUID agentId) {
+        Set<SseEmitter> emitters = subscribers.get(agentId);
+        return emitters != null ? emitters.size() : 0;
+    }
+
+    private void unsubscribe(UUID agentId, SseEmitter emitter) {
+        subscribers.computeIfPresent(agentId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    // ========================================
+    // Change Events
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCallNoteChanged(CallNoteChangedEvent event) {
+        record(event.agentId(), Subject.CALL_NOTE, event.changeType(), event.callNoteId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        record(event.agentId(), Subject.CLIENT, event.changeType(), event.clientId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        record(event.agentId(), Subject.PROPERTY, event.changeType(), event.propertyId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onViewingChanged(ViewingChangedEvent event) {
+        record(event.agentId(), Subject.VIEWING, event.changeType(), event.viewingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyActivityRollupUpdated(DailyActivityRollupUpdatedEvent event) {
+        record(event.agentId(), Subject.ACTIVITY, null, null);
+    }
+
+    /**
+     * Add a change to the agent's pending delta; the first change of a delta schedules its flush.
+     */
+    private void record(UUID agentId, Subject subject, ChangeType changeType, UUID entityId) {
+        if (!subscribers.containsKey(agentId)) {
+            return;
+        }
+        ChangeDto change = ChangeDto.builder()
+                .subject(subject)
+                .changeType(changeType)
+                .entityId(entityId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        boolean[] opened = {false};
+        pending.compute(agentId, (id, delta) -> {
+            PendingDelta current = delta;
+            if (current == null) {
+                current = new PendingDelta();
+                opened[0] = true;
+            }
+            current.add(change, AFFECTED_SECTIONS.get(subject));
+            return current;
+        });
+        if (opened[0]) {
+            scheduleFlush(agentId);
+        }
+    }
+
+    /**
+     * Hand the agent's pending delta to the executor after the coalescing delay. If the executor
+     * is saturated, the delta stays pending (later changes join it) and the hand-off is retried
+     * after another delay; dropping it would leave the delta open and the stream silent for good.
+     */
+    private void scheduleFlush(UUID agentId) {
+        // The scheduler only hands off: recomputing sections blocks, and it runs the other scheduled jobs too
+        taskScheduler.schedule(() -> {
+            try {
+                taskExecutor.execute(() -> flush(agentId));
+            } catch (RejectedExecutionException e) {
+                log.debug("Executor saturated, retrying live dashboard delta for agent {} later", agentId);
+                scheduleFlush(agentId);
+            }
+        }, Instant.now().plus(coalesceDelay));
+    }
+
+    /**
+     * Recompute the sections affected by the agent's pending changes and push them as one delta.
+     */
+    void flush(UUID agentId) {
+        PendingDelta delta = pending.remove(agentId);
+        if (delta == null || !subscribers.containsKey(agentId)) {
+            return;
+        }
+        try {
+            DashboardDeltaDto update = DashboardDeltaDto.builder()
+                    .changes(new ArrayList<>(delta.changes))
+                    .changeCount(delta.changeCount)
+                    .sections(delta.sections.isEmpty()
+                            ? null
+                            : dashboardAnalyticsService.generateAnalytics(agentId, delta.sections))
+                    .build();
+            broadcast(agentId, () -> SseEmitter.event().name("delta").data(update, MediaType.APPLICATION_JSON));
+        } catch (RuntimeException e) {
+            log.error("Pushing live dashboard delta failed for agent {}: {}", agentId, e.getMessage(), e);
+        }
+    }
+
+    // ========================================
+    // Sending
+    // ========================================
+
+    /**
+     * Keep idle streams open through proxies and drop the ones whose client went away.
+     */
+    @Scheduled(fixedRateString = "${app.analytics.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (UUID agentId : subscribers.keySet()) {
+            broadcast(agentId, () -> SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void broadcast(UUID agentId, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<SseEmitter> emitters = subscribers.get(agentId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(agentId, emitter, event);
+        }
+    }
+
+    /**
+     * Send one event, building it per emitter (an event builder can't be sent twice).
+     */
+    private void send(UUID agentId, SseEmitter emitter, Supplier<SseEmitter.SseEventBuilder> event) {
+        try {
+            emitter.send(event.get());
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected or the emitter already completed; the container cleans up the response
+            log.debug("Dropping live dashboard stream of agent {}: {}", agentId, e.getMessage());
+            unsubscribe(agentId, emitter);
+        }
+    }
+
+    /**
+     * Changes collected for one agent until the next flush.
+     */
+    private static final class PendingDelta {
+
+        private final Deque<ChangeDto> changes = new ArrayDeque<>();
+        private final Set<Section> sections = EnumSet.noneOf(Section.class);
+        private int changeCount;
+
+        void add(ChangeDto change, Set<Section> affected) {
+            if (changes.size() == CHANGES_SHOWN) {
+                changes.removeFirst();
+            }
+            changes.addLast(change);
+            sections.addAll(affected);
+            changeCount++;
+        }
+    }
+}
@@ -4,7 +4,10 @@ import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundExceptio
 import com.marklerapp.crm.constants.ValidationConstants;
 import com.marklerapp.crm.dto.FileAttachmentDto;
 import com.marklerapp.crm.dto.FileAttachmentUploadDto;
+import com.marklerapp.crm.dto.FileContentDto;
 import com.marklerapp.crm.entity.*;
+import com.marklerapp.crm.exception.FileNotFoundException;
+import com.marklerapp.crm.exception.FileStorageException;
 import com.marklerapp.crm.mapper.FileAttachmentMapper;
 import com.marklerapp.crm.repository.ClientRepository;
 import com.marklerapp.crm.repository.FileAttachmentRepository;
@@ -16,9 +19,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -29,7 +32,7 @@ import java.util.stream.Collectors;
  * <p>This service provides:
  * <ul>
  *   <li>File upload with validation (size, type, format)</li>
- *   <li>File download with Base64 decoding</li>
+ *   <li>File content in the {@link BlobStore}, deduplicated by content</li>
  *   <li>File metadata management</li>
  *   <li>Agent ownership validation</li>
  *   <li>CRUD operations for attachments</li>
@@ -51,6 +54,7 @@ public class FileAttachmentService {
     private final PropertyRepository propertyRepository;
     private final ClientRepository clientRepository;
     private final FileAttachmentMapper fileAttachmentMapper;
+    private final BlobStore blobStore;
 
     /**
      * Upload a file attachment for a property.
@@ -79,8 +83,8 @@ public class FileAttachmentService {
         // Validate file
         validateAttachmentFile(file);
 
-        // Convert file to Base64
-        String base64Data = convertToBase64(file);
+        // Store file content in the blob store
+        String blobKey = storeContent(file);
 
         // Determine file name
         String fileName = uploadDto.getCustomFileName() != null ?
@@ -92,7 +96,7 @@ public class FileAttachmentService {
             .agent(property.getAgent())
             .fileName(fileName)
             .originalFileName(file.getOriginalFilename())
-            .fileData(base64Data)
+            .blobKey(blobKey)
             .fileSize(file.getSize())
             .mimeType(file.getContentType())
             .fileType(uploadDto.getFileType())
@@ -134,8 +138,8 @@ public class FileAttachmentService {
         // Validate file
         validateAttachmentFile(file);
 
-        // Convert file to Base64
-        String base64Data = convertToBase64(file);
+        // Store file content in the blob store
+        String blobKey = storeContent(file);
 
         // Determine file name
         String fileName = uploadDto.getCustomFileName() != null ?
@@ -147,7 +151,7 @@ public class FileAttachmentService {
             .agent(client.getAgent())
             .fileName(fileName)
             .originalFileName(file.getOriginalFilename())
-            .fileData(base64Data)
+            .blobKey(blobKey)
             .fileSize(file.getSize())
             .mimeType(file.getContentType())
             .fileType(uploadDto.getFileType())
@@ -217,7 +221,10 @@ public class FileAttachmentService {
      * @param agentId the ID of the agent downloading the file
      * @return the file attachment DTO with file data
      * @throws ResourceNotFoundException if attachment is not found or access denied
+     * @deprecated reads the whole file into memory to Base64-encode it; use
+     *             {@link #openAttachmentContent(UUID, UUID)}, which streams it
      */
+    @Deprecated
     @Transactional(readOnly = true)
     public FileAttachmentDto downloadAttachment(UUID attachmentId, UUID agentId) {
         log.debug("Downloading attachment: {} by agent: {}", attachmentId, agentId);
@@ -229,6 +236,45 @@ public class FileAttachmentService {
         return fileAttachmentMapper.toDtoWithFileData(attachment);
     }
 
+    /**
+     * Open a file attachment's content for a streaming download.
+     *
+     * <p>An attachment the blob migration has not reached yet is moved into the blob store
+     * first, so every download streams from there.</p>
+     *
+     * @param attachmentId the ID of the attachment
+     * @param agentId the ID of the agent downloading the file
+     * @return the attachment's content, read while the response is written
+     * @throws ResourceNotFoundException if attachment is not found or access denied
+     * @throws FileNotFoundException if the attachment has no stored content
+     */
+    @Transactional
+    public FileContentDto openAttachmentContent(UUID attachmentId, UUID agentId) {
+        log.debug("Streaming attachment: {} by agent: {}", attachmentId, agentId);
+
+        FileAttachment attachment = getAttachmentByIdAndValidateOwnership(attachmentId, agentId);
+
+        try {
+            if (attachment.getBlobKey() == null && attachment.getFileData() != null) {
+                attachment.setBlobKey(blobStore.putBase64(attachment.getFileData()).key());
+                attachment.setFileData(null);
+            }
+            if (attachment.getBlobKey() == null) {
+                throw new FileNotFoundException("Attachment content not found: " + attachmentId);
+            }
+            return FileContentDto.builder()
+                .fileName(attachment.getFileName())
+                .contentType(attachment.getMimeType())
+                .blobKey(attachment.getBlobKey())
+                .content(blobStore.resource(attachment.getBlobKey()))
+                .build();
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException("Attachment content not found: " + attachmentId, e);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read attachment " + attachmentId, e);
+        }
+    }
+
     /**
      * Delete a file attachment.
      *
@@ -291,11 +337,12 @@ public class FileAttachmentService {
     // ========================================
 
     /**
-     * Convert MultipartFile to Base64 string
+     * Stream the uploaded file into the blob store and return its key
      */
-    private String convertToBase64(MultipartFile file) throws IOException {
-        byte[] bytes = file.getBytes();
-        return Base64.getEncoder().encodeToString(bytes);
+    private String storeContent(MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return blobStore.put(content).key();
+        }
     }
 
     /**
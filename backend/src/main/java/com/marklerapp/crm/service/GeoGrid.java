@@ -0,0 +1,212 @@
+package com.marklerapp.crm.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Uniform latitude/longitude grid over the geocoded rows of one
+ * {@link PropertyMatchIndex.Portfolio}, answering "which rows lie within R km of a pin".
+ *
+ * <p>A radius query only visits the cells overlapping the pin's bounding box, so an agent
+ * covering a whole metro region no longer pays a haversine per property for every
+ * restrictToSearchRadius match. Candidates from those cells go through a cheap
+ * equirectangular estimate first; only the ones it can't decide with a safety margin get
+ * the exact haversine. The result is exactly the set of rows whose haversine distance is
+ * at most R, the same rule the matching gate applied before this grid existed.</p>
+ *
+ * <p>Immutable and built from a snapshot's coordinate columns, so it is shared by
+ * concurrent readers like the snapshot itself.</p>
+ */
+final class GeoGrid {
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+
+    // 0.25° is ~28 km north-south: a 200 km radius (the criteria maximum) spans a few hundred
+    // cells, a city-sized one a handful
+    private static final double CELL_DEGREES = 0.25;
+    private static final int COLUMNS = (int) (360 / CELL_DEGREES);
+    private static final int LATITUDE_BANDS = (int) (180 / CELL_DEGREES);
+
+    // The equirectangular estimate stays within 0.2% of haversine up to 300 km below 70°
+    // latitude; beyond that band every candidate gets the exact haversine
+    private static final double PRECHECK_MARGIN = 0.01;
+    private static final double PRECHECK_MAX_LATITUDE = 70.0;
+
+    private static final double EDGE_PADDING_DEGREES = 1e-9;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final double[] latitude;
+    private final double[] longitude;
+    private final Map<Integer, int[]> cells;
+    private final int[] ungeocoded;
+
+    private GeoGrid(double[] latitude, double[] longitude, Map<Integer, int[]> cells, int[] ungeocoded) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.cells = cells;
+        this.ungeocoded = ungeocoded;
+    }
+
+    /**
+     * Bucket the first {@code size} rows of the given coordinate columns; rows with a NaN
+     * coordinate are kept aside as ungeocoded. The arrays are referenced, not copied, and
+     * must not change afterwards.
+     */
+    static GeoGrid build(double[] latitude, double[] longitude, int size) {
+        // Sort (cell, row) pairs packed into longs, then slice each cell's run into an array
+        long[] packed = new long[size];
+        int geocoded = 0;
+        int[] ungeocoded = new int[size];
+        int ungeocodedCount = 0;
+        for (int row = 0; row < size; row++) {
+            if (Double.isNaN(latitude[row]) || Double.isNaN(longitude[row])) {
+                ungeocoded[ungeocodedCount++] = row;
+            } else {
+                packed[geocoded++] = ((long) cellOf(latitude[row], longitude[row]) << 32) | row;
+            }
+        }
+        Arrays.sort(packed, 0, geocoded);
+
+        Map<Integer, int[]> cells = new HashMap<>();
+        int start = 0;
+        while (start < geocoded) {
+            int cell = (int) (packed[start] >>> 32);
+            int end = start;
+            while (end < geocoded && (int) (packed[end] >>> 32) == cell) {
+                end++;
+            }
+            int[] rows = new int[end - start];
+            for (int i = start; i < end; i++) {
+                rows[i - start] = (int) packed[i];
+            }
+            cells.put(cell, rows);
+            start = end;
+        }
+        return new GeoGrid(latitude, longitude, cells, Arrays.copyOf(ungeocoded, ungeocodedCount));
+    }
+
+    /**
+     * Rows without coordinates, which a radius query can say nothing about.
+     */
+    int[] ungeocodedRows() {
+        return ungeocoded;
+    }
+
+    /**
+     * Geocoded rows within {@code radiusKm} (haversine) of the pin, in no particular order.
+     */
+    int[] rowsWithin(double pinLatitude, double pinLongitude, double radiusKm) {
+        if (cells.isEmpty()) {
+            return NO_ROWS;
+        }
+        // Bounding box of the spherical cap: latitude by the angular radius, longitude by the
+        // widest meridian offset at the pin's latitude (or all of them if the cap reaches a pole).
+        // Both are padded by a hair so rounding can't drop a row sitting exactly on the edge.
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latitudeSpan = Math.toDegrees(angularRadius) + EDGE_PADDING_DEGREES;
+        double minLatitude = pinLatitude - latitudeSpan;
+        double maxLatitude = pinLatitude + latitudeSpan;
+
+        boolean allColumns = minLatitude <= -90 || maxLatitude >= 90;
+        double longitudeSpan = 180;
+        if (!allColumns) {
+            double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(pinLatitude));
+            allColumns = ratio >= 1;
+            if (!allColumns) {
+                longitudeSpan = Math.toDegrees(Math.asin(ratio)) + EDGE_PADDING_DEGREES;
+            }
+        }
+
+        int firstBand = band(minLatitude);
+        int lastBand = band(maxLatitude);
+        int firstColumn = (int) Math.floor((pinLongitude - longitudeSpan + 180) / CELL_DEGREES);
+        int lastColumn = (int) Math.floor((pinLongitude + longitudeSpan + 180) / CELL_DEGREES);
+        if (allColumns || lastColumn - firstColumn + 1 >= COLUMNS) {
+            firstColumn = 0;
+            lastColumn = COLUMNS - 1;
+        }
+
+        int[] result = new int[16];
+        int count = 0;
+        for (int band = firstBand; band <= lastBand; band++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int[] rows = cells.get(band * COLUMNS + Math.floorMod(column, COLUMNS));
+                if (rows == null) {
+                    continue;
+                }
+                for (int row : rows) {
+                    if (withinRadius(pinLatitude, pinLongitude, latitude[row], longitude[row], radiusKm)) {
+                        if (count == result.length) {
+                            result = Arrays.copyOf(result, count * 2);
+                        }
+                        result[count++] = row;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // ========================================
+    // Distance
+    // ========================================
+
+    /**
+     * Whether two coordinates are at most {@code radiusKm} apart by haversine, deciding
+     * clear cases from the equirectangular estimate alone.
+     */
+    static boolean withinRadius(double lat1, double lng1, double lat2, double lng2, double radiusKm) {
+        if (Math.abs(lat1) <= PRECHECK_MAX_LATITUDE && Math.abs(lat2) <= PRECHECK_MAX_LATITUDE) {
+            double estimate = equirectangularKm(lat1, lng1, lat2, lng2);
+            if (estimate > radiusKm * (1 + PRECHECK_MARGIN)) {
+                return false;
+            }
+            if (estimate < radiusKm * (1 - PRECHECK_MARGIN)) {
+                return true;
+            }
+        }
+        return distanceKm(lat1, lng1, lat2, lng2) <= radiusKm;
+    }
+
+    /**
+     * Great-circle distance between two coordinates in kilometers (haversine formula).
+     */
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaPhi = Math.toRadians(lat2 - lat1);
+        double deltaLambda = Math.toRadians(lng2 - lng1);
+
+        double a = Math.sin(deltaPhi / 2) * Math.sin(deltaPhi / 2)
+                + Math.cos(phi1) * Math.cos(phi2) * Math.sin(deltaLambda / 2) * Math.sin(deltaLambda / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Flat-earth distance estimate at the mean latitude: one cosine, no trigonometry on the
+     * result. Accurate to a fraction of a percent at the distances matching cares about.
+     */
+    static double equirectangularKm(double lat1, double lng1, double lat2, double lng2) {
+        double deltaLongitude = lng2 - lng1;
+        if (deltaLongitude > 180) {
+            deltaLongitude -= 360;
+        } else if (deltaLongitude < -180) {
+            deltaLongitude += 360;
+        }
+        double x = Math.toRadians(deltaLongitude) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+    }
+
+    private static int cellOf(double latitude, double longitude) {
+        int column = Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+        return band(latitude) * COLUMNS + column;
+    }
+
+    private static int band(double latitude) {
+        int band = (int) Math.floor((latitude + 90) / CELL_DEGREES);
+        return Math.max(0, Math.min(LATITUDE_BANDS - 1, band));
+    }
+}
@@ -0,0 +1,245 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.constants.ValidationConstants;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
+import com.marklerapp.crm.entity.PropertyImage;
+import com.marklerapp.crm.repository.PropertyImageRepository;
+import com.marklerapp.crm.util.ImageReadUtil;
+import com.marklerapp.crm.util.ImageReadUtil.ImagePreview;
+import com.marklerapp.crm.util.TransactionSyncUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Background processing of uploaded property images: thumbnail generation, responsive variants
+ * (see {@link ImageVariantService}) and, with Supabase Storage configured, the hand-off of
+ * original and thumbnail to the bucket.
+ *
+ * <p>The upload request only stores the original and marks the image
+ * {@link ImageProcessingStatus#PENDING}; the {@code property_images} table is the job queue.
+ * After the upload commits, the image is handed to the bounded {@code imageProcessingExecutor},
+ * so scaling runs on at most {@code app.image-processing.parallelism} threads and never on a
+ * request thread. A worker claims an image by moving it from PENDING to PROCESSING, so an image
+ * submitted twice is still processed once.</p>
+ *
+ * <p>Images the executor could not take (its queue was full) stay PENDING and are submitted
+ * again by a periodic sweep; images left PROCESSING by a shutdown are reset to PENDING on
+ * startup.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageProcessingService {
+
+    private static final int SWEEP_BATCH_SIZE = 50;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PropertyImageRepository propertyImageRepository;
+    private final BlobStore blobStore;
+    private final ImageVariantService imageVariantService;
+    private final Optional<SupabaseStorageService> supabaseStorage;
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier("imageProcessingExecutor")
+    private final Executor imageProcessingExecutor;
+
+    /**
+     * How long an image may stay PENDING before the sweep submits it again
+     */
+    @Value("${app.image-processing.sweep-interval-ms:30000}")
+    private long sweepIntervalMs;
+
+    /**
+     * Queue an image for processing once the current transaction has committed.
+     *
+     * @param imageId the newly stored, PENDING image
+     */
+    public void enqueue(UUID imageId) {
+        TransactionSyncUtil.runAfterCommit(() -> submit(imageId));
+    }
+
+    /**
+     * Submit PENDING images the executor has not taken, e.g. because its queue was full.
+     */
+    @Scheduled(initialDelayString = "${app.image-processing.sweep-interval-ms:30000}",
+               fixedDelayString = "${app.image-processing.sweep-interval-ms:30000}")
+    public void requeuePending() {
+        requeuePendingCreatedBefore(LocalDateTime.now().minus(Duration.ofMillis(sweepIntervalMs)));
+    }
+
+    /**
+     * Resume processing interrupted by the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        Integer reset = transactionTemplate.execute(status -> propertyImageRepository.transitionAllProcessingStatus(
+            ImageProcessingStatus.PROCESSING, ImageProcessingStatus.PENDING));
+        if (reset != null && reset > 0) {
+            log.info("Re-queued {} image(s) whose processing was interrupted", reset);
+        }
+        requeuePendingCreatedBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Thumbnail file name of an image file name, e.g. {@code a.jpg} → {@code a_thumb.jpg}.
+     */
+    static String toThumbnailFilename(String filename) {
+        int dot = filename.lastIndexOf(".");
+        return dot > 0
+            ? filename.substring(0, dot) + "_thumb" + filename.substring(dot)
+            : filename + "_thumb";
+    }
+
+    /**
+     * Process one image if it is still PENDING; runs on the executor.
+     */
+    void process(UUID imageId) {
+        Boolean claimed = transactionTemplate.execute(status -> propertyImageRepository.transitionProcessingStatus(
+            imageId, ImageProcessingStatus.PENDING, ImageProcessingStatus.PROCESSING) == 1);
+        if (!Boolean.TRUE.equals(claimed)) {
+            return;
+        }
+
+        try {
+            PropertyImage image = propertyImageRepository.findById(imageId).orElse(null);
+            if (image == null) {
+                return;
+            }
+            // Scaling and uploads run outside any transaction; only the result is written in one
+            Derivatives derivatives = generateDerivatives(image);
+            transactionTemplate.executeWithoutResult(status ->
+                propertyImageRepository.findById(imageId).ifPresent(current -> {
+                    derivatives.applyTo(current);
+                    current.setProcessingStatus(ImageProcessingStatus.READY);
+                    current.setProcessingError(null);
+                }));
+            log.debug("Processed image {}", imageId);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Processing image {} failed: {}", imageId, e.getMessage());
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            transactionTemplate.executeWithoutResult(status ->
+                propertyImageRepository.findById(imageId).ifPresent(current -> {
+                    current.setProcessingStatus(ImageProcessingStatus.FAILED);
+                    current.setProcessingError(error.length() > MAX_ERROR_LENGTH
+                        ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                }));
+        }
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private void requeuePendingCreatedBefore(LocalDateTime before) {
+        List<UUID> pending = propertyImageRepository.findIdsByProcessingStatusCreatedBefore(
+            ImageProcessingStatus.PENDING, before, PageRequest.of(0, SWEEP_BATCH_SIZE));
+        pending.forEach(this::submit);
+    }
+
+    private void submit(UUID imageId) {
+        try {
+            imageProcessingExecutor.execute(() -> process(imageId));
+        } catch (RejectedExecutionException e) {
+            log.debug("Image processing queue is full; image {} stays pending for the next sweep", imageId);
+        }
+    }
+
+    private Derivatives generateDerivatives(PropertyImage image) throws IOException {
+        Resource original = blobStore.resource(image.getImageBlobKey());
+        // Decode only a subsampled copy, about twice the thumbnail size
+        ImagePreview preview = ImageReadUtil.readPreview(original, 2 * ValidationConstants.THUMBNAIL_SIZE);
+        if (preview == null) {
+            throw new IllegalArgumentException("Unreadable image format: " + image.getContentType());
+        }
+        byte[] thumbBytes = generateThumbnailBytes(preview.preview(), image.getContentType());
+
+        if (supabaseStorage.isPresent()) {
+            String basePath = "properties/" + image.getProperty().getId() + "/";
+            String thumbFilename = toThumbnailFilename(image.getFilename());
+            supabaseStorage.get().upload(basePath + image.getFilename(), original, image.getContentType());
+            supabaseStorage.get().upload(basePath + thumbFilename, thumbBytes, image.getContentType());
+            return new Derivatives(null, basePath + image.getFilename(), basePath + thumbFilename);
+        }
+        String thumbnailBlobKey = blobStore.put(thumbBytes).key();
+        prewarmVariants(image);
+        return new Derivatives(thumbnailBlobKey, null, null);
+    }
+
+    private void prewarmVariants(PropertyImage image) {
+        if (image.getWidth() == null || image.getHeight() == null) {
+            return;
+        }
+        try {
+            imageVariantService.prewarm(image.getImageBlobKey(), image.getWidth(), image.getHeight());
+        } catch (IOException | RuntimeException e) {
+            // Variants are only a cache; a missing one is rendered when it is requested
+            log.warn("Could not render variants of image {}: {}", image.getId(), e.getMessage());
+        }
+    }
+
+    private byte[] generateThumbnailBytes(BufferedImage original, String contentType) throws IOException {
+        int maxSize = ValidationConstants.THUMBNAIL_SIZE;
+        double scale = Math.min((double) maxSize / original.getWidth(),
+                                (double) maxSize / original.getHeight());
+        int w = Math.max(1, (int) (original.getWidth() * scale));
+        int h = Math.max(1, (int) (original.getHeight() * scale));
+
+        BufferedImage thumb = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumb.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(original, 0, 0, w, h, null);
+        g.dispose();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (!ImageIO.write(thumb, getFormatName(contentType), baos)) {
+            throw new IllegalArgumentException("No thumbnail encoder for " + contentType);
+        }
+        return baos.toByteArray();
+    }
+
+    private String getFormatName(String contentType) {
+        if (contentType == null) return "jpg";
+        if (contentType.contains("png"))  return "png";
+        if (contentType.contains("gif"))  return "gif";
+        if (contentType.contains("webp")) return "webp";
+        return "jpg";
+    }
+
+    /**
+     * Where the derivatives of an image went: a thumbnail blob, or Supabase Storage paths of
+     * original and thumbnail (after which the local original is left to the orphan sweep).
+     */
+    private record Derivatives(String thumbnailBlobKey, String storagePath, String thumbnailStoragePath) {
+
+        void applyTo(PropertyImage image) {
+            if (storagePath != null) {
+                image.setStoragePath(storagePath);
+                image.setThumbnailStoragePath(thumbnailStoragePath);
+                image.setImageBlobKey(null);
+            } else {
+                image.setThumbnailBlobKey(thumbnailBlobKey);
+            }
+        }
+    }
+}
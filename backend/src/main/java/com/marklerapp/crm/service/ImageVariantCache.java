@@ -0,0 +1,176 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded cache of image variants on the local file system, evicting the least recently
+ * used entries once {@code app.file-storage.variants.cache-max-size} is exceeded.
+ *
+ * <p>Variants are derived data: they can be rendered again from the original at any time, so
+ * nothing here is backed up or migrated. Entries are written to a temp file and renamed into
+ * place, so a cached file is always complete. The recency order lives in memory and is rebuilt
+ * from modification times on startup.</p>
+ */
+@Slf4j
+@Component
+public class ImageVariantCache {
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final String TMP_DIR = "tmp";
+
+    private final Path root;
+    private final Path tmpDir;
+    private final long maxBytes;
+
+    /**
+     * Cached entries and their sizes, least recently used first
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    @Autowired
+    public ImageVariantCache(FileStorageProperties fileStorageProperties) {
+        this(Paths.get(fileStorageProperties.getVariants().getCacheDir()),
+             fileStorageProperties.getVariants().getCacheMaxSize().toBytes());
+    }
+
+    ImageVariantCache(Path root, long maxBytes) {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve(TMP_DIR);
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(tmpDir);
+            load();
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileStorageException("Could not open image variant cache " + this.root, e);
+        }
+        log.info("Image variant cache at {}: {} entries, {} of {} bytes", this.root, entries.size(), totalBytes, maxBytes);
+    }
+
+    /**
+     * The cached entry, marked as recently used; null if it is not cached.
+     */
+    public synchronized Resource get(String key) {
+        Path file = path(key);
+        if (entries.get(key) == null) {
+            return null;
+        }
+        if (!Files.exists(file)) {
+            // Removed behind our back, e.g. by hand
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+        return new FileSystemResource(file);
+    }
+
+    /**
+     * Cache an entry, replacing any entry with the same key, and evict least recently used
+     * entries until the cache is within its size again.
+     *
+     * @return the cached entry
+     */
+    public Resource put(String key, byte[] content) throws IOException {
+        Path file = path(key);
+        Path tmp = Files.createTempFile(tmpDir, "variant-", ".part");
+        try {
+            Files.write(tmp, content);
+            synchronized (this) {
+                move(tmp, file);
+                Long previous = entries.put(key, (long) content.length);
+                totalBytes += content.length - (previous == null ? 0 : previous);
+                evict();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return new FileSystemResource(file);
+    }
+
+    synchronized long size() {
+        return totalBytes;
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid variant cache key: " + key);
+        }
+        return root.resolve(key);
+    }
+
+    /**
+     * Remove least recently used entries until the cache fits; the most recent entry is kept
+     * even if it alone exceeds the limit.
+     */
+    private void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1) {
+            Map.Entry<String, Long> entry = eldest.next();
+            Files.deleteIfExists(root.resolve(entry.getKey()));
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private void load() throws IOException {
+        try (Stream<Path> tmpFiles = Files.list(tmpDir)) {
+            for (Path tmp : tmpFiles.toList()) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        List<Path> files;
+        try (Stream<Path> cached = Files.list(root)) {
+            files = cached
+                .filter(file -> KEY.matcher(file.getFileName().toString()).matches() && Files.isRegularFile(file))
+                .sorted(Comparator.comparing(ImageVariantCache::lastModified))
+                .toList();
+        }
+        for (Path file : files) {
+            long size = Files.size(file);
+            entries.put(file.getFileName().toString(), size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
+import com.marklerapp.crm.util.ImageReadUtil;
+import com.marklerapp.crm.util.ImageReadUtil.ImagePreview;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Responsive variants of property images: copies scaled to one of the configured widths
+ * ({@code app.file-storage.variants.widths}) and recompressed as JPEG, so a phone listing
+ * properties loads tens of kilobytes per image instead of a multi-megabyte original.
+ *
+ * <p>Variants live in the {@link ImageVariantCache}. They are rendered ahead of time by
+ * {@link ImageProcessingService} after an upload and on demand when a requested variant was
+ * evicted or the image predates variants. Requested widths are rounded up to a configured
+ * width, so arbitrary {@code ?w=} values cannot fill the cache with near-duplicates; images are
+ * never scaled up.</p>
+ *
+ * <p>On-demand renders run on the bounded {@code imageProcessingExecutor}, not on the request
+ * thread, and concurrent requests for the same variant wait for one render. When that
+ * executor is saturated the original is served instead.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    public static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    private final BlobStore blobStore;
+    private final ImageVariantCache imageVariantCache;
+    private final FileStorageProperties fileStorageProperties;
+    @Qualifier("imageProcessingExecutor")
+    private final Executor imageProcessingExecutor;
+
+    private final Map<String, CompletableFuture<Variant>> rendering = new ConcurrentHashMap<>();
+
+    /**
+     * A rendered variant.
+     *
+     * @param key     cache key; stable for the same original and width, so usable as ETag
+     * @param width   width of the variant in pixels
+     * @param content the JPEG
+     */
+    public record Variant(String key, int width, Resource content) {
+    }
+
+    /**
+     * The configured width a request for {@code requestedWidth} pixels is served with: the
+     * smallest configured width at least as large, else the largest configured width.
+     */
+    public int snapWidth(int requestedWidth) {
+        List<Integer> widths = widths();
+        return widths.stream()
+            .filter(width -> width >= requestedWidth)
+            .findFirst()
+            .orElse(widths.get(widths.size() - 1));
+    }
+
+    /**
+     * The variant of an image for a requested width, rendered on the image processing executor
+     * if it is not cached. Waits for a render of the same variant already in progress.
+     *
+     * @param blobKey        blob key of the original
+     * @param originalWidth  width of the original in pixels
+     * @param originalHeight height of the original in pixels
+     * @param requestedWidth the width the client asked for
+     * @return the variant, or null if the original is not wider than the variant would be or
+     *         the executor is saturated (serve the original then)
+     */
+    public Variant variant(String blobKey, int originalWidth, int originalHeight, int requestedWidth)
+            throws IOException {
+        Variant cached = cachedVariant(blobKey, originalWidth, requestedWidth);
+        int width = snapWidth(requestedWidth);
+        if (cached != null || width >= originalWidth) {
+            return cached;
+        }
+        String key = cacheKey(blobKey, width);
+
+        CompletableFuture<Variant> render = new CompletableFuture<>();
+        CompletableFuture<Variant> inProgress = rendering.putIfAbsent(key, render);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+        // Another render may have finished between the cache lookup and putIfAbsent
+        cached = cachedVariant(blobKey, originalWidth, requestedWidth);
+        if (cached != null) {
+            render.complete(cached);
+            rendering.remove(key, render);
+            return cached;
+        }
+        try {
+            imageProcessingExecutor.execute(() -> {
+                try {
+                    render.complete(render(blobKey, originalWidth, originalHeight, List.of(width)).get(0));
+                } catch (IOException | RuntimeException e) {
+                    render.completeExceptionally(e);
+                } finally {
+                    rendering.remove(key, render);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Image processing executor saturated, serving the original of blob {}", blobKey);
+            render.complete(null);
+            rendering.remove(key, render);
+            return null;
+        }
+        return await(render);
+    }
+
+    /**
+     * The cached variant of an image for a requested width, without rendering anything.
+     *
+     * @return the variant, or null if it is not cached or the original is not wider
+     */
+    public Variant cachedVariant(String blobKey, int originalWidth, int requestedWidth) {
+        int width = snapWidth(requestedWidth);
+        if (width >= originalWidth) {
+            return null;
+        }
+        String key = cacheKey(blobKey, width);
+        Resource cached = imageVariantCache.get(key);
+        return cached != null ? new Variant(key, width, cached) : null;
+    }
+
+    /**
+     * Render all configured variants narrower than the original that are not cached yet.
+     * Decodes the original once, subsampled to the largest of them.
+     *
+     * @return the number of variants rendered
+     */
+    public int prewarm(String blobKey, int originalWidth, int originalHeight) throws IOException {
+        List<Integer> missing = widths().stream()
+            .filter(width -> width < originalWidth && imageVariantCache.get(cacheKey(blobKey, width)) == null)
+            .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        return render(blobKey, originalWidth, originalHeight, missing).size();
+    }
+
+    /**
+     * Width of the listing preview of an image, i.e. the {@code ?w=} its previewUrl requests.
+     * Only offered once the preview is cached or the image is READY: a pending image gets its
+     * variants from the worker, and a request for it would only race that worker.
+     *
+     * @return the width, or null if the image is not in the blob store, not wider than the
+     *         preview or its preview is not available yet (the listing shows the original then)
+     */
+    public Integer previewWidth(String blobKey, Integer originalWidth, ImageProcessingStatus status) {
+        int width = snapWidth(fileStorageProperties.getVariants().getPreviewWidth());
+        if (blobKey == null || originalWidth == null || width >= originalWidth) {
+            return null;
+        }
+        if (status == ImageProcessingStatus.READY || imageVariantCache.get(cacheKey(blobKey, width)) != null) {
+            return width;
+        }
+        return null;
+    }
+
+    /**
+     * Cache key of the variant of an original at a width.
+     */
+    static String cacheKey(String blobKey, int width) {
+        return blobKey + "-w" + width;
+    }
+
+    /**
+     * Scale an image to a width, halving it with bilinear interpolation while it is more than
+     * twice as wide, so detail is averaged rather than skipped.
+     */
+    static BufferedImage scaleToWidth(BufferedImage source, int width) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        double aspect = (double) source.getHeight() / source.getWidth();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            int currentHeight = Math.max(1, (int) Math.round(currentWidth * aspect));
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            // JPEG has no alpha: transparent areas (logos, floor plans) become white, not black
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, currentWidth, currentHeight);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = next;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private static Variant await(CompletableFuture<Variant> render) throws IOException {
+        try {
+            return render.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an image variant");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private List<Integer> widths() {
+        return fileStorageProperties.getVariants().getWidths().stream().sorted().toList();
+    }
+
+    /**
+     * Decode the original once and cache a variant per width, widest first, each scaled down
+     * from the previous one.
+     */
+    private List<Variant> render(String blobKey, int originalWidth, int originalHeight, List<Integer> widths)
+            throws IOException {
+        List<Integer> descending = widths.stream().sorted(Comparator.reverseOrder()).toList();
+        // Subsample to the longer edge the widest variant needs
+        int widest = descending.get(0);
+        int minEdge = (int) Math.ceil((double) widest * Math.max(originalWidth, originalHeight) / originalWidth);
+        ImagePreview preview = ImageReadUtil.readPreview(blobStore.resource(blobKey), minEdge);
+        if (preview == null) {
+            throw new IOException("Unreadable image " + blobKey);
+        }
+
+        BufferedImage current = preview.preview();
+        List<Variant> rendered = new ArrayList<>();
+        for (int width : descending) {
+            current = scaleToWidth(current, width);
+            String key = cacheKey(blobKey, width);
+            rendered.add(new Variant(key, width, imageVariantCache.put(key, encodeJpeg(current))));
+        }
+        log.debug("Rendered {} variant(s) of blob {}", rendered.size(), blobKey);
+        return rendered;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(fileStorageProperties.getVariants().getQuality());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,86 @@
+package com.marklerapp.crm.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last invalidation stamp per key, for caches that must not accept (or keep serving) a value
+ * computed from data read before its key was invalidated. A computation takes
+ * {@link #current()} before it reads anything; its value is stale for a key if that key was
+ * invalidated since.
+ *
+ * <p>Bounded: once more than twice {@code retained} keys are tracked, the stamps of keys last
+ * invalidated more than {@code retained} invalidations ago are dropped and a floor replaces
+ * them. A value stamped below the floor counts as stale for every key, which only affects
+ * computations that started before that many invalidations happened.</p>
+ *
+ * @param <K> the key type, e.g. a client or agent ID
+ */
+final class InvalidationStamps<K> {
+
+    static final int DEFAULT_RETAINED = 10_000;
+
+    private final AtomicLong clock;
+    private final int retained;
+    private final Map<K, Long> stamps = new ConcurrentHashMap<>();
+    private volatile long floor;
+
+    /**
+     * @param clock shared by all stamps a computation is checked against, so one
+     *              {@link #current()} covers them all
+     */
+    InvalidationStamps(AtomicLong clock) {
+        this(clock, DEFAULT_RETAINED);
+    }
+
+    InvalidationStamps(AtomicLong clock, int retained) {
+        if (retained <= 0) {
+            throw new IllegalArgumentException("Retained invalidation stamps must be positive");
+        }
+        this.clock = clock;
+        this.retained = retained;
+    }
+
+    /**
+     * Stamp to take before reading the data a cached value is computed from.
+     */
+    long current() {
+        return clock.get();
+    }
+
+    /**
+     * Record that a key's data changed.
+     */
+    void invalidate(K key) {
+        stamps.put(key, clock.incrementAndGet());
+        if (stamps.size() > 2 * retained) {
+            prune();
+        }
+    }
+
+    /**
+     * Whether a value computed from data read at {@code stamp} is outdated for {@code key}.
+     */
+    boolean isStale(K key, long stamp) {
+        if (stamp < floor) {
+            return true;
+        }
+        Long invalidated = stamps.get(key);
+        return invalidated != null && stamp < invalidated;
+    }
+
+    int size() {
+        return stamps.size();
+    }
+
+    private synchronized void prune() {
+        if (stamps.size() <= 2 * retained) {
+            return;
+        }
+        long newFloor = clock.get() - retained;
+        // Raise the floor first, so a dropped stamp is always covered by it
+        floor = Math.max(floor, newFloor);
+        stamps.values().removeIf(invalidated -> invalidated <= newFloor);
+    }
+}
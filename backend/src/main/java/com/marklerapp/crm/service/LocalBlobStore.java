@@ -0,0 +1,193 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link BlobStore} on the local file system, keyed by the SHA-256 of the content.
+ *
+ * <p>Layout under {@code app.file-storage.blob-store.root}:</p>
+ * <pre>
+ * blobs/
+ *   tmp/                     writes in progress
+ *   3f/a2/3fa2…(64 hex)      two levels of 256 shards, so no directory grows large
+ * </pre>
+ *
+ * <p>Content is streamed into a temp file while it is hashed, forced to disk and then moved
+ * to its key in one atomic rename, so a blob is either absent or complete. Storing content
+ * that is already present discards the temp file and refreshes the blob's modification time,
+ * which keeps it out of the orphan sweep's grace period.</p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.file-storage.blob-store", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final String TMP_DIR = "tmp";
+    private static final String TMP_SUFFIX = ".part";
+
+    private final Path root;
+    private final Path tmpDir;
+
+    @Autowired
+    public LocalBlobStore(FileStorageProperties fileStorageProperties) {
+        this(Paths.get(fileStorageProperties.getBlobStore().getRoot()));
+    }
+
+    LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve(TMP_DIR);
+        try {
+            Files.createDirectories(tmpDir);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not create blob store directory " + this.root, e);
+        }
+        log.info("Blob store at {}", this.root);
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = tmpDir.resolve(UUID.randomUUID() + TMP_SUFFIX);
+        long size;
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 OutputStream out = new DigestOutputStream(Channels.newOutputStream(channel), digest)) {
+                size = content.transferTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(key);
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                log.debug("Blob {} already stored ({} bytes)", key, size);
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(tmp, target);
+                log.debug("Stored blob {} ({} bytes)", key, size);
+            }
+            return new StoredBlob(key, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return Files.newInputStream(pathOf(key));
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException("Blob not found: " + key);
+        }
+    }
+
+    @Override
+    public Resource resource(String key) throws IOException {
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException("Blob not found: " + key);
+        }
+        // Reads through a FileChannel, so byte ranges seek instead of skipping through the file
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathOf(key));
+    }
+
+    @Override
+    public boolean deleteIfOlderThan(String key, long olderThanMillis) throws IOException {
+        Path path = pathOf(key);
+        try {
+            return Files.getLastModifiedTime(path).toMillis() < olderThanMillis && Files.deleteIfExists(path);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Stream<String> keysOlderThan(long olderThanMillis) throws IOException {
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                        && attributes.lastModifiedTime().toMillis() < olderThanMillis
+                        && KEY.matcher(path.getFileName().toString()).matches())
+                .map(path -> path.getFileName().toString());
+    }
+
+    @Override
+    public int purgeIncompleteWrites(long olderThanMillis) throws IOException {
+        int purged = 0;
+        try (Stream<Path> leftovers = Files.list(tmpDir)) {
+            for (Path leftover : (Iterable<Path>) leftovers::iterator) {
+                if (Files.getLastModifiedTime(leftover).toMillis() < olderThanMillis && Files.deleteIfExists(leftover)) {
+                    purged++;
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * File of a blob: {@code <root>/<hex 0-2>/<hex 2-4>/<hex>}.
+     */
+    Path pathOf(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent write of the same content won; both copies are identical
+        } catch (AtomicMoveNotSupportedException e) {
+            // tmp/ lives under the same root, so this only happens on exotic file systems
+            try {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // as above
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertyMatchRequest;
+import com.marklerapp.crm.dto.PropertyMatchResponse;
+import com.marklerapp.crm.util.TransactionSyncUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of (client, property) match results: the five component scores plus, once a
+ * pair has been returned to an agent, its match/mismatch reasons. Agents reopen the same
+ * client and property pages many times a day, and between two visits usually nothing that
+ * scoring reads has changed.
+ *
+ * <p>Cells are grouped per client (a row) and rows are evicted least recently used first
+ * once the total number of cells exceeds {@code app.matching.score-cache.max-entries}.
+ * The overall score is not cached — it is recomputed from the components with each
+ * request's weights, so requests with different weights share cells. The request flags
+ * that change component scores (budget flexibility, exact location) are part of the cell
+ * and a cell filled under other flags counts as a miss.</p>
+ *
+ * <p>Invalidation is precise and happens once the changing transaction commits: saving a
+ * client's criteria drops that client's row, a matching-relevant property change drops that
+ * property's column. Viewing history is not part of a cell (it is read fresh per request),
+ * so viewings never invalidate anything. To keep a request that read data just before a
+ * commit from writing stale cells back afterwards, callers take a {@link #stamp()} before
+ * reading criteria or the portfolio and pass it to every put; puts older than the last
+ * invalidation of their client or property are dropped (see {@link InvalidationStamps},
+ * which also keeps the per-ID stamps bounded).</p>
+ *
+ * <p>Hit, miss, eviction and size metrics are published under the standard {@code cache.*}
+ * meter names with {@code cache=propertyMatchScores}, next to Spring's own caches in
+ * {@code /actuator/metrics}.</p>
+ */
+@Component
+public class MatchScoreCache implements MeterBinder {
+
+    static final String CACHE_NAME = "propertyMatchScores";
+
+    private static final int FLAG_BUDGET_FLEXIBILITY = 1;
+    private static final int FLAG_EXACT_LOCATION = 2;
+
+    private final int maxEntries;
+
+    // Access-ordered: iteration starts at the least recently used client
+    private final LinkedHashMap<UUID, ClientRow> rows = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final InvalidationStamps<UUID> clientInvalidations = new InvalidationStamps<>(clock);
+    private final InvalidationStamps<UUID> propertyInvalidations = new InvalidationStamps<>(clock);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public MatchScoreCache(@Value("${app.matching.score-cache.max-entries:50000}") int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Match score cache size must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Take a stamp before reading the criteria or properties a request will score; cells
+     * put with it are discarded if their client or property was invalidated since.
+     */
+    public long stamp() {
+        return clientInvalidations.current();
+    }
+
+    /**
+     * The cache row of a client, created empty if absent. Marks the client as recently used.
+     */
+    ClientRow row(UUID clientId) {
+        synchronized (rows) {
+            return rows.computeIfAbsent(clientId, ClientRow::new);
+        }
+    }
+
+    /**
+     * Drop a client's row once the surrounding transaction commits.
+     */
+    public void invalidateClient(UUID clientId) {
+        TransactionSyncUtil.runAfterCommit(() -> {
+            clientInvalidations.invalidate(clientId);
+            ClientRow row;
+            synchronized (rows) {
+                row = rows.remove(clientId);
+            }
+            if (row != null) {
+                invalidations.add(row.drop());
+            }
+        });
+    }
+
+    /**
+     * Drop a property's column once the surrounding transaction commits. Must be called
+     * after {@link PropertyMatchIndex#upsert}/{@link PropertyMatchIndex#remove} for the same
+     * save, so the index already serves the new row when the column goes.
+     */
+    public void invalidateProperty(UUID propertyId) {
+        TransactionSyncUtil.runAfterCommit(() -> {
+            propertyInvalidations.invalidate(propertyId);
+            for (ClientRow row : snapshotRows()) {
+                if (row.remove(propertyId)) {
+                    invalidations.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Cell flags for the request options that change component scores or reasons.
+     */
+    static int flagsOf(PropertyMatchRequest request) {
+        return (Boolean.TRUE.equals(request.getAllowBudgetFlexibility()) ? FLAG_BUDGET_FLEXIBILITY : 0)
+                | (Boolean.TRUE.equals(request.getExactLocationMatch()) ? FLAG_EXACT_LOCATION : 0);
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private List<ClientRow> snapshotRows() {
+        synchronized (rows) {
+            return new ArrayList<>(rows.values());
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (size.get() <= maxEntries) {
+            return;
+        }
+        synchronized (rows) {
+            Iterator<ClientRow> eldest = rows.values().iterator();
+            while (size.get() > maxEntries && eldest.hasNext()) {
+                ClientRow row = eldest.next();
+                eldest.remove();
+                evictions.add(row.drop());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Match score lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Match score lookups that had to score")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME)
+                .description("Cells evicted to stay within the size bound")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", invalidations, LongAdder::doubleValue)
+                .tags("cache", CACHE_NAME)
+                .description("Cells dropped because their client's criteria or their property changed")
+                .register(registry);
+        Gauge.builder("cache.size", size, AtomicInteger::get)
+                .tags("cache", CACHE_NAME)
+                .description("Cached (client, property) cells")
+                .register(registry);
+    }
+
+    // ========================================
+    // Row / Cell
+    // ========================================
+
+    /**
+     * One client's cells, keyed by property ID. A row that was evicted or invalidated
+     * stays usable for readers still holding it, but is empty and ignores puts.
+     */
+    final class ClientRow {
+
+        private final UUID clientId;
+        private final Map<UUID, CachedScore> cells = new HashMap<>();
+        private boolean dropped;
+
+        private ClientRow(UUID clientId) {
+            this.clientId = clientId;
+        }
+
+        /**
+         * The cell for a property, or null on a miss (absent, or filled under other flags).
+         */
+        synchronized CachedScore get(UUID propertyId, int flags) {
+            CachedScore cached = cells.get(propertyId);
+            if (cached == null || cached.flags() != flags) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return cached;
+        }
+
+        /**
+         * Store a cell unless its client or property was invalidated after {@code stamp}.
+         */
+        void put(UUID propertyId, long stamp, CachedScore score) {
+            synchronized (this) {
+                if (dropped || clientInvalidations.isStale(clientId, stamp)
+                        || propertyInvalidations.isStale(propertyId, stamp)) {
+                    return;
+                }
+                if (cells.put(propertyId, score) == null) {
+                    size.incrementAndGet();
+                }
+                puts.increment();
+            }
+            evictIfNeeded();
+        }
+
+        private synchronized boolean remove(UUID propertyId) {
+            if (cells.remove(propertyId) == null) {
+                return false;
+            }
+            size.decrementAndGet();
+            return true;
+        }
+
+        private synchronized int drop() {
+            int count = cells.size();
+            size.addAndGet(-count);
+            cells.clear();
+            dropped = true;
+            return count;
+        }
+    }
+
+    /**
+     * Cached result of scoring one pair: the component scores packed one byte each, and the
+     * reasons once they were built (null until then).
+     */
+    record CachedScore(int flags, long components, List<String> matchReasons, List<String> mismatchReasons) {
+
+        static CachedScore of(int flags, PropertyMatchResponse.MatchScoreBreakdown breakdown) {
+            long components = (long) breakdown.getPriceScore()
+                    | (long) breakdown.getLocationScore() << 8
+                    | (long) breakdown.getAreaScore() << 16
+                    | (long) breakdown.getRoomScore() << 24
+                    | (long) breakdown.getFeatureScore() << 32;
+            return new CachedScore(flags, components, null, null);
+        }
+
+        CachedScore withReasons(List<String> matchReasons, List<String> mismatchReasons) {
+            return new CachedScore(flags, components, List.copyOf(matchReasons), List.copyOf(mismatchReasons));
+        }
+
+        boolean hasReasons() {
+            return matchReasons != null;
+        }
+
+        /**
+         * A fresh breakdown DTO; the DTO is mutable, so cells never hand out a shared one.
+         */
+        PropertyMatchResponse.MatchScoreBreakdown breakdown() {
+            return PropertyMatchResponse.MatchScoreBreakdown.builder()
+                    .priceScore(component(0))
+                    .locationScore(component(8))
+                    .areaScore(component(16))
+                    .roomScore(component(24))
+                    .featureScore(component(32))
+                    .build();
+        }
+
+        private int component(int shift) {
+            return (int) (components >>> shift) & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.PropertySearchCriteria;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Primitive arithmetic behind the price, area and room components of a match score.
+ *
+ * <p>All quantities are fixed-point longs in hundredths — cents for money, 0.01 m² for
+ * area, 0.01 for rooms — which is the scale the underlying DECIMAL columns are stored at.
+ * Every comparison and percentage is therefore exact and yields the same scores as the
+ * former BigDecimal implementation (see MatchScoringKernelTest), without allocating
+ * BigDecimal temporaries per candidate. BigDecimal only appears at the boundary, in
+ * {@link #hundredths(BigDecimal)} and {@link Bounds#of(PropertySearchCriteriaDto)}.</p>
+ *
+ * <p>Missing values are {@link #NONE}. Reason lists may be null, in which case no reason
+ * text is formatted — the numeric pass over all candidates skips it, and reasons are only
+ * built for the matches that are actually returned.</p>
+ */
+final class MatchScoringKernel {
+
+    /** Marker for a value or bound that isn't specified. */
+    static final long NONE = Long.MIN_VALUE;
+
+    private static final long BUDGET_FLEXIBILITY_PERCENT = 110; // 10% over budget
+    private static final long AREA_TOLERANCE_PERCENT = 115; // 15% tolerance
+
+    private MatchScoringKernel() {
+    }
+
+    // ========================================
+    // Boundary conversions
+    // ========================================
+
+    static long hundredths(BigDecimal value) {
+        return value != null ? value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : NONE;
+    }
+
+    static long hundredths(Integer value) {
+        return value != null ? value * 100L : NONE;
+    }
+
+    static double toDouble(long hundredths) {
+        return hundredths / 100.0;
+    }
+
+    /**
+     * Criteria bounds converted once per criteria, so scoring a candidate never touches BigDecimal.
+     */
+    record Bounds(long minBudget, long maxBudget, long minColdRent, long maxColdRent,
+                  long minWarmRent, long maxWarmRent, long minArea, long maxArea,
+                  long minRooms, long maxRooms) {
+
+        static Bounds of(PropertySearchCriteriaDto criteria) {
+            return new Bounds(
+                    hundredths(criteria.getMinBudget()), hundredths(criteria.getMaxBudget()),
+                    hundredths(criteria.getMinColdRent()), hundredths(criteria.getMaxColdRent()),
+                    hundredths(criteria.getMinWarmRent()), hundredths(criteria.getMaxWarmRent()),
+                    hundredths(criteria.getMinSquareMeters()), hundredths(criteria.getMaxSquareMeters()),
+                    hundredths(criteria.getMinRooms()), hundredths(criteria.getMaxRooms()));
+        }
+
+        static Bounds of(PropertySearchCriteria criteria) {
+            return new Bounds(
+                    hundredths(criteria.getMinBudget()), hundredths(criteria.getMaxBudget()),
+                    hundredths(criteria.getMinColdRent()), hundredths(criteria.getMaxColdRent()),
+                    hundredths(criteria.getMinWarmRent()), hundredths(criteria.getMaxWarmRent()),
+                    hundredths(criteria.getMinSquareMeters()), hundredths(criteria.getMaxSquareMeters()),
+                    hundredths(criteria.getMinRooms()), hundredths(criteria.getMaxRooms()));
+        }
+    }
+
+    // ========================================
+    // Score components
+    // ========================================
+
+    /**
+     * Calculate price match score (0-100).
+     *
+     * <p>Sales are scored against the budget. For RENT / LEASE the price is the cold rent and
+     * warm rent adds additional/heating costs; whichever of warm/cold rent the client actually
+     * specified is preferred, falling back to the legacy generic budget fields for search
+     * criteria saved before this distinction existed.</p>
+     */
+    static int priceScore(ListingType listingType, long price, long warmRent, Bounds bounds,
+                          boolean allowFlexibility, List<String> matchReasons, List<String> mismatchReasons) {
+        if (price == NONE) {
+            if (matchReasons != null) {
+                matchReasons.add("Price not specified for this property");
+            }
+            return 50; // Neutral score for missing price
+        }
+
+        if (listingType == ListingType.SALE) {
+            return scoreValueAgainstRange(price, bounds.minBudget(), bounds.maxBudget(),
+                    allowFlexibility, "Purchase price", matchReasons, mismatchReasons);
+        }
+        if (bounds.minWarmRent() != NONE || bounds.maxWarmRent() != NONE) {
+            return scoreValueAgainstRange(warmRent, bounds.minWarmRent(), bounds.maxWarmRent(),
+                    allowFlexibility, "Warm rent", matchReasons, mismatchReasons);
+        }
+        if (bounds.minColdRent() != NONE || bounds.maxColdRent() != NONE) {
+            return scoreValueAgainstRange(price, bounds.minColdRent(), bounds.maxColdRent(),
+                    allowFlexibility, "Cold rent", matchReasons, mismatchReasons);
+        }
+        return scoreValueAgainstRange(price, bounds.minBudget(), bounds.maxBudget(),
+                allowFlexibility, "Rent", matchReasons, mismatchReasons);
+    }
+
+    /**
+     * Score a monetary value against a min/max range (0-100). Shared by purchase price,
+     * cold rent, and warm rent scoring — the curve is identical, only the value and range differ.
+     *
+     * <p>Scoring logic:</p>
+     * <ul>
+     *   <li>100 points: value within range</li>
+     *   <li>80-99 points: value slightly over max (if flexibility allowed)</li>
+     *   <li>50-79 points: value within 20% of max</li>
+     *   <li>0-49 points: value significantly outside range</li>
+     * </ul>
+     */
+    static int scoreValueAgainstRange(long value, long min, long max, boolean allowFlexibility, String label,
+                                      List<String> matchReasons, List<String> mismatchReasons) {
+        if (min == NONE && max == NONE) {
+            if (matchReasons != null) {
+                matchReasons.add("No " + label.toLowerCase() + " constraints specified");
+            }
+            return 100;
+        }
+
+        boolean withinMin = min == NONE || value >= min;
+        boolean withinMax = max == NONE || value <= max;
+
+        if (withinMin && withinMax) {
+            if (matchReasons != null) {
+                matchReasons.add(String.format("%s €%,d is within budget range", label, euros(value)));
+            }
+            return 100;
+        }
+
+        boolean withinFlexibleMax = max == NONE
+                || value * 100 <= max * (allowFlexibility ? BUDGET_FLEXIBILITY_PERCENT : 100);
+        if (withinMin && withinFlexibleMax) {
+            if (matchReasons != null) {
+                matchReasons.add(String.format("%s €%,d is slightly over budget but within 10%% tolerance",
+                        label, euros(value)));
+            }
+            return 85;
+        }
+
+        if (max != NONE && value > max) {
+            long percentOver = percentOf(value - max, max);
+
+            if (percentOver <= 2000) {
+                if (mismatchReasons != null) {
+                    mismatchReasons.add(String.format("%s €%,d is %.1f%% over budget",
+                            label, euros(value), toDouble(percentOver)));
+                }
+                return (int) Math.max(50, 100 - percentOver / 100);
+            } else {
+                if (mismatchReasons != null) {
+                    mismatchReasons.add(String.format("%s €%,d significantly exceeds budget (%.1f%% over)",
+                            label, euros(value), toDouble(percentOver)));
+                }
+                return (int) Math.max(0, 50 - (percentOver / 100 - 20));
+            }
+        }
+
+        if (min != NONE && value < min) {
+            if (mismatchReasons != null) {
+                mismatchReasons.add(String.format("%s €%,d is below minimum budget", label, euros(value)));
+            }
+            return 30;
+        }
+
+        return 50;
+    }
+
+    /**
+     * Calculate area match score (0-100).
+     *
+     * <p>Scoring logic:</p>
+     * <ul>
+     *   <li>100 points: Living area within specified range</li>
+     *   <li>85 points: Living area within 15% above the maximum</li>
+     *   <li>0-99 points: Living area outside range, minus one point per percent of deviation</li>
+     * </ul>
+     */
+    static int areaScore(long area, long minArea, long maxArea,
+                         List<String> matchReasons, List<String> mismatchReasons) {
+        if (area == NONE) {
+            if (matchReasons != null) {
+                matchReasons.add("Living area not specified for this property");
+            }
+            return 50;
+        }
+
+        // If no area constraints, perfect score
+        if (minArea == NONE && maxArea == NONE) {
+            if (matchReasons != null) {
+                matchReasons.add("No area constraints specified");
+            }
+            return 100;
+        }
+
+        boolean withinMin = minArea == NONE || area >= minArea;
+        boolean withinMax = maxArea == NONE || area <= maxArea;
+
+        if (withinMin && withinMax) {
+            if (matchReasons != null) {
+                matchReasons.add(String.format("Living area %.0f m² is within desired range", toDouble(area)));
+            }
+            return 100;
+        }
+
+        if (maxArea != NONE && area > maxArea) {
+            if (area * 100 <= maxArea * AREA_TOLERANCE_PERCENT) {
+                if (matchReasons != null) {
+                    matchReasons.add(String.format("Living area %.0f m² is slightly larger than preferred (within 15%% tolerance)",
+                            toDouble(area)));
+                }
+                return 85;
+            }
+
+            long percentOver = percentOf(area - maxArea, maxArea);
+            if (mismatchReasons != null) {
+                mismatchReasons.add(String.format("Living area %.0f m² is %.1f%% larger than preferred maximum",
+                        toDouble(area), toDouble(percentOver)));
+            }
+            return (int) Math.max(0, 100 - percentOver / 100);
+        }
+
+        if (minArea != NONE && area < minArea) {
+            long percentUnder = percentOf(minArea - area, minArea);
+            if (mismatchReasons != null) {
+                mismatchReasons.add(String.format("Living area %.0f m² is %.1f%% smaller than preferred minimum",
+                        toDouble(area), toDouble(percentUnder)));
+            }
+            return (int) Math.max(0, 100 - percentUnder / 100);
+        }
+
+        return 50;
+    }
+
+    /**
+     * Calculate room count match score (0-100).
+     *
+     * <p>Scoring logic:</p>
+     * <ul>
+     *   <li>100 points: Room count within specified range</li>
+     *   <li>75 points: Room count 1 room outside range</li>
+     *   <li>50 points: Room count 2 rooms outside range</li>
+     *   <li>0-40 points: Room count significantly different</li>
+     * </ul>
+     */
+    static int roomScore(long rooms, long minRooms, long maxRooms,
+                         List<String> matchReasons, List<String> mismatchReasons) {
+        if (rooms == NONE) {
+            if (matchReasons != null) {
+                matchReasons.add("Room count not specified for this property");
+            }
+            return 50;
+        }
+
+        // If no room constraints, perfect score
+        if (minRooms == NONE && maxRooms == NONE) {
+            if (matchReasons != null) {
+                matchReasons.add("No room count constraints specified");
+            }
+            return 100;
+        }
+
+        boolean withinMin = minRooms == NONE || rooms >= minRooms;
+        boolean withinMax = maxRooms == NONE || rooms <= maxRooms;
+
+        if (withinMin && withinMax) {
+            if (matchReasons != null) {
+                matchReasons.add(String.format("%.1f rooms is within desired range", toDouble(rooms)));
+            }
+            return 100;
+        }
+
+        if (maxRooms != NONE && rooms > maxRooms) {
+            long difference = rooms - maxRooms;
+            if (difference <= 100) {
+                if (matchReasons != null) {
+                    matchReasons.add(String.format("%.1f rooms is 1 room more than preferred", toDouble(rooms)));
+                }
+                return 75;
+            } else if (difference <= 200) {
+                if (mismatchReasons != null) {
+                    mismatchReasons.add(String.format("%.1f rooms is 2 rooms more than preferred", toDouble(rooms)));
+                }
+                return 50;
+            } else {
+                if (mismatchReasons != null) {
+                    mismatchReasons.add(String.format("%.1f rooms is significantly more than preferred", toDouble(rooms)));
+                }
+                return (int) Math.max(0, 50 - (difference / 100 - 2) * 10);
+            }
+        }
+
+        if (minRooms != NONE && rooms < minRooms) {
+            long difference = minRooms - rooms;
+            if (difference <= 100) {
+                if (matchReasons != null) {
+                    matchReasons.add(String.format("%.1f rooms is 1 room less than preferred", toDouble(rooms)));
+                }
+                return 75;
+            } else if (difference <= 200) {
+                if (mismatchReasons != null) {
+                    mismatchReasons.add(String.format("%.1f rooms is 2 rooms less than preferred", toDouble(rooms)));
+                }
+                return 50;
+            } else {
+                if (mismatchReasons != null) {
+                    mismatchReasons.add(String.format("%.1f rooms is significantly less than preferred", toDouble(rooms)));
+                }
+                return (int) Math.max(0, 50 - (difference / 100 - 2) * 10);
+            }
+        }
+
+        return 50;
+    }
+
+    /**
+     * Weighted overall score from the five components, using normalized weights
+     * (see PropertyMatchRequest#getNormalizedWeights).
+     */
+    static int overallScore(int priceScore, int locationScore, int areaScore, int roomScore, int featureScore,
+                            double[] weights) {
+        return (int) Math.round(
+                priceScore * weights[0] +
+                locationScore * weights[1] +
+                areaScore * weights[2] +
+                roomScore * weights[3] +
+                featureScore * weights[4]
+        );
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    /**
+     * {@code difference / base} as a percentage in hundredths (1234 = 12.34%), rounded
+     * HALF_UP to four decimals of the ratio first — exactly what
+     * {@code difference.divide(base, 4, HALF_UP).multiply(100)} produced. A non-positive
+     * base (only possible for an unvalidated zero area bound) counts as infinitely far off.
+     */
+    static long percentOf(long difference, long base) {
+        if (base <= 0) {
+            return Long.MAX_VALUE / 2;
+        }
+        return (difference * 20_000 + base) / (2 * base);
+    }
+
+    /** Whole euros, truncated like BigDecimal#intValue. */
+    private static int euros(long cents) {
+        return (int) (cents / 100);
+    }
+}
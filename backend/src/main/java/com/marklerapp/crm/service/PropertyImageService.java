@@ -2,25 +2,31 @@ package com.marklerapp.crm.service;
 
 import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundException;
 import com.marklerapp.crm.constants.ValidationConstants;
+import com.marklerapp.crm.dto.FileContentDto;
+import com.marklerapp.crm.dto.ImageProcessingStatusDto;
 import com.marklerapp.crm.dto.PropertyImageDto;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
 import com.marklerapp.crm.entity.Property;
 import com.marklerapp.crm.entity.PropertyImage;
 import com.marklerapp.crm.entity.PropertyImageType;
+import com.marklerapp.crm.exception.FileNotFoundException;
+import com.marklerapp.crm.exception.FileStorageException;
 import com.marklerapp.crm.repository.PropertyImageRepository;
 import com.marklerapp.crm.repository.PropertyRepository;
+import com.marklerapp.crm.service.BlobStore.StoredBlob;
+import com.marklerapp.crm.service.ImageVariantService.Variant;
+import com.marklerapp.crm.util.ImageReadUtil;
+import com.marklerapp.crm.util.ImageReadUtil.ImageSize;
+import com.marklerapp.crm.util.ImageUrlUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +40,9 @@ public class PropertyImageService {
     private final PropertyImageRepository propertyImageRepository;
     private final PropertyRepository propertyRepository;
     private final Optional<SupabaseStorageService> supabaseStorage;
+    private final BlobStore blobStore;
+    private final ImageProcessingService imageProcessingService;
+    private final ImageVariantService imageVariantService;
 
     @Transactional
     public PropertyImageDto uploadImage(UUID propertyId, MultipartFile file,
@@ -42,9 +51,18 @@ public class PropertyImageService {
         Property property = getPropertyByIdAndValidateOwnership(propertyId, agentId);
         validateImageFile(file);
 
-        BufferedImage original = ImageIO.read(file.getInputStream());
-        int width = original.getWidth();
-        int height = original.getHeight();
+        // Stream the upload into the blob store, hashed and sized on the way; it is never
+        // held in memory. Only the header is read here: the thumbnail (and, with Supabase
+        // configured, the upload to the bucket) is produced by ImageProcessingService.
+        StoredBlob stored;
+        try (InputStream content = file.getInputStream()) {
+            stored = blobStore.put(content);
+        }
+        ImageSize size = ImageReadUtil.readSize(blobStore.resource(stored.key()));
+        if (size == null) {
+            // The stored blob stays unreferenced and is removed by the orphan sweep
+            throw new IllegalArgumentException(ValidationConstants.FILE_MUST_BE_IMAGE_MESSAGE);
+        }
 
         String filename = generateUniqueFilename(file.getOriginalFilename());
         Integer sortOrder = propertyImageRepository.findNextSortOrder(property);
@@ -61,33 +79,16 @@ public class PropertyImageService {
             .filename(filename)
             .originalFilename(file.getOriginalFilename())
             .contentType(file.getContentType())
-            .fileSize(file.getSize())
-            .width(width)
-            .height(height)
+            .fileSize(stored.size())
+            .width(size.width())
+            .height(size.height())
+            .imageBlobKey(stored.key())
+            .processingStatus(ImageProcessingStatus.PENDING)
             .isPrimary(isPrimary)
             .sortOrder(sortOrder)
             .imageType(metadata != null && metadata.getImageType() != null
                 ? metadata.getImageType() : PropertyImageType.GENERAL);
 
-        if (supabaseStorage.isPresent()) {
-            // Upload original + thumbnail to Supabase Storage
-            String thumbFilename = toThumbnailFilename(filename);
-            String basePath = "properties/" + propertyId + "/";
-
-            supabaseStorage.get().upload(basePath + filename, file.getBytes(), file.getContentType());
-
-            byte[] thumbBytes = generateThumbnailBytes(original, file.getContentType());
-            supabaseStorage.get().upload(basePath + thumbFilename, thumbBytes, file.getContentType());
-
-            builder.storagePath(basePath + filename)
-                   .thumbnailStoragePath(basePath + thumbFilename);
-        } else {
-            // Fallback: Base64 in DB (dev / docker profile without Supabase)
-            builder.imageData(Base64.getEncoder().encodeToString(file.getBytes()))
-                   .thumbnailData(Base64.getEncoder().encodeToString(
-                       generateThumbnailBytes(original, file.getContentType())));
-        }
-
         if (metadata != null) {
             builder.title(metadata.getTitle())
                    .description(metadata.getDescription())
@@ -95,7 +96,8 @@ public class PropertyImageService {
         }
 
         PropertyImage saved = propertyImageRepository.save(builder.build());
-        log.info("Uploaded image {} for property {}", saved.getId(), propertyId);
+        imageProcessingService.enqueue(saved.getId());
+        log.info("Uploaded image {} for property {}, processing queued", saved.getId(), propertyId);
         return convertToDto(saved);
     }
 
@@ -150,6 +152,110 @@ public class PropertyImageService {
         return convertToDto(getImageByIdAndValidateOwnership(imageId, agentId));
     }
 
+    /**
+     * Open an image (or its thumbnail) of a property for a streaming download.
+     * Images kept in Supabase Storage are served by redirect to a signed URL; an image the
+     * blob migration has not reached yet is moved into the blob store first.
+     */
+    @Transactional
+    public FileContentDto openImageContent(UUID propertyId, UUID imageId, UUID agentId, boolean thumbnail) {
+        PropertyImage image = getImageByIdAndValidateOwnership(imageId, agentId);
+        if (!image.getProperty().getId().equals(propertyId)) {
+            throw new ResourceNotFoundException("Image not found or access denied");
+        }
+        // Images uploaded before thumbnails existed are served in full
+        boolean useThumbnail = thumbnail && image.hasThumbnail();
+        String fileName = useThumbnail ? ImageProcessingService.toThumbnailFilename(image.getFilename()) : image.getFilename();
+
+        String storagePath = useThumbnail ? image.getThumbnailStoragePath() : image.getStoragePath();
+        if (storagePath != null && supabaseStorage.isPresent()) {
+            return FileContentDto.builder()
+                .fileName(fileName)
+                .contentType(image.getContentType())
+                .redirectUrl(supabaseStorage.get().getSignedUrl(storagePath))
+                .build();
+        }
+
+        try {
+            if (useThumbnail && image.getThumbnailBlobKey() == null && image.getThumbnailData() != null) {
+                image.setThumbnailBlobKey(blobStore.putBase64(image.getThumbnailData()).key());
+                image.setThumbnailData(null);
+            } else if (!useThumbnail && image.getImageBlobKey() == null && image.getImageData() != null) {
+                image.setImageBlobKey(blobStore.putBase64(image.getImageData()).key());
+                image.setImageData(null);
+            }
+            String blobKey = useThumbnail ? image.getThumbnailBlobKey() : image.getImageBlobKey();
+            if (blobKey == null) {
+                throw new FileNotFoundException("Image content not found: " + imageId);
+            }
+            return FileContentDto.builder()
+                .fileName(fileName)
+                .contentType(image.getContentType())
+                .blobKey(blobKey)
+                .content(blobStore.resource(blobKey))
+                .build();
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException("Image content not found: " + imageId, e);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read image " + imageId, e);
+        }
+    }
+
+    /**
+     * Open a responsive variant of an image for a streaming download: a JPEG scaled to the
+     * configured variant width at or above {@code width}. The original is served instead when
+     * it is not wider than that, could not be processed, is kept in Supabase Storage or has
+     * not been moved into the blob store yet, and when the variant is not cached while the
+     * image is still being processed or the image processing executor is saturated.
+     */
+    @Transactional
+    public FileContentDto openImageVariant(UUID propertyId, UUID imageId, UUID agentId, int width) {
+        PropertyImage image = getImageByIdAndValidateOwnership(imageId, agentId);
+        if (!image.getProperty().getId().equals(propertyId)) {
+            throw new ResourceNotFoundException("Image not found or access denied");
+        }
+        if (image.getImageBlobKey() == null || image.getWidth() == null || image.getHeight() == null
+                || image.getProcessingStatus() == ImageProcessingStatus.FAILED) {
+            return openImageContent(propertyId, imageId, agentId, false);
+        }
+
+        try {
+            // The worker renders the variants of images still pending; don't race it
+            Variant variant = image.getProcessingStatus() == ImageProcessingStatus.READY
+                ? imageVariantService.variant(image.getImageBlobKey(), image.getWidth(), image.getHeight(), width)
+                : imageVariantService.cachedVariant(image.getImageBlobKey(), image.getWidth(), width);
+            if (variant == null) {
+                return openImageContent(propertyId, imageId, agentId, false);
+            }
+            return FileContentDto.builder()
+                .fileName(toVariantFilename(image.getFilename(), variant.width()))
+                .contentType(ImageVariantService.VARIANT_CONTENT_TYPE)
+                .blobKey(variant.key())
+                .content(variant.content())
+                .build();
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException("Image content not found: " + imageId, e);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not scale image " + imageId, e);
+        }
+    }
+
+    /**
+     * Processing state of an uploaded image, for polling after a 202 upload response.
+     */
+    @Transactional(readOnly = true)
+    public ImageProcessingStatusDto getProcessingStatus(UUID propertyId, UUID imageId, UUID agentId) {
+        PropertyImage image = getImageByIdAndValidateOwnership(imageId, agentId);
+        if (!image.getProperty().getId().equals(propertyId)) {
+            throw new ResourceNotFoundException("Image not found or access denied");
+        }
+        return ImageProcessingStatusDto.builder()
+            .imageId(image.getId())
+            .status(image.getProcessingStatus())
+            .error(image.getProcessingError())
+            .build();
+    }
+
     @Transactional(readOnly = true)
     public List<PropertyImageDto> getAllImages(UUID propertyId, UUID agentId) {
         Property property = getPropertyByIdAndValidateOwnership(propertyId, agentId);
@@ -182,32 +288,6 @@ public class PropertyImageService {
 
     // ── helpers ──────────────────────────────────────────────────────────────
 
-    private byte[] generateThumbnailBytes(BufferedImage original, String contentType) throws IOException {
-        int maxSize = ValidationConstants.THUMBNAIL_SIZE;
-        double scale = Math.min((double) maxSize / original.getWidth(),
-                                (double) maxSize / original.getHeight());
-        int w = (int) (original.getWidth() * scale);
-        int h = (int) (original.getHeight() * scale);
-
-        BufferedImage thumb = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = thumb.createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g.drawImage(original, 0, 0, w, h, null);
-        g.dispose();
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(thumb, getFormatName(contentType), baos);
-        return baos.toByteArray();
-    }
-
-    private String getFormatName(String contentType) {
-        if (contentType == null) return "jpg";
-        if (contentType.contains("png"))  return "png";
-        if (contentType.contains("gif"))  return "gif";
-        if (contentType.contains("webp")) return "webp";
-        return "jpg";
-    }
-
     private String generateUniqueFilename(String originalFilename) {
         String ext = "";
         if (originalFilename != null && originalFilename.contains(".")) {
@@ -216,11 +296,9 @@ public class PropertyImageService {
         return UUID.randomUUID() + ext;
     }
 
-    private String toThumbnailFilename(String filename) {
+    private String toVariantFilename(String filename, int width) {
         int dot = filename.lastIndexOf(".");
-        return dot > 0
-            ? filename.substring(0, dot) + "_thumb" + filename.substring(dot)
-            : filename + "_thumb";
+        return (dot > 0 ? filename.substring(0, dot) : filename) + "_w" + width + ".jpg";
     }
 
     private void validateImageFile(MultipartFile file) {
@@ -293,6 +371,8 @@ public class PropertyImageService {
             .isPrimary(image.getIsPrimary())
             .sortOrder(image.getSortOrder())
             .imageType(image.getImageType())
+            .processingStatus(image.getProcessingStatus())
+            .processingError(image.getProcessingError())
             .createdAt(image.getCreatedAt())
             .updatedAt(image.getUpdatedAt())
             .build();
@@ -301,24 +381,18 @@ public class PropertyImageService {
         dto.setFormattedFileSize(image.getFormattedFileSize());
         dto.setAspectRatio(image.getAspectRatio());
 
-        // URL resolution: Supabase signed URL → legacy Base64 data URL
-        if (image.getStoragePath() != null && supabaseStorage.isPresent()) {
-            try {
-                dto.setImageUrl(supabaseStorage.get().getSignedUrl(image.getStoragePath()));
-                if (image.getThumbnailStoragePath() != null) {
-                    dto.setThumbnailUrl(supabaseStorage.get().getSignedUrl(image.getThumbnailStoragePath()));
-                }
-            } catch (Exception e) {
-                log.warn("Could not generate signed URL for image {}: {}", image.getId(), e.getMessage());
-            }
-        } else {
-            if (image.getImageData() != null) {
-                dto.setImageUrl("data:" + image.getContentType() + ";base64," + image.getImageData());
-            }
-            if (image.getThumbnailData() != null) {
-                dto.setThumbnailUrl("data:" + image.getContentType() + ";base64," + image.getThumbnailData());
+        // Links to the streaming endpoints, which redirect to Supabase Storage or read the blob store
+        if (image.hasContent()) {
+            dto.setImageUrl(ImageUrlUtil.imageUrl(dto.getPropertyId(), image.getId()));
+            Integer previewWidth = imageVariantService.previewWidth(
+                image.getImageBlobKey(), image.getWidth(), image.getProcessingStatus());
+            if (previewWidth != null) {
+                dto.setPreviewUrl(ImageUrlUtil.variantUrl(dto.getPropertyId(), image.getId(), previewWidth));
             }
         }
+        if (image.hasThumbnail()) {
+            dto.setThumbnailUrl(ImageUrlUtil.thumbnailUrl(dto.getPropertyId(), image.getId()));
+        }
 
         return dto;
     }
@@ -0,0 +1,388 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.entity.PropertyType;
+import com.marklerapp.crm.repository.PropertyRepository;
+import com.marklerapp.crm.util.TransactionSyncUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident, per-agent index of the property fields that matching filters and scores on.
+ *
+ * <p>Matching used to load every property of the agent as a JPA entity on each request,
+ * only to read a handful of columns from it. This index keeps those columns as primitive
+ * arrays instead (one {@link Portfolio} per agent), so {@link PropertyMatchingService}
+ * can filter and score without touching JPA and only hydrates the few properties it
+ * actually returns. Decimal columns are held as fixed-point hundredths, the representation
+ * {@link MatchScoringKernel} scores on.</p>
+ *
+ * <p>A portfolio is loaded lazily on the first match for an agent and then maintained
+ * incrementally by {@link PropertyService} — create/update/delete patch the affected row
+ * once their transaction has committed, so a rolled-back save never leaks into matching.
+ * Portfolios are immutable snapshots replaced copy-on-write, which keeps concurrent
+ * readers lock-free; writes are rare compared to matches, and copying a few thousand
+ * primitives per save is cheap.</p>
+ *
+ * <p>The index lives in the JVM heap, which is fine for the single-instance deployment
+ * (see railway.toml). A multi-instance setup would need a shared invalidation channel.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PropertyMatchIndex {
+
+    private final PropertyRepository propertyRepository;
+
+    private final Map<UUID, Portfolio> portfolios = new ConcurrentHashMap<>();
+
+    /**
+     * Row patches applied so far (any agent); lets a load tell whether a patch may have been
+     * skipped while it was reading
+     */
+    private final AtomicLong patches = new AtomicLong();
+
+    /**
+     * Current portfolio of an agent, loading it from the database on first access.
+     *
+     * <p>The query runs outside the map: {@code computeIfAbsent} would hold the map bin's lock
+     * for its duration, stalling other agents hashed to the same bin as well as the
+     * after-commit patches of this agent. Two first matches racing for the same agent may
+     * both load; the first snapshot stored wins. A snapshot that a patch may have missed
+     * while it was loading is served to this caller only and not kept.</p>
+     */
+    public Portfolio portfolioFor(UUID agentId) {
+        Portfolio cached = portfolios.get(agentId);
+        if (cached != null) {
+            return cached;
+        }
+        long patchesBefore = patches.get();
+        Portfolio loaded = load(agentId);
+        Portfolio existing = portfolios.putIfAbsent(agentId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        // Patches count before they look for a portfolio, so one that found none while we
+        // were loading is seen here; one that runs after this check patches what we stored
+        if (patches.get() != patchesBefore) {
+            portfolios.remove(agentId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Insert or replace a property's row once the surrounding transaction commits.
+     * Agents whose portfolio isn't loaded yet are skipped — the lazy load will read
+     * the committed row anyway.
+     */
+    public void upsert(Property property) {
+        if (property.getAgent() == null || property.getId() == null) {
+            return;
+        }
+        UUID agentId = property.getAgent().getId();
+        Row row = Row.of(property);
+        TransactionSyncUtil.runAfterCommit(() -> {
+            patches.incrementAndGet();
+            portfolios.computeIfPresent(agentId, (id, portfolio) -> portfolio.with(row));
+        });
+    }
+
+    /**
+     * Remove a property's row once the surrounding transaction commits.
+     */
+    public void remove(UUID agentId, UUID propertyId) {
+        TransactionSyncUtil.runAfterCommit(() -> {
+            patches.incrementAndGet();
+            portfolios.computeIfPresent(agentId, (id, portfolio) -> portfolio.without(propertyId));
+        });
+    }
+
+    /**
+     * Drop an agent's portfolio entirely; the next match reloads it from the database.
+     */
+    public void evict(UUID agentId) {
+        portfolios.remove(agentId);
+    }
+
+    private Portfolio load(UUID agentId) {
+        List<Property> properties = propertyRepository.findByAgentId(agentId, null).getContent();
+        log.debug("Loaded match index for agent {} with {} properties", agentId, properties.size());
+        return Portfolio.of(properties.stream().map(Row::of).toList());
+    }
+
+    // ========================================
+    // Row / Portfolio
+    // ========================================
+
+    /**
+     * The matching-relevant fields of one property, captured eagerly so the entity can
+     * be detached (or its transaction closed) before the row is applied to the index.
+     * Missing decimals are {@link MatchScoringKernel#NONE}, missing coordinates NaN and
+     * missing enums null.
+     */
+    record Row(UUID id, long price, long warmRent, long area, long rooms,
+               double latitude, double longitude, PropertyStatus status, ListingType listingType,
+               PropertyType propertyType, String city, String postalCode) {
+
+        static Row of(Property p) {
+            BigDecimal warmRent = null;
+            if (p.getPrice() != null) {
+                warmRent = p.getPrice()
+                        .add(p.getAdditionalCosts() != null ? p.getAdditionalCosts() : BigDecimal.ZERO)
+                        .add(p.getHeatingCosts() != null ? p.getHeatingCosts() : BigDecimal.ZERO);
+            }
+            return new Row(p.getId(), MatchScoringKernel.hundredths(p.getPrice()), MatchScoringKernel.hundredths(warmRent),
+                    MatchScoringKernel.hundredths(p.getLivingAreaSqm()), MatchScoringKernel.hundredths(p.getRooms()),
+                    toDouble(p.getLatitude()), toDouble(p.getLongitude()),
+                    p.getStatus(), p.getListingType(), p.getPropertyType(),
+                    p.getAddressCity(), p.getAddressPostalCode());
+        }
+
+        private static double toDouble(BigDecimal value) {
+            return value != null ? value.doubleValue() : Double.NaN;
+        }
+    }
+
+    /**
+     * Immutable columnar snapshot of one agent's properties. Row order is arbitrary and
+     * may change between snapshots; callers address rows by index only within a single
+     * snapshot and use {@link #id(int)} to refer to a property beyond that.
+     */
+    public static final class Portfolio {
+
+        private static final PropertyStatus[] STATUSES = PropertyStatus.values();
+        private static final ListingType[] LISTING_TYPES = ListingType.values();
+        private static final PropertyType[] PROPERTY_TYPES = PropertyType.values();
+
+        private final int size;
+        private final UUID[] ids;
+        private final long[] price;
+        private final long[] warmRent;
+        private final long[] area;
+        private final long[] rooms;
+        private final double[] latitude;
+        private final double[] longitude;
+        private final byte[] status;
+        private final byte[] listingType;
+        private final byte[] propertyType;
+        private final String[] city;
+        private final String[] postalCode;
+        private final String[] cityKey;
+        private final int[] postalCodeNumber;
+        private final boolean[] canonicalPostalCode;
+        private final Map<UUID, Integer> rowById;
+        private volatile GeoGrid geoGrid;
+
+        private Portfolio(int size) {
+            this.size = size;
+            this.ids = new UUID[size];
+            this.price = new long[size];
+            this.warmRent = new long[size];
+            this.area = new long[size];
+            this.rooms = new long[size];
+            this.latitude = new double[size];
+            this.longitude = new double[size];
+            this.status = new byte[size];
+            this.listingType = new byte[size];
+            this.propertyType = new byte[size];
+            this.city = new String[size];
+            this.postalCode = new String[size];
+            this.cityKey = new String[size];
+            this.postalCodeNumber = new int[size];
+            this.canonicalPostalCode = new boolean[size];
+            this.rowById = new HashMap<>(Math.max(16, size * 2));
+        }
+
+        static Portfolio of(List<Row> rows) {
+            Portfolio portfolio = new Portfolio(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                portfolio.set(i, rows.get(i));
+            }
+            return portfolio;
+        }
+
+        /**
+         * Copy of this snapshot with the row inserted, or replaced if the id is already present.
+         */
+        Portfolio with(Row row) {
+            Integer existing = rowById.get(row.id());
+            Portfolio copy = copyOf(existing != null ? size : size + 1, size);
+            copy.set(existing != null ? existing : size, row);
+            return copy;
+        }
+
+        /**
+         * Copy of this snapshot without the given property; the last row moves into the gap.
+         */
+        Portfolio without(UUID propertyId) {
+            Integer removed = rowById.get(propertyId);
+            if (removed == null) {
+                return this;
+            }
+            Portfolio copy = copyOf(size - 1, size - 1);
+            int last = size - 1;
+            if (removed != last) {
+                copy.copyRow(this, last, removed);
+            }
+            return copy;
+        }
+
+        private Portfolio copyOf(int newSize, int rowsToCopy) {
+            Portfolio copy = new Portfolio(newSize);
+            System.arraycopy(ids, 0, copy.ids, 0, rowsToCopy);
+            System.arraycopy(price, 0, copy.price, 0, rowsToCopy);
+            System.arraycopy(warmRent, 0, copy.warmRent, 0, rowsToCopy);
+            System.arraycopy(area, 0, copy.area, 0, rowsToCopy);
+            System.arraycopy(rooms, 0, copy.rooms, 0, rowsToCopy);
+            System.arraycopy(latitude, 0, copy.latitude, 0, rowsToCopy);
+            System.arraycopy(longitude, 0, copy.longitude, 0, rowsToCopy);
+            System.arraycopy(status, 0, copy.status, 0, rowsToCopy);
+            System.arraycopy(listingType, 0, copy.listingType, 0, rowsToCopy);
+            System.arraycopy(propertyType, 0, copy.propertyType, 0, rowsToCopy);
+            System.arraycopy(city, 0, copy.city, 0, rowsToCopy);
+            System.arraycopy(postalCode, 0, copy.postalCode, 0, rowsToCopy);
+            System.arraycopy(cityKey, 0, copy.cityKey, 0, rowsToCopy);
+            System.arraycopy(postalCodeNumber, 0, copy.postalCodeNumber, 0, rowsToCopy);
+            System.arraycopy(canonicalPostalCode, 0, copy.canonicalPostalCode, 0, rowsToCopy);
+            for (int i = 0; i < rowsToCopy; i++) {
+                copy.rowById.put(ids[i], i);
+            }
+            return copy;
+        }
+
+        private void copyRow(Portfolio source, int from, int to) {
+            ids[to] = source.ids[from];
+            price[to] = source.price[from];
+            warmRent[to] = source.warmRent[from];
+            area[to] = source.area[from];
+            rooms[to] = source.rooms[from];
+            latitude[to] = source.latitude[from];
+            longitude[to] = source.longitude[from];
+            status[to] = source.status[from];
+            listingType[to] = source.listingType[from];
+            propertyType[to] = source.propertyType[from];
+            city[to] = source.city[from];
+            postalCode[to] = source.postalCode[from];
+            cityKey[to] = source.cityKey[from];
+            postalCodeNumber[to] = source.postalCodeNumber[from];
+            canonicalPostalCode[to] = source.canonicalPostalCode[from];
+            rowById.put(ids[to], to);
+        }
+
+        private void set(int i, Row row) {
+            ids[i] = row.id();
+            price[i] = row.price();
+            warmRent[i] = row.warmRent();
+            area[i] = row.area();
+            rooms[i] = row.rooms();
+            latitude[i] = row.latitude();
+            longitude[i] = row.longitude();
+            status[i] = ordinal(row.status());
+            listingType[i] = ordinal(row.listingType());
+            propertyType[i] = ordinal(row.propertyType());
+            city[i] = row.city();
+            postalCode[i] = row.postalCode();
+            // Normalized once here so location scoring compares without trimming or parsing
+            cityKey[i] = row.city() != null ? row.city().toLowerCase(Locale.ROOT) : null;
+            postalCodeNumber[i] = parseNumber(row.postalCode());
+            canonicalPostalCode[i] =
+                    CompiledCriteria.parsePostalCode(row.postalCode()) != CompiledCriteria.NO_POSTAL_CODE;
+            rowById.put(row.id(), i);
+        }
+
+        private static byte ordinal(Enum<?> value) {
+            return value != null ? (byte) value.ordinal() : -1;
+        }
+
+        private static int parseNumber(String text) {
+            if (text == null) {
+                return CompiledCriteria.NO_POSTAL_CODE;
+            }
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                return CompiledCriteria.NO_POSTAL_CODE;
+            }
+        }
+
+        public int size() { return size; }
+
+        public UUID id(int row) { return ids[row]; }
+
+        /** Purchase price or cold rent in cents. */
+        public long price(int row) { return price[row]; }
+
+        /** Cold rent plus additional and heating costs in cents. */
+        public long warmRent(int row) { return warmRent[row]; }
+
+        /** Living area in hundredths of a m². */
+        public long area(int row) { return area[row]; }
+
+        /** Room count in hundredths. */
+        public long rooms(int row) { return rooms[row]; }
+
+        public double latitude(int row) { return latitude[row]; }
+
+        public double longitude(int row) { return longitude[row]; }
+
+        public boolean isGeocoded(int row) {
+            return !Double.isNaN(latitude[row]) && !Double.isNaN(longitude[row]);
+        }
+
+        public PropertyStatus status(int row) { return status[row] >= 0 ? STATUSES[status[row]] : null; }
+
+        public ListingType listingType(int row) {
+            return listingType[row] >= 0 ? LISTING_TYPES[listingType[row]] : null;
+        }
+
+        public PropertyType propertyType(int row) {
+            return propertyType[row] >= 0 ? PROPERTY_TYPES[propertyType[row]] : null;
+        }
+
+        public String city(int row) { return city[row]; }
+
+        public String postalCode(int row) { return postalCode[row]; }
+
+        /** City lowercased for lookups in {@link CompiledCriteria}, or null. */
+        String cityKey(int row) { return cityKey[row]; }
+
+        /** Postal code as a number, or {@link CompiledCriteria#NO_POSTAL_CODE} if it isn't one. */
+        int postalCodeNumber(int row) { return postalCodeNumber[row]; }
+
+        /** Whether the postal code is exactly five digits, i.e. comparable by number for equality. */
+        boolean isCanonicalPostalCode(int row) { return canonicalPostalCode[row]; }
+
+        /**
+         * Spatial grid over this snapshot's coordinates, built on the first radius query.
+         * Two threads racing here may both build it; either result is identical.
+         */
+        GeoGrid geoGrid() {
+            GeoGrid grid = geoGrid;
+            if (grid == null) {
+                grid = GeoGrid.build(latitude, longitude, size);
+                geoGrid = grid;
+            }
+            return grid;
+        }
+
+        /**
+         * Row index of a property in this snapshot, or -1 if it isn't present.
+         */
+        public int rowOf(UUID propertyId) {
+            Integer row = rowById.get(propertyId);
+            return row != null ? row : -1;
+        }
+    }
+}
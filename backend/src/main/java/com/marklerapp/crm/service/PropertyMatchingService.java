@@ -7,16 +7,18 @@ import com.marklerapp.crm.mapper.PropertyMapper;
 import com.marklerapp.crm.repository.ClientRepository;
 import com.marklerapp.crm.repository.PropertyRepository;
 import com.marklerapp.crm.repository.ViewingRepository;
+import com.marklerapp.crm.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service for intelligent property-client matching operations.
@@ -33,11 +35,12 @@ import java.util.stream.Collectors;
  *   <li><b>Features Match (10% default weight):</b> Elevator, balcony, garden, parking, etc.</li>
  * </ul>
  *
- * <p>The service supports three main matching operations:</p>
+ * <p>The service supports four main matching operations:</p>
  * <ul>
  *   <li>Find properties matching a client's saved search criteria</li>
  *   <li>Find clients interested in a specific property</li>
  *   <li>Find properties matching custom criteria (ad-hoc search)</li>
+ *   <li>Match all of an agent's clients against the whole portfolio at once (batch)</li>
  * </ul>
  *
  * <p>All matches include detailed scoring breakdowns and reasons for matches/mismatches,
@@ -60,12 +63,24 @@ public class PropertyMatchingService {
     private final ClientMapper clientMapper;
     private final ClientService clientService;
     private final PropertyService propertyService;
+    private final PropertyMatchIndex propertyMatchIndex;
+    private final MatchScoreCache matchScoreCache;
+    private final ForkJoinPool matchingPool;
 
-    // Default tolerance values
-    private static final BigDecimal BUDGET_FLEXIBILITY_MULTIPLIER = new BigDecimal("1.10"); // 10% over budget
-    private static final BigDecimal AREA_TOLERANCE_PERCENTAGE = new BigDecimal("0.15"); // 15% tolerance
+    // Default tolerance values (budget and area tolerances live in MatchScoringKernel)
     private static final int POSTAL_CODE_PROXIMITY_RANGE = 50; // Postal code range for nearby matching
 
+    // Portfolios at least this large are scored in parallel chunks (common pool, or the batch pool)
+    private static final int PARALLEL_SCORING_THRESHOLD = 2048;
+
+    // Best score first; ties are broken by id so the top k don't depend on scan or chunk order
+    private static final Comparator<ScoredProperty> PROPERTY_ORDER =
+            Comparator.comparingInt(ScoredProperty::score).reversed()
+                    .thenComparing(ScoredProperty::propertyId);
+    private static final Comparator<ScoredClient> CLIENT_ORDER =
+            Comparator.comparingInt(ScoredClient::score).reversed()
+                    .thenComparing(match -> match.client().getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
     /**
      * Find properties matching a client's search criteria.
      *
@@ -82,6 +97,9 @@ public class PropertyMatchingService {
         long startTime = System.currentTimeMillis();
         log.info("Starting property matching for client: {}, agent: {}", clientId, agentId);
 
+        // Taken before the criteria and the portfolio are read (see MatchScoreCache)
+        long cacheStamp = matchScoreCache.stamp();
+
         // Validate and retrieve client
         ClientDto client = clientService.getClientById(clientId, agentId);
         if (client.getSearchCriteria() == null) {
@@ -93,55 +111,29 @@ public class PropertyMatchingService {
                 criteria.getMinBudget(), criteria.getMaxBudget(), criteria.getMinRooms(),
                 criteria.getMaxRooms(), criteria.getPreferredLocations());
 
-        // Get all available properties for the agent
-        List<Property> availableProperties = propertyRepository.findByAgentId(agentId, null).getContent();
-
-        // Filter by status (only AVAILABLE unless includeUnavailable is true)
-        if (!Boolean.TRUE.equals(request.getIncludeUnavailable())) {
-            availableProperties = availableProperties.stream()
-                    .filter(p -> p.getStatus() == PropertyStatus.AVAILABLE)
-                    .collect(Collectors.toList());
-        }
+        // Cross-reference against existing viewings for this client in one query, so the
+        // frontend can flag properties already proposed to this client.
+        Map<UUID, List<Viewing>> viewingsByPropertyId = viewingRepository.findByClient_Id(clientId).stream()
+                .collect(Collectors.groupingBy(v -> v.getProperty().getId()));
 
         // Only suggest properties that match what the client is actually looking for
         // (buyers shouldn't see rentals and vice versa). SELLER clients have no implied
         // listing type here, so they aren't restricted.
         ListingType desiredListingType = desiredListingTypeFor(client.getClientType());
-        if (desiredListingType != null) {
-            availableProperties = availableProperties.stream()
-                    .filter(p -> p.getListingType() == desiredListingType)
-                    .collect(Collectors.toList());
-        }
 
-        // Hard-filter to the client's search radius when restrictToSearchRadius is
-        // enabled (default) and both sides are geocoded — see passesLocationGate.
-        availableProperties = availableProperties.stream()
-                .filter(p -> passesLocationGate(p.getLatitude(), p.getLongitude(), criteria))
-                .collect(Collectors.toList());
-
-        log.debug("Found {} properties to evaluate", availableProperties.size());
-
-        // Cross-reference against existing viewings for this client in one query, so the
-        // frontend can flag properties already proposed to this client.
-        Map<UUID, List<Viewing>> viewingsByPropertyId = viewingRepository.findByClient_Id(clientId).stream()
-                .collect(Collectors.groupingBy(v -> v.getProperty().getId()));
-
-        // Score each property against the criteria
-        List<PropertyMatchResponse.PropertyMatchResult> matchResults = availableProperties.stream()
-                .map(property -> scoreProperty(property, criteria, request,
-                        viewingsByPropertyId.getOrDefault(property.getId(), List.of())))
-                .filter(result -> result.getMatchScore() >= request.getEffectiveMatchThreshold())
-                .sorted(Comparator.comparingInt(PropertyMatchResponse.PropertyMatchResult::getMatchScore).reversed())
-                .limit(request.getEffectiveMaxResults())
-                .collect(Collectors.toList());
+        CacheScope cache = new CacheScope(
+                matchScoreCache.row(clientId), cacheStamp, MatchScoreCache.flagsOf(request));
+        PortfolioMatches matches = matchPortfolio(propertyMatchIndex.portfolioFor(agentId),
+                CompiledCriteria.of(criteria), desiredListingType, request, viewingsByPropertyId, cache);
 
         long executionTime = System.currentTimeMillis() - startTime;
-        log.info("Property matching completed: {} matches found in {}ms", matchResults.size(), executionTime);
+        log.info("Property matching completed: {} matches found, {} returned in {}ms",
+                matches.totalMatches(), matches.results().size(), executionTime);
 
         return PropertyMatchResponse.builder()
-                .properties(matchResults)
-                .totalMatches(matchResults.size())
-                .returnedMatches(matchResults.size())
+                .properties(matches.results())
+                .totalMatches(matches.totalMatches())
+                .returnedMatches(matches.results().size())
                 .matchThreshold(request.getEffectiveMatchThreshold())
                 .executionTimeMs(executionTime)
                 .build();
@@ -163,6 +155,10 @@ public class PropertyMatchingService {
         long startTime = System.currentTimeMillis();
         log.info("Starting client matching for property: {}, agent: {}", propertyId, agentId);
 
+        // Taken before the property and the clients' criteria are read (see MatchScoreCache)
+        long cacheStamp = matchScoreCache.stamp();
+        int cacheFlags = MatchScoreCache.flagsOf(request);
+
         // Validate and retrieve property
         PropertyDto property = propertyService.getProperty(propertyId, agentId);
 
@@ -179,33 +175,77 @@ public class PropertyMatchingService {
         Map<UUID, List<Viewing>> viewingsByClientId = viewingRepository.findByProperty_Id(propertyId).stream()
                 .collect(Collectors.groupingBy(v -> v.getClient().getId()));
 
-        // Score each client based on how well the property matches their criteria
-        List<PropertyMatchResponse.ClientMatchResult> matchResults = clientsWithCriteria.stream()
-                .filter(client -> client.getSearchCriteria() != null)
-                .filter(client -> client.getPipelineStage() != Client.PipelineStage.WON
-                        && client.getPipelineStage() != Client.PipelineStage.LOST)
-                .filter(client -> matchesDesiredListingType(client.getClientType(), property.getListingType()))
-                .filter(client -> passesLocationGate(property.getLatitude(), property.getLongitude(),
-                        convertCriteriaToDto(client.getSearchCriteria())))
-                .map(client -> scoreClient(client, property, request,
-                        viewingsByClientId.getOrDefault(client.getId(), List.of())))
-                .filter(result -> result.getMatchScore() >= request.getEffectiveMatchThreshold())
-                .sorted(Comparator.comparingInt(PropertyMatchResponse.ClientMatchResult::getMatchScore).reversed())
-                .limit(request.getEffectiveMaxResults())
+        // Score every client against the same one-row portfolio, so both matching directions
+        // share the primitive scoring path
+        PropertyMatchIndex.Portfolio target = PropertyMatchIndex.Portfolio.of(
+                List.of(PropertyMatchIndex.Row.of(convertToEntity(property))));
+        double[] weights = request.getNormalizedWeights();
+
+        // Score each client based on how well the property matches their criteria and keep the
+        // best ones in a bounded heap; reasons and client DTOs are only built for those
+        TopKSelector<ScoredClient> top = clientsWithCriteria.stream()
+                .filter(client -> isMatchableClient(client, property.getListingType()))
+                .map(client -> new ClientCriteria(client, CompiledCriteria.of(client.getSearchCriteria())))
+                .filter(candidate -> passesLocationGate(target, 0, candidate.criteria()))
+                .map(candidate -> scoreClient(candidate.client(), candidate.criteria(), target, request, weights,
+                        new CacheScope(matchScoreCache.row(candidate.client().getId()), cacheStamp, cacheFlags)))
+                .filter(match -> match.score() >= request.getEffectiveMatchThreshold())
+                .collect(TopKSelector.collector(request.getEffectiveMaxResults(), CLIENT_ORDER));
+
+        List<PropertyMatchResponse.ClientMatchResult> matchResults = top.toSortedList().stream()
+                .map(match -> toClientResult(match, target, request,
+                        viewingsByClientId.getOrDefault(match.client().getId(), List.of())))
                 .collect(Collectors.toList());
 
         long executionTime = System.currentTimeMillis() - startTime;
-        log.info("Client matching completed: {} matches found in {}ms", matchResults.size(), executionTime);
+        log.info("Client matching completed: {} matches found, {} returned in {}ms",
+                top.offered(), matchResults.size(), executionTime);
 
         return PropertyMatchResponse.builder()
                 .clients(matchResults)
-                .totalMatches(matchResults.size())
+                .totalMatches((int) top.offered())
                 .returnedMatches(matchResults.size())
                 .matchThreshold(request.getEffectiveMatchThreshold())
                 .executionTimeMs(executionTime)
                 .build();
     }
 
+    /**
+     * Score the given clients against one property with the default request settings and
+     * return the scores of those at or above the default threshold, keyed by client ID.
+     *
+     * <p>Used by the reverse-match pipeline, which has already narrowed the clients down
+     * with {@link ClientCriteriaIndex}; the same eligibility filters as
+     * {@link #matchClientsForProperty} still apply. Clients must have their search criteria
+     * loaded.</p>
+     *
+     * @param property the property entity, as saved
+     * @param clients the clients to score
+     * @return match scores by client ID, only for clients that meet the threshold
+     */
+    public Map<UUID, Integer> scoreClientsForProperty(Property property, Collection<Client> clients) {
+        PropertyMatchRequest request = PropertyMatchRequest.builder().includeReasons(false).build();
+        PropertyMatchIndex.Portfolio target = PropertyMatchIndex.Portfolio.of(
+                List.of(PropertyMatchIndex.Row.of(property)));
+        double[] weights = request.getNormalizedWeights();
+
+        Map<UUID, Integer> scores = new HashMap<>();
+        for (Client client : clients) {
+            if (!isMatchableClient(client, property.getListingType())) {
+                continue;
+            }
+            CompiledCriteria criteria = CompiledCriteria.of(client.getSearchCriteria());
+            if (!passesLocationGate(target, 0, criteria)) {
+                continue;
+            }
+            ScoredClient match = scoreClient(client, criteria, target, request, weights, null);
+            if (match.score() >= request.getEffectiveMatchThreshold()) {
+                scores.put(client.getId(), match.score());
+            }
+        }
+        return scores;
+    }
+
     /**
      * Find properties matching custom search criteria.
      *
@@ -232,50 +272,114 @@ public class PropertyMatchingService {
                 criteria.getMinBudget(), criteria.getMaxBudget(), criteria.getMinRooms(),
                 criteria.getMaxRooms(), criteria.getPreferredLocations());
 
-        // Get all available properties for the agent
-        List<Property> availableProperties = propertyRepository.findByAgentId(agentId, null).getContent();
-
-        // Filter by status
-        if (!Boolean.TRUE.equals(request.getIncludeUnavailable())) {
-            availableProperties = availableProperties.stream()
-                    .filter(p -> p.getStatus() == PropertyStatus.AVAILABLE)
-                    .collect(Collectors.toList());
-        }
-
         // No client is attached to an ad-hoc search, so infer the intended listing type from
         // which budget fields were actually filled in. Ambiguous/empty criteria match any type,
         // same as before this filter existed.
         ListingType impliedListingType = impliedListingTypeFor(criteria);
-        if (impliedListingType != null) {
-            availableProperties = availableProperties.stream()
-                    .filter(p -> p.getListingType() == impliedListingType)
-                    .collect(Collectors.toList());
-        }
 
-        availableProperties = availableProperties.stream()
-                .filter(p -> passesLocationGate(p.getLatitude(), p.getLongitude(), criteria))
-                .collect(Collectors.toList());
+        // No client attached either, so there is nothing to cross-reference against past viewings
+        // and no cache row to score into
+        PortfolioMatches matches = matchPortfolio(propertyMatchIndex.portfolioFor(agentId),
+                CompiledCriteria.of(criteria), impliedListingType, request, Map.of(), null);
 
-        log.debug("Found {} properties to evaluate", availableProperties.size());
+        long executionTime = System.currentTimeMillis() - startTime;
+        log.info("Property matching with custom criteria completed: {} matches found, {} returned in {}ms",
+                matches.totalMatches(), matches.results().size(), executionTime);
 
-        // Score each property against the criteria (no client attached to an ad-hoc search,
-        // so there is nothing to cross-reference against past viewings)
-        List<PropertyMatchResponse.PropertyMatchResult> matchResults = availableProperties.stream()
-                .map(property -> scoreProperty(property, criteria, request, List.of()))
-                .filter(result -> result.getMatchScore() >= request.getEffectiveMatchThreshold())
-                .sorted(Comparator.comparingInt(PropertyMatchResponse.PropertyMatchResult::getMatchScore).reversed())
-                .limit(request.getEffectiveMaxResults())
-                .collect(Collectors.toList());
+        return PropertyMatchResponse.builder()
+                .properties(matches.results())
+                .totalMatches(matches.totalMatches())
+                .returnedMatches(matches.results().size())
+                .matchThreshold(request.getEffectiveMatchThreshold())
+                .executionTimeMs(executionTime)
+                .build();
+    }
+
+    /**
+     * Match every open client of an agent against the agent's whole portfolio.
+     *
+     * <p>Portfolio, criteria and viewing history are each loaded once for the whole matrix
+     * instead of once per client. Clients are then scored in chunks on the dedicated
+     * fork-join pool ({@code app.matching.batch.parallelism} workers), so a large batch can't
+     * take over the cores request threads run on. The request's threshold, weights and
+     * maxResults apply per client; reasons, DTOs and viewing history are built afterwards,
+     * on the calling thread, for the returned matches only.</p>
+     *
+     * <p>Clients without search criteria or in a closed stage (WON/LOST) are skipped, and
+     * clients without any match above the threshold are left out of the response.</p>
+     *
+     * @param agentId the UUID of the agent
+     * @param request the matching request with configuration parameters, applied per client
+     * @return PropertyMatchBatchResponse with each matched client's top properties
+     */
+    public PropertyMatchBatchResponse matchAllClients(UUID agentId, PropertyMatchRequest request) {
+        long startTime = System.currentTimeMillis();
+        log.info("Starting batch matching for agent: {}", agentId);
+
+        // Taken before the criteria and the portfolio are read (see MatchScoreCache)
+        long cacheStamp = matchScoreCache.stamp();
+        int cacheFlags = MatchScoreCache.flagsOf(request);
+
+        Agent agent = new Agent();
+        agent.setId(agentId);
+        // Criteria are compiled here, on the request thread, so the scoring workers never
+        // touch a managed entity
+        List<BatchClient> clients = clientRepository.findByAgentWithSearchCriteria(agent).stream()
+                .filter(client -> client.getSearchCriteria() != null
+                        && client.getPipelineStage() != Client.PipelineStage.WON
+                        && client.getPipelineStage() != Client.PipelineStage.LOST)
+                .map(client -> new BatchClient(client, CompiledCriteria.of(client.getSearchCriteria()),
+                        desiredListingTypeFor(client.getClientType()),
+                        new CacheScope(matchScoreCache.row(client.getId()), cacheStamp, cacheFlags)))
+                .toList();
+        PropertyMatchIndex.Portfolio portfolio = propertyMatchIndex.portfolioFor(agentId);
+
+        // Viewing history of the whole agent in one query, grouped client -> property
+        Map<UUID, Map<UUID, List<Viewing>>> viewingsByClientId = viewingRepository.findByAgent_Id(agentId).stream()
+                .collect(Collectors.groupingBy(v -> v.getClient().getId(),
+                        Collectors.groupingBy(v -> v.getProperty().getId())));
+
+        // The parallel stream splits the client list into chunks and forks them on the pool
+        // that runs it, i.e. the capped matching pool; the request thread only waits
+        List<TopKSelector<ScoredProperty>> selections = matchingPool.submit(() -> clients.parallelStream()
+                .map(client -> selectProperties(portfolio, client.criteria(), client.listingType(),
+                        request, client.cache()))
+                .toList()).join();
+
+        // One query and one DTO per distinct property across all clients' top lists
+        List<List<ScoredProperty>> selected = selections.stream().map(TopKSelector::toSortedList).toList();
+        Map<UUID, PropertyDto> propertiesById = loadProperties(selected.stream().flatMap(List::stream).toList());
+
+        List<PropertyMatchBatchResponse.ClientMatches> clientMatches = new ArrayList<>();
+        for (int i = 0; i < clients.size(); i++) {
+            BatchClient client = clients.get(i);
+            List<PropertyMatchResponse.PropertyMatchResult> results = toPropertyResults(portfolio,
+                    selected.get(i), propertiesById, client.criteria(), request,
+                    viewingsByClientId.getOrDefault(client.client().getId(), Map.of()), client.cache());
+            if (results.isEmpty()) {
+                continue;
+            }
+            clientMatches.add(PropertyMatchBatchResponse.ClientMatches.builder()
+                    .client(clientMapper.toDto(client.client()))
+                    .properties(results)
+                    .totalMatches((int) selections.get(i).offered())
+                    .returnedMatches(results.size())
+                    .build());
+        }
+        clientMatches.sort(Comparator.comparing(
+                (PropertyMatchBatchResponse.ClientMatches matches) -> matches.getProperties().get(0).getMatchScore())
+                .reversed());
 
         long executionTime = System.currentTimeMillis() - startTime;
-        log.info("Property matching with custom criteria completed: {} matches found in {}ms",
-                matchResults.size(), executionTime);
+        log.info("Batch matching completed: {} of {} clients matched against {} properties in {}ms",
+                clientMatches.size(), clients.size(), portfolio.size(), executionTime);
 
-        return PropertyMatchResponse.builder()
-                .properties(matchResults)
-                .totalMatches(matchResults.size())
-                .returnedMatches(matchResults.size())
+        return PropertyMatchBatchResponse.builder()
+                .clients(clientMatches)
+                .evaluatedClients(clients.size())
+                .evaluatedProperties(portfolio.size())
                 .matchThreshold(request.getEffectiveMatchThreshold())
+                .maxResultsPerClient(request.getEffectiveMaxResults())
                 .executionTimeMs(executionTime)
                 .build();
     }
@@ -285,67 +389,261 @@ public class PropertyMatchingService {
     // ========================================
 
     /**
-     * Score a property against client search criteria.
+     * Filter and score an agent's indexed properties in a single pass, then load only the
+     * returned matches from the database.
      *
-     * @param property the property to score
-     * @param criteria the search criteria to match against
-     * @param request the matching request with weights and options
-     * @param priorViewings existing viewings linking this property to the client this match is
-     *                      being scored for (empty when there is no specific client, e.g. an
-     *                      ad-hoc custom-criteria search)
-     * @return PropertyMatchResult with score and breakdown
+     * <p>Rows are excluded when they aren't AVAILABLE (unless includeUnavailable is set),
+     * don't have the given listing type (null means any), or fall outside the search radius
+     * (see passesLocationGate; answered here by the portfolio's GeoGrid). Candidates are
+     * scored numerically only and the best maxResults kept in a bounded heap (TopKSelector),
+     * so nothing is sorted beyond k; large candidate sets are split into chunks scored in
+     * parallel and merged. Reasons, viewing history and DTOs are built afterwards for the
+     * matches actually returned.</p>
+     *
+     * <p>With a cache scope (saved client criteria), component scores and reasons are read
+     * from and written to the client's {@link MatchScoreCache} row.</p>
      */
-    private PropertyMatchResponse.PropertyMatchResult scoreProperty(
-            Property property, PropertySearchCriteriaDto criteria, PropertyMatchRequest request,
-            List<Viewing> priorViewings) {
+    private PortfolioMatches matchPortfolio(
+            PropertyMatchIndex.Portfolio portfolio, CompiledCriteria criteria, ListingType listingType,
+            PropertyMatchRequest request, Map<UUID, List<Viewing>> viewingsByPropertyId, CacheScope cache) {
+        TopKSelector<ScoredProperty> top = selectProperties(portfolio, criteria, listingType, request, cache);
+        log.debug("{} of {} indexed properties scored above threshold", top.offered(), portfolio.size());
+
+        List<ScoredProperty> selected = top.toSortedList();
+        List<PropertyMatchResponse.PropertyMatchResult> results = toPropertyResults(portfolio, selected,
+                loadProperties(selected), criteria, request, viewingsByPropertyId, cache);
+        return new PortfolioMatches(results, (int) top.offered());
+    }
 
-        List<String> matchReasons = new ArrayList<>();
-        List<String> mismatchReasons = new ArrayList<>();
+    /**
+     * The numeric pass of {@link #matchPortfolio}: filter and score the portfolio's rows and
+     * keep the best maxResults. Touches neither the database nor the persistence context, so
+     * it may run on any thread.
+     */
+    private TopKSelector<ScoredProperty> selectProperties(
+            PropertyMatchIndex.Portfolio portfolio, CompiledCriteria criteria, ListingType listingType,
+            PropertyMatchRequest request, CacheScope cache) {
+        boolean availableOnly = !Boolean.TRUE.equals(request.getIncludeUnavailable());
+        int threshold = request.getEffectiveMatchThreshold();
+        double[] weights = request.getNormalizedWeights();
 
-        // Calculate individual scores
-        int priceScore = calculatePriceScore(property, criteria, request, matchReasons, mismatchReasons);
-        int locationScore = calculateLocationScore(property, criteria, request, matchReasons, mismatchReasons);
-        int areaScore = calculateAreaScore(property, criteria, request, matchReasons, mismatchReasons);
-        int roomScore = calculateRoomScore(property, criteria, request, matchReasons, mismatchReasons);
-        int featureScore = calculateFeatureScore(property, criteria, request, matchReasons, mismatchReasons);
+        // With an active radius gate, the portfolio's spatial grid hands out only the rows
+        // inside the radius plus the ungeocoded ones (which always pass the gate)
+        int[] candidates = criteria.radiusGateApplies() ? radiusCandidates(portfolio, criteria) : null;
+        IntStream rows = candidates != null ? IntStream.of(candidates) : IntStream.range(0, portfolio.size());
+
+        // Scoring only reads the immutable snapshot, so chunks can run on any thread. Inside
+        // a batch run this forks into the batch pool rather than the common pool.
+        if ((candidates != null ? candidates.length : portfolio.size()) >= PARALLEL_SCORING_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        return rows
+                .filter(row -> !availableOnly || portfolio.status(row) == PropertyStatus.AVAILABLE)
+                .filter(row -> listingType == null || portfolio.listingType(row) == listingType)
+                .mapToObj(row -> scoreProperty(portfolio, row, criteria, request, weights, cache))
+                .filter(match -> match.score() >= threshold)
+                .collect(TopKSelector.collector(request.getEffectiveMaxResults(), PROPERTY_ORDER));
+    }
 
-        // Get normalized weights
-        double[] weights = request.getNormalizedWeights();
+    /**
+     * Load the DTOs of the selected properties with one query, keyed by property ID.
+     */
+    private Map<UUID, PropertyDto> loadProperties(Collection<ScoredProperty> selected) {
+        if (selected.isEmpty()) {
+            return Map.of();
+        }
+        return propertyRepository.findByIdIn(selected.stream().map(ScoredProperty::propertyId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Property::getId, propertyMapper::toDto));
+    }
+
+    /**
+     * Build the response entries for the selected matches: the preloaded property DTOs,
+     * reasons (unless skipped by the request) and viewing history. A property deleted between
+     * indexing and hydration is dropped from the result rather than returned empty.
+     */
+    private List<PropertyMatchResponse.PropertyMatchResult> toPropertyResults(
+            PropertyMatchIndex.Portfolio portfolio, List<ScoredProperty> selected,
+            Map<UUID, PropertyDto> propertiesById, CompiledCriteria criteria, PropertyMatchRequest request,
+            Map<UUID, List<Viewing>> viewingsByPropertyId, CacheScope cache) {
+        List<PropertyMatchResponse.PropertyMatchResult> results = new ArrayList<>(selected.size());
+        for (ScoredProperty match : selected) {
+            PropertyDto property = propertiesById.get(match.propertyId());
+            if (property == null) {
+                continue;
+            }
+            MatchReasons reasons = explain(portfolio, match.row(), criteria, request, cache, match.cached());
+            List<Viewing> priorViewings = viewingsByPropertyId.getOrDefault(match.propertyId(), List.of());
+
+            results.add(PropertyMatchResponse.PropertyMatchResult.builder()
+                    .property(property)
+                    .matchScore(match.score())
+                    .scoreBreakdown(match.breakdown())
+                    .matchReasons(reasons.matchReasons())
+                    .mismatchReasons(reasons.mismatchReasons())
+                    .previouslyContacted(!priorViewings.isEmpty())
+                    .viewCount(priorViewings.size())
+                    .lastContactDate(latestViewingDate(priorViewings))
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Returned property matches plus the number of properties above the threshold, which
+     * can exceed the returned list when it was cut at maxResults.
+     */
+    private record PortfolioMatches(List<PropertyMatchResponse.PropertyMatchResult> results, int totalMatches) {
+    }
+
+    /**
+     * A client of a batch run with everything scoring needs, prepared on the request thread.
+     */
+    private record BatchClient(Client client, CompiledCriteria criteria, ListingType listingType, CacheScope cache) {
+    }
+
+    /**
+     * A client together with its criteria, compiled once for the request.
+     */
+    private record ClientCriteria(Client client, CompiledCriteria criteria) {
+    }
+
+    /**
+     * Numeric result of scoring one portfolio row. The row index is only meaningful within the
+     * portfolio snapshot the request scored against.
+     */
+    private record ScoredProperty(int row, UUID propertyId, int score,
+                                  PropertyMatchResponse.MatchScoreBreakdown breakdown,
+                                  MatchScoreCache.CachedScore cached) {
+    }
+
+    /**
+     * Numeric result of scoring one client against the property.
+     */
+    private record ScoredClient(Client client, CompiledCriteria criteria,
+                                int score, PropertyMatchResponse.MatchScoreBreakdown breakdown,
+                                CacheScope cache, MatchScoreCache.CachedScore cached) {
+    }
+
+    /**
+     * Where a request reads and writes cached cells: the client's cache row, the stamp taken
+     * before the request read its data, and the request's cell flags.
+     */
+    private record CacheScope(MatchScoreCache.ClientRow row, long stamp, int flags) {
+    }
+
+    /**
+     * Human-readable reasons for a returned match; both lists are null when the request skips them.
+     */
+    private record MatchReasons(List<String> matchReasons, List<String> mismatchReasons) {
+    }
 
-        // Calculate weighted overall score
-        int overallScore = (int) Math.round(
-                priceScore * weights[0] +
-                locationScore * weights[1] +
-                areaScore * weights[2] +
-                roomScore * weights[3] +
-                featureScore * weights[4]
-        );
+    /**
+     * Score a property against client search criteria, numerically only.
+     *
+     * @param portfolio the indexed portfolio holding the property
+     * @param row the property's row in the portfolio
+     * @param criteria the search criteria to match against, compiled once per request
+     * @param request the matching request with weights and options
+     * @param weights the request's normalized weights, computed once per request
+     * @param cache the client's cache row, or null when the criteria aren't a saved client's
+     * @return the overall score and breakdown
+     */
+    ScoredProperty scoreProperty(
+            PropertyMatchIndex.Portfolio portfolio, int row, CompiledCriteria criteria,
+            PropertyMatchRequest request, double[] weights, CacheScope cache) {
+        UUID propertyId = portfolio.id(row);
+        MatchScoreCache.CachedScore cached = cachedComponents(cache, propertyId,
+                () -> scoreComponents(portfolio, row, criteria, request, null, null));
+        PropertyMatchResponse.MatchScoreBreakdown breakdown = cached != null
+                ? cached.breakdown()
+                : scoreComponents(portfolio, row, criteria, request, null, null);
+        int overallScore = overallScore(breakdown, weights);
+
+        log.debug("Property {} scored: overall={}, breakdown={}", propertyId, overallScore, breakdown);
+
+        return new ScoredProperty(row, propertyId, overallScore, breakdown, cached);
+    }
 
-        log.debug("Property {} scored: overall={}, price={}, location={}, area={}, room={}, feature={}",
-                property.getId(), overallScore, priceScore, locationScore, areaScore, roomScore, featureScore);
+    /**
+     * The cached components of a pair, scoring and caching them on a miss. Returns null
+     * without a cache scope, leaving scoring to the caller.
+     */
+    private static MatchScoreCache.CachedScore cachedComponents(
+            CacheScope cache, UUID propertyId, Supplier<PropertyMatchResponse.MatchScoreBreakdown> score) {
+        if (cache == null) {
+            return null;
+        }
+        MatchScoreCache.CachedScore cached = cache.row().get(propertyId, cache.flags());
+        if (cached == null) {
+            cached = MatchScoreCache.CachedScore.of(cache.flags(), score.get());
+            cache.row().put(propertyId, cache.stamp(), cached);
+        }
+        return cached;
+    }
 
-        // Build score breakdown
-        PropertyMatchResponse.MatchScoreBreakdown breakdown = PropertyMatchResponse.MatchScoreBreakdown.builder()
+    /**
+     * Re-run component scoring for a returned match with reason lists attached. Scoring is
+     * deterministic, so this reproduces the numeric pass exactly and only adds the text.
+     */
+    private MatchReasons explain(PropertyMatchIndex.Portfolio portfolio, int row, CompiledCriteria criteria,
+                                 PropertyMatchRequest request) {
+        if (Boolean.FALSE.equals(request.getIncludeReasons())) {
+            return new MatchReasons(null, null);
+        }
+        List<String> matchReasons = new ArrayList<>();
+        List<String> mismatchReasons = new ArrayList<>();
+        scoreComponents(portfolio, row, criteria, request, matchReasons, mismatchReasons);
+        return new MatchReasons(matchReasons, mismatchReasons);
+    }
+
+    /**
+     * Reasons for a returned match, taken from its cache cell when they were built before;
+     * freshly built reasons are written back to the cell.
+     */
+    private MatchReasons explain(PropertyMatchIndex.Portfolio portfolio, int row, CompiledCriteria criteria,
+                                 PropertyMatchRequest request, CacheScope cache, MatchScoreCache.CachedScore cached) {
+        if (cached != null && cached.hasReasons() && !Boolean.FALSE.equals(request.getIncludeReasons())) {
+            return new MatchReasons(cached.matchReasons(), cached.mismatchReasons());
+        }
+        MatchReasons reasons = explain(portfolio, row, criteria, request);
+        if (cache != null && cached != null && reasons.matchReasons() != null) {
+            cache.row().put(portfolio.id(row), cache.stamp(),
+                    cached.withReasons(reasons.matchReasons(), reasons.mismatchReasons()));
+        }
+        return reasons;
+    }
+
+    /**
+     * Calculate the five component scores of one portfolio row against the criteria.
+     * Reason lists may be null, in which case no reason text is formatted at all.
+     */
+    private PropertyMatchResponse.MatchScoreBreakdown scoreComponents(
+            PropertyMatchIndex.Portfolio portfolio, int row, CompiledCriteria criteria, PropertyMatchRequest request,
+            List<String> matchReasons, List<String> mismatchReasons) {
+        MatchScoringKernel.Bounds bounds = criteria.bounds();
+        int priceScore = MatchScoringKernel.priceScore(portfolio.listingType(row), portfolio.price(row),
+                portfolio.warmRent(row), bounds, Boolean.TRUE.equals(request.getAllowBudgetFlexibility()),
+                matchReasons, mismatchReasons);
+        int locationScore = calculateLocationScore(portfolio, row, criteria, request, matchReasons, mismatchReasons);
+        int areaScore = MatchScoringKernel.areaScore(portfolio.area(row), bounds.minArea(), bounds.maxArea(),
+                matchReasons, mismatchReasons);
+        int roomScore = MatchScoringKernel.roomScore(portfolio.rooms(row), bounds.minRooms(), bounds.maxRooms(),
+                matchReasons, mismatchReasons);
+        int featureScore = calculateFeatureScore(portfolio, row, criteria, matchReasons, mismatchReasons);
+
+        return PropertyMatchResponse.MatchScoreBreakdown.builder()
                 .priceScore(priceScore)
                 .locationScore(locationScore)
                 .areaScore(areaScore)
                 .roomScore(roomScore)
                 .featureScore(featureScore)
                 .build();
+    }
 
-        // Convert property entity to DTO
-        PropertyDto propertyDto = propertyMapper.toDto(property);
-
-        return PropertyMatchResponse.PropertyMatchResult.builder()
-                .property(propertyDto)
-                .matchScore(overallScore)
-                .scoreBreakdown(breakdown)
-                .matchReasons(matchReasons)
-                .mismatchReasons(mismatchReasons)
-                .previouslyContacted(!priorViewings.isEmpty())
-                .viewCount(priorViewings.size())
-                .lastContactDate(latestViewingDate(priorViewings))
-                .build();
+    private static int overallScore(PropertyMatchResponse.MatchScoreBreakdown breakdown, double[] weights) {
+        return MatchScoringKernel.overallScore(breakdown.getPriceScore(), breakdown.getLocationScore(),
+                breakdown.getAreaScore(), breakdown.getRoomScore(), breakdown.getFeatureScore(), weights);
     }
 
     /**
@@ -361,64 +659,51 @@ public class PropertyMatchingService {
     }
 
     /**
-     * Score a client based on how well a property matches their criteria.
+     * Score a client based on how well a property matches their criteria, numerically only.
      *
      * @param client the client with search criteria
-     * @param property the property to match
+     * @param criteria the client's search criteria, compiled once per request
+     * @param property one-row portfolio holding the property to match
+     * @param request the matching request with weights and options
+     * @param weights the request's normalized weights, computed once per request
+     * @param cache the client's cache row, or null to score without caching
+     * @return the overall score and breakdown
+     */
+    ScoredClient scoreClient(Client client, CompiledCriteria criteria, PropertyMatchIndex.Portfolio property,
+                             PropertyMatchRequest request, double[] weights, CacheScope cache) {
+        MatchScoreCache.CachedScore cached = cachedComponents(cache, property.id(0),
+                () -> scoreComponents(property, 0, criteria, request, null, null));
+        PropertyMatchResponse.MatchScoreBreakdown breakdown = cached != null
+                ? cached.breakdown()
+                : scoreComponents(property, 0, criteria, request, null, null);
+        int overallScore = overallScore(breakdown, weights);
+
+        log.debug("Client {} scored: overall={}, breakdown={}", client.getId(), overallScore, breakdown);
+
+        return new ScoredClient(client, criteria, overallScore, breakdown, cache, cached);
+    }
+
+    /**
+     * Build the response entry for a returned client match: reasons (unless skipped by the
+     * request), the client DTO and viewing history.
+     *
+     * @param match the scored client
+     * @param property one-row portfolio holding the property that was matched
      * @param request the matching request with weights and options
      * @param priorViewings existing viewings linking this client to this property
      * @return ClientMatchResult with score and breakdown
      */
-    private PropertyMatchResponse.ClientMatchResult scoreClient(
-            Client client, PropertyDto property, PropertyMatchRequest request, List<Viewing> priorViewings) {
-
-        PropertySearchCriteriaDto criteria = convertCriteriaToDto(client.getSearchCriteria());
-        List<String> matchReasons = new ArrayList<>();
-        List<String> mismatchReasons = new ArrayList<>();
-
-        // Convert DTO to entity for scoring (reuse existing logic)
-        Property propertyEntity = convertToEntity(property);
-
-        // Calculate scores using the same logic
-        int priceScore = calculatePriceScore(propertyEntity, criteria, request, matchReasons, mismatchReasons);
-        int locationScore = calculateLocationScore(propertyEntity, criteria, request, matchReasons, mismatchReasons);
-        int areaScore = calculateAreaScore(propertyEntity, criteria, request, matchReasons, mismatchReasons);
-        int roomScore = calculateRoomScore(propertyEntity, criteria, request, matchReasons, mismatchReasons);
-        int featureScore = calculateFeatureScore(propertyEntity, criteria, request, matchReasons, mismatchReasons);
-
-        // Get normalized weights
-        double[] weights = request.getNormalizedWeights();
-
-        // Calculate weighted overall score
-        int overallScore = (int) Math.round(
-                priceScore * weights[0] +
-                locationScore * weights[1] +
-                areaScore * weights[2] +
-                roomScore * weights[3] +
-                featureScore * weights[4]
-        );
-
-        log.debug("Client {} scored: overall={}, price={}, location={}, area={}, room={}, feature={}",
-                client.getId(), overallScore, priceScore, locationScore, areaScore, roomScore, featureScore);
-
-        // Build score breakdown
-        PropertyMatchResponse.MatchScoreBreakdown breakdown = PropertyMatchResponse.MatchScoreBreakdown.builder()
-                .priceScore(priceScore)
-                .locationScore(locationScore)
-                .areaScore(areaScore)
-                .roomScore(roomScore)
-                .featureScore(featureScore)
-                .build();
-
-        // Convert client entity to DTO
-        ClientDto clientDto = clientMapper.toDto(client);
+    private PropertyMatchResponse.ClientMatchResult toClientResult(
+            ScoredClient match, PropertyMatchIndex.Portfolio property, PropertyMatchRequest request,
+            List<Viewing> priorViewings) {
+        MatchReasons reasons = explain(property, 0, match.criteria(), request, match.cache(), match.cached());
 
         return PropertyMatchResponse.ClientMatchResult.builder()
-                .client(clientDto)
-                .matchScore(overallScore)
-                .scoreBreakdown(breakdown)
-                .matchReasons(matchReasons)
-                .mismatchReasons(mismatchReasons)
+                .client(clientMapper.toDto(match.client()))
+                .matchScore(match.score())
+                .scoreBreakdown(match.breakdown())
+                .matchReasons(reasons.matchReasons())
+                .mismatchReasons(reasons.mismatchReasons())
                 .previouslyContacted(!priorViewings.isEmpty())
                 .viewCount(priorViewings.size())
                 .lastContactDate(latestViewingDate(priorViewings))
@@ -429,120 +714,11 @@ public class PropertyMatchingService {
     // Private Helper Methods - Individual Score Calculations
     // ========================================
 
-    /**
-     * Calculate price match score (0-100).
-     *
-     * <p>Scoring logic:</p>
-     * <ul>
-     *   <li>100 points: Price within budget range</li>
-     *   <li>80-99 points: Price slightly over budget (if flexibility allowed)</li>
-     *   <li>50-79 points: Price within 20% of budget</li>
-     *   <li>0-49 points: Price significantly outside budget</li>
-     * </ul>
-     */
-    private int calculatePriceScore(Property property, PropertySearchCriteriaDto criteria,
-                                    PropertyMatchRequest request, List<String> matchReasons,
-                                    List<String> mismatchReasons) {
-        if (property.getPrice() == null) {
-            matchReasons.add("Price not specified for this property");
-            return 50; // Neutral score for missing price
-        }
-
-        boolean allowFlexibility = Boolean.TRUE.equals(request.getAllowBudgetFlexibility());
-
-        if (property.getListingType() == ListingType.SALE) {
-            return scoreValueAgainstRange(property.getPrice(), criteria.getMinBudget(), criteria.getMaxBudget(),
-                    allowFlexibility, "Purchase price", matchReasons, mismatchReasons);
-        }
-
-        // RENT / LEASE: price is the cold rent; warm rent adds additional/heating costs.
-        // Prefer whichever of warm/cold rent the client actually specified; fall back to the
-        // legacy generic budget fields for search criteria saved before this distinction existed.
-        BigDecimal coldRent = property.getPrice();
-        BigDecimal warmRent = coldRent
-                .add(property.getAdditionalCosts() != null ? property.getAdditionalCosts() : BigDecimal.ZERO)
-                .add(property.getHeatingCosts() != null ? property.getHeatingCosts() : BigDecimal.ZERO);
-
-        if (criteria.getMinWarmRent() != null || criteria.getMaxWarmRent() != null) {
-            return scoreValueAgainstRange(warmRent, criteria.getMinWarmRent(), criteria.getMaxWarmRent(),
-                    allowFlexibility, "Warm rent", matchReasons, mismatchReasons);
-        }
-        if (criteria.getMinColdRent() != null || criteria.getMaxColdRent() != null) {
-            return scoreValueAgainstRange(coldRent, criteria.getMinColdRent(), criteria.getMaxColdRent(),
-                    allowFlexibility, "Cold rent", matchReasons, mismatchReasons);
-        }
-        return scoreValueAgainstRange(coldRent, criteria.getMinBudget(), criteria.getMaxBudget(),
-                allowFlexibility, "Rent", matchReasons, mismatchReasons);
-    }
-
-    /**
-     * Score a monetary value against a min/max range (0-100). Shared by purchase price,
-     * cold rent, and warm rent scoring — the curve is identical, only the value and range differ.
-     *
-     * <p>Scoring logic:</p>
-     * <ul>
-     *   <li>100 points: value within range</li>
-     *   <li>80-99 points: value slightly over max (if flexibility allowed)</li>
-     *   <li>50-79 points: value within 20% of max</li>
-     *   <li>0-49 points: value significantly outside range</li>
-     * </ul>
-     */
-    private int scoreValueAgainstRange(BigDecimal value, BigDecimal min, BigDecimal max,
-                                       boolean allowFlexibility, String label,
-                                       List<String> matchReasons, List<String> mismatchReasons) {
-        if (min == null && max == null) {
-            matchReasons.add("No " + label.toLowerCase() + " constraints specified");
-            return 100;
-        }
-
-        BigDecimal effectiveMax = max;
-        if (allowFlexibility && max != null) {
-            effectiveMax = max.multiply(BUDGET_FLEXIBILITY_MULTIPLIER);
-        }
-
-        boolean withinMin = min == null || value.compareTo(min) >= 0;
-        boolean withinMax = max == null || value.compareTo(max) <= 0;
-
-        if (withinMin && withinMax) {
-            matchReasons.add(String.format("%s €%,d is within budget range", label, value.intValue()));
-            return 100;
-        }
-
-        boolean withinFlexibleMax = effectiveMax == null || value.compareTo(effectiveMax) <= 0;
-        if (withinMin && withinFlexibleMax) {
-            matchReasons.add(String.format("%s €%,d is slightly over budget but within 10%% tolerance", label, value.intValue()));
-            return 85;
-        }
-
-        if (max != null && value.compareTo(max) > 0) {
-            BigDecimal percentOver = value.subtract(max)
-                    .divide(max, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-
-            if (percentOver.compareTo(BigDecimal.valueOf(20)) <= 0) {
-                mismatchReasons.add(String.format("%s €%,d is %.1f%% over budget",
-                        label, value.intValue(), percentOver.doubleValue()));
-                return Math.max(50, 100 - percentOver.intValue());
-            } else {
-                mismatchReasons.add(String.format("%s €%,d significantly exceeds budget (%.1f%% over)",
-                        label, value.intValue(), percentOver.doubleValue()));
-                return Math.max(0, 50 - (percentOver.intValue() - 20));
-            }
-        }
-
-        if (min != null && value.compareTo(min) < 0) {
-            mismatchReasons.add(String.format("%s €%,d is below minimum budget", label, value.intValue()));
-            return 30;
-        }
-
-        return 50;
-    }
-
     /**
      * Map a client's stated intent to the listing type they should be shown.
      * SELLER has no implied listing type (they aren't searching for a property here).
      */
-    private ListingType desiredListingTypeFor(Client.ClientType clientType) {
+    static ListingType desiredListingTypeFor(Client.ClientType clientType) {
         if (clientType == Client.ClientType.BUYER) {
             return ListingType.SALE;
         }
@@ -557,6 +733,18 @@ public class PropertyMatchingService {
         return desired == null || desired == propertyListingType;
     }
 
+    /**
+     * Whether a client takes part in matching against a property at all: has search criteria,
+     * isn't closed (WON/LOST) and wants this listing type. The radius gate is checked
+     * separately, on the compiled criteria.
+     */
+    private boolean isMatchableClient(Client client, ListingType propertyListingType) {
+        return client.getSearchCriteria() != null
+                && client.getPipelineStage() != Client.PipelineStage.WON
+                && client.getPipelineStage() != Client.PipelineStage.LOST
+                && matchesDesiredListingType(client.getClientType(), propertyListingType);
+    }
+
     /**
      * Ad-hoc searches have no client to read intent from, so infer it from which budget
      * fields were actually filled in. Returns null (no filter) when ambiguous or empty.
@@ -580,72 +768,71 @@ public class PropertyMatchingService {
      *
      * <p>Scoring logic:</p>
      * <ul>
-     *   <li>100 points: Exact city match</li>
+     *   <li>100 points: Exact city or postal code match</li>
      *   <li>80 points: Postal code proximity match</li>
-     *   <li>60 points: State/region match</li>
      *   <li>0 points: No location match</li>
      * </ul>
+     *
+     * <p>Preferred locations are compiled once per request, so this is a set lookup for the
+     * city and binary searches over the preferred postal codes — the best of the three wins,
+     * regardless of the order the client listed their locations in.</p>
      */
-    private int calculateLocationScore(Property property, PropertySearchCriteriaDto criteria,
-                                       PropertyMatchRequest request, List<String> matchReasons,
-                                       List<String> mismatchReasons) {
+    int calculateLocationScore(PropertyMatchIndex.Portfolio portfolio, int row,
+                               CompiledCriteria criteria, PropertyMatchRequest request,
+                               List<String> matchReasons, List<String> mismatchReasons) {
         // Prefer real distance once both sides are geocoded — falls through to the
         // city/postal-code text logic below whenever either side lacks coordinates
         // (legacy criteria without a map pin, or a property not yet geocoded).
-        if (criteria.getLatitude() != null && criteria.getLongitude() != null && criteria.getSearchRadiusKm() != null
-                && property.getLatitude() != null && property.getLongitude() != null) {
-            return calculateDistanceScore(property, criteria, matchReasons, mismatchReasons);
+        if (criteria.isPinned() && portfolio.isGeocoded(row)) {
+            return calculateDistanceScore(portfolio, row, criteria, matchReasons, mismatchReasons);
         }
 
-        List<String> preferredLocations = criteria.getPreferredLocations();
-
-        if (preferredLocations == null || preferredLocations.isEmpty()) {
-            matchReasons.add("No location preferences specified");
+        if (!criteria.hasLocationPreferences()) {
+            if (matchReasons != null) {
+                matchReasons.add("No location preferences specified");
+            }
             return 100;
         }
 
-        String propertyCity = property.getAddressCity();
-        String propertyPostalCode = property.getAddressPostalCode();
+        String propertyCity = portfolio.city(row);
+        String propertyPostalCode = portfolio.postalCode(row);
 
         if (propertyCity == null && propertyPostalCode == null) {
-            matchReasons.add("Property location not fully specified");
+            if (matchReasons != null) {
+                matchReasons.add("Property location not fully specified");
+            }
             return 50;
         }
 
         // Check for exact city match
-        for (String location : preferredLocations) {
-            if (propertyCity != null && propertyCity.equalsIgnoreCase(location.trim())) {
+        if (criteria.prefersCity(portfolio.cityKey(row))) {
+            if (matchReasons != null) {
                 matchReasons.add(String.format("Property is in preferred city: %s", propertyCity));
-                return 100;
             }
+            return 100;
+        }
 
-            // Check for postal code match
-            if (propertyPostalCode != null && location.trim().matches("\\d{5}")) {
-                if (propertyPostalCode.equals(location.trim())) {
-                    matchReasons.add(String.format("Property postal code %s matches exactly", propertyPostalCode));
-                    return 100;
-                }
-
-                // Check postal code proximity (within range)
-                if (!Boolean.TRUE.equals(request.getExactLocationMatch())) {
-                    try {
-                        int propertyCode = Integer.parseInt(propertyPostalCode);
-                        int preferredCode = Integer.parseInt(location.trim());
-                        int difference = Math.abs(propertyCode - preferredCode);
-
-                        if (difference <= POSTAL_CODE_PROXIMITY_RANGE) {
-                            matchReasons.add(String.format("Property postal code %s is near preferred location (within %d)",
-                                    propertyPostalCode, POSTAL_CODE_PROXIMITY_RANGE));
-                            return 80;
-                        }
-                    } catch (NumberFormatException e) {
-                        log.debug("Could not parse postal codes for proximity check");
-                    }
-                }
+        // Check for postal code match
+        if (portfolio.isCanonicalPostalCode(row) && criteria.prefersPostalCode(portfolio.postalCodeNumber(row))) {
+            if (matchReasons != null) {
+                matchReasons.add(String.format("Property postal code %s matches exactly", propertyPostalCode));
             }
+            return 100;
         }
 
-        mismatchReasons.add(String.format("Property location %s does not match preferred locations", propertyCity));
+        // Check postal code proximity (within range)
+        if (!Boolean.TRUE.equals(request.getExactLocationMatch())
+                && criteria.hasPostalCodeNear(portfolio.postalCodeNumber(row), POSTAL_CODE_PROXIMITY_RANGE)) {
+            if (matchReasons != null) {
+                matchReasons.add(String.format("Property postal code %s is near preferred location (within %d)",
+                        propertyPostalCode, POSTAL_CODE_PROXIMITY_RANGE));
+            }
+            return 80;
+        }
+
+        if (mismatchReasons != null) {
+            mismatchReasons.add(String.format("Property location %s does not match preferred locations", propertyCity));
+        }
         return 0;
     }
 
@@ -656,41 +843,30 @@ public class PropertyMatchingService {
      * (otherwise passesLocationGate already filtered them out before scoring), so the
      * curve keeps decaying past the edge instead of assuming everything here is in-range.
      */
-    private int calculateDistanceScore(Property property, PropertySearchCriteriaDto criteria,
+    private int calculateDistanceScore(PropertyMatchIndex.Portfolio portfolio, int row,
+                                       CompiledCriteria criteria,
                                        List<String> matchReasons, List<String> mismatchReasons) {
-        double distance = distanceKm(criteria.getLatitude(), criteria.getLongitude(),
-                property.getLatitude(), property.getLongitude());
-        int radiusKm = criteria.getSearchRadiusKm();
+        double distance = GeoGrid.distanceKm(criteria.latitude(), criteria.longitude(),
+                portfolio.latitude(row), portfolio.longitude(row));
+        int radiusKm = criteria.searchRadiusKm();
 
         if (distance <= radiusKm) {
             int score = (int) Math.round(100 - (distance / radiusKm) * 30);
-            matchReasons.add(String.format("Property is %.1f km from the search location (within %d km radius)",
-                    distance, radiusKm));
+            if (matchReasons != null) {
+                matchReasons.add(String.format("Property is %.1f km from the search location (within %d km radius)",
+                        distance, radiusKm));
+            }
             return Math.max(70, score);
         }
 
         double overKm = distance - radiusKm;
         int score = (int) Math.round(70 - overKm * 5);
-        mismatchReasons.add(String.format("Property is %.1f km outside the %d km search radius", overKm, radiusKm));
+        if (mismatchReasons != null) {
+            mismatchReasons.add(String.format("Property is %.1f km outside the %d km search radius", overKm, radiusKm));
+        }
         return Math.max(0, score);
     }
 
-    /**
-     * Great-circle distance between two coordinates in kilometers (haversine formula).
-     */
-    private static double distanceKm(BigDecimal lat1, BigDecimal lng1, BigDecimal lat2, BigDecimal lng2) {
-        final double earthRadiusKm = 6371.0;
-        double phi1 = Math.toRadians(lat1.doubleValue());
-        double phi2 = Math.toRadians(lat2.doubleValue());
-        double deltaPhi = Math.toRadians(lat2.doubleValue() - lat1.doubleValue());
-        double deltaLambda = Math.toRadians(lng2.doubleValue() - lng1.doubleValue());
-
-        double a = Math.sin(deltaPhi / 2) * Math.sin(deltaPhi / 2)
-                + Math.cos(phi1) * Math.cos(phi2) * Math.sin(deltaLambda / 2) * Math.sin(deltaLambda / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return earthRadiusKm * c;
-    }
-
     /**
      * Hard pre-filter applied before scoring: excludes properties outside a client's
      * search radius when restrictToSearchRadius is enabled (the default). A data gap
@@ -698,165 +874,25 @@ public class PropertyMatchingService {
      * passes the gate rather than silently hiding an otherwise valid match; scoring
      * falls back to city/postal-code text matching for those instead.
      */
-    private boolean passesLocationGate(BigDecimal propertyLatitude, BigDecimal propertyLongitude,
-                                        PropertySearchCriteriaDto criteria) {
-        if (criteria == null || !Boolean.TRUE.equals(criteria.getRestrictToSearchRadius())) {
+    private boolean passesLocationGate(PropertyMatchIndex.Portfolio portfolio, int row, CompiledCriteria criteria) {
+        if (!criteria.radiusGateApplies() || !portfolio.isGeocoded(row)) {
             return true;
         }
-        if (criteria.getLatitude() == null || criteria.getLongitude() == null || criteria.getSearchRadiusKm() == null) {
-            return true;
-        }
-        if (propertyLatitude == null || propertyLongitude == null) {
-            return true;
-        }
-        double distance = distanceKm(criteria.getLatitude(), criteria.getLongitude(), propertyLatitude, propertyLongitude);
-        return distance <= criteria.getSearchRadiusKm();
-    }
-
-    /**
-     * Calculate area match score (0-100).
-     *
-     * <p>Scoring logic:</p>
-     * <ul>
-     *   <li>100 points: Living area within specified range</li>
-     *   <li>80-99 points: Living area within 15% tolerance</li>
-     *   <li>50-79 points: Living area within 30% tolerance</li>
-     *   <li>0-49 points: Living area significantly outside range</li>
-     * </ul>
-     */
-    private int calculateAreaScore(Property property, PropertySearchCriteriaDto criteria,
-                                   PropertyMatchRequest request, List<String> matchReasons,
-                                   List<String> mismatchReasons) {
-        if (property.getLivingAreaSqm() == null) {
-            matchReasons.add("Living area not specified for this property");
-            return 50;
-        }
-
-        BigDecimal area = property.getLivingAreaSqm();
-        Integer minArea = criteria.getMinSquareMeters();
-        Integer maxArea = criteria.getMaxSquareMeters();
-
-        // If no area constraints, perfect score
-        if (minArea == null && maxArea == null) {
-            matchReasons.add("No area constraints specified");
-            return 100;
-        }
-
-        BigDecimal minAreaDecimal = minArea != null ? BigDecimal.valueOf(minArea) : null;
-        BigDecimal maxAreaDecimal = maxArea != null ? BigDecimal.valueOf(maxArea) : null;
-
-        // Check if area is within range
-        boolean withinMin = minAreaDecimal == null || area.compareTo(minAreaDecimal) >= 0;
-        boolean withinMax = maxAreaDecimal == null || area.compareTo(maxAreaDecimal) <= 0;
-
-        if (withinMin && withinMax) {
-            matchReasons.add(String.format("Living area %.0f m² is within desired range", area.doubleValue()));
-            return 100;
-        }
-
-        // Apply tolerance (15% by default)
-        if (maxAreaDecimal != null && area.compareTo(maxAreaDecimal) > 0) {
-            BigDecimal tolerance = maxAreaDecimal.multiply(AREA_TOLERANCE_PERCENTAGE);
-            BigDecimal maxWithTolerance = maxAreaDecimal.add(tolerance);
-
-            if (area.compareTo(maxWithTolerance) <= 0) {
-                matchReasons.add(String.format("Living area %.0f m² is slightly larger than preferred (within 15%% tolerance)",
-                        area.doubleValue()));
-                return 85;
-            }
-
-            BigDecimal percentOver = area.subtract(maxAreaDecimal)
-                    .divide(maxAreaDecimal, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-            mismatchReasons.add(String.format("Living area %.0f m² is %.1f%% larger than preferred maximum",
-                    area.doubleValue(), percentOver.doubleValue()));
-            return Math.max(0, 100 - percentOver.intValue());
-        }
-
-        if (minAreaDecimal != null && area.compareTo(minAreaDecimal) < 0) {
-            BigDecimal percentUnder = minAreaDecimal.subtract(area)
-                    .divide(minAreaDecimal, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-            mismatchReasons.add(String.format("Living area %.0f m² is %.1f%% smaller than preferred minimum",
-                    area.doubleValue(), percentUnder.doubleValue()));
-            return Math.max(0, 100 - percentUnder.intValue());
-        }
-
-        return 50;
+        return GeoGrid.withinRadius(criteria.latitude(), criteria.longitude(),
+                portfolio.latitude(row), portfolio.longitude(row), criteria.searchRadiusKm());
     }
 
     /**
-     * Calculate room count match score (0-100).
-     *
-     * <p>Scoring logic:</p>
-     * <ul>
-     *   <li>100 points: Room count within specified range</li>
-     *   <li>75 points: Room count 1 room outside range</li>
-     *   <li>50 points: Room count 2 rooms outside range</li>
-     *   <li>0 points: Room count significantly different</li>
-     * </ul>
+     * Portfolio rows passing the radius gate: geocoded rows within the radius, found through
+     * the portfolio's spatial grid, plus every ungeocoded row.
      */
-    private int calculateRoomScore(Property property, PropertySearchCriteriaDto criteria,
-                                   PropertyMatchRequest request, List<String> matchReasons,
-                                   List<String> mismatchReasons) {
-        if (property.getRooms() == null) {
-            matchReasons.add("Room count not specified for this property");
-            return 50;
-        }
-
-        BigDecimal rooms = property.getRooms();
-        Integer minRooms = criteria.getMinRooms();
-        Integer maxRooms = criteria.getMaxRooms();
-
-        // If no room constraints, perfect score
-        if (minRooms == null && maxRooms == null) {
-            matchReasons.add("No room count constraints specified");
-            return 100;
-        }
-
-        BigDecimal minRoomsDecimal = minRooms != null ? BigDecimal.valueOf(minRooms) : null;
-        BigDecimal maxRoomsDecimal = maxRooms != null ? BigDecimal.valueOf(maxRooms) : null;
-
-        // Check if rooms is within range
-        boolean withinMin = minRoomsDecimal == null || rooms.compareTo(minRoomsDecimal) >= 0;
-        boolean withinMax = maxRoomsDecimal == null || rooms.compareTo(maxRoomsDecimal) <= 0;
-
-        if (withinMin && withinMax) {
-            matchReasons.add(String.format("%.1f rooms is within desired range", rooms.doubleValue()));
-            return 100;
-        }
-
-        // Calculate room difference
-        BigDecimal difference;
-        if (maxRoomsDecimal != null && rooms.compareTo(maxRoomsDecimal) > 0) {
-            difference = rooms.subtract(maxRoomsDecimal);
-            if (difference.compareTo(BigDecimal.ONE) <= 0) {
-                matchReasons.add(String.format("%.1f rooms is 1 room more than preferred", rooms.doubleValue()));
-                return 75;
-            } else if (difference.compareTo(BigDecimal.valueOf(2)) <= 0) {
-                mismatchReasons.add(String.format("%.1f rooms is 2 rooms more than preferred", rooms.doubleValue()));
-                return 50;
-            } else {
-                mismatchReasons.add(String.format("%.1f rooms is significantly more than preferred", rooms.doubleValue()));
-                return Math.max(0, 50 - (difference.intValue() - 2) * 10);
-            }
-        }
-
-        if (minRoomsDecimal != null && rooms.compareTo(minRoomsDecimal) < 0) {
-            difference = minRoomsDecimal.subtract(rooms);
-            if (difference.compareTo(BigDecimal.ONE) <= 0) {
-                matchReasons.add(String.format("%.1f rooms is 1 room less than preferred", rooms.doubleValue()));
-                return 75;
-            } else if (difference.compareTo(BigDecimal.valueOf(2)) <= 0) {
-                mismatchReasons.add(String.format("%.1f rooms is 2 rooms less than preferred", rooms.doubleValue()));
-                return 50;
-            } else {
-                mismatchReasons.add(String.format("%.1f rooms is significantly less than preferred", rooms.doubleValue()));
-                return Math.max(0, 50 - (difference.intValue() - 2) * 10);
-            }
-        }
-
-        return 50;
+    private int[] radiusCandidates(PropertyMatchIndex.Portfolio portfolio, CompiledCriteria criteria) {
+        GeoGrid grid = portfolio.geoGrid();
+        int[] inRadius = grid.rowsWithin(criteria.latitude(), criteria.longitude(), criteria.searchRadiusKm());
+        int[] ungeocoded = grid.ungeocodedRows();
+        int[] candidates = Arrays.copyOf(inRadius, inRadius.length + ungeocoded.length);
+        System.arraycopy(ungeocoded, 0, candidates, inRadius.length, ungeocoded.length);
+        return candidates;
     }
 
     /**
@@ -873,33 +909,37 @@ public class PropertyMatchingService {
      *   <li>0 points: Property type explicitly excluded</li>
      * </ul>
      */
-    private int calculateFeatureScore(Property property, PropertySearchCriteriaDto criteria,
-                                      PropertyMatchRequest request, List<String> matchReasons,
-                                      List<String> mismatchReasons) {
-        List<String> preferredTypes = criteria.getPropertyTypes();
-
-        if (preferredTypes == null || preferredTypes.isEmpty()) {
-            matchReasons.add("No specific property type preferences");
+    private int calculateFeatureScore(PropertyMatchIndex.Portfolio portfolio, int row,
+                                      CompiledCriteria criteria,
+                                      List<String> matchReasons, List<String> mismatchReasons) {
+        if (!criteria.hasTypePreferences()) {
+            if (matchReasons != null) {
+                matchReasons.add("No specific property type preferences");
+            }
             return 100;
         }
 
-        if (property.getPropertyType() == null) {
-            matchReasons.add("Property type not specified");
+        PropertyType propertyType = portfolio.propertyType(row);
+        if (propertyType == null) {
+            if (matchReasons != null) {
+                matchReasons.add("Property type not specified");
+            }
             return 50;
         }
 
         // Check if property type matches any preferred type
-        String propertyTypeName = property.getPropertyType().name();
-        for (String preferredType : preferredTypes) {
-            if (propertyTypeName.equalsIgnoreCase(preferredType.trim())) {
+        if (criteria.prefersType(propertyType)) {
+            if (matchReasons != null) {
                 matchReasons.add(String.format("Property type %s matches preferences",
-                        property.getPropertyType().getEnglishName()));
-                return 100;
+                        propertyType.getEnglishName()));
             }
+            return 100;
         }
 
-        mismatchReasons.add(String.format("Property type %s does not match preferred types",
-                property.getPropertyType().getEnglishName()));
+        if (mismatchReasons != null) {
+            mismatchReasons.add(String.format("Property type %s does not match preferred types",
+                    propertyType.getEnglishName()));
+        }
         return 0;
     }
 
@@ -907,38 +947,6 @@ public class PropertyMatchingService {
     // Private Helper Methods - Conversions
     // ========================================
 
-    /**
-     * Convert PropertySearchCriteria entity to DTO.
-     */
-    private PropertySearchCriteriaDto convertCriteriaToDto(com.marklerapp.crm.entity.PropertySearchCriteria criteria) {
-        if (criteria == null) {
-            return null;
-        }
-
-        return PropertySearchCriteriaDto.builder()
-                .id(criteria.getId())
-                .minSquareMeters(criteria.getMinSquareMeters())
-                .maxSquareMeters(criteria.getMaxSquareMeters())
-                .minRooms(criteria.getMinRooms())
-                .maxRooms(criteria.getMaxRooms())
-                .minBudget(criteria.getMinBudget())
-                .maxBudget(criteria.getMaxBudget())
-                .minColdRent(criteria.getMinColdRent())
-                .maxColdRent(criteria.getMaxColdRent())
-                .minWarmRent(criteria.getMinWarmRent())
-                .maxWarmRent(criteria.getMaxWarmRent())
-                .preferredLocations(criteria.getPreferredLocations() != null ?
-                        Arrays.asList(criteria.getPreferredLocationsArray()) : null)
-                .latitude(criteria.getLatitude())
-                .longitude(criteria.getLongitude())
-                .searchRadiusKm(criteria.getSearchRadiusKm())
-                .restrictToSearchRadius(criteria.getRestrictToSearchRadius())
-                .propertyTypes(criteria.getPropertyTypes() != null ?
-                        Arrays.asList(criteria.getPropertyTypesArray()) : null)
-                .additionalRequirements(criteria.getAdditionalRequirements())
-                .build();
-    }
-
     /**
      * Convert PropertyDto to Property entity (lightweight conversion for scoring).
      */
@@ -946,6 +954,10 @@ public class PropertyMatchingService {
         Property property = new Property();
         property.setId(dto.getId());
         property.setPrice(dto.getPrice());
+        // Warm rent is derived from these; without them the row would score warm-rent clients
+        // on the cold rent, unlike the index row the other direction scores (and caches) on
+        property.setAdditionalCosts(dto.getAdditionalCosts());
+        property.setHeatingCosts(dto.getHeatingCosts());
         property.setLivingAreaSqm(dto.getLivingAreaSqm());
         property.setRooms(dto.getRooms());
         property.setAddressCity(dto.getAddressCity());
@@ -4,6 +4,11 @@ import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundExceptio
 import com.marklerapp.crm.constants.ValidationConstants;
 import com.marklerapp.crm.dto.*;
 import com.marklerapp.crm.entity.*;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.DailyActivityChangedEvent;
+import com.marklerapp.crm.event.PropertyChangedEvent;
+import com.marklerapp.crm.exception.FileNotFoundException;
+import com.marklerapp.crm.exception.FileStorageException;
 import com.marklerapp.crm.mapper.PropertyMapper;
 import com.marklerapp.crm.mapper.PropertyImageMapper;
 import com.marklerapp.crm.repository.AgentRepository;
@@ -11,17 +16,21 @@ import com.marklerapp.crm.repository.PropertyRepository;
 import com.marklerapp.crm.repository.PropertyImageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -60,6 +69,10 @@ public class PropertyService {
     private final PropertyImageMapper propertyImageMapper;
     private final OwnershipValidator ownershipValidator;
     private final GeocodingService geocodingService;
+    private final PropertyMatchIndex propertyMatchIndex;
+    private final MatchScoreCache matchScoreCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlobStore blobStore;
 
     /**
      * Create a new property with GDPR validation.
@@ -99,6 +112,12 @@ public class PropertyService {
 
         // Save property
         Property savedProperty = propertyRepository.save(property);
+        propertyMatchIndex.upsert(savedProperty);
+        eventPublisher.publishEvent(new PropertyChangedEvent(
+            agentId, savedProperty.getId(), ChangeType.CREATED, true));
+        eventPublisher.publishEvent(DailyActivityChangedEvent.forAgent(agentId)
+            .property(savedProperty.getCreatedAt(), 1)
+            .build());
         log.info("Created property: {} for agent: {}", savedProperty.getId(), agentId);
 
         return propertyMapper.toDto(savedProperty);
@@ -127,6 +146,9 @@ public class PropertyService {
             throw new ResourceNotFoundException("Property not found or access denied");
         }
 
+        // Snapshot what matching sees, so reverse matching only runs when that changed
+        PropertyMatchIndex.Row matchingFieldsBefore = PropertyMatchIndex.Row.of(property);
+
         // Update fields from request (only non-null values)
         updatePropertyFields(property, request);
 
@@ -149,6 +171,13 @@ public class PropertyService {
 
         // Save updated property
         Property updatedProperty = propertyRepository.save(property);
+        propertyMatchIndex.upsert(updatedProperty);
+        boolean matchingFieldsChanged = !matchingFieldsBefore.equals(PropertyMatchIndex.Row.of(updatedProperty));
+        if (matchingFieldsChanged) {
+            matchScoreCache.invalidateProperty(propertyId);
+        }
+        eventPublisher.publishEvent(new PropertyChangedEvent(
+            agentId, propertyId, ChangeType.UPDATED, matchingFieldsChanged));
         log.info("Updated property: {} for agent: {}", propertyId, agentId);
 
         return propertyMapper.toDto(updatedProperty);
@@ -173,8 +202,16 @@ public class PropertyService {
             throw new ResourceNotFoundException("Property not found or access denied");
         }
 
+        PropertyMatchIndex.Row matchingFieldsBefore = PropertyMatchIndex.Row.of(property);
         geocodeProperty(property);
         Property saved = propertyRepository.save(property);
+        propertyMatchIndex.upsert(saved);
+        boolean matchingFieldsChanged = !matchingFieldsBefore.equals(PropertyMatchIndex.Row.of(saved));
+        if (matchingFieldsChanged) {
+            matchScoreCache.invalidateProperty(propertyId);
+        }
+        eventPublisher.publishEvent(new PropertyChangedEvent(
+            agentId, propertyId, ChangeType.UPDATED, matchingFieldsChanged));
         return propertyMapper.toDto(saved);
     }
 
@@ -264,6 +301,13 @@ public class PropertyService {
 
         // Delete property
         propertyRepository.delete(property);
+        propertyMatchIndex.remove(agentId, propertyId);
+        matchScoreCache.invalidateProperty(propertyId);
+        eventPublisher.publishEvent(new PropertyChangedEvent(
+            agentId, propertyId, ChangeType.DELETED, true));
+        eventPublisher.publishEvent(DailyActivityChangedEvent.forAgent(agentId)
+            .property(property.getCreatedAt(), -1)
+            .build());
         log.info("Deleted property: {} for agent: {}", propertyId, agentId);
     }
 
@@ -859,9 +903,14 @@ public class PropertyService {
         // Validate PDF
         validatePdfExpose(exposeDto);
 
-        // Set expose data
+        // Set expose data; the PDF itself goes to the blob store
+        try {
+            property.setExposeBlobKey(blobStore.putBase64(exposeDto.getFileData()).key());
+        } catch (IOException e) {
+            throw new FileStorageException("Could not store expose for property " + propertyId, e);
+        }
         property.setExposeFileName(exposeDto.getFileName());
-        property.setExposeFileData(exposeDto.getFileData());
+        property.setExposeFileData(null);
         property.setExposeFileSize(exposeDto.getFileSize());
         property.setExposeUploadedAt(LocalDateTime.now());
 
@@ -879,7 +928,11 @@ public class PropertyService {
 
     /**
      * Download property expose (PDF brochure)
+     *
+     * @deprecated reads the whole PDF into memory to Base64-encode it; use
+     *             {@link #openExposeContent(UUID, UUID)}, which streams it
      */
+    @Deprecated
     @Transactional(readOnly = true)
     public PropertyExposeDto downloadExpose(UUID agentId, UUID propertyId) {
         log.debug("Downloading expose for property: {} by agent: {}", propertyId, agentId);
@@ -895,19 +948,59 @@ public class PropertyService {
         }
 
         // Check if expose exists
-        if (property.getExposeFileName() == null || property.getExposeFileData() == null) {
+        if (!hasExposeContent(property)) {
             throw new ResourceNotFoundException("No expose found for property: " + propertyId);
         }
 
         return PropertyExposeDto.builder()
             .propertyId(propertyId)
             .fileName(property.getExposeFileName())
-            .fileData(property.getExposeFileData())
+            .fileData(property.getExposeBlobKey() != null ? readExposeBase64(property) : property.getExposeFileData())
             .fileSize(property.getExposeFileSize())
             .uploadedAt(property.getExposeUploadedAt())
             .build();
     }
 
+    /**
+     * Open property expose (PDF brochure) for a streaming download.
+     * An expose uploaded before the blob store existed is moved into it first.
+     */
+    @Transactional
+    public FileContentDto openExposeContent(UUID agentId, UUID propertyId) {
+        log.debug("Streaming expose for property: {} by agent: {}", propertyId, agentId);
+
+        Property property = propertyRepository.findById(propertyId)
+            .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + propertyId));
+
+        // Verify agent ownership
+        try {
+            ownershipValidator.validatePropertyOwnership(property, agentId);
+        } catch (AccessDeniedException e) {
+            throw new IllegalArgumentException("Property does not belong to the specified agent");
+        }
+
+        if (!hasExposeContent(property)) {
+            throw new ResourceNotFoundException("No expose found for property: " + propertyId);
+        }
+
+        try {
+            if (property.getExposeBlobKey() == null) {
+                property.setExposeBlobKey(blobStore.putBase64(property.getExposeFileData()).key());
+                property.setExposeFileData(null);
+            }
+            return FileContentDto.builder()
+                .fileName(property.getExposeFileName())
+                .contentType("application/pdf")
+                .blobKey(property.getExposeBlobKey())
+                .content(blobStore.resource(property.getExposeBlobKey()))
+                .build();
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException("Expose content not found for property: " + propertyId, e);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read expose for property " + propertyId, e);
+        }
+    }
+
     /**
      * Delete property expose (PDF brochure)
      */
@@ -925,9 +1018,10 @@ public class PropertyService {
             throw new IllegalArgumentException("Property does not belong to the specified agent");
         }
 
-        // Clear expose data
+        // Clear expose data; the blob is left to the orphan sweep
         property.setExposeFileName(null);
         property.setExposeFileData(null);
+        property.setExposeBlobKey(null);
         property.setExposeFileSize(null);
         property.setExposeUploadedAt(null);
 
@@ -951,7 +1045,25 @@ public class PropertyService {
             throw new IllegalArgumentException("Property does not belong to the specified agent");
         }
 
-        return property.getExposeFileName() != null && property.getExposeFileData() != null;
+        return hasExposeContent(property);
+    }
+
+    private boolean hasExposeContent(Property property) {
+        return property.getExposeFileName() != null
+            && (property.getExposeBlobKey() != null || property.getExposeFileData() != null);
+    }
+
+    /**
+     * Read a stored expose back as Base64, for the deprecated JSON download endpoint
+     */
+    private String readExposeBase64(Property property) {
+        try (InputStream in = blobStore.open(property.getExposeBlobKey())) {
+            return Base64.getEncoder().encodeToString(in.readAllBytes());
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException("Expose content not found for property: " + property.getId(), e);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read expose for property " + property.getId(), e);
+        }
     }
 
     /**
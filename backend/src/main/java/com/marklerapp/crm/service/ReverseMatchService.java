@@ -0,0 +1,117 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.ClientPropertyMatch;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.PropertyChangedEvent;
+import com.marklerapp.crm.repository.ClientPropertyMatchRepository;
+import com.marklerapp.crm.repository.ClientRepository;
+import com.marklerapp.crm.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Push side of property matching: when a property is created or a matching-relevant field
+ * changes, find the clients it is now a match for and persist those pairs, so the dashboard
+ * can show new matches without anyone running a match.
+ *
+ * <p>Runs after the property's transaction commits, on the async executor, so saving a
+ * property never waits for matching. Candidates come from {@link ClientCriteriaIndex}
+ * instead of every client of the agent, and are then scored exactly like the pull view
+ * ({@link PropertyMatchingService#scoreClientsForProperty}).</p>
+ *
+ * @see ClientPropertyMatch
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReverseMatchService {
+
+    private final PropertyRepository propertyRepository;
+    private final ClientRepository clientRepository;
+    private final ClientPropertyMatchRepository clientPropertyMatchRepository;
+    private final ClientCriteriaIndex clientCriteriaIndex;
+    private final PropertyMatchingService propertyMatchingService;
+
+    /**
+     * Refresh a property's persisted matches after it was created or changed in a way that
+     * affects matching. Deletions need nothing here — the rows cascade with the property.
+     */
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED || !event.matchingFieldsChanged()) {
+            return;
+        }
+        try {
+            refreshMatches(event.agentId(), event.propertyId());
+        } catch (RuntimeException e) {
+            // The property itself is saved either way; a missed refresh is caught up by the next change
+            log.error("Reverse matching failed for property {}: {}", event.propertyId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rescore the property against its candidate clients and bring its persisted matches in
+     * line: new pairs are inserted (which is what makes them "new"), existing ones get the
+     * current score, and pairs that no longer qualify are removed.
+     *
+     * @param agentId the owning agent
+     * @param propertyId the property to refresh
+     */
+    @Transactional
+    public void refreshMatches(UUID agentId, UUID propertyId) {
+        Property property = propertyRepository.findById(propertyId).orElse(null);
+        if (property == null) {
+            log.debug("Property {} was deleted before reverse matching ran", propertyId);
+            return;
+        }
+
+        // Sold, rented or withdrawn properties aren't news for anyone; their matches are dropped
+        List<UUID> candidateIds = property.getStatus() == PropertyStatus.AVAILABLE
+                ? clientCriteriaIndex.candidatesFor(agentId, property)
+                : List.of();
+        Map<UUID, Client> candidates = candidateIds.isEmpty() ? Map.of()
+                : clientRepository.findWithSearchCriteriaByIdIn(candidateIds).stream()
+                        .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<UUID, Integer> scores = propertyMatchingService.scoreClientsForProperty(property, candidates.values());
+
+        Map<UUID, ClientPropertyMatch> existing = clientPropertyMatchRepository.findByPropertyId(propertyId).stream()
+                .collect(Collectors.toMap(match -> match.getClient().getId(), Function.identity()));
+
+        List<ClientPropertyMatch> toSave = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> score : scores.entrySet()) {
+            ClientPropertyMatch match = existing.remove(score.getKey());
+            if (match == null) {
+                match = ClientPropertyMatch.builder()
+                        .agent(property.getAgent())
+                        .client(candidates.get(score.getKey()))
+                        .property(property)
+                        .build();
+            }
+            match.setMatchScore(score.getValue());
+            toSave.add(match);
+        }
+        clientPropertyMatchRepository.saveAll(toSave);
+        // Whatever is left no longer qualifies after this change
+        clientPropertyMatchRepository.deleteAll(existing.values());
+
+        log.info("Reverse matching for property {}: {} candidates, {} matches, {} dropped",
+                propertyId, candidates.size(), scores.size(), existing.size());
+    }
+}
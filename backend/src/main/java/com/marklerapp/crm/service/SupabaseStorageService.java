@@ -5,11 +5,13 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +19,7 @@ import java.util.Map;
  * REST client for Supabase Storage.
  * Only active when supabase.storage.url is set (prod profile).
  * In dev (SQLite) and docker (local Postgres) profiles this bean is absent
- * and PropertyImageService falls back to Base64-in-DB storage.
+ * and PropertyImageService falls back to the local blob store.
  */
 @Slf4j
 @Service
@@ -56,6 +58,24 @@ public class SupabaseStorageService {
         log.debug("Uploaded {} bytes to Supabase Storage at {}", data.length, storagePath);
     }
 
+    /**
+     * Upload a file to Supabase Storage, streaming it from the resource.
+     *
+     * @param storagePath path inside the bucket, e.g. "properties/{uuid}/img.jpg"
+     * @param data        the file; its length is sent as Content-Length
+     * @param contentType MIME type of the data
+     */
+    public void upload(String storagePath, Resource data, String contentType) throws IOException {
+        client.put()
+            .uri("/storage/v1/object/{bucket}/{path}", props.getBucket(), storagePath)
+            .header("x-upsert", "true")
+            .contentType(MediaType.parseMediaType(contentType))
+            .body(data)
+            .retrieve()
+            .toBodilessEntity();
+        log.debug("Uploaded {} bytes to Supabase Storage at {}", data.contentLength(), storagePath);
+    }
+
     /**
      * Create a time-limited signed URL for the given storage path.
      *
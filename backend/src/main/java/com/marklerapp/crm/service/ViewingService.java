@@ -6,6 +6,8 @@ import com.marklerapp.crm.entity.Agent;
 import com.marklerapp.crm.entity.Client;
 import com.marklerapp.crm.entity.Property;
 import com.marklerapp.crm.entity.Viewing;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.ViewingChangedEvent;
 import com.marklerapp.crm.mapper.ViewingMapper;
 import com.marklerapp.crm.repository.AgentRepository;
 import com.marklerapp.crm.repository.ClientRepository;
@@ -13,6 +15,7 @@ import com.marklerapp.crm.repository.PropertyRepository;
 import com.marklerapp.crm.repository.ViewingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -36,6 +39,7 @@ public class ViewingService {
     private final PropertyRepository propertyRepository;
     private final ViewingMapper viewingMapper;
     private final OwnershipValidator ownershipValidator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ViewingDto.Response createViewing(UUID agentId, ViewingDto.CreateRequest request) {
@@ -73,6 +77,7 @@ public class ViewingService {
                 .build();
 
         Viewing saved = viewingRepository.save(viewing);
+        eventPublisher.publishEvent(new ViewingChangedEvent(agentId, saved.getId(), ChangeType.CREATED));
         log.info("Viewing {} created successfully", saved.getId());
         return viewingMapper.toResponse(saved);
     }
@@ -90,7 +95,9 @@ public class ViewingService {
         viewing.setClientNotes(request.getClientNotes());
         viewing.setFollowUpAction(request.getFollowUpAction());
 
-        return viewingMapper.toResponse(viewingRepository.save(viewing));
+        Viewing saved = viewingRepository.save(viewing);
+        eventPublisher.publishEvent(new ViewingChangedEvent(agentId, viewingId, ChangeType.UPDATED));
+        return viewingMapper.toResponse(saved);
     }
 
     @Transactional
@@ -99,6 +106,7 @@ public class ViewingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Viewing not found: " + viewingId));
         ownershipValidator.validateViewingOwnership(viewing, agentId);
         viewingRepository.delete(viewing);
+        eventPublisher.publishEvent(new ViewingChangedEvent(agentId, viewingId, ChangeType.DELETED));
         log.info("Viewing {} deleted by agent {}", viewingId, agentId);
     }
 
@@ -0,0 +1,37 @@
+package com.marklerapp.crm.util;
+
+import java.util.UUID;
+
+/**
+ * Links from image DTOs to the endpoints that stream property images, so responses carry a
+ * short path instead of the image itself. Paths are relative to the API base URL (the
+ * servlet context path, {@code /api/v1}); the frontend resolves them against its API URL and
+ * loads them with the agent's token.
+ */
+public final class ImageUrlUtil {
+
+    private ImageUrlUtil() {
+    }
+
+    /**
+     * Path of the original image, see {@code GET /properties/{id}/images/{imageId}/download}.
+     */
+    public static String imageUrl(UUID propertyId, UUID imageId) {
+        return "/properties/" + propertyId + "/images/" + imageId + "/download";
+    }
+
+    /**
+     * Path of a scaled variant of the image, see the {@code w} parameter of
+     * {@code GET /properties/{id}/images/{imageId}/download}.
+     */
+    public static String variantUrl(UUID propertyId, UUID imageId, int width) {
+        return imageUrl(propertyId, imageId) + "?w=" + width;
+    }
+
+    /**
+     * Path of the thumbnail, see {@code GET /properties/{id}/images/{imageId}/thumbnail}.
+     */
+    public static String thumbnailUrl(UUID propertyId, UUID imageId) {
+        return "/properties/" + propertyId + "/images/" + imageId + "/thumbnail";
+    }
+}
@@ -0,0 +1,92 @@
+package com.marklerapp.crm.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Keeps the best {@code k} of a stream of items in a bounded min-heap, in O(n log k) instead
+ * of sorting all n items and truncating.
+ *
+ * <p>{@code order} ranks items best-first (the order the final list is returned in). The
+ * heap root is always the worst item kept, so a new item only costs a comparison unless it
+ * beats that. Selectors for disjoint chunks can be {@link #merge merged}, which is what
+ * {@link #collector} does for parallel streams. Not thread-safe on its own.</p>
+ *
+ * <p>{@link #offered()} counts every item seen, including the ones that didn't make the
+ * cut — callers use it to report the total number of matches alongside the top k.</p>
+ *
+ * @param <T> item type
+ */
+public final class TopKSelector<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+    private long offered;
+
+    public TopKSelector(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        this.k = k;
+        this.order = order;
+        // Reversed, so the head of the queue is the worst item currently kept
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), order.reversed());
+    }
+
+    /**
+     * Collector that selects the top {@code k} items; safe for parallel streams, where each
+     * chunk fills its own selector and the results are merged.
+     */
+    public static <T> Collector<T, ?, TopKSelector<T>> collector(int k, Comparator<? super T> order) {
+        return Collector.of(
+                () -> new TopKSelector<T>(k, order),
+                TopKSelector::offer,
+                TopKSelector::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void offer(T item) {
+        offered++;
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (k > 0 && order.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    /**
+     * Fold another selector's items and count into this one.
+     *
+     * @return this selector
+     */
+    public TopKSelector<T> merge(TopKSelector<T> other) {
+        long otherOffered = other.offered;
+        for (T item : other.heap) {
+            offer(item);
+        }
+        offered += otherOffered - other.heap.size();
+        return this;
+    }
+
+    /**
+     * Total number of items offered, whether or not they were kept.
+     */
+    public long offered() {
+        return offered;
+    }
+
+    /**
+     * The kept items, best first.
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return Collections.unmodifiableList(result);
+    }
+}
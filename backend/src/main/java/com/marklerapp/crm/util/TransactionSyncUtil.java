@@ -0,0 +1,31 @@
+package com.marklerapp.crm.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for deferring in-memory side effects (index updates, cache evictions) until the
+ * surrounding transaction has committed, so a rolled-back write never leaks into them.
+ */
+public final class TransactionSyncUtil {
+
+    private TransactionSyncUtil() {
+    }
+
+    /**
+     * Run {@code action} after the current transaction commits, or right away when no
+     * transaction is active (e.g. in unit tests).
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
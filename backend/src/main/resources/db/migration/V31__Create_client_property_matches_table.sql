@@ -0,0 +1,19 @@
+-- Client/property pairs found by the reverse-match pipeline when a property is created or
+-- repriced. created_at is the first time the pair matched; the dashboard's "new matches
+-- since yesterday" counts on it, so rescoring an existing pair only touches match_score.
+CREATE TABLE client_property_matches (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    agent_id UUID NOT NULL,
+    client_id UUID NOT NULL,
+    property_id UUID NOT NULL,
+    match_score INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (agent_id) REFERENCES agents(id) ON DELETE CASCADE,
+    FOREIGN KEY (client_id) REFERENCES clients(id) ON DELETE CASCADE,
+    FOREIGN KEY (property_id) REFERENCES properties(id) ON DELETE CASCADE,
+    CONSTRAINT uk_client_property_matches_pair UNIQUE (client_id, property_id)
+);
+
+CREATE INDEX idx_client_property_matches_property ON client_property_matches(property_id);
+CREATE INDEX idx_client_property_matches_agent_created ON client_property_matches(agent_id, created_at);
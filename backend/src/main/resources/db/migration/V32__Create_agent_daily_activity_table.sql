@@ -0,0 +1,20 @@
+-- Per-agent, per-day activity counters behind the dashboard's activity trends. Updated
+-- incrementally by call note/client/property writes and recomputed nightly from the source
+-- tables. The unique (agent_id, activity_date) index also serves the dashboard's date range read.
+CREATE TABLE agent_daily_activity (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    agent_id UUID NOT NULL,
+    activity_date DATE NOT NULL,
+    call_notes INTEGER NOT NULL DEFAULT 0,
+    interested_calls INTEGER NOT NULL DEFAULT 0,
+    not_interested_calls INTEGER NOT NULL DEFAULT 0,
+    scheduled_viewing_calls INTEGER NOT NULL DEFAULT 0,
+    offer_made_calls INTEGER NOT NULL DEFAULT 0,
+    deal_closed_calls INTEGER NOT NULL DEFAULT 0,
+    new_clients INTEGER NOT NULL DEFAULT 0,
+    new_properties INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (agent_id) REFERENCES agents(id) ON DELETE CASCADE,
+    CONSTRAINT uk_agent_daily_activity_day UNIQUE (agent_id, activity_date)
+);
@@ -0,0 +1,10 @@
+-- Follow-up reminders and the dashboard's follow-up counts are always read for one agent
+-- (overdue up to a date, or due within a date range). Lead with agent_id so those reads
+-- only touch the agent's own rows, however many agents share the table.
+CREATE INDEX IF NOT EXISTS idx_call_notes_agent_follow_up
+    ON call_notes(agent_id, follow_up_required, follow_up_date);
+
+-- The global (follow_up_required, follow_up_date) indexes only served the cross-agent
+-- follow-up queries, which no longer exist. V4 and V12 created the same index twice.
+DROP INDEX IF EXISTS idx_call_notes_follow_up;
+DROP INDEX IF EXISTS idx_call_note_follow_up;
@@ -0,0 +1,12 @@
+-- Week (Monday) and month start of each rollup row, so activity trends over arbitrary windows
+-- are summed per week or month by a GROUP BY on a plain column. A year of monthly buckets reads
+-- the same rows as a year of days, through the (agent_id, activity_date) index.
+ALTER TABLE agent_daily_activity ADD COLUMN week_start DATE;
+ALTER TABLE agent_daily_activity ADD COLUMN month_start DATE;
+
+UPDATE agent_daily_activity
+SET week_start = CAST(date_trunc('week', activity_date) AS DATE),
+    month_start = CAST(date_trunc('month', activity_date) AS DATE);
+
+ALTER TABLE agent_daily_activity ALTER COLUMN week_start SET NOT NULL;
+ALTER TABLE agent_daily_activity ALTER COLUMN month_start SET NOT NULL;
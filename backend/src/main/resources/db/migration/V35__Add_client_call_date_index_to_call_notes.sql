@@ -0,0 +1,8 @@
+-- Last contact per client (MAX(call_date) grouped by client_id) is read for the clients without
+-- recent contact and the clients sorted by last contact. With call_date in the index those reads
+-- are index-only scans instead of a heap fetch per call note.
+CREATE INDEX IF NOT EXISTS idx_call_notes_client_call_date
+    ON call_notes(client_id, call_date);
+
+-- A prefix of the new index, which serves the client_id foreign key lookups as well.
+DROP INDEX IF EXISTS idx_call_notes_client_id;
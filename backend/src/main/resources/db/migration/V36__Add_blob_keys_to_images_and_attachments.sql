@@ -0,0 +1,8 @@
+-- Image and attachment payloads move from Base64 TEXT columns into the content-addressed blob
+-- store (SHA-256 hex keys). Existing rows keep their Base64 data until the background blob
+-- migration has copied it and cleared the column.
+ALTER TABLE property_images ADD COLUMN image_blob_key VARCHAR(64);
+ALTER TABLE property_images ADD COLUMN thumbnail_blob_key VARCHAR(64);
+
+ALTER TABLE file_attachments ADD COLUMN blob_key VARCHAR(64);
+ALTER TABLE file_attachments ALTER COLUMN file_data DROP NOT NULL;
@@ -0,0 +1,3 @@
+-- Exposé PDFs move from the Base64 expose_file_data column into the blob store, so downloads
+-- can be streamed. Rows uploaded before keep their Base64 data until first downloaded.
+ALTER TABLE properties ADD COLUMN expose_blob_key VARCHAR(64);
@@ -0,0 +1,8 @@
+-- Thumbnails are generated by a background worker after the upload has returned. The table is
+-- the job queue: PENDING rows are picked up by the worker pool (and re-queued by a periodic
+-- sweep if the in-memory queue was full or the application restarted). Existing images already
+-- have their thumbnails.
+ALTER TABLE property_images ADD COLUMN processing_status VARCHAR(20) NOT NULL DEFAULT 'READY';
+ALTER TABLE property_images ADD COLUMN processing_error VARCHAR(500);
+
+CREATE INDEX idx_property_image_processing ON property_images (processing_status, created_at);
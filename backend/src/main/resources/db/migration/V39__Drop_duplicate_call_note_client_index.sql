@@ -0,0 +1,4 @@
+-- V12 created a second single-column index on call_notes(client_id) under another name. Like
+-- idx_call_notes_client_id (dropped in V35), it is a prefix of idx_call_notes_client_call_date
+-- and only costs writes.
+DROP INDEX IF EXISTS idx_call_note_client_id;
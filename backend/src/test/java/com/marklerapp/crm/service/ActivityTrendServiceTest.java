@@ -0,0 +1,156 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.ActivityTrendDto;
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity.Bucket;
+import com.marklerapp.crm.entity.AgentDailyActivity.Counter;
+import com.marklerapp.crm.repository.AgentDailyActivityRepository.ActivityBucket;
+import com.marklerapp.crm.repository.AgentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ActivityTrendService: bucket alignment, empty buckets, metric selection and
+ * window validation.
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivityTrendServiceTest {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private AgentRepository agentRepository;
+
+    @Mock
+    private DailyActivityRollupService dailyActivityRollupService;
+
+    private ActivityTrendService trendService;
+
+    private Agent agent;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        trendService = new ActivityTrendService(agentRepository, dailyActivityRollupService);
+
+        agent = Agent.builder()
+                .firstName("Max")
+                .lastName("Mustermann")
+                .email("max@example.com")
+                .build();
+        agent.setId(UUID.randomUUID());
+        today = LocalDate.now();
+
+        lenient().when(agentRepository.findById(agent.getId())).thenReturn(Optional.of(agent));
+        lenient().when(dailyActivityRollupService.historyStart(any(LocalDate.class)))
+                .thenReturn(today.withDayOfMonth(1).minusMonths(13));
+    }
+
+    @Test
+    void bucketStart_AlignsToMondayAndFirstOfMonth() {
+        LocalDate friday = LocalDate.of(2026, 10, 16);
+
+        assertThat(Bucket.DAY.start(friday)).isEqualTo(friday);
+        assertThat(Bucket.WEEK.start(friday)).isEqualTo(LocalDate.of(2026, 10, 12));
+        assertThat(Bucket.WEEK.start(LocalDate.of(2026, 10, 12))).isEqualTo(LocalDate.of(2026, 10, 12));
+        assertThat(Bucket.MONTH.start(friday)).isEqualTo(LocalDate.of(2026, 10, 1));
+        assertThat(Bucket.MONTH.next(LocalDate.of(2026, 12, 1))).isEqualTo(LocalDate.of(2027, 1, 1));
+    }
+
+    @Test
+    void getActivityTrend_FillsEmptyWeeksAndKeepsOnlyRequestedMetrics() {
+        LocalDate start = today.minusWeeks(3).with(DayOfWeek.MONDAY);
+        when(dailyActivityRollupService.findBuckets(agent, Bucket.WEEK, start, today)).thenReturn(List.of(
+                bucket(start.plusWeeks(1), Map.of("callNotes", 5L, "newClients", 2L, "newProperties", 9L))));
+
+        ActivityTrendDto trend = trendService.getActivityTrend(agent.getId(), Bucket.WEEK, today.minusWeeks(3), null,
+                Set.of(Counter.CALL_NOTES, Counter.NEW_CLIENTS));
+
+        assertThat(trend.getFrom()).isEqualTo(start);
+        assertThat(trend.getTo()).isEqualTo(today);
+        assertThat(trend.getBuckets()).extracting(ActivityTrendDto.BucketDto::getStart)
+                .containsExactly(start, start.plusWeeks(1), start.plusWeeks(2), start.plusWeeks(3));
+        assertThat(trend.getBuckets().get(0).getValues())
+                .containsOnly(entry(Counter.CALL_NOTES, 0L), entry(Counter.NEW_CLIENTS, 0L));
+        assertThat(trend.getBuckets().get(1).getValues())
+                .containsOnly(entry(Counter.CALL_NOTES, 5L), entry(Counter.NEW_CLIENTS, 2L));
+        assertThat(trend.getTotals()).containsOnly(entry(Counter.CALL_NOTES, 5L), entry(Counter.NEW_CLIENTS, 2L));
+    }
+
+    @Test
+    void getActivityTrend_YearInMonthsIsOneGroupedQuery() {
+        LocalDate start = today.withDayOfMonth(1).minusMonths(11);
+        when(dailyActivityRollupService.findBuckets(agent, Bucket.MONTH, start, today)).thenReturn(List.of(
+                bucket(start, Map.of("dealClosedCalls", 1L)),
+                bucket(today.withDayOfMonth(1), Map.of("dealClosedCalls", 3L))));
+
+        ActivityTrendDto trend = trendService.getActivityTrend(agent.getId(), Bucket.MONTH, start, today, null);
+
+        assertThat(trend.getBuckets()).hasSize(12);
+        assertThat(trend.getMetrics()).containsExactly(Counter.values());
+        assertThat(trend.getTotals()).containsEntry(Counter.DEAL_CLOSED_CALLS, 4L);
+        verify(dailyActivityRollupService, times(1)).findBuckets(any(), any(), any(), any());
+    }
+
+    @Test
+    void getActivityTrend_DefaultsToTheLast30Days() {
+        ActivityTrendDto trend = trendService.getActivityTrend(agent.getId(), Bucket.DAY, null, null, Set.of());
+
+        assertThat(trend.getBuckets()).hasSize(30);
+        assertThat(trend.getFrom()).isEqualTo(today.minusDays(29));
+        assertThat(trend.getBuckets().get(29).getValues()).containsEntry(Counter.CALL_NOTES, 0L);
+    }
+
+    @Test
+    void getActivityTrend_RejectsInvalidWindows() {
+        assertThatThrownBy(() -> trendService.getActivityTrend(agent.getId(), Bucket.DAY,
+                today, today.minusDays(1), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trendService.getActivityTrend(agent.getId(), Bucket.MONTH,
+                today.minusYears(3), today, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("available from");
+
+        when(dailyActivityRollupService.historyStart(any(LocalDate.class))).thenReturn(today.minusYears(5));
+        assertThatThrownBy(() -> trendService.getActivityTrend(agent.getId(), Bucket.DAY,
+                today.minusYears(2), today, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("buckets");
+
+        verify(dailyActivityRollupService, never()).findBuckets(any(), any(), any(), any());
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private static ActivityBucket bucket(LocalDate start, Map<String, Long> counters) {
+        Map<String, Object> values = new HashMap<>();
+        for (String counter : List.of("callNotes", "interestedCalls", "notInterestedCalls", "scheduledViewingCalls",
+                "offerMadeCalls", "dealClosedCalls", "newClients", "newProperties")) {
+            values.put(counter, counters.getOrDefault(counter, 0L));
+        }
+        values.put("bucketStart", start);
+        return PROJECTIONS.createProjection(ActivityBucket.class, values);
+    }
+}
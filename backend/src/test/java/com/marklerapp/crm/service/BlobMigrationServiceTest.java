@@ -0,0 +1,120 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.entity.FileAttachment;
+import com.marklerapp.crm.entity.PropertyImage;
+import com.marklerapp.crm.repository.FileAttachmentRepository;
+import com.marklerapp.crm.repository.PropertyImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BlobMigrationService: Base64 payloads move into a real LocalBlobStore, rows
+ * that cannot be decoded are skipped, and the migration stops once a pass moves nothing.
+ */
+@ExtendWith(MockitoExtension.class)
+class BlobMigrationServiceTest {
+
+    @Mock
+    private PropertyImageRepository propertyImageRepository;
+
+    @Mock
+    private FileAttachmentRepository fileAttachmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path blobRoot;
+
+    private LocalBlobStore blobStore;
+    private BlobMigrationService migrationService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(blobRoot);
+        migrationService = new BlobMigrationService(propertyImageRepository, fileAttachmentRepository, blobStore,
+                new FileStorageProperties(), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void migrateNextBatch_MovesBase64PayloadsIntoTheBlobStore() throws Exception {
+        PropertyImage image = PropertyImage.builder()
+                .imageData(base64("original"))
+                .thumbnailData(base64("thumbnail"))
+                .build();
+        image.setId(UUID.randomUUID());
+        FileAttachment attachment = FileAttachment.builder().fileData(base64("contract")).build();
+        attachment.setId(UUID.randomUUID());
+        when(propertyImageRepository.findWithBase64PayloadAfter(any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(image), List.of());
+        when(fileAttachmentRepository.findWithBase64PayloadAfter(any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(attachment), List.of());
+
+        migrationService.migrateNextBatch();
+
+        assertThat(image.getImageData()).isNull();
+        assertThat(image.getThumbnailData()).isNull();
+        assertThat(read(image.getImageBlobKey())).isEqualTo("original");
+        assertThat(read(image.getThumbnailBlobKey())).isEqualTo("thumbnail");
+        assertThat(attachment.getFileData()).isNull();
+        assertThat(read(attachment.getBlobKey())).isEqualTo("contract");
+        verify(transactionManager, times(2)).commit(any());
+
+        // The pass moved rows, so one more pass checks nothing is left
+        assertThat(migrationService.isFinished()).isFalse();
+        migrationService.migrateNextBatch();
+        assertThat(migrationService.isFinished()).isTrue();
+
+        migrationService.migrateNextBatch();
+        verify(propertyImageRepository, times(2)).findWithBase64PayloadAfter(any(), any());
+    }
+
+    @Test
+    void migrateNextBatch_SkipsRowsThatCannotBeDecoded() {
+        FileAttachment broken = FileAttachment.builder().fileData("%%% not base64 %%%").build();
+        broken.setId(UUID.randomUUID());
+        when(propertyImageRepository.findWithBase64PayloadAfter(any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(fileAttachmentRepository.findWithBase64PayloadAfter(any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(broken));
+
+        migrationService.migrateNextBatch();
+
+        assertThat(broken.getFileData()).isEqualTo("%%% not base64 %%%");
+        assertThat(broken.getBlobKey()).isNull();
+        assertThat(migrationService.isFinished()).isTrue();
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private static String base64(String content) {
+        return Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(String key) throws Exception {
+        try (InputStream in = blobStore.open(key)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -7,7 +7,10 @@ import com.marklerapp.crm.entity.CallNote;
 import com.marklerapp.crm.entity.CallNote.CallOutcome;
 import com.marklerapp.crm.entity.CallNote.CallType;
 import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.AgentDailyActivity.Counter;
 import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.event.DailyActivityChangedEvent;
+import com.marklerapp.crm.event.DailyActivityChangedEvent.Delta;
 import com.marklerapp.crm.mapper.CallNoteMapper;
 import com.marklerapp.crm.repository.AgentRepository;
 import com.marklerapp.crm.repository.CallNoteRepository;
@@ -16,9 +19,11 @@ import com.marklerapp.crm.repository.PropertyRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -56,6 +61,9 @@ class CallNoteServiceTest {
     @Mock
     private CallNoteMapper callNoteMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private OwnershipValidator ownershipValidator;
 
     private CallNoteService callNoteService;
@@ -80,7 +88,8 @@ class CallNoteServiceTest {
             agentRepository,
             propertyRepository,
             callNoteMapper,
-            ownershipValidator
+            ownershipValidator,
+            eventPublisher
         );
         agentId = UUID.randomUUID();
         clientId = UUID.randomUUID();
@@ -306,6 +315,36 @@ class CallNoteServiceTest {
         verify(callNoteRepository).save(testCallNote);
     }
 
+    @Test
+    void updateCallNote_WithNewOutcome_ShouldMoveCallInDailyActivityRollup() {
+        // Given
+        LocalDateTime previousCallDate = testCallNote.getCallDate();
+        LocalDateTime newCallDate = previousCallDate.minusDays(1);
+        CallNoteDto.UpdateRequest request = CallNoteDto.UpdateRequest.builder()
+            .callDate(newCallDate)
+            .callType(CallType.PHONE_OUTBOUND)
+            .subject("Property viewing discussion")
+            .notes("Discussed property details and scheduled viewing")
+            .outcome(CallOutcome.DEAL_CLOSED)
+            .build();
+
+        when(callNoteRepository.findById(callNoteId)).thenReturn(Optional.of(testCallNote));
+        when(callNoteRepository.save(testCallNote)).thenReturn(testCallNote);
+
+        // When
+        callNoteService.updateCallNote(agentId, callNoteId, request);
+
+        // Then
+        ArgumentCaptor<DailyActivityChangedEvent> event = ArgumentCaptor.forClass(DailyActivityChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().agentId()).isEqualTo(agentId);
+        assertThat(event.getValue().deltas()).containsExactly(
+            new Delta(previousCallDate.toLocalDate(), Counter.CALL_NOTES, -1),
+            new Delta(previousCallDate.toLocalDate(), Counter.INTERESTED_CALLS, -1),
+            new Delta(newCallDate.toLocalDate(), Counter.CALL_NOTES, 1),
+            new Delta(newCallDate.toLocalDate(), Counter.DEAL_CLOSED_CALLS, 1));
+    }
+
     @Test
     void updateCallNote_WithNonExistentCallNote_ShouldThrowException() {
         // Given
@@ -601,7 +640,7 @@ class CallNoteServiceTest {
             .build();
 
         when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
-        when(callNoteRepository.findCallNotesRequiringFollowUp())
+        when(callNoteRepository.findFollowUpsByAgent(testAgent))
             .thenReturn(List.of(testCallNote));
         when(callNoteMapper.toFollowUpReminder(testCallNote)).thenReturn(reminder);
 
@@ -611,14 +650,14 @@ class CallNoteServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
-        verify(callNoteRepository).findCallNotesRequiringFollowUp();
+        verify(callNoteRepository).findFollowUpsByAgent(testAgent);
     }
 
     @Test
     void getFollowUpReminders_WithNoFollowUps_ShouldReturnEmptyList() {
         // Given
         when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
-        when(callNoteRepository.findCallNotesRequiringFollowUp()).thenReturn(List.of());
+        when(callNoteRepository.findFollowUpsByAgent(testAgent)).thenReturn(List.of());
 
         // When
         List<CallNoteDto.FollowUpReminder> result = callNoteService.getFollowUpReminders(agentId);
@@ -639,7 +678,8 @@ class CallNoteServiceTest {
             .id(callNoteId)
             .build();
 
-        when(callNoteRepository.findOverdueFollowUps(any(LocalDate.class)))
+        when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
+        when(callNoteRepository.findOverdueFollowUpsByAgent(eq(testAgent), any(LocalDate.class)))
             .thenReturn(List.of(testCallNote));
         when(callNoteMapper.toFollowUpReminder(testCallNote)).thenReturn(reminder);
 
@@ -649,13 +689,14 @@ class CallNoteServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
-        verify(callNoteRepository).findOverdueFollowUps(any(LocalDate.class));
+        verify(callNoteRepository).findOverdueFollowUpsByAgent(eq(testAgent), any(LocalDate.class));
     }
 
     @Test
     void getOverdueFollowUps_WithNoOverdueFollowUps_ShouldReturnEmptyList() {
         // Given
-        when(callNoteRepository.findOverdueFollowUps(any(LocalDate.class))).thenReturn(List.of());
+        when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
+        when(callNoteRepository.findOverdueFollowUpsByAgent(eq(testAgent), any(LocalDate.class))).thenReturn(List.of());
 
         // When
         List<CallNoteDto.FollowUpReminder> result = callNoteService.getOverdueFollowUps(agentId);
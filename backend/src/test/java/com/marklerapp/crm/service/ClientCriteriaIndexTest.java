@@ -0,0 +1,243 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertySearchCriteria;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.entity.PropertyType;
+import com.marklerapp.crm.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ClientCriteriaIndex}: the bucketed postings may only prune clients
+ * whose envelope rejects the property, never one it admits.
+ */
+@ExtendWith(MockitoExtension.class)
+class ClientCriteriaIndexTest {
+
+    private static final BigDecimal BERLIN_LAT = new BigDecimal("52.5200");
+    private static final BigDecimal BERLIN_LNG = new BigDecimal("13.4050");
+    private static final BigDecimal MUNICH_LAT = new BigDecimal("48.1351");
+    private static final BigDecimal MUNICH_LNG = new BigDecimal("11.5820");
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private ClientCriteriaIndex index;
+    private UUID agentId;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientCriteriaIndex(clientRepository);
+        agentId = UUID.randomUUID();
+    }
+
+    @Test
+    void candidatesFor_PrunesOnBudgetWithFlexibility() {
+        Client withinFlexibility = buyer(PropertySearchCriteria.builder()
+            .maxBudget(new BigDecimal("320000"))
+            .restrictToSearchRadius(false)
+            .build());
+        Client tooSmallBudget = buyer(PropertySearchCriteria.builder()
+            .maxBudget(new BigDecimal("300000"))
+            .restrictToSearchRadius(false)
+            .build());
+        when(clientRepository.findByAgentWithSearchCriteria(any()))
+            .thenReturn(List.of(withinFlexibility, tooSmallBudget));
+
+        // 350,000 is within 110% of 320,000 but not of 300,000
+        assertThat(index.candidatesFor(agentId, sale(new BigDecimal("350000"), BERLIN_LAT, BERLIN_LNG)))
+            .containsExactly(withinFlexibility.getId());
+    }
+
+    @Test
+    void candidatesFor_PrunesOnListingTypePropertyTypeAndRadius() {
+        Client berlinBuyer = buyer(PropertySearchCriteria.builder()
+            .latitude(BERLIN_LAT)
+            .longitude(BERLIN_LNG)
+            .searchRadiusKm(20)
+            .propertyTypes("APARTMENT, LOFT")
+            .build());
+        Client munichBuyer = buyer(PropertySearchCriteria.builder()
+            .latitude(MUNICH_LAT)
+            .longitude(MUNICH_LNG)
+            .searchRadiusKm(20)
+            .build());
+        Client houseBuyer = buyer(PropertySearchCriteria.builder()
+            .propertyTypes("HOUSE")
+            .restrictToSearchRadius(false)
+            .build());
+        Client renter = client(Client.ClientType.RENTER, PropertySearchCriteria.builder()
+            .restrictToSearchRadius(false)
+            .build());
+        when(clientRepository.findByAgentWithSearchCriteria(any()))
+            .thenReturn(List.of(berlinBuyer, munichBuyer, houseBuyer, renter));
+
+        assertThat(index.candidatesFor(agentId, sale(new BigDecimal("350000"), BERLIN_LAT, BERLIN_LNG)))
+            .containsExactly(berlinBuyer.getId());
+    }
+
+    @Test
+    void candidatesFor_SkipsClosedClientsAndClientsWithoutCriteria() {
+        Client won = buyer(PropertySearchCriteria.builder().restrictToSearchRadius(false).build());
+        won.setPipelineStage(Client.PipelineStage.WON);
+        Client noCriteria = buyer(null);
+        Client open = buyer(PropertySearchCriteria.builder().restrictToSearchRadius(false).build());
+        when(clientRepository.findByAgentWithSearchCriteria(any())).thenReturn(List.of(won, noCriteria, open));
+
+        assertThat(index.candidatesFor(agentId, sale(new BigDecimal("350000"), BERLIN_LAT, BERLIN_LNG)))
+            .containsExactly(open.getId());
+    }
+
+    @Test
+    void evict_ReloadsPostingsOnNextLookup() {
+        Client client = buyer(PropertySearchCriteria.builder().restrictToSearchRadius(false).build());
+        when(clientRepository.findByAgentWithSearchCriteria(any())).thenReturn(List.of(client));
+        Property property = sale(new BigDecimal("350000"), BERLIN_LAT, BERLIN_LNG);
+
+        index.candidatesFor(agentId, property);
+        index.candidatesFor(agentId, property);
+        index.evict(agentId);
+        index.candidatesFor(agentId, property);
+
+        verify(clientRepository, times(2)).findByAgentWithSearchCriteria(any());
+    }
+
+    @Test
+    void evict_CommittedDuringLoad_DoesNotKeepStalePostings() {
+        Client before = buyer(PropertySearchCriteria.builder().restrictToSearchRadius(false).build());
+        Client added = buyer(PropertySearchCriteria.builder().restrictToSearchRadius(false).build());
+        // The first load read its clients before "added" committed; the eviction finds nothing to drop yet
+        when(clientRepository.findByAgentWithSearchCriteria(any()))
+            .thenAnswer(invocation -> {
+                index.evict(agentId);
+                return List.of(before);
+            })
+            .thenReturn(List.of(before, added));
+        Property property = sale(new BigDecimal("350000"), BERLIN_LAT, BERLIN_LNG);
+
+        assertThat(index.candidatesFor(agentId, property)).containsExactly(before.getId());
+
+        assertThat(index.candidatesFor(agentId, property)).containsExactlyInAnyOrder(before.getId(), added.getId());
+        verify(clientRepository, times(2)).findByAgentWithSearchCriteria(any());
+    }
+
+    @Test
+    void postings_AgreeWithEnvelopeScanOnRandomCriteria() {
+        Random random = new Random(11);
+        List<ClientCriteriaIndex.Envelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            envelopes.add(ClientCriteriaIndex.Envelope.of(randomClient(random)));
+        }
+        ClientCriteriaIndex.Postings postings = ClientCriteriaIndex.Postings.of(envelopes);
+
+        for (int query = 0; query < 500; query++) {
+            PropertyMatchIndex.Row row = PropertyMatchIndex.Row.of(randomProperty(random));
+            List<UUID> expected = envelopes.stream()
+                .filter(envelope -> envelope.admits(row))
+                .map(ClientCriteriaIndex.Envelope::clientId)
+                .toList();
+            assertThat(postings.candidatesFor(row)).as("property %s", row).isEqualTo(expected);
+        }
+    }
+
+    // ========================================
+    // Fixtures
+    // ========================================
+
+    private static Client buyer(PropertySearchCriteria criteria) {
+        return client(Client.ClientType.BUYER, criteria);
+    }
+
+    private static Client client(Client.ClientType clientType, PropertySearchCriteria criteria) {
+        Client client = Client.builder()
+            .firstName("Test")
+            .lastName("Kunde")
+            .clientType(clientType)
+            .pipelineStage(Client.PipelineStage.ACTIVE_SEARCH)
+            .searchCriteria(criteria)
+            .build();
+        client.setId(UUID.randomUUID());
+        if (criteria != null) {
+            criteria.setClient(client);
+        }
+        return client;
+    }
+
+    private static Property sale(BigDecimal price, BigDecimal lat, BigDecimal lng) {
+        Property property = Property.builder()
+            .propertyType(PropertyType.APARTMENT)
+            .listingType(ListingType.SALE)
+            .status(PropertyStatus.AVAILABLE)
+            .price(price)
+            .livingAreaSqm(new BigDecimal("80"))
+            .latitude(lat)
+            .longitude(lng)
+            .build();
+        property.setId(UUID.randomUUID());
+        return property;
+    }
+
+    private static Client randomClient(Random random) {
+        boolean renter = random.nextBoolean();
+        PropertySearchCriteria.PropertySearchCriteriaBuilder criteria = PropertySearchCriteria.builder()
+            .restrictToSearchRadius(random.nextBoolean())
+            .latitude(BigDecimal.valueOf(47.3 + random.nextDouble() * 7.7))
+            .longitude(BigDecimal.valueOf(5.9 + random.nextDouble() * 9.1))
+            .searchRadiusKm(5 + random.nextInt(100));
+        if (random.nextBoolean()) {
+            criteria.propertyTypes(PropertyType.values()[random.nextInt(PropertyType.values().length)].name());
+        }
+        if (random.nextBoolean()) {
+            int minArea = 20 + random.nextInt(100);
+            criteria.minSquareMeters(minArea).maxSquareMeters(minArea + random.nextInt(150));
+        }
+        if (renter) {
+            int minRent = 300 + random.nextInt(1500);
+            if (random.nextBoolean()) {
+                criteria.minWarmRent(BigDecimal.valueOf(minRent)).maxWarmRent(BigDecimal.valueOf(minRent + 800));
+            } else {
+                criteria.minColdRent(BigDecimal.valueOf(minRent)).maxColdRent(BigDecimal.valueOf(minRent + 600));
+            }
+        } else if (random.nextBoolean()) {
+            int minBudget = 100_000 + random.nextInt(900_000);
+            criteria.minBudget(BigDecimal.valueOf(minBudget)).maxBudget(BigDecimal.valueOf(minBudget + 250_000));
+        }
+        return client(renter ? Client.ClientType.RENTER : Client.ClientType.BUYER, criteria.build());
+    }
+
+    private static Property randomProperty(Random random) {
+        boolean rental = random.nextBoolean();
+        Property property = Property.builder()
+            .propertyType(PropertyType.values()[random.nextInt(PropertyType.values().length)])
+            .listingType(rental ? ListingType.RENT : ListingType.SALE)
+            .status(PropertyStatus.AVAILABLE)
+            .price(random.nextInt(10) == 0 ? null
+                : BigDecimal.valueOf(rental ? 300 + random.nextInt(2500) : 80_000 + random.nextInt(1_400_000)))
+            .additionalCosts(rental ? BigDecimal.valueOf(random.nextInt(300)) : null)
+            .heatingCosts(rental ? BigDecimal.valueOf(random.nextInt(150)) : null)
+            .livingAreaSqm(random.nextInt(10) == 0 ? null : BigDecimal.valueOf(15 + random.nextInt(300)))
+            .latitude(random.nextInt(10) == 0 ? null : BigDecimal.valueOf(47.3 + random.nextDouble() * 7.7))
+            .longitude(BigDecimal.valueOf(5.9 + random.nextDouble() * 9.1))
+            .build();
+        property.setId(UUID.randomUUID());
+        return property;
+    }
+}
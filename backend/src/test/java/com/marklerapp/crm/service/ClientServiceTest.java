@@ -1,6 +1,7 @@
 package com.marklerapp.crm.service;
 
 import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.marklerapp.crm.dto.ClientContactGapPageDto;
 import com.marklerapp.crm.dto.ClientDto;
 import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
 import com.marklerapp.crm.entity.Agent;
@@ -21,13 +22,17 @@ import org.mockito.InjectMocks;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -69,6 +74,15 @@ class ClientServiceTest {
     @Mock
     private ClientDeletionAuditService clientDeletionAuditService;
 
+    @Mock
+    private ClientCriteriaIndex clientCriteriaIndex;
+
+    @Mock
+    private MatchScoreCache matchScoreCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private OwnershipValidator ownershipValidator;
 
     private ClientService clientService;
@@ -96,7 +110,10 @@ class ClientServiceTest {
             ownershipValidator,
             viewingRepository,
             fileAttachmentRepository,
-            clientDeletionAuditService
+            clientDeletionAuditService,
+            clientCriteriaIndex,
+            matchScoreCache,
+            eventPublisher
         );
 
         testAgent = Agent.builder()
@@ -672,6 +689,75 @@ class ClientServiceTest {
         verify(clientRepository).countByAgentId(agentId);
     }
 
+    // ========================================
+    // getClientsWithoutRecentContact Tests
+    // ========================================
+
+    @Test
+    void getClientsWithoutRecentContact_Page_ShouldContinueAfterTheLastClient() {
+        // Given
+        LocalDateTime never = LocalDateTime.of(1970, 1, 1, 0, 0);
+        UUID otherId = UUID.randomUUID();
+        when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
+        when(clientRepository.findContactGapsAfter(eq(testAgent), any(LocalDateTime.class), eq(never),
+                eq(never), eq(new UUID(0L, 0L)), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(contactGap(clientId, null, never), contactGap(otherId, null, never)));
+        when(clientRepository.findAllById(List.of(clientId))).thenReturn(List.of(testClient));
+        when(clientMapper.toDto(testClient)).thenReturn(testClientDto);
+
+        // When
+        ClientContactGapPageDto page = clientService.getClientsWithoutRecentContact(agentId, 30, null, 1);
+
+        // Then
+        assertThat(page.getClients()).containsExactly(testClientDto);
+        assertThat(page.getClients().get(0).getLastContactDate()).isNull();
+        assertThat(page.getNextCursor()).isNotNull();
+
+        // The next page starts strictly after the last client of this one
+        when(clientRepository.findContactGapsAfter(eq(testAgent), any(LocalDateTime.class), eq(never),
+                eq(never), eq(clientId), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(contactGap(otherId, null, never)));
+        when(clientRepository.findAllById(List.of(otherId))).thenReturn(List.of()); // deleted in between
+        ClientContactGapPageDto next = clientService.getClientsWithoutRecentContact(agentId, 30, page.getNextCursor(), 1);
+
+        assertThat(next.getClients()).isEmpty();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getClientsWithoutRecentContact_ShouldReadAllClientsInOneUnpagedQuery() {
+        // Given
+        LocalDateTime lastCall = LocalDateTime.now().minusDays(45);
+        when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
+        when(clientRepository.findContactGapsAfter(eq(testAgent), any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(contactGap(clientId, lastCall, lastCall)));
+        when(clientRepository.findAllById(List.of(clientId))).thenReturn(List.of(testClient));
+        when(clientMapper.toDto(testClient)).thenReturn(testClientDto);
+
+        // When
+        List<ClientDto> result = clientService.getClientsWithoutRecentContact(agentId, 30);
+
+        // Then
+        assertThat(result).containsExactly(testClientDto);
+        assertThat(result.get(0).getLastContactDate()).isEqualTo(lastCall);
+        verify(clientRepository, times(1)).findContactGapsAfter(any(), any(), any(), any(), any(),
+                argThat(Pageable::isUnpaged));
+        verifyNoInteractions(callNoteRepository);
+    }
+
+    @Test
+    void getClientsWithoutRecentContact_WithMalformedCursor_ShouldThrowException() {
+        // Given
+        when(agentRepository.findById(agentId)).thenReturn(Optional.of(testAgent));
+
+        // When & Then
+        assertThatThrownBy(() -> clientService.getClientsWithoutRecentContact(agentId, 30, "not-a-cursor", 20))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid cursor");
+        verify(clientRepository, never()).findContactGapsAfter(any(), any(), any(), any(), any(), any());
+    }
+
     // ========================================
     // exportClientData Tests
     // ========================================
@@ -706,4 +792,17 @@ class ClientServiceTest {
         verify(clientRepository).findById(clientId);
         verifyNoInteractions(clientMapper);
     }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private static ClientRepository.ContactGap contactGap(UUID clientId, LocalDateTime lastContactDate,
+                                                          LocalDateTime sortKey) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("clientId", clientId);
+        values.put("lastContactDate", lastContactDate);
+        values.put("sortKey", sortKey);
+        return new SpelAwareProxyProjectionFactory().createProjection(ClientRepository.ContactGap.class, values);
+    }
 }
@@ -0,0 +1,161 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertyMatchRequest;
+import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.PropertySearchCriteria;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.entity.PropertyType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompiledCriteria} and the location/type scoring that reads it.
+ */
+class CompiledCriteriaTest {
+
+    private final PropertyMatchingService matchingService = new PropertyMatchingService(
+            null, null, null, null, null, null, null, null, new MatchScoreCache(1), null);
+
+    // ========================================
+    // Compilation
+    // ========================================
+
+    @Test
+    void parsePostalCode_AcceptsExactlyFiveDigits() {
+        assertThat(CompiledCriteria.parsePostalCode("10115")).isEqualTo(10115);
+        assertThat(CompiledCriteria.parsePostalCode("04109")).isEqualTo(4109);
+        assertThat(CompiledCriteria.parsePostalCode("4109")).isEqualTo(CompiledCriteria.NO_POSTAL_CODE);
+        assertThat(CompiledCriteria.parsePostalCode("101150")).isEqualTo(CompiledCriteria.NO_POSTAL_CODE);
+        assertThat(CompiledCriteria.parsePostalCode("+1011")).isEqualTo(CompiledCriteria.NO_POSTAL_CODE);
+        assertThat(CompiledCriteria.parsePostalCode("1011a")).isEqualTo(CompiledCriteria.NO_POSTAL_CODE);
+        assertThat(CompiledCriteria.parsePostalCode(null)).isEqualTo(CompiledCriteria.NO_POSTAL_CODE);
+    }
+
+    @Test
+    void of_NormalizesLocationsAndTypes() {
+        CompiledCriteria criteria = CompiledCriteria.of(PropertySearchCriteriaDto.builder()
+                .preferredLocations(List.of(" Berlin ", "80331", "Köln"))
+                .propertyTypes(List.of("apartment ", "HOUSE"))
+                .build());
+
+        assertThat(criteria.hasLocationPreferences()).isTrue();
+        assertThat(criteria.prefersCity("berlin")).isTrue();
+        assertThat(criteria.prefersCity("köln")).isTrue();
+        assertThat(criteria.prefersCity("hamburg")).isFalse();
+        assertThat(criteria.prefersPostalCode(80331)).isTrue();
+        assertThat(criteria.prefersPostalCode(80332)).isFalse();
+        assertThat(criteria.hasTypePreferences()).isTrue();
+        assertThat(criteria.prefersType(PropertyType.APARTMENT)).isTrue();
+        assertThat(criteria.prefersType(PropertyType.HOUSE)).isTrue();
+        assertThat(criteria.isPinned()).isFalse();
+        assertThat(criteria.radiusGateApplies()).isFalse();
+    }
+
+    @Test
+    void of_EntityAndDtoCompileAlike() {
+        PropertySearchCriteria entity = PropertySearchCriteria.builder()
+                .preferredLocations("Berlin, 10115")
+                .propertyTypes("APARTMENT")
+                .latitude(new BigDecimal("52.520000"))
+                .longitude(new BigDecimal("13.405000"))
+                .searchRadiusKm(10)
+                .restrictToSearchRadius(true)
+                .build();
+
+        CompiledCriteria criteria = CompiledCriteria.of(entity);
+
+        assertThat(criteria.prefersCity("berlin")).isTrue();
+        assertThat(criteria.prefersPostalCode(10115)).isTrue();
+        assertThat(criteria.prefersType(PropertyType.APARTMENT)).isTrue();
+        assertThat(criteria.isPinned()).isTrue();
+        assertThat(criteria.latitude()).isEqualTo(52.52);
+        assertThat(criteria.searchRadiusKm()).isEqualTo(10);
+        assertThat(criteria.radiusGateApplies()).isTrue();
+    }
+
+    @Test
+    void hasPostalCodeNear_ChecksBothNeighboursOfTheInsertionPoint() {
+        CompiledCriteria criteria = CompiledCriteria.of(PropertySearchCriteriaDto.builder()
+                .preferredLocations(List.of("50667", "10115", "80331"))
+                .build());
+
+        assertThat(criteria.hasPostalCodeNear(10115, 50)).isTrue();
+        assertThat(criteria.hasPostalCodeNear(10165, 50)).isTrue();
+        assertThat(criteria.hasPostalCodeNear(10166, 50)).isFalse();
+        assertThat(criteria.hasPostalCodeNear(50617, 50)).isTrue();
+        assertThat(criteria.hasPostalCodeNear(50616, 50)).isFalse();
+        assertThat(criteria.hasPostalCodeNear(80381, 50)).isTrue();
+        assertThat(criteria.hasPostalCodeNear(CompiledCriteria.NO_POSTAL_CODE, 50)).isFalse();
+    }
+
+    // ========================================
+    // Location scoring
+    // ========================================
+
+    @Test
+    void calculateLocationScore_CityMatchIsCaseInsensitive() {
+        assertThat(locationScore(List.of("BERLIN"), "Berlin", "10115", false)).isEqualTo(100);
+    }
+
+    @Test
+    void calculateLocationScore_ExactAndNearbyPostalCodes() {
+        assertThat(locationScore(List.of("10115"), "Berlin", "10115", false)).isEqualTo(100);
+        assertThat(locationScore(List.of("10115"), "Berlin", "10140", false)).isEqualTo(80);
+        assertThat(locationScore(List.of("10115"), "Berlin", "10140", true)).isZero();
+        assertThat(locationScore(List.of("10115"), "Berlin", "10200", false)).isZero();
+    }
+
+    @Test
+    void calculateLocationScore_BestMatchWinsRegardlessOfListOrder() {
+        // A nearby postal code listed first no longer shadows an exact city match further down
+        assertThat(locationScore(List.of("10100", "Berlin"), "Berlin", "10115", false)).isEqualTo(100);
+        assertThat(locationScore(List.of("10100", "10115"), "Berlin", "10115", false)).isEqualTo(100);
+    }
+
+    @Test
+    void calculateLocationScore_WithoutPreferencesOrPropertyLocation() {
+        assertThat(locationScore(List.of(), "Berlin", "10115", false)).isEqualTo(100);
+        assertThat(locationScore(List.of("Berlin"), null, null, false)).isEqualTo(50);
+        assertThat(locationScore(List.of("Hamburg"), "Berlin", null, false)).isZero();
+    }
+
+    @Test
+    void calculateLocationScore_ReportsTheSameReasons() {
+        List<String> matchReasons = new ArrayList<>();
+        PropertyMatchIndex.Portfolio portfolio = portfolio("Berlin", "10140", PropertyType.APARTMENT);
+        CompiledCriteria criteria = CompiledCriteria.of(PropertySearchCriteriaDto.builder()
+                .preferredLocations(List.of("10115"))
+                .build());
+
+        matchingService.calculateLocationScore(portfolio, 0, criteria, PropertyMatchRequest.builder().build(),
+                matchReasons, new ArrayList<>());
+
+        assertThat(matchReasons).containsExactly("Property postal code 10140 is near preferred location (within 50)");
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private int locationScore(List<String> preferredLocations, String city, String postalCode, boolean exact) {
+        CompiledCriteria criteria = CompiledCriteria.of(PropertySearchCriteriaDto.builder()
+                .preferredLocations(preferredLocations)
+                .build());
+        PropertyMatchRequest request = PropertyMatchRequest.builder().exactLocationMatch(exact).build();
+        return matchingService.calculateLocationScore(portfolio(city, postalCode, PropertyType.APARTMENT), 0,
+                criteria, request, null, null);
+    }
+
+    private static PropertyMatchIndex.Portfolio portfolio(String city, String postalCode, PropertyType type) {
+        return PropertyMatchIndex.Portfolio.of(List.of(new PropertyMatchIndex.Row(UUID.randomUUID(),
+                300_000_00L, 300_000_00L, 80_00L, 3_00L, Double.NaN, Double.NaN,
+                PropertyStatus.AVAILABLE, ListingType.SALE, type, city, postalCode)));
+    }
+}
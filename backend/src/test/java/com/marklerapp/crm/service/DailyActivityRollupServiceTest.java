@@ -0,0 +1,155 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity;
+import com.marklerapp.crm.entity.CallNote.CallOutcome;
+import com.marklerapp.crm.event.DailyActivityChangedEvent;
+import com.marklerapp.crm.event.DailyActivityRollupUpdatedEvent;
+import com.marklerapp.crm.repository.AgentDailyActivityRepository;
+import com.marklerapp.crm.repository.AgentRepository;
+import com.marklerapp.crm.repository.CallNoteRepository;
+import com.marklerapp.crm.repository.ClientRepository;
+import com.marklerapp.crm.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DailyActivityRollupService: incremental deltas and nightly reconciliation.
+ */
+@ExtendWith(MockitoExtension.class)
+class DailyActivityRollupServiceTest {
+
+    @Mock
+    private AgentDailyActivityRepository dailyActivityRepository;
+
+    @Mock
+    private AgentRepository agentRepository;
+
+    @Mock
+    private CallNoteRepository callNoteRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DailyActivityRollupService rollupService;
+
+    private Agent agent;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new DailyActivityRollupService(dailyActivityRepository, agentRepository, callNoteRepository,
+                clientRepository, propertyRepository, new TransactionTemplate(transactionManager),
+                eventPublisher);
+
+        agent = Agent.builder()
+                .firstName("Max")
+                .lastName("Mustermann")
+                .email("max@example.com")
+                .build();
+        agent.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void windowStart_CoversLastMonthAndTheDailyChart() {
+        assertThat(DailyActivityRollupService.windowStart(LocalDate.of(2026, 10, 16)))
+                .isEqualTo(LocalDate.of(2026, 9, 1));
+        // Early in March the 30-day chart reaches back into January
+        assertThat(DailyActivityRollupService.windowStart(LocalDate.of(2026, 3, 1)))
+                .isEqualTo(LocalDate.of(2026, 1, 31));
+    }
+
+    @Test
+    void apply_AddsToExistingDaysAndCreatesMissingOnes() {
+        LocalDate today = LocalDate.now();
+        AgentDailyActivity existing = AgentDailyActivity.builder()
+                .agent(agent)
+                .activityDate(today)
+                .callNotes(3)
+                .interestedCalls(1)
+                .build();
+        when(dailyActivityRepository.findByAgentIdAndDates(eq(agent.getId()), anyList())).thenReturn(List.of(existing));
+        when(agentRepository.getReferenceById(agent.getId())).thenReturn(agent);
+
+        rollupService.apply(DailyActivityChangedEvent.forAgent(agent.getId())
+                .callNote(today.atTime(10, 0), CallOutcome.INTERESTED, -1)
+                .callNote(today.minusDays(2).atTime(9, 0), CallOutcome.DEAL_CLOSED, 1)
+                .client(null, 1)
+                .build());
+
+        List<AgentDailyActivity> saved = savedRows();
+        assertThat(saved).hasSize(2);
+        assertThat(existing.getCallNotes()).isEqualTo(2);
+        assertThat(existing.getInterestedCalls()).isZero();
+        AgentDailyActivity created = saved.stream().filter(day -> day != existing).findFirst().orElseThrow();
+        assertThat(created.getActivityDate()).isEqualTo(today.minusDays(2));
+        assertThat(created.getCallNotes()).isEqualTo(1);
+        assertThat(created.getDealClosedCalls()).isEqualTo(1);
+        assertThat(created.getNewClients()).isZero();
+        verify(eventPublisher).publishEvent(new DailyActivityRollupUpdatedEvent(agent.getId()));
+    }
+
+    @Test
+    void reconcile_RecomputesTheWindowFromSourceTables() {
+        LocalDateTime today = LocalDate.now().atTime(9, 30);
+        when(agentRepository.getReferenceById(agent.getId())).thenReturn(agent);
+        when(callNoteRepository.findCallActivityByAgentSince(eq(agent), any(LocalDateTime.class))).thenReturn(List.of(
+                new Object[]{today, CallOutcome.INTERESTED},
+                new Object[]{today.plusMinutes(5), null},
+                new Object[]{today.minusDays(1), CallOutcome.DEAL_CLOSED}));
+        when(clientRepository.findCreatedAtByAgentSince(eq(agent), any(LocalDateTime.class)))
+                .thenReturn(List.of(today.minusDays(1)));
+        when(propertyRepository.findCreatedAtByAgentSince(eq(agent), any(LocalDateTime.class)))
+                .thenReturn(List.of(today, today));
+
+        rollupService.reconcile(agent.getId());
+
+        verify(dailyActivityRepository).deleteDaysFrom(agent, DailyActivityRollupService.windowStart(LocalDate.now()));
+        List<AgentDailyActivity> saved = savedRows();
+        assertThat(saved).extracting(AgentDailyActivity::getActivityDate)
+                .containsExactly(today.toLocalDate().minusDays(1), today.toLocalDate());
+        assertThat(saved.get(0).getCallNotes()).isEqualTo(1);
+        assertThat(saved.get(0).getDealClosedCalls()).isEqualTo(1);
+        assertThat(saved.get(0).getNewClients()).isEqualTo(1);
+        assertThat(saved.get(1).getCallNotes()).isEqualTo(2);
+        assertThat(saved.get(1).getInterestedCalls()).isEqualTo(1);
+        assertThat(saved.get(1).getNewProperties()).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new DailyActivityRollupUpdatedEvent(agent.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AgentDailyActivity> savedRows() {
+        ArgumentCaptor<Iterable<AgentDailyActivity>> rows = ArgumentCaptor.forClass(Iterable.class);
+        verify(dailyActivityRepository).saveAll(rows.capture());
+        List<AgentDailyActivity> saved = new ArrayList<>();
+        rows.getValue().forEach(saved::add);
+        return saved;
+    }
+}
@@ -0,0 +1,176 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.DashboardAnalyticsDto;
+import com.marklerapp.crm.event.CallNoteChangedEvent;
+import com.marklerapp.crm.event.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardAnalyticsCache: TTL, event invalidation and stale-while-revalidate.
+ * Time is a manual clock and background refreshes are queued until a test runs them.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardAnalyticsCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration MAX_STALE = Duration.ofMinutes(10);
+
+    @Mock
+    private DashboardAnalyticsService dashboardAnalyticsService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+
+    private DashboardAnalyticsCache cache;
+
+    private UUID agentId;
+    private DashboardAnalyticsDto first;
+    private DashboardAnalyticsDto second;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DashboardAnalyticsCache(dashboardAnalyticsService, refreshes::add, TTL, MAX_STALE, nanos::get);
+        meterRegistry = new SimpleMeterRegistry();
+        cache.bindTo(meterRegistry);
+
+        agentId = UUID.randomUUID();
+        first = DashboardAnalyticsDto.builder().suggestedActions(List.of("first")).build();
+        second = DashboardAnalyticsDto.builder().suggestedActions(List.of("second")).build();
+    }
+
+    @Test
+    void get_ServesFreshEntriesWithoutRecomputing() {
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first);
+
+        assertThat(cache.get(agentId)).isSameAs(first);
+        advance(TTL.minusSeconds(1));
+        assertThat(cache.get(agentId)).isSameAs(first);
+
+        verify(dashboardAnalyticsService, times(1)).generateAnalytics(agentId);
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(meterRegistry.get(DashboardAnalyticsCache.REFRESH_TIMER).tag("mode", "sync").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_ServesExpiredEntryWhileOneRefreshRuns() {
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first, second);
+        cache.get(agentId);
+        advance(TTL);
+
+        assertThat(cache.get(agentId)).isSameAs(first);
+        assertThat(cache.get(agentId)).isSameAs(first);
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.remove(0).run();
+
+        assertThat(cache.get(agentId)).isSameAs(second);
+        assertThat(gets("stale")).isEqualTo(2);
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(meterRegistry.get(DashboardAnalyticsCache.REFRESH_TIMER).tag("mode", "async").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void changeEvent_MarksTheEntryStaleWithinTheTtl() {
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first, second);
+        cache.get(agentId);
+
+        cache.onCallNoteChanged(new CallNoteChangedEvent(agentId, UUID.randomUUID(), ChangeType.CREATED));
+
+        assertThat(cache.get(agentId)).isSameAs(first);
+        refreshes.remove(0).run();
+        assertThat(cache.get(agentId)).isSameAs(second);
+        assertThat(gets("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void changeEvent_DuringARefreshLeavesItsResultStale() {
+        DashboardAnalyticsDto third = DashboardAnalyticsDto.builder().build();
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first);
+        cache.get(agentId);
+        cache.invalidate(agentId);
+        cache.get(agentId);
+
+        // The refresh reads data from before the next change commits
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenAnswer(invocation -> {
+            cache.invalidate(agentId);
+            return second;
+        });
+        refreshes.remove(0).run();
+
+        assertThat(cache.get(agentId)).isSameAs(second);
+        assertThat(refreshes).hasSize(1);
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(third);
+        refreshes.remove(0).run();
+        assertThat(cache.get(agentId)).isSameAs(third);
+    }
+
+    @Test
+    void get_RecomputesEntriesTooOldToServe() {
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first, second);
+        cache.get(agentId);
+        advance(MAX_STALE);
+
+        assertThat(cache.get(agentId)).isSameAs(second);
+        assertThat(refreshes).isEmpty();
+        assertThat(gets("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void get_FailedOrRejectedRefreshKeepsTheStaleEntry() {
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first);
+        cache.get(agentId);
+        advance(TTL);
+        cache.get(agentId);
+
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenThrow(new IllegalStateException("database down"));
+        refreshes.remove(0).run();
+        assertThat(cache.get(agentId)).isSameAs(first);
+        assertThat(refreshes).hasSize(1);
+        assertThat(meterRegistry.get("cache.refresh.failures").functionCounter().count()).isEqualTo(1);
+
+        DashboardAnalyticsCache saturated = new DashboardAnalyticsCache(dashboardAnalyticsService, task -> {
+            throw new RejectedExecutionException("queue full");
+        }, TTL, MAX_STALE, nanos::get);
+        reset(dashboardAnalyticsService);
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(first);
+        saturated.get(agentId);
+        advance(TTL);
+        assertThat(saturated.get(agentId)).isSameAs(first);
+        assertThat(saturated.get(agentId)).isSameAs(first);
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", DashboardAnalyticsCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
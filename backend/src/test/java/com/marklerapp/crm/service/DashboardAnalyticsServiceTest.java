@@ -0,0 +1,444 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.DashboardAnalyticsDto;
+import com.marklerapp.crm.dto.DashboardAnalyticsDto.ActivityTrendsDto;
+import com.marklerapp.crm.dto.DashboardAnalyticsDto.ClientInsightDto;
+import com.marklerapp.crm.dto.DashboardAnalyticsDto.PropertyPortfolioDto;
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.AgentDailyActivity.Bucket;
+import com.marklerapp.crm.entity.CallNote;
+import com.marklerapp.crm.entity.CallNote.CallOutcome;
+import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.entity.PropertyType;
+import com.marklerapp.crm.repository.AgentDailyActivityRepository.ActivityBucket;
+import com.marklerapp.crm.repository.AgentRepository;
+import com.marklerapp.crm.repository.CallNoteRepository;
+import com.marklerapp.crm.repository.CallNoteRepository.ClientContact;
+import com.marklerapp.crm.repository.ClientPropertyMatchRepository;
+import com.marklerapp.crm.repository.ClientRepository;
+import com.marklerapp.crm.repository.PropertyRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardAnalyticsService: per-client contact metrics come from
+ * aggregate queries, so the number of repository calls does not grow with the client count.
+ * Sections run on a same-thread executor unless a test says otherwise.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardAnalyticsServiceTest {
+
+    @Mock
+    private AgentRepository agentRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private CallNoteRepository callNoteRepository;
+
+    @Mock
+    private ClientPropertyMatchRepository clientPropertyMatchRepository;
+
+    @Mock
+    private DailyActivityRollupService dailyActivityRollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private DashboardAnalyticsService analyticsService;
+
+    private Agent agent;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        analyticsService = new DashboardAnalyticsService(agentRepository, clientRepository, propertyRepository,
+                callNoteRepository, clientPropertyMatchRepository, dailyActivityRollupService, transactionManager,
+                Runnable::run, meterRegistry);
+
+        agent = Agent.builder()
+                .firstName("Max")
+                .lastName("Mustermann")
+                .email("max@example.com")
+                .build();
+        agent.setId(UUID.randomUUID());
+
+        // Lenient: a test for an unknown agent never gets as far as the sections
+        lenient().when(agentRepository.findById(agent.getId())).thenReturn(Optional.of(agent));
+    }
+
+    @Test
+    void generateAnalytics_RepositoryCallsDoNotGrowWithClientCount() {
+        int fewClientsQueries = repositoryCallsFor(10);
+        clearInvocations(agentRepository, clientRepository, propertyRepository, callNoteRepository,
+                clientPropertyMatchRepository);
+        int manyClientsQueries = repositoryCallsFor(2_000);
+
+        assertThat(manyClientsQueries).isEqualTo(fewClientsQueries);
+        verify(callNoteRepository, never()).findByClientOrderByCallDateDesc(any(Client.class), any(Pageable.class));
+        verify(callNoteRepository, never()).findByClientOrderByCallDateDesc(any(Client.class));
+        verify(clientRepository, never()).findByAgent(agent);
+    }
+
+    @Test
+    void generateAnalytics_ContactMetricsFromLastContactDates() {
+        LocalDateTime now = LocalDateTime.now();
+        when(clientRepository.countByAgent(agent)).thenReturn(5L);
+        // Two clients contacted recently, one 39 days ago, two never contacted
+        when(callNoteRepository.findLastContactDateByClientForAgent(agent)).thenReturn(List.of(
+                new Object[]{UUID.randomUUID(), now.minusDays(2)},
+                new Object[]{UUID.randomUUID(), now.minusDays(10)},
+                new Object[]{UUID.randomUUID(), now.minusDays(39).minusHours(1)}));
+
+        DashboardAnalyticsDto analytics = analyticsService.generateAnalytics(agent.getId());
+
+        assertThat(analytics.getPipelineHealth().getClientsWithoutRecentContact()).isEqualTo(3);
+        assertThat(analytics.getPipelineHealth().getAverageDaysSinceLastContact()).isEqualTo((2 + 10 + 39) / 3);
+        assertThat(analytics.getConversionFunnel().getTotalClients()).isEqualTo(5);
+    }
+
+    @Test
+    void generateAnalytics_FollowUpCountsComeFromAgentScopedQueries() {
+        LocalDate today = LocalDate.now();
+        when(callNoteRepository.countOverdueFollowUpsByAgent(agent, today)).thenReturn(2L);
+        when(callNoteRepository.countFollowUpsByAgentDueBetween(agent, today, today.plusWeeks(1))).thenReturn(3L);
+        when(callNoteRepository.countFollowUpsByAgentDueBetween(agent, today.plusWeeks(1), today.plusWeeks(2)))
+                .thenReturn(1L);
+
+        DashboardAnalyticsDto.PipelineHealthDto health = analyticsService.generateAnalytics(agent.getId())
+                .getPipelineHealth();
+
+        assertThat(health.getOverdueFollowUps()).isEqualTo(2);
+        assertThat(health.getFollowUpsDueThisWeek()).isEqualTo(3);
+        assertThat(health.getFollowUpsDueNextWeek()).isEqualTo(1);
+        verify(callNoteRepository).findOverdueFollowUpContactsByAgent(agent, today);
+    }
+
+    @Test
+    void generateAnalytics_HotLeadsSkipOverdueAndDuplicateClients() {
+        LocalDateTime tenDaysAgo = LocalDateTime.now().minusDays(10);
+        Client hotLead = client("Anna");
+        Client overdue = client("Bernd");
+        ClientContact overdueContact = contact(overdue, tenDaysAgo, LocalDate.now().minusDays(1));
+
+        when(callNoteRepository.findOverdueFollowUpContactsByAgent(eq(agent), any(LocalDate.class)))
+                .thenReturn(List.of(overdueContact));
+        when(callNoteRepository.findLatestContactsByOutcomeBefore(
+                eq(agent), eq(CallOutcome.INTERESTED), any(LocalDateTime.class)))
+                .thenReturn(List.of(contact(hotLead, tenDaysAgo, null),
+                        contact(hotLead, tenDaysAgo, null),
+                        overdueContact));
+
+        List<ClientInsightDto> insights = analyticsService.generateAnalytics(agent.getId()).getClientsNeedingAttention();
+
+        assertThat(insights).extracting(ClientInsightDto::getClientName, ClientInsightDto::getUrgency)
+                .containsExactlyInAnyOrder(tuple(overdue.getFullName(), "HIGH"), tuple(hotLead.getFullName(), "MEDIUM"));
+        assertThat(insights).filteredOn(insight -> insight.getUrgency().equals("MEDIUM"))
+                .extracting(ClientInsightDto::getDaysSinceContact)
+                .containsExactly(10);
+    }
+
+    @Test
+    void generateAnalytics_PortfolioAndRevenueFromAggregates() {
+        when(propertyRepository.findPortfolioGroupsByAgent(agent)).thenReturn(List.of(
+                portfolioGroup(PropertyStatus.AVAILABLE, PropertyType.APARTMENT, 3, "900000", "27000"),
+                portfolioGroup(PropertyStatus.AVAILABLE, PropertyType.HOUSE, 1, "650000", null),
+                portfolioGroup(PropertyStatus.SOLD, PropertyType.APARTMENT, 2, null, "18000")));
+        when(propertyRepository.countWithImagesByAgent(agent)).thenReturn(4L);
+        when(propertyRepository.sumCommissionByAgentAndStatusInUpdatedSince(
+                eq(agent), anyCollection(), any(LocalDateTime.class))).thenReturn(new BigDecimal("18000"));
+        when(propertyRepository.countByAgentAndStatusInAndUpdatedAtGreaterThanEqual(
+                eq(agent), anyCollection(), any(LocalDateTime.class))).thenReturn(2L);
+
+        DashboardAnalyticsDto analytics = analyticsService.generateAnalytics(agent.getId());
+
+        PropertyPortfolioDto portfolio = analytics.getPropertyPortfolio();
+        assertThat(portfolio.getTotalProperties()).isEqualTo(6);
+        assertThat(portfolio.getPropertiesByStatus()).containsOnly(entry("AVAILABLE", 4L), entry("SOLD", 2L));
+        assertThat(portfolio.getPropertiesByType()).containsOnly(entry("APARTMENT", 5L), entry("HOUSE", 1L));
+        assertThat(portfolio.getTotalPortfolioValue()).isEqualByComparingTo("1550000");
+        assertThat(portfolio.getPropertiesWithImages()).isEqualTo(4);
+        assertThat(analytics.getRevenue().getRealizedCommissionYtd()).isEqualByComparingTo("18000");
+        assertThat(analytics.getRevenue().getAvgCommissionPerDeal()).isEqualByComparingTo("9000");
+        assertThat(analytics.getRevenue().getPipelineCommission()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void generateAnalytics_FunnelFromLatestOutcomeCounts() {
+        when(clientRepository.countByAgent(agent)).thenReturn(10L);
+        when(callNoteRepository.countClientsByLatestOutcome(agent)).thenReturn(List.of(
+                outcomeCount(CallOutcome.INTERESTED, 4),
+                outcomeCount(CallOutcome.SCHEDULED_VIEWING, 2),
+                outcomeCount(CallOutcome.DEAL_CLOSED, 1)));
+
+        DashboardAnalyticsDto analytics = analyticsService.generateAnalytics(agent.getId());
+
+        assertThat(analytics.getConversionFunnel().getInterestedClients()).isEqualTo(4);
+        assertThat(analytics.getConversionFunnel().getOffersMade()).isZero();
+        assertThat(analytics.getConversionFunnel().getOverallConversionRate()).isEqualTo(10.0);
+        assertThat(analytics.getPipelineHealth().getClientsByOutcome())
+                .containsOnly(entry("INTERESTED", 4L), entry("SCHEDULED_VIEWING", 2L), entry("DEAL_CLOSED", 1L));
+        // One query shared by both sections
+        verify(callNoteRepository, times(1)).countClientsByLatestOutcome(agent);
+        verify(callNoteRepository, never()).countClientsByLatestOutcomePortable(agent);
+    }
+
+    @Test
+    void generateAnalytics_PortableLatestOutcomeQueryWhenConfigured() {
+        ReflectionTestUtils.setField(analyticsService, "portableLatestOutcomeQuery", true);
+        when(callNoteRepository.countClientsByLatestOutcomePortable(agent)).thenReturn(List.of(
+                outcomeCount(CallOutcome.OFFER_MADE, 3)));
+
+        DashboardAnalyticsDto analytics = analyticsService.generateAnalytics(agent.getId());
+
+        assertThat(analytics.getConversionFunnel().getOffersMade()).isEqualTo(3);
+        assertThat(analytics.getPipelineHealth().getClientsByOutcome()).containsOnly(entry("OFFER_MADE", 3L));
+        verify(callNoteRepository, never()).countClientsByLatestOutcome(agent);
+    }
+
+    @Test
+    void generateAnalytics_ActivityTrendsFromMonthAndDayBuckets() {
+        LocalDate today = LocalDate.now();
+        LocalDate startOfThisMonth = today.withDayOfMonth(1);
+        when(dailyActivityRollupService.findBuckets(agent, Bucket.MONTH, startOfThisMonth.minusMonths(1), today))
+                .thenReturn(List.of(
+                        activityBucket(startOfThisMonth.minusMonths(1), 10, 1),
+                        activityBucket(startOfThisMonth, 15, 2)));
+        when(dailyActivityRollupService.findBuckets(agent, Bucket.DAY, today.minusDays(29), today))
+                .thenReturn(List.of(activityBucket(today, 4, 1)));
+
+        ActivityTrendsDto trends = analyticsService.generateAnalytics(agent.getId()).getActivityTrends();
+
+        assertThat(trends.getCallNotesThisMonth()).isEqualTo(15);
+        assertThat(trends.getCallNotesLastMonth()).isEqualTo(10);
+        assertThat(trends.getCallNotesGrowthPercent()).isEqualTo(50);
+        assertThat(trends.getDealsClosedThisMonth()).isEqualTo(2);
+        assertThat(trends.getLast30DaysActivity()).hasSize(30);
+        assertThat(trends.getLast30DaysActivity().get(29).getCallNotes()).isEqualTo(4);
+        assertThat(trends.getLast30DaysActivity().get(0).getCallNotes()).isZero();
+    }
+
+    @Test
+    void generateAnalytics_NeverLoadsPropertyOrCallNoteEntities() {
+        Client client = client("Anna");
+        when(callNoteRepository.findLatestContactsByOutcomeBefore(
+                eq(agent), eq(CallOutcome.INTERESTED), any(LocalDateTime.class)))
+                .thenReturn(List.of(contact(client, LocalDateTime.now().minusDays(10), null)));
+        when(propertyRepository.findPortfolioGroupsByAgent(agent)).thenReturn(List.of(
+                portfolioGroup(PropertyStatus.AVAILABLE, PropertyType.HOUSE, 1, "500000", "15000")));
+
+        analyticsService.generateAnalytics(agent.getId());
+
+        // Every repository method a dashboard section calls must return aggregates or projections
+        List<String> entityQueries = Stream.of(clientRepository, propertyRepository, callNoteRepository,
+                        clientPropertyMatchRepository, dailyActivityRollupService)
+                .flatMap(mock -> mockingDetails(mock).getInvocations().stream())
+                .map(invocation -> invocation.getMethod())
+                .filter(method -> returnsEntity(method.getGenericReturnType()))
+                .map(Method::getName)
+                .toList();
+        assertThat(entityQueries).isEmpty();
+    }
+
+    @Test
+    void generateAnalytics_RecordsATimerPerSection() {
+        analyticsService.generateAnalytics(agent.getId());
+
+        assertThat(meterRegistry.find(DashboardAnalyticsService.SECTION_TIMER).timers())
+                .extracting(timer -> timer.getId().getTag("section"))
+                .containsExactlyInAnyOrder("agent", "latest_outcomes", "conversion_funnel", "pipeline_health",
+                        "property_portfolio", "activity_trends", "revenue", "new_matches", "clients_needing_attention");
+        assertThat(meterRegistry.find(DashboardAnalyticsService.SECTION_TIMER).timers())
+                .extracting(Timer::count)
+                .containsOnly(1L);
+    }
+
+    @Test
+    void generateAnalytics_ComputesSectionsOnTheExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DashboardAnalyticsService concurrentService = new DashboardAnalyticsService(agentRepository,
+                    clientRepository, propertyRepository, callNoteRepository, clientPropertyMatchRepository,
+                    dailyActivityRollupService, transactionManager, executor, meterRegistry);
+            when(clientRepository.countByAgent(agent)).thenAnswer(invocation -> {
+                assertThat(Thread.currentThread().getName()).startsWith("pool-");
+                return 3L;
+            });
+
+            DashboardAnalyticsDto analytics = concurrentService.generateAnalytics(agent.getId());
+
+            assertThat(analytics.getConversionFunnel().getTotalClients()).isEqualTo(3);
+            assertThat(analytics.getPipelineHealth().getClientsWithoutRecentContact()).isEqualTo(3);
+            assertThat(analytics.getSuggestedActions()).isNotNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void generateAnalytics_ComputesOnlyRequestedSections() {
+        DashboardAnalyticsDto analytics = analyticsService.generateAnalytics(agent.getId(),
+                EnumSet.of(DashboardAnalyticsService.Section.SUGGESTED_ACTIONS));
+
+        // Suggested actions need pipeline health and the portfolio, which are computed but not returned
+        assertThat(analytics.getSuggestedActions()).isNotNull();
+        assertThat(analytics.getPipelineHealth()).isNull();
+        assertThat(analytics.getPropertyPortfolio()).isNull();
+        assertThat(analytics.getConversionFunnel()).isNull();
+        assertThat(analytics.getActivityTrends()).isNull();
+        assertThat(meterRegistry.find(DashboardAnalyticsService.SECTION_TIMER).timers())
+                .extracting(timer -> timer.getId().getTag("section"))
+                .containsExactlyInAnyOrder("agent", "latest_outcomes", "pipeline_health", "property_portfolio");
+        verifyNoInteractions(clientPropertyMatchRepository, dailyActivityRollupService);
+    }
+
+    @Test
+    void generateAnalytics_UnknownAgentFailsWithoutWrapping() {
+        UUID unknownAgentId = UUID.randomUUID();
+        when(agentRepository.findById(unknownAgentId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> analyticsService.generateAnalytics(unknownAgentId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(unknownAgentId.toString());
+        verifyNoInteractions(clientRepository, propertyRepository, clientPropertyMatchRepository);
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private int repositoryCallsFor(int clientCount) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> lastContacts = new ArrayList<>();
+        List<ClientContact> staleInterested = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            Client client = client("Kunde " + i);
+            LocalDateTime lastContact = now.minusDays((i * 7L) % 60);
+            lastContacts.add(new Object[]{client.getId(), lastContact});
+            if (lastContact.isBefore(now.minusDays(7))) {
+                staleInterested.add(contact(client, lastContact, null));
+            }
+        }
+        when(clientRepository.countByAgent(agent)).thenReturn((long) clientCount);
+        when(callNoteRepository.findLastContactDateByClientForAgent(agent)).thenReturn(lastContacts);
+        when(callNoteRepository.findLatestContactsByOutcomeBefore(
+                eq(agent), eq(CallOutcome.INTERESTED), any(LocalDateTime.class)))
+                .thenReturn(staleInterested);
+
+        DashboardAnalyticsDto analytics = analyticsService.generateAnalytics(agent.getId());
+        assertThat(analytics.getPipelineHealth().getClientsWithoutRecentContact()).isPositive();
+
+        return Stream.of(agentRepository, clientRepository, propertyRepository, callNoteRepository,
+                        clientPropertyMatchRepository)
+                .mapToInt(mock -> mockingDetails(mock).getInvocations().size())
+                .sum();
+    }
+
+    private Client client(String firstName) {
+        Client client = Client.builder()
+                .agent(agent)
+                .firstName(firstName)
+                .lastName("Beispiel")
+                .build();
+        client.setId(UUID.randomUUID());
+        return client;
+    }
+
+    private static ClientContact contact(Client client, LocalDateTime callDate, LocalDate followUpDate) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("clientId", client.getId());
+        row.put("firstName", client.getFirstName());
+        row.put("lastName", client.getLastName());
+        row.put("callDate", callDate);
+        row.put("followUpDate", followUpDate);
+        return PROJECTIONS.createProjection(ClientContact.class, row);
+    }
+
+    private static ActivityBucket activityBucket(LocalDate start, long callNotes, long dealsClosed) {
+        Map<String, Object> values = new HashMap<>();
+        for (String counter : List.of("interestedCalls", "notInterestedCalls", "scheduledViewingCalls",
+                "offerMadeCalls", "newClients", "newProperties")) {
+            values.put(counter, 0L);
+        }
+        values.put("bucketStart", start);
+        values.put("callNotes", callNotes);
+        values.put("dealClosedCalls", dealsClosed);
+        return PROJECTIONS.createProjection(ActivityBucket.class, values);
+    }
+
+    private static CallNoteRepository.OutcomeCount outcomeCount(CallOutcome outcome, long clients) {
+        return PROJECTIONS.createProjection(CallNoteRepository.OutcomeCount.class,
+                Map.of("outcome", outcome, "clients", clients));
+    }
+
+    private static PropertyRepository.PortfolioGroup portfolioGroup(PropertyStatus status, PropertyType type,
+                                                                    long total, String totalPrice,
+                                                                    String totalCommission) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("status", status);
+        row.put("propertyType", type);
+        row.put("total", total);
+        row.put("totalPrice", totalPrice != null ? new BigDecimal(totalPrice) : null);
+        row.put("totalCommission", totalCommission != null ? new BigDecimal(totalCommission) : null);
+        return PROJECTIONS.createProjection(PropertyRepository.PortfolioGroup.class, row);
+    }
+
+    /**
+     * Whether a return type is, or contains as a type argument, a Property or CallNote entity.
+     */
+    private static boolean returnsEntity(Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            return returnsEntity(parameterized.getRawType())
+                    || Arrays.stream(parameterized.getActualTypeArguments()).anyMatch(
+                            DashboardAnalyticsServiceTest::returnsEntity);
+        }
+        return type == Property.class || type == CallNote.class;
+    }
+}
@@ -0,0 +1,230 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.DashboardAnalyticsDto;
+import com.marklerapp.crm.dto.DashboardDeltaDto;
+import com.marklerapp.crm.dto.DashboardDeltaDto.Subject;
+import com.marklerapp.crm.event.CallNoteChangedEvent;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.PropertyChangedEvent;
+import com.marklerapp.crm.event.ViewingChangedEvent;
+import com.marklerapp.crm.service.DashboardAnalyticsService.Section;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardLiveService: snapshot on subscribe, coalesced deltas with only the
+ * affected sections, and dropping of dead streams. Flushes run on the calling thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardLiveServiceTest {
+
+    @Mock
+    private DashboardAnalyticsService dashboardAnalyticsService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    private DashboardLiveService liveService;
+
+    private UUID agentId;
+
+    @BeforeEach
+    void setUp() {
+        liveService = new DashboardLiveService(dashboardAnalyticsService, taskScheduler, Runnable::run, 60_000, 500) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        agentId = UUID.randomUUID();
+    }
+
+    @Test
+    void subscribe_SendsTheFullSnapshotFirst() {
+        DashboardAnalyticsDto snapshot = DashboardAnalyticsDto.builder().suggestedActions(List.of()).build();
+        when(dashboardAnalyticsService.generateAnalytics(agentId)).thenReturn(snapshot);
+
+        liveService.subscribe(agentId);
+
+        assertThat(emitters.get(0).sent).containsExactly(snapshot);
+        assertThat(liveService.subscriberCount(agentId)).isEqualTo(1);
+    }
+
+    @Test
+    void changeEvents_WithoutSubscriberAreDropped() {
+        liveService.onCallNoteChanged(new CallNoteChangedEvent(agentId, UUID.randomUUID(), ChangeType.CREATED));
+
+        verifyNoInteractions(taskScheduler, dashboardAnalyticsService);
+    }
+
+    @Test
+    void changeEvents_AreCoalescedIntoOneDeltaWithTheAffectedSections() {
+        liveService.subscribe(agentId);
+        UUID callNoteId = UUID.randomUUID();
+        UUID propertyId = UUID.randomUUID();
+        DashboardAnalyticsDto sections = DashboardAnalyticsDto.builder().build();
+        when(dashboardAnalyticsService.generateAnalytics(eq(agentId), anySet())).thenReturn(sections);
+
+        liveService.onCallNoteChanged(new CallNoteChangedEvent(agentId, callNoteId, ChangeType.CREATED));
+        liveService.onPropertyChanged(new PropertyChangedEvent(agentId, propertyId, ChangeType.UPDATED, false));
+        liveService.onViewingChanged(new ViewingChangedEvent(agentId, UUID.randomUUID(), ChangeType.DELETED));
+
+        // One flush for the whole burst
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(flush.capture(), any(Instant.class));
+        flush.getValue().run();
+
+        verify(dashboardAnalyticsService).generateAnalytics(agentId, EnumSet.of(Section.CONVERSION_FUNNEL,
+                Section.PIPELINE_HEALTH, Section.CLIENTS_NEEDING_ATTENTION, Section.PROPERTY_PORTFOLIO,
+                Section.REVENUE, Section.NEW_MATCHES, Section.SUGGESTED_ACTIONS));
+        DashboardDeltaDto delta = (DashboardDeltaDto) emitters.get(0).sent.get(1);
+        assertThat(delta.getChangeCount()).isEqualTo(3);
+        assertThat(delta.getChanges()).extracting(DashboardDeltaDto.ChangeDto::getSubject)
+                .containsExactly(Subject.CALL_NOTE, Subject.PROPERTY, Subject.VIEWING);
+        assertThat(delta.getChanges().get(0).getEntityId()).isEqualTo(callNoteId);
+        assertThat(delta.getSections()).isSameAs(sections);
+
+        // The next change opens a new delta
+        liveService.onCallNoteChanged(new CallNoteChangedEvent(agentId, callNoteId, ChangeType.DELETED));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void flush_RejectedByExecutor_IsRetriedAndTheStreamKeepsReceivingDeltas() {
+        int[] rejections = {1};
+        liveService = new DashboardLiveService(dashboardAnalyticsService, taskScheduler, task -> {
+            if (rejections[0]-- > 0) {
+                throw new TaskRejectedException("queue full");
+            }
+            task.run();
+        }, 60_000, 500) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        liveService.subscribe(agentId);
+        ArgumentCaptor<Runnable> handOff = ArgumentCaptor.forClass(Runnable.class);
+
+        liveService.onViewingChanged(new ViewingChangedEvent(agentId, UUID.randomUUID(), ChangeType.CREATED));
+        verify(taskScheduler).schedule(handOff.capture(), any(Instant.class));
+        handOff.getValue().run();
+
+        // Rejected: the delta stays pending, collects the next change and is handed off again
+        liveService.onViewingChanged(new ViewingChangedEvent(agentId, UUID.randomUUID(), ChangeType.UPDATED));
+        verify(taskScheduler, times(2)).schedule(handOff.capture(), any(Instant.class));
+        handOff.getValue().run();
+
+        DashboardDeltaDto delta = (DashboardDeltaDto) emitters.get(0).sent.get(1);
+        assertThat(delta.getChangeCount()).isEqualTo(2);
+
+        // The delta was closed, so the next change opens and flushes a new one
+        liveService.onViewingChanged(new ViewingChangedEvent(agentId, UUID.randomUUID(), ChangeType.DELETED));
+        verify(taskScheduler, times(3)).schedule(handOff.capture(), any(Instant.class));
+        handOff.getValue().run();
+        assertThat(emitters.get(0).sent).hasSize(3);
+    }
+
+    @Test
+    void flush_ViewingOnlyDeltaRecomputesNothing() {
+        liveService.subscribe(agentId);
+
+        liveService.onViewingChanged(new ViewingChangedEvent(agentId, UUID.randomUUID(), ChangeType.CREATED));
+        liveService.flush(agentId);
+
+        verify(dashboardAnalyticsService, never()).generateAnalytics(eq(agentId), anySet());
+        DashboardDeltaDto delta = (DashboardDeltaDto) emitters.get(0).sent.get(1);
+        assertThat(delta.getSections()).isNull();
+        assertThat(delta.getChangeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_ListsOnlyTheLatestChanges() {
+        liveService.subscribe(agentId);
+
+        for (int i = 0; i < DashboardLiveService.CHANGES_SHOWN + 10; i++) {
+            liveService.onViewingChanged(new ViewingChangedEvent(agentId, UUID.randomUUID(), ChangeType.UPDATED));
+        }
+        liveService.flush(agentId);
+
+        DashboardDeltaDto delta = (DashboardDeltaDto) emitters.get(0).sent.get(1);
+        assertThat(delta.getChanges()).hasSize(DashboardLiveService.CHANGES_SHOWN);
+        assertThat(delta.getChangeCount()).isEqualTo(DashboardLiveService.CHANGES_SHOWN + 10);
+    }
+
+    @Test
+    void heartbeat_DropsStreamsThatFailToSend() {
+        liveService.subscribe(agentId);
+        liveService.subscribe(agentId);
+        emitters.get(0).failing = true;
+
+        liveService.heartbeat();
+
+        assertThat(liveService.subscriberCount(agentId)).isEqualTo(1);
+        assertThat(emitters.get(1).sent).hasSize(2);
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    /**
+     * Records the data of every event sent instead of writing it to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Object> sent = new ArrayList<>();
+        private boolean failing;
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            Set<DataWithMediaType> parts = builder.build();
+            boolean hasData = false;
+            for (DataWithMediaType part : parts) {
+                if (MediaType.APPLICATION_JSON.equals(part.getMediaType())) {
+                    sent.add(part.getData());
+                    hasData = true;
+                }
+            }
+            if (!hasData) {
+                // Comment-only events such as the heartbeat
+                sent.add(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.marklerapp.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link GeoGrid}: radius queries must return exactly the rows a plain
+ * haversine scan would, including around cell edges, the antimeridian and the poles.
+ */
+class GeoGridTest {
+
+    private static final double BERLIN_LAT = 52.5200;
+    private static final double BERLIN_LNG = 13.4050;
+
+    @Test
+    void rowsWithin_MatchesHaversineScanAcrossGermany() {
+        Random random = new Random(42);
+        int size = 20_000;
+        double[] latitude = new double[size];
+        double[] longitude = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitude[i] = 47.3 + random.nextDouble() * 7.7;
+            longitude[i] = 5.9 + random.nextDouble() * 9.1;
+        }
+        GeoGrid grid = GeoGrid.build(latitude, longitude, size);
+
+        for (int query = 0; query < 200; query++) {
+            double pinLatitude = 47.3 + random.nextDouble() * 7.7;
+            double pinLongitude = 5.9 + random.nextDouble() * 9.1;
+            int radiusKm = 1 + random.nextInt(200);
+            assertThat(sorted(grid.rowsWithin(pinLatitude, pinLongitude, radiusKm)))
+                .as("pin %s,%s radius %d", pinLatitude, pinLongitude, radiusKm)
+                .isEqualTo(bruteForce(latitude, longitude, pinLatitude, pinLongitude, radiusKm));
+        }
+    }
+
+    @Test
+    void rowsWithin_MatchesHaversineScanAtAntimeridianAndPoles() {
+        Random random = new Random(7);
+        int size = 5_000;
+        double[] latitude = new double[size];
+        double[] longitude = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitude[i] = random.nextBoolean() ? -90 + random.nextDouble() * 180 : 86 + random.nextDouble() * 4;
+            longitude[i] = random.nextBoolean() ? -180 + random.nextDouble() * 360 : 178 + random.nextDouble() * 2;
+        }
+        GeoGrid grid = GeoGrid.build(latitude, longitude, size);
+
+        double[][] pins = {{0, 179.9}, {10, -179.95}, {89.5, 0}, {-89.9, 45}, {75, 179}};
+        for (double[] pin : pins) {
+            assertThat(sorted(grid.rowsWithin(pin[0], pin[1], 200)))
+                .as("pin %s,%s", pin[0], pin[1])
+                .isEqualTo(bruteForce(latitude, longitude, pin[0], pin[1], 200));
+        }
+    }
+
+    @Test
+    void build_KeepsUngeocodedRowsAsideAndOutOfRadiusResults() {
+        double[] latitude = {BERLIN_LAT, Double.NaN, 48.1351};
+        double[] longitude = {BERLIN_LNG, Double.NaN, 11.5820};
+        GeoGrid grid = GeoGrid.build(latitude, longitude, 3);
+
+        assertThat(grid.ungeocodedRows()).containsExactly(1);
+        assertThat(grid.rowsWithin(BERLIN_LAT, BERLIN_LNG, 10)).containsExactly(0);
+    }
+
+    @Test
+    void withinRadius_AgreesWithHaversineNearTheEdge() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            double lat = -70 + random.nextDouble() * 140;
+            double lng = -180 + random.nextDouble() * 360;
+            double otherLat = Math.max(-90, Math.min(90, lat + (random.nextDouble() - 0.5) * 4));
+            double otherLng = lng + (random.nextDouble() - 0.5) * 6;
+            double distance = GeoGrid.distanceKm(lat, lng, otherLat, otherLng);
+            // Radii straddling the true distance exercise the undecided band of the pre-check
+            double radius = Math.max(1, distance * (0.98 + random.nextDouble() * 0.04));
+            assertThat(GeoGrid.withinRadius(lat, lng, otherLat, otherLng, radius))
+                .as("%s,%s -> %s,%s r=%s", lat, lng, otherLat, otherLng, radius)
+                .isEqualTo(distance <= radius);
+        }
+    }
+
+    private static int[] bruteForce(double[] latitude, double[] longitude,
+                                    double pinLatitude, double pinLongitude, double radiusKm) {
+        return IntStream.range(0, latitude.length)
+            .filter(row -> GeoGrid.distanceKm(pinLatitude, pinLongitude, latitude[row], longitude[row]) <= radiusKm)
+            .toArray();
+    }
+
+    private static int[] sorted(int[] rows) {
+        int[] copy = rows.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
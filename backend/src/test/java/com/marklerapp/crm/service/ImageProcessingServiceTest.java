@@ -0,0 +1,138 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
+import com.marklerapp.crm.entity.PropertyImage;
+import com.marklerapp.crm.repository.PropertyImageRepository;
+import com.marklerapp.crm.util.ImageReadUtil;
+import com.marklerapp.crm.util.ImageReadUtil.ImageSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ImageProcessingService: a claimed image gets its thumbnail in a real
+ * LocalBlobStore and its variants in a real ImageVariantCache and becomes READY, unreadable
+ * images become FAILED, and images another worker has already claimed are left alone.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImageProcessingServiceTest {
+
+    @Mock
+    private PropertyImageRepository propertyImageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path blobRoot;
+
+    @TempDir
+    Path variantRoot;
+
+    private LocalBlobStore blobStore;
+    private ImageVariantCache variantCache;
+    private ImageProcessingService processingService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(blobRoot);
+        variantCache = new ImageVariantCache(variantRoot, 10_000_000L);
+        ImageVariantService variantService = new ImageVariantService(blobStore, variantCache, new FileStorageProperties(),
+                Runnable::run);
+        processingService = new ImageProcessingService(propertyImageRepository, blobStore, variantService,
+                Optional.empty(), new TransactionTemplate(transactionManager), Runnable::run);
+    }
+
+    @Test
+    void process_ClaimedImage_StoresThumbnailAndVariantsAndBecomesReady() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        String key = blobStore.put(png(1200, 800)).key();
+        PropertyImage image = pendingImage(imageId, key);
+        image.setWidth(1200);
+        image.setHeight(800);
+        when(propertyImageRepository.transitionProcessingStatus(
+                imageId, ImageProcessingStatus.PENDING, ImageProcessingStatus.PROCESSING)).thenReturn(1);
+        when(propertyImageRepository.findById(imageId)).thenReturn(Optional.of(image));
+
+        processingService.process(imageId);
+
+        assertThat(image.getProcessingStatus()).isEqualTo(ImageProcessingStatus.READY);
+        assertThat(image.getProcessingError()).isNull();
+        assertThat(image.getThumbnailBlobKey()).isNotNull();
+        ImageSize thumbnail = ImageReadUtil.readSize(blobStore.resource(image.getThumbnailBlobKey()));
+        assertThat(thumbnail.width()).isEqualTo(200);
+        assertThat(thumbnail.height()).isEqualTo(133);
+        // Variants narrower than the original; 1600 would be an upscale
+        assertThat(variantCache.get(ImageVariantService.cacheKey(key, 320))).isNotNull();
+        assertThat(variantCache.get(ImageVariantService.cacheKey(key, 640))).isNotNull();
+        assertThat(variantCache.get(ImageVariantService.cacheKey(key, 1024))).isNotNull();
+        assertThat(variantCache.get(ImageVariantService.cacheKey(key, 1600))).isNull();
+    }
+
+    @Test
+    void process_UnreadableImage_BecomesFailedWithError() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        String key = blobStore.put("not an image".getBytes(StandardCharsets.UTF_8)).key();
+        PropertyImage image = pendingImage(imageId, key);
+        when(propertyImageRepository.transitionProcessingStatus(
+                imageId, ImageProcessingStatus.PENDING, ImageProcessingStatus.PROCESSING)).thenReturn(1);
+        when(propertyImageRepository.findById(imageId)).thenReturn(Optional.of(image));
+
+        processingService.process(imageId);
+
+        assertThat(image.getProcessingStatus()).isEqualTo(ImageProcessingStatus.FAILED);
+        assertThat(image.getProcessingError()).contains("image/png");
+        assertThat(image.getThumbnailBlobKey()).isNull();
+    }
+
+    @Test
+    void process_AlreadyClaimed_DoesNothing() {
+        UUID imageId = UUID.randomUUID();
+        when(propertyImageRepository.transitionProcessingStatus(
+                imageId, ImageProcessingStatus.PENDING, ImageProcessingStatus.PROCESSING)).thenReturn(0);
+
+        processingService.process(imageId);
+
+        verify(propertyImageRepository, never()).findById(any());
+    }
+
+    @Test
+    void toThumbnailFilename_InsertsSuffixBeforeExtension() {
+        assertThat(ImageProcessingService.toThumbnailFilename("a.jpg")).isEqualTo("a_thumb.jpg");
+        assertThat(ImageProcessingService.toThumbnailFilename("noext")).isEqualTo("noext_thumb");
+    }
+
+    private static PropertyImage pendingImage(UUID id, String blobKey) {
+        PropertyImage image = PropertyImage.builder()
+                .filename("photo.png")
+                .contentType("image/png")
+                .imageBlobKey(blobKey)
+                .processingStatus(ImageProcessingStatus.PENDING)
+                .build();
+        image.setId(id);
+        return image;
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
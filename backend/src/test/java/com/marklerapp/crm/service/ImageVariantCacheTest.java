@@ -0,0 +1,84 @@
+package com.marklerapp.crm.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ImageVariantCache: least recently used eviction by size, and the index
+ * rebuilt from disk on startup.
+ */
+class ImageVariantCacheTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void put_BeyondMaxSize_EvictsLeastRecentlyUsed() throws Exception {
+        ImageVariantCache cache = new ImageVariantCache(root, 250);
+        cache.put("a", new byte[100]);
+        cache.put("b", new byte[100]);
+        cache.get("a");
+
+        cache.put("c", new byte[100]);
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(Files.exists(root.resolve("b"))).isFalse();
+        assertThat(cache.size()).isEqualTo(200);
+    }
+
+    @Test
+    void put_SameKey_ReplacesEntryWithoutCountingTwice() throws Exception {
+        ImageVariantCache cache = new ImageVariantCache(root, 1000);
+        cache.put("a", new byte[100]);
+
+        Resource replaced = cache.put("a", new byte[40]);
+
+        assertThat(replaced.contentLength()).isEqualTo(40);
+        assertThat(cache.size()).isEqualTo(40);
+    }
+
+    @Test
+    void open_ExistingDirectory_LoadsEntriesOldestFirstAndDropsTempFiles() throws Exception {
+        Files.write(root.resolve("old"), new byte[100]);
+        Files.setLastModifiedTime(root.resolve("old"), FileTime.from(Instant.now().minusSeconds(3600)));
+        Files.write(root.resolve("new"), new byte[100]);
+        Files.createDirectories(root.resolve("tmp"));
+        Files.write(root.resolve("tmp").resolve("variant-1.part"), new byte[10]);
+
+        ImageVariantCache cache = new ImageVariantCache(root, 150);
+
+        assertThat(cache.get("old")).isNull();
+        assertThat(cache.get("new")).isNotNull();
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(root.resolve("tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    void get_FileRemovedBehindTheCache_IsAMiss() throws Exception {
+        ImageVariantCache cache = new ImageVariantCache(root, 1000);
+        cache.put("a", new byte[100]);
+        Files.delete(root.resolve("a"));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_KeyWithPathSeparator_IsRejected() {
+        ImageVariantCache cache = new ImageVariantCache(root, 1000);
+
+        assertThatThrownBy(() -> cache.put("../escape", new byte[1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
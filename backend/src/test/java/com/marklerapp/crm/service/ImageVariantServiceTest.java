@@ -0,0 +1,162 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.config.FileStorageProperties;
+import com.marklerapp.crm.entity.ImageProcessingStatus;
+import com.marklerapp.crm.service.ImageVariantService.Variant;
+import com.marklerapp.crm.util.ImageReadUtil;
+import com.marklerapp.crm.util.ImageReadUtil.ImageSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ImageVariantService against a real LocalBlobStore and ImageVariantCache:
+ * width snapping, rendering and caching of variants, one render per variant however many
+ * requests wait for it, and no upscaling.
+ */
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path blobRoot;
+
+    @TempDir
+    Path variantRoot;
+
+    private LocalBlobStore blobStore;
+    private ImageVariantCache variantCache;
+    private ImageVariantService variantService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(blobRoot);
+        variantCache = new ImageVariantCache(variantRoot, 10_000_000L);
+        variantService = new ImageVariantService(blobStore, variantCache, new FileStorageProperties(), Runnable::run);
+    }
+
+    @Test
+    void snapWidth_RoundsUpToConfiguredWidth() {
+        assertThat(variantService.snapWidth(1)).isEqualTo(320);
+        assertThat(variantService.snapWidth(320)).isEqualTo(320);
+        assertThat(variantService.snapWidth(500)).isEqualTo(640);
+        assertThat(variantService.snapWidth(5000)).isEqualTo(1600);
+    }
+
+    @Test
+    void variant_NotCached_RendersScaledJpegAndCachesIt() throws Exception {
+        String key = blobStore.put(png(2000, 1000)).key();
+
+        Variant variant = variantService.variant(key, 2000, 1000, 600);
+
+        assertThat(variant.width()).isEqualTo(640);
+        assertThat(variant.key()).isEqualTo(key + "-w640");
+        ImageSize size = ImageReadUtil.readSize(variant.content());
+        assertThat(size).isEqualTo(new ImageSize(640, 320));
+        assertThat(variantCache.get(variant.key())).isNotNull();
+        assertThat(variantService.variant(key, 2000, 1000, 640).content().getFile())
+            .isEqualTo(variant.content().getFile());
+    }
+
+    @Test
+    void variant_OriginalNotWider_ReturnsNull() throws Exception {
+        String key = blobStore.put(png(600, 400)).key();
+
+        assertThat(variantService.variant(key, 600, 400, 600)).isNull();
+    }
+
+    @Test
+    void prewarm_RendersEachMissingWidthBelowOriginalOnce() throws Exception {
+        String key = blobStore.put(png(1100, 1400)).key();
+
+        assertThat(variantService.prewarm(key, 1100, 1400)).isEqualTo(3);
+        assertThat(variantService.prewarm(key, 1100, 1400)).isZero();
+        assertThat(ImageReadUtil.readSize(variantCache.get(key + "-w1024")))
+            .isEqualTo(new ImageSize(1024, 1303));
+    }
+
+    @Test
+    void variant_ConcurrentRequestsForTheSameVariant_RenderOnce() throws Exception {
+        String key = blobStore.put(png(2000, 1000)).key();
+        List<Runnable> submitted = new CopyOnWriteArrayList<>();
+        ImageVariantService queued = new ImageVariantService(blobStore, variantCache, new FileStorageProperties(), submitted::add);
+        List<Variant> results = new CopyOnWriteArrayList<>();
+        Runnable request = () -> {
+            try {
+                results.add(queued.variant(key, 2000, 1000, 640));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        Thread first = new Thread(request);
+        Thread second = new Thread(request);
+
+        first.start();
+        awaitWaiting(first);
+        second.start();
+        awaitWaiting(second);
+        assertThat(submitted).hasSize(1);
+        submitted.get(0).run();
+        first.join(5_000);
+        second.join(5_000);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).content().getFile()).isEqualTo(results.get(1).content().getFile());
+    }
+
+    @Test
+    void variant_ExecutorSaturated_ServesTheOriginal() throws Exception {
+        String key = blobStore.put(png(2000, 1000)).key();
+        ImageVariantService saturated = new ImageVariantService(blobStore, variantCache, new FileStorageProperties(),
+            task -> {
+                throw new RejectedExecutionException("queue full");
+            });
+
+        assertThat(saturated.variant(key, 2000, 1000, 640)).isNull();
+        assertThat(variantCache.get(key + "-w640")).isNull();
+    }
+
+    @Test
+    void previewWidth_OnlyForWiderImagesThatAreReadyOrCached() throws Exception {
+        assertThat(variantService.previewWidth("key", 1200, ImageProcessingStatus.READY)).isEqualTo(640);
+        assertThat(variantService.previewWidth("key", 640, ImageProcessingStatus.READY)).isNull();
+        assertThat(variantService.previewWidth("key", null, ImageProcessingStatus.READY)).isNull();
+        assertThat(variantService.previewWidth(null, 1200, ImageProcessingStatus.READY)).isNull();
+
+        String key = blobStore.put(png(1200, 800)).key();
+        assertThat(variantService.previewWidth(key, 1200, ImageProcessingStatus.PENDING)).isNull();
+        variantService.prewarm(key, 1200, 800);
+        assertThat(variantService.previewWidth(key, 1200, ImageProcessingStatus.PENDING)).isEqualTo(640);
+    }
+
+    @Test
+    void scaleToWidth_KeepsAspectRatio() {
+        BufferedImage scaled = ImageVariantService.scaleToWidth(
+            new BufferedImage(3000, 2000, BufferedImage.TYPE_INT_ARGB), 320);
+
+        assertThat(scaled.getWidth()).isEqualTo(320);
+        assertThat(scaled.getHeight()).isEqualTo(213);
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.marklerapp.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link InvalidationStamps}: per-key staleness, and pruning that stays
+ * conservative for computations older than the dropped stamps.
+ */
+class InvalidationStampsTest {
+
+    @Test
+    void isStale_OnlyForKeysInvalidatedAfterTheStamp() {
+        InvalidationStamps<String> stamps = new InvalidationStamps<>(new AtomicLong(), 10);
+        long before = stamps.current();
+
+        stamps.invalidate("a");
+
+        assertThat(stamps.isStale("a", before)).isTrue();
+        assertThat(stamps.isStale("b", before)).isFalse();
+        assertThat(stamps.isStale("a", stamps.current())).isFalse();
+    }
+
+    @Test
+    void invalidate_BeyondTwiceRetained_DropsOldStampsButKeepsOldComputationsStale() {
+        InvalidationStamps<Integer> stamps = new InvalidationStamps<>(new AtomicLong(), 2);
+        long beforeAll = stamps.current();
+        for (int key = 0; key < 4; key++) {
+            stamps.invalidate(key);
+        }
+        long afterFour = stamps.current();
+
+        stamps.invalidate(4);
+
+        assertThat(stamps.size()).isEqualTo(2);
+        // Key 0's stamp is gone, but a value computed before its invalidation is still rejected
+        assertThat(stamps.isStale(0, beforeAll)).isTrue();
+        assertThat(stamps.isStale(4, afterFour)).isTrue();
+        assertThat(stamps.isStale(0, stamps.current())).isFalse();
+    }
+
+    @Test
+    void sharedClock_OneStampCoversBothKeySpaces() {
+        AtomicLong clock = new AtomicLong();
+        InvalidationStamps<String> clients = new InvalidationStamps<>(clock, 10);
+        InvalidationStamps<String> properties = new InvalidationStamps<>(clock, 10);
+        long stamp = clients.current();
+
+        properties.invalidate("p");
+
+        assertThat(properties.isStale("p", stamp)).isTrue();
+        assertThat(clients.current()).isEqualTo(properties.current());
+    }
+}
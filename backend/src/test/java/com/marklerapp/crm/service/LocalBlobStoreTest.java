@@ -0,0 +1,134 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.service.BlobStore.StoredBlob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for LocalBlobStore: content addressing, deduplication, sharding and the
+ * age checks the orphan sweep relies on.
+ */
+class LocalBlobStoreTest {
+
+    private static final byte[] CONTENT = "floor plan, 3 rooms".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(root);
+    }
+
+    @Test
+    void put_StoresContentUnderItsShardedSha256() throws Exception {
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(CONTENT));
+
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT));
+        assertThat(blob.key()).isEqualTo(sha256);
+        assertThat(blob.size()).isEqualTo(CONTENT.length);
+        assertThat(root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256))
+                .hasBinaryContent(CONTENT);
+        try (InputStream in = blobStore.open(blob.key())) {
+            assertThat(in.readAllBytes()).isEqualTo(CONTENT);
+        }
+        assertThat(blobStore.toDataUrl(blob.key(), "text/plain")).startsWith("data:text/plain;base64,");
+    }
+
+    @Test
+    void put_DeduplicatesIdenticalContentAndLeavesNoTempFiles() throws Exception {
+        StoredBlob first = blobStore.put(CONTENT);
+        StoredBlob second = blobStore.put(new ByteArrayInputStream(CONTENT));
+
+        assertThat(second.key()).isEqualTo(first.key());
+        assertThat(keys(Long.MAX_VALUE)).containsExactly(first.key());
+        try (Stream<Path> tmp = Files.list(root.resolve("tmp"))) {
+            assertThat(tmp).isEmpty();
+        }
+    }
+
+    @Test
+    void open_RejectsMissingAndMalformedKeys() {
+        assertThatThrownBy(() -> blobStore.open("0".repeat(64)))
+                .isInstanceOf(FileNotFoundException.class);
+        assertThatThrownBy(() -> blobStore.open("../../etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(blobStore.exists("f".repeat(64))).isFalse();
+    }
+
+    @Test
+    void resource_HasTheBlobLengthAndFailsForMissingBlobs() throws Exception {
+        String key = blobStore.put(CONTENT).key();
+
+        Resource resource = blobStore.resource(key);
+
+        assertThat(resource.contentLength()).isEqualTo(CONTENT.length);
+        try (InputStream in = resource.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(CONTENT);
+        }
+        assertThatThrownBy(() -> blobStore.resource("0".repeat(64)))
+                .isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    void deleteIfOlderThan_KeepsBlobsStoredAgainSinceTheCutoff() throws Exception {
+        String key = blobStore.put(CONTENT).key();
+        Path file = blobStore.pathOf(key);
+        long cutoff = System.currentTimeMillis() - 60_000;
+        Files.setLastModifiedTime(file, FileTime.fromMillis(cutoff - 60_000));
+        assertThat(keys(cutoff)).containsExactly(key);
+
+        // Uploading the same content again refreshes the blob
+        blobStore.put(CONTENT);
+
+        assertThat(keys(cutoff)).isEmpty();
+        assertThat(blobStore.deleteIfOlderThan(key, cutoff)).isFalse();
+        assertThat(blobStore.exists(key)).isTrue();
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(cutoff - 60_000));
+        assertThat(blobStore.deleteIfOlderThan(key, cutoff)).isTrue();
+        assertThat(blobStore.exists(key)).isFalse();
+    }
+
+    @Test
+    void purgeIncompleteWrites_RemovesOnlyOldTempFiles() throws Exception {
+        Path old = Files.writeString(root.resolve("tmp").resolve("old.part"), "partial");
+        Path recent = Files.writeString(root.resolve("tmp").resolve("recent.part"), "partial");
+        long cutoff = System.currentTimeMillis() - 60_000;
+        Files.setLastModifiedTime(old, FileTime.fromMillis(cutoff - 1));
+
+        assertThat(blobStore.purgeIncompleteWrites(cutoff)).isEqualTo(1);
+        assertThat(old).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private List<String> keys(long olderThanMillis) throws IOException {
+        try (Stream<String> keys = blobStore.keysOlderThan(olderThanMillis)) {
+            return keys.toList();
+        }
+    }
+}
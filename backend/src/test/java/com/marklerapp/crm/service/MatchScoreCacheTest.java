@@ -0,0 +1,139 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.dto.PropertyMatchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link MatchScoreCache}: size-bounded LRU over client rows, precise row and
+ * column invalidation, and rejection of puts that raced an invalidation.
+ */
+class MatchScoreCacheTest {
+
+    private static final int FLAGS = 1;
+
+    private MatchScoreCache cache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MatchScoreCache(4);
+        meterRegistry = new SimpleMeterRegistry();
+        cache.bindTo(meterRegistry);
+    }
+
+    @Test
+    void cachedScore_RoundTripsComponentsAndReasons() {
+        PropertyMatchResponse.MatchScoreBreakdown breakdown = breakdown(100, 84, 0, 50, 100);
+
+        MatchScoreCache.CachedScore cached = MatchScoreCache.CachedScore.of(FLAGS, breakdown)
+            .withReasons(List.of("Property is in preferred city: Berlin"), List.of());
+
+        assertThat(cached.breakdown()).isEqualTo(breakdown);
+        assertThat(cached.breakdown()).isNotSameAs(cached.breakdown());
+        assertThat(cached.hasReasons()).isTrue();
+        assertThat(cached.matchReasons()).containsExactly("Property is in preferred city: Berlin");
+    }
+
+    @Test
+    void get_MissesUnderDifferentFlags() {
+        UUID propertyId = UUID.randomUUID();
+        MatchScoreCache.ClientRow row = cache.row(UUID.randomUUID());
+        row.put(propertyId, cache.stamp(), MatchScoreCache.CachedScore.of(FLAGS, breakdown(100, 100, 100, 100, 100)));
+
+        assertThat(row.get(propertyId, FLAGS)).isNotNull();
+        assertThat(row.get(propertyId, 0)).isNull();
+        assertThat(counter("cache.gets", "hit")).isEqualTo(1);
+        assertThat(counter("cache.gets", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedClientBeyondMaxEntries() {
+        UUID reopenedClient = UUID.randomUUID();
+        UUID idleClient = UUID.randomUUID();
+        MatchScoreCache.ClientRow reopened = fill(reopenedClient, 2);
+        MatchScoreCache.ClientRow idle = fill(idleClient, 2);
+        cache.row(reopenedClient);
+
+        fill(UUID.randomUUID(), 1);
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(counter("cache.evictions", null)).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(3);
+        assertThat(cache.row(reopenedClient)).isSameAs(reopened);
+        assertThat(cache.row(idleClient)).isNotSameAs(idle);
+    }
+
+    @Test
+    void invalidateProperty_DropsOnlyThatColumn() {
+        UUID propertyId = UUID.randomUUID();
+        UUID otherPropertyId = UUID.randomUUID();
+        MatchScoreCache.ClientRow first = cache.row(UUID.randomUUID());
+        MatchScoreCache.ClientRow second = cache.row(UUID.randomUUID());
+        for (MatchScoreCache.ClientRow row : List.of(first, second)) {
+            row.put(propertyId, cache.stamp(), MatchScoreCache.CachedScore.of(FLAGS, breakdown(90, 90, 90, 90, 90)));
+            row.put(otherPropertyId, cache.stamp(), MatchScoreCache.CachedScore.of(FLAGS, breakdown(90, 90, 90, 90, 90)));
+        }
+
+        cache.invalidateProperty(propertyId);
+
+        assertThat(first.get(propertyId, FLAGS)).isNull();
+        assertThat(second.get(propertyId, FLAGS)).isNull();
+        assertThat(first.get(otherPropertyId, FLAGS)).isNotNull();
+        assertThat(counter("cache.invalidations", null)).isEqualTo(2);
+    }
+
+    @Test
+    void put_IgnoresScoresReadBeforeAnInvalidation() {
+        UUID clientId = UUID.randomUUID();
+        UUID propertyId = UUID.randomUUID();
+        long stampBeforeSave = cache.stamp();
+
+        // The request read the old criteria, then the save committed before it wrote back
+        cache.invalidateClient(clientId);
+        cache.row(clientId).put(propertyId, stampBeforeSave,
+            MatchScoreCache.CachedScore.of(FLAGS, breakdown(100, 100, 100, 100, 100)));
+        assertThat(cache.row(clientId).get(propertyId, FLAGS)).isNull();
+
+        cache.row(clientId).put(propertyId, cache.stamp(),
+            MatchScoreCache.CachedScore.of(FLAGS, breakdown(100, 100, 100, 100, 100)));
+        assertThat(cache.row(clientId).get(propertyId, FLAGS)).isNotNull();
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveSize() {
+        assertThatThrownBy(() -> new MatchScoreCache(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MatchScoreCache.ClientRow fill(UUID clientId, int cells) {
+        MatchScoreCache.ClientRow row = cache.row(clientId);
+        for (int i = 0; i < cells; i++) {
+            row.put(UUID.randomUUID(), cache.stamp(), MatchScoreCache.CachedScore.of(FLAGS, breakdown(80, 80, 80, 80, 80)));
+        }
+        return row;
+    }
+
+    private double counter(String name, String result) {
+        var search = meterRegistry.get(name).tag("cache", MatchScoreCache.CACHE_NAME);
+        return (result != null ? search.tag("result", result) : search).functionCounter().count();
+    }
+
+    private static PropertyMatchResponse.MatchScoreBreakdown breakdown(int price, int location, int area,
+                                                                      int rooms, int features) {
+        return PropertyMatchResponse.MatchScoreBreakdown.builder()
+            .priceScore(price)
+            .locationScore(location)
+            .areaScore(area)
+            .roomScore(rooms)
+            .featureScore(features)
+            .build();
+    }
+}
@@ -0,0 +1,330 @@
+package com.marklerapp.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.marklerapp.crm.service.MatchScoringKernel.hundredths;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parity tests for {@link MatchScoringKernel} against the BigDecimal scoring it replaced.
+ *
+ * <p>The reference methods below are the former PropertyMatchingService implementations,
+ * kept verbatim apart from their signatures. Every input is compared on both the score and
+ * the generated reasons, over hand-picked boundary values (exactly at the budget, the 10%
+ * flexibility edge, the 20% curve break, the 15% area tolerance, fractional rooms) plus a
+ * seeded random sweep at the two-decimal scale the columns are stored at.</p>
+ */
+class MatchScoringKernelTest {
+
+    private static final BigDecimal BUDGET_FLEXIBILITY_MULTIPLIER = new BigDecimal("1.10");
+    private static final BigDecimal AREA_TOLERANCE_PERCENTAGE = new BigDecimal("0.15");
+
+    private static final int RANDOM_CASES = 20_000;
+
+    // ========================================
+    // Price / rent ranges
+    // ========================================
+
+    @Test
+    void scoreValueAgainstRange_MatchesBigDecimalAtBoundaries() {
+        String[] values = {"100000.00", "299999.99", "300000.00", "300000.01", "330000.00", "330000.01",
+                "359999.99", "360000.00", "360000.01", "362999.99", "450000.00", "900000.00", "150000.00",
+                "0.01", "1234.56"};
+        String[][] ranges = {{"200000.00", "300000.00"}, {null, "300000.00"}, {"200000.00", null}, {null, null},
+                {"1000.00", "1200.00"}};
+
+        for (String value : values) {
+            for (String[] range : ranges) {
+                for (boolean flexibility : new boolean[]{true, false}) {
+                    assertRangeParity(decimal(value), decimal(range[0]), decimal(range[1]), flexibility);
+                }
+            }
+        }
+    }
+
+    @Test
+    void scoreValueAgainstRange_MatchesBigDecimalOnRandomInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            BigDecimal max = randomMoney(random, 100_00, 2_000_000_00);
+            BigDecimal min = random.nextInt(3) == 0 ? null : max.multiply(new BigDecimal("0.5")).setScale(2, RoundingMode.DOWN);
+            BigDecimal value = max.multiply(BigDecimal.valueOf(random.nextDouble() * 2)).setScale(2, RoundingMode.HALF_UP);
+            assertRangeParity(value, min, random.nextInt(5) == 0 ? null : max, random.nextBoolean());
+        }
+    }
+
+    // ========================================
+    // Area
+    // ========================================
+
+    @Test
+    void areaScore_MatchesBigDecimalAtBoundaries() {
+        String[] areas = {"59.99", "60.00", "80.00", "100.00", "100.01", "115.00", "115.01", "130.00", "250.00",
+                "20.00", "45.50"};
+        Integer[][] ranges = {{60, 100}, {null, 100}, {60, null}, {null, null}, {0, 33}};
+
+        for (String area : areas) {
+            for (Integer[] range : ranges) {
+                assertAreaParity(decimal(area), range[0], range[1]);
+            }
+        }
+        assertAreaParity(null, 60, 100);
+    }
+
+    @Test
+    void areaScore_MatchesBigDecimalOnRandomInputs() {
+        Random random = new Random(7);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            BigDecimal area = randomMoney(random, 10_00, 500_00);
+            Integer min = random.nextInt(3) == 0 ? null : 20 + random.nextInt(100);
+            Integer max = random.nextInt(3) == 0 ? null : (min != null ? min : 20) + random.nextInt(150);
+            assertAreaParity(area, min, max);
+        }
+    }
+
+    // ========================================
+    // Rooms
+    // ========================================
+
+    @Test
+    void roomScore_MatchesBigDecimalForFractionalRooms() {
+        Integer[][] ranges = {{3, 4}, {null, 4}, {3, null}, {null, null}};
+        for (int halfRooms = 1; halfRooms <= 30; halfRooms++) {
+            BigDecimal rooms = BigDecimal.valueOf(halfRooms).divide(BigDecimal.valueOf(2)).setScale(2);
+            for (Integer[] range : ranges) {
+                assertRoomParity(rooms, range[0], range[1]);
+            }
+        }
+        assertRoomParity(new BigDecimal("5.25"), 2, 3);
+        assertRoomParity(null, 2, 3);
+    }
+
+    // ========================================
+    // Assertions
+    // ========================================
+
+    private void assertRangeParity(BigDecimal value, BigDecimal min, BigDecimal max, boolean flexibility) {
+        List<String> expectedMatch = new ArrayList<>();
+        List<String> expectedMismatch = new ArrayList<>();
+        int expected = referenceRange(value, min, max, flexibility, "Purchase price", expectedMatch, expectedMismatch);
+
+        List<String> actualMatch = new ArrayList<>();
+        List<String> actualMismatch = new ArrayList<>();
+        int actual = MatchScoringKernel.scoreValueAgainstRange(hundredths(value), hundredths(min), hundredths(max),
+                flexibility, "Purchase price", actualMatch, actualMismatch);
+
+        String input = "value=" + value + " min=" + min + " max=" + max + " flex=" + flexibility;
+        assertThat(actual).as(input).isEqualTo(expected);
+        assertThat(actualMatch).as(input).isEqualTo(expectedMatch);
+        assertThat(actualMismatch).as(input).isEqualTo(expectedMismatch);
+    }
+
+    private void assertAreaParity(BigDecimal area, Integer min, Integer max) {
+        List<String> expectedMatch = new ArrayList<>();
+        List<String> expectedMismatch = new ArrayList<>();
+        int expected = referenceArea(area, min, max, expectedMatch, expectedMismatch);
+
+        List<String> actualMatch = new ArrayList<>();
+        List<String> actualMismatch = new ArrayList<>();
+        int actual = MatchScoringKernel.areaScore(hundredths(area), hundredths(min), hundredths(max),
+                actualMatch, actualMismatch);
+
+        String input = "area=" + area + " min=" + min + " max=" + max;
+        assertThat(actual).as(input).isEqualTo(expected);
+        assertThat(actualMatch).as(input).isEqualTo(expectedMatch);
+        assertThat(actualMismatch).as(input).isEqualTo(expectedMismatch);
+    }
+
+    private void assertRoomParity(BigDecimal rooms, Integer min, Integer max) {
+        List<String> expectedMatch = new ArrayList<>();
+        List<String> expectedMismatch = new ArrayList<>();
+        int expected = referenceRooms(rooms, min, max, expectedMatch, expectedMismatch);
+
+        List<String> actualMatch = new ArrayList<>();
+        List<String> actualMismatch = new ArrayList<>();
+        int actual = MatchScoringKernel.roomScore(hundredths(rooms), hundredths(min), hundredths(max),
+                actualMatch, actualMismatch);
+
+        String input = "rooms=" + rooms + " min=" + min + " max=" + max;
+        assertThat(actual).as(input).isEqualTo(expected);
+        assertThat(actualMatch).as(input).isEqualTo(expectedMatch);
+        assertThat(actualMismatch).as(input).isEqualTo(expectedMismatch);
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value != null ? new BigDecimal(value) : null;
+    }
+
+    private static BigDecimal randomMoney(Random random, int minCents, int maxCents) {
+        return BigDecimal.valueOf(minCents + random.nextInt(maxCents - minCents), 2);
+    }
+
+    // ========================================
+    // BigDecimal reference implementation
+    // ========================================
+
+    private static int referenceRange(BigDecimal value, BigDecimal min, BigDecimal max,
+                                      boolean allowFlexibility, String label,
+                                      List<String> matchReasons, List<String> mismatchReasons) {
+        if (min == null && max == null) {
+            matchReasons.add("No " + label.toLowerCase() + " constraints specified");
+            return 100;
+        }
+
+        BigDecimal effectiveMax = max;
+        if (allowFlexibility && max != null) {
+            effectiveMax = max.multiply(BUDGET_FLEXIBILITY_MULTIPLIER);
+        }
+
+        boolean withinMin = min == null || value.compareTo(min) >= 0;
+        boolean withinMax = max == null || value.compareTo(max) <= 0;
+
+        if (withinMin && withinMax) {
+            matchReasons.add(String.format("%s €%,d is within budget range", label, value.intValue()));
+            return 100;
+        }
+
+        boolean withinFlexibleMax = effectiveMax == null || value.compareTo(effectiveMax) <= 0;
+        if (withinMin && withinFlexibleMax) {
+            matchReasons.add(String.format("%s €%,d is slightly over budget but within 10%% tolerance", label, value.intValue()));
+            return 85;
+        }
+
+        if (max != null && value.compareTo(max) > 0) {
+            BigDecimal percentOver = value.subtract(max)
+                    .divide(max, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+
+            if (percentOver.compareTo(BigDecimal.valueOf(20)) <= 0) {
+                mismatchReasons.add(String.format("%s €%,d is %.1f%% over budget",
+                        label, value.intValue(), percentOver.doubleValue()));
+                return Math.max(50, 100 - percentOver.intValue());
+            } else {
+                mismatchReasons.add(String.format("%s €%,d significantly exceeds budget (%.1f%% over)",
+                        label, value.intValue(), percentOver.doubleValue()));
+                return Math.max(0, 50 - (percentOver.intValue() - 20));
+            }
+        }
+
+        if (min != null && value.compareTo(min) < 0) {
+            mismatchReasons.add(String.format("%s €%,d is below minimum budget", label, value.intValue()));
+            return 30;
+        }
+
+        return 50;
+    }
+
+    private static int referenceArea(BigDecimal area, Integer minArea, Integer maxArea,
+                                     List<String> matchReasons, List<String> mismatchReasons) {
+        if (area == null) {
+            matchReasons.add("Living area not specified for this property");
+            return 50;
+        }
+
+        if (minArea == null && maxArea == null) {
+            matchReasons.add("No area constraints specified");
+            return 100;
+        }
+
+        BigDecimal minAreaDecimal = minArea != null ? BigDecimal.valueOf(minArea) : null;
+        BigDecimal maxAreaDecimal = maxArea != null ? BigDecimal.valueOf(maxArea) : null;
+
+        boolean withinMin = minAreaDecimal == null || area.compareTo(minAreaDecimal) >= 0;
+        boolean withinMax = maxAreaDecimal == null || area.compareTo(maxAreaDecimal) <= 0;
+
+        if (withinMin && withinMax) {
+            matchReasons.add(String.format("Living area %.0f m² is within desired range", area.doubleValue()));
+            return 100;
+        }
+
+        if (maxAreaDecimal != null && area.compareTo(maxAreaDecimal) > 0) {
+            BigDecimal tolerance = maxAreaDecimal.multiply(AREA_TOLERANCE_PERCENTAGE);
+            BigDecimal maxWithTolerance = maxAreaDecimal.add(tolerance);
+
+            if (area.compareTo(maxWithTolerance) <= 0) {
+                matchReasons.add(String.format("Living area %.0f m² is slightly larger than preferred (within 15%% tolerance)",
+                        area.doubleValue()));
+                return 85;
+            }
+
+            BigDecimal percentOver = area.subtract(maxAreaDecimal)
+                    .divide(maxAreaDecimal, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+            mismatchReasons.add(String.format("Living area %.0f m² is %.1f%% larger than preferred maximum",
+                    area.doubleValue(), percentOver.doubleValue()));
+            return Math.max(0, 100 - percentOver.intValue());
+        }
+
+        if (minAreaDecimal != null && area.compareTo(minAreaDecimal) < 0) {
+            BigDecimal percentUnder = minAreaDecimal.subtract(area)
+                    .divide(minAreaDecimal, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+            mismatchReasons.add(String.format("Living area %.0f m² is %.1f%% smaller than preferred minimum",
+                    area.doubleValue(), percentUnder.doubleValue()));
+            return Math.max(0, 100 - percentUnder.intValue());
+        }
+
+        return 50;
+    }
+
+    private static int referenceRooms(BigDecimal rooms, Integer minRooms, Integer maxRooms,
+                                      List<String> matchReasons, List<String> mismatchReasons) {
+        if (rooms == null) {
+            matchReasons.add("Room count not specified for this property");
+            return 50;
+        }
+
+        if (minRooms == null && maxRooms == null) {
+            matchReasons.add("No room count constraints specified");
+            return 100;
+        }
+
+        BigDecimal minRoomsDecimal = minRooms != null ? BigDecimal.valueOf(minRooms) : null;
+        BigDecimal maxRoomsDecimal = maxRooms != null ? BigDecimal.valueOf(maxRooms) : null;
+
+        boolean withinMin = minRoomsDecimal == null || rooms.compareTo(minRoomsDecimal) >= 0;
+        boolean withinMax = maxRoomsDecimal == null || rooms.compareTo(maxRoomsDecimal) <= 0;
+
+        if (withinMin && withinMax) {
+            matchReasons.add(String.format("%.1f rooms is within desired range", rooms.doubleValue()));
+            return 100;
+        }
+
+        BigDecimal difference;
+        if (maxRoomsDecimal != null && rooms.compareTo(maxRoomsDecimal) > 0) {
+            difference = rooms.subtract(maxRoomsDecimal);
+            if (difference.compareTo(BigDecimal.ONE) <= 0) {
+                matchReasons.add(String.format("%.1f rooms is 1 room more than preferred", rooms.doubleValue()));
+                return 75;
+            } else if (difference.compareTo(BigDecimal.valueOf(2)) <= 0) {
+                mismatchReasons.add(String.format("%.1f rooms is 2 rooms more than preferred", rooms.doubleValue()));
+                return 50;
+            } else {
+                mismatchReasons.add(String.format("%.1f rooms is significantly more than preferred", rooms.doubleValue()));
+                return Math.max(0, 50 - (difference.intValue() - 2) * 10);
+            }
+        }
+
+        if (minRoomsDecimal != null && rooms.compareTo(minRoomsDecimal) < 0) {
+            difference = minRoomsDecimal.subtract(rooms);
+            if (difference.compareTo(BigDecimal.ONE) <= 0) {
+                matchReasons.add(String.format("%.1f rooms is 1 room less than preferred", rooms.doubleValue()));
+                return 75;
+            } else if (difference.compareTo(BigDecimal.valueOf(2)) <= 0) {
+                mismatchReasons.add(String.format("%.1f rooms is 2 rooms less than preferred", rooms.doubleValue()));
+                return 50;
+            } else {
+                mismatchReasons.add(String.format("%.1f rooms is significantly less than preferred", rooms.doubleValue()));
+                return Math.max(0, 50 - (difference.intValue() - 2) * 10);
+            }
+        }
+
+        return 50;
+    }
+}
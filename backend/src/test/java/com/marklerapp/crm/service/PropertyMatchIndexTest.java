@@ -0,0 +1,147 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.ListingType;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.entity.PropertyType;
+import com.marklerapp.crm.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link PropertyMatchIndex}: lazy loading per agent and the
+ * copy-on-write row maintenance driven by PropertyService. None of these run inside
+ * a transaction, so updates are applied immediately.
+ */
+@ExtendWith(MockitoExtension.class)
+class PropertyMatchIndexTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private PropertyMatchIndex index;
+
+    private Agent agent;
+
+    @BeforeEach
+    void setUp() {
+        index = new PropertyMatchIndex(propertyRepository);
+        agent = Agent.builder().firstName("Max").lastName("Makler").email("max@example.com").build();
+        agent.setId(UUID.randomUUID());
+    }
+
+    private Property property(String city, String price) {
+        Property property = Property.builder()
+            .agent(agent)
+            .title("Testobjekt " + city)
+            .propertyType(PropertyType.APARTMENT)
+            .listingType(ListingType.RENT)
+            .status(PropertyStatus.AVAILABLE)
+            .addressStreet("Teststraße")
+            .addressCity(city)
+            .addressPostalCode("10115")
+            .price(new BigDecimal(price))
+            .additionalCosts(new BigDecimal("180.50"))
+            .heatingCosts(new BigDecimal("70.25"))
+            .build();
+        property.setId(UUID.randomUUID());
+        return property;
+    }
+
+    @Test
+    void portfolioFor_LoadsOncePerAgentAndCapturesColumns() {
+        Property flat = property("Berlin", "1200.00");
+        when(propertyRepository.findByAgentId(agent.getId(), null)).thenReturn(new PageImpl<>(List.of(flat)));
+
+        PropertyMatchIndex.Portfolio portfolio = index.portfolioFor(agent.getId());
+        index.portfolioFor(agent.getId());
+
+        verify(propertyRepository, times(1)).findByAgentId(agent.getId(), null);
+        assertThat(portfolio.size()).isEqualTo(1);
+        assertThat(portfolio.price(0)).isEqualTo(120_000L);
+        assertThat(portfolio.warmRent(0)).isEqualTo(145_075L);
+        assertThat(portfolio.area(0)).isEqualTo(MatchScoringKernel.NONE);
+        assertThat(portfolio.isGeocoded(0)).isFalse();
+        assertThat(portfolio.listingType(0)).isEqualTo(ListingType.RENT);
+        assertThat(portfolio.city(0)).isEqualTo("Berlin");
+    }
+
+    @Test
+    void upsert_ReplacesExistingRowAndAppendsNewOnes() {
+        Property flat = property("Berlin", "1200.00");
+        when(propertyRepository.findByAgentId(agent.getId(), null)).thenReturn(new PageImpl<>(List.of(flat)));
+        PropertyMatchIndex.Portfolio before = index.portfolioFor(agent.getId());
+
+        flat.setStatus(PropertyStatus.RENTED);
+        index.upsert(flat);
+        Property added = property("Potsdam", "900.00");
+        index.upsert(added);
+
+        PropertyMatchIndex.Portfolio after = index.portfolioFor(agent.getId());
+        assertThat(after.size()).isEqualTo(2);
+        assertThat(after.status(after.rowOf(flat.getId()))).isEqualTo(PropertyStatus.RENTED);
+        assertThat(after.city(after.rowOf(added.getId()))).isEqualTo("Potsdam");
+        // Earlier snapshots are never mutated, so in-flight matches keep a consistent view
+        assertThat(before.size()).isEqualTo(1);
+        assertThat(before.status(0)).isEqualTo(PropertyStatus.AVAILABLE);
+    }
+
+    @Test
+    void remove_MovesLastRowIntoTheGap() {
+        Property first = property("Berlin", "1200.00");
+        Property second = property("Potsdam", "900.00");
+        Property third = property("Leipzig", "700.00");
+        when(propertyRepository.findByAgentId(agent.getId(), null))
+            .thenReturn(new PageImpl<>(List.of(first, second, third)));
+        index.portfolioFor(agent.getId());
+
+        index.remove(agent.getId(), first.getId());
+
+        PropertyMatchIndex.Portfolio after = index.portfolioFor(agent.getId());
+        assertThat(after.size()).isEqualTo(2);
+        assertThat(after.rowOf(first.getId())).isEqualTo(-1);
+        assertThat(after.city(after.rowOf(third.getId()))).isEqualTo("Leipzig");
+        assertThat(after.city(after.rowOf(second.getId()))).isEqualTo("Potsdam");
+    }
+
+    @Test
+    void upsert_BeforeFirstLoad_IsLeftToTheLazyLoad() {
+        Property flat = property("Berlin", "1200.00");
+        index.upsert(flat);
+
+        when(propertyRepository.findByAgentId(agent.getId(), null)).thenReturn(new PageImpl<>(List.of(flat)));
+        assertThat(index.portfolioFor(agent.getId()).size()).isEqualTo(1);
+    }
+
+    @Test
+    void portfolioFor_PatchCommittedDuringLoad_DoesNotKeepStaleSnapshot() {
+        Property flat = property("Berlin", "1200.00");
+        Property added = property("Potsdam", "900.00");
+        // The first load read its rows before "added" committed; the patch finds no portfolio yet
+        when(propertyRepository.findByAgentId(agent.getId(), null))
+            .thenAnswer(invocation -> {
+                index.upsert(added);
+                return new PageImpl<>(List.of(flat));
+            })
+            .thenReturn(new PageImpl<>(List.of(flat, added)));
+
+        assertThat(index.portfolioFor(agent.getId()).size()).isEqualTo(1);
+
+        assertThat(index.portfolioFor(agent.getId()).rowOf(added.getId())).isNotEqualTo(-1);
+        verify(propertyRepository, times(2)).findByAgentId(agent.getId(), null);
+    }
+}
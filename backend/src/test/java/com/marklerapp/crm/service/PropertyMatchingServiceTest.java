@@ -2,6 +2,7 @@ package com.marklerapp.crm.service;
 
 import com.marklerapp.crm.dto.ClientDto;
 import com.marklerapp.crm.dto.PropertyDto;
+import com.marklerapp.crm.dto.PropertyMatchBatchResponse;
 import com.marklerapp.crm.dto.PropertyMatchRequest;
 import com.marklerapp.crm.dto.PropertyMatchResponse;
 import com.marklerapp.crm.dto.PropertySearchCriteriaDto;
@@ -12,11 +13,14 @@ import com.marklerapp.crm.entity.Property;
 import com.marklerapp.crm.entity.PropertySearchCriteria;
 import com.marklerapp.crm.entity.PropertyStatus;
 import com.marklerapp.crm.entity.PropertyType;
+import com.marklerapp.crm.entity.Viewing;
 import com.marklerapp.crm.mapper.ClientMapper;
 import com.marklerapp.crm.mapper.PropertyMapper;
 import com.marklerapp.crm.repository.ClientRepository;
 import com.marklerapp.crm.repository.PropertyRepository;
 import com.marklerapp.crm.repository.ViewingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,12 +30,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -72,6 +82,9 @@ class PropertyMatchingServiceTest {
     private PropertyService propertyService;
 
     private PropertyMatchingService matchingService;
+    private MatchScoreCache matchScoreCache;
+    private SimpleMeterRegistry meterRegistry;
+    private ForkJoinPool matchingPool;
 
     private UUID agentId;
     private UUID clientId;
@@ -80,9 +93,16 @@ class PropertyMatchingServiceTest {
 
     @BeforeEach
     void setUp() {
+        matchScoreCache = new MatchScoreCache(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        matchScoreCache.bindTo(meterRegistry);
+        matchingPool = new ForkJoinPool(2);
         matchingService = new PropertyMatchingService(
             propertyRepository, clientRepository, viewingRepository,
-            propertyMapper, clientMapper, clientService, propertyService
+            propertyMapper, clientMapper, clientService, propertyService,
+            new PropertyMatchIndex(propertyRepository),
+            matchScoreCache,
+            matchingPool
         );
 
         agentId = UUID.randomUUID();
@@ -99,6 +119,11 @@ class PropertyMatchingServiceTest {
         lenient().when(clientMapper.toDto(any(Client.class))).thenAnswer(inv -> ClientDto.builder().build());
     }
 
+    @AfterEach
+    void tearDown() {
+        matchingPool.shutdown();
+    }
+
     private Property propertyIn(String city, BigDecimal lat, BigDecimal lng) {
         // Price/area/rooms are set so those score components land on their "no
         // constraints specified" branch (100) rather than "not specified on property"
@@ -122,6 +147,15 @@ class PropertyMatchingServiceTest {
         return property;
     }
 
+    /**
+     * Matching reads the agent's portfolio through the index and then hydrates only the
+     * returned properties by ID, so both repository calls need to see the same fixtures.
+     */
+    private void givenPortfolio(Property... properties) {
+        when(propertyRepository.findByAgentId(agentId, null)).thenReturn(new PageImpl<>(List.of(properties)));
+        lenient().when(propertyRepository.findByIdIn(any())).thenReturn(List.of(properties));
+    }
+
     private PropertySearchCriteriaDto radiusCriteria(BigDecimal lat, BigDecimal lng, int radiusKm,
                                                        boolean restrictToSearchRadius) {
         return PropertySearchCriteriaDto.builder()
@@ -150,8 +184,7 @@ class PropertyMatchingServiceTest {
         PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
 
         when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
-        when(propertyRepository.findByAgentId(agentId, null))
-            .thenReturn(new PageImpl<>(List.of(nearby)));
+        givenPortfolio(nearby);
 
         PropertyMatchResponse response = matchingService.matchPropertiesForClient(
             clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).build());
@@ -166,8 +199,7 @@ class PropertyMatchingServiceTest {
         PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
 
         when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
-        when(propertyRepository.findByAgentId(agentId, null))
-            .thenReturn(new PageImpl<>(List.of(farAway)));
+        givenPortfolio(farAway);
 
         PropertyMatchResponse response = matchingService.matchPropertiesForClient(
             clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).build());
@@ -183,8 +215,7 @@ class PropertyMatchingServiceTest {
         PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, false);
 
         when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
-        when(propertyRepository.findByAgentId(agentId, null))
-            .thenReturn(new PageImpl<>(List.of(farAway)));
+        givenPortfolio(farAway);
 
         PropertyMatchResponse response = matchingService.matchPropertiesForClient(
             clientId, agentId,
@@ -216,8 +247,7 @@ class PropertyMatchingServiceTest {
         PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
 
         when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
-        when(propertyRepository.findByAgentId(agentId, null))
-            .thenReturn(new PageImpl<>(List.of(ungeocoded)));
+        givenPortfolio(ungeocoded);
 
         PropertyMatchResponse response = matchingService.matchPropertiesForClient(
             clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).build());
@@ -233,8 +263,7 @@ class PropertyMatchingServiceTest {
         PropertySearchCriteriaDto criteria = PropertySearchCriteriaDto.builder().build();
 
         when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
-        when(propertyRepository.findByAgentId(agentId, null))
-            .thenReturn(new PageImpl<>(List.of(farAway)));
+        givenPortfolio(farAway);
 
         PropertyMatchResponse response = matchingService.matchPropertiesForClient(
             clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).build());
@@ -318,4 +347,302 @@ class PropertyMatchingServiceTest {
 
         assertThat(response.getClients()).hasSize(1);
     }
+
+    // ========================================
+    // Reasons — built only for returned matches, skippable per request
+    // ========================================
+
+    @Test
+    void matchPropertiesForClient_ReturnedMatchesCarryReasonsByDefault() {
+        Property nearby = propertyIn("Berlin", BERLIN_LAT, BERLIN_LNG);
+        PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
+
+        when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
+        givenPortfolio(nearby);
+
+        PropertyMatchResponse response = matchingService.matchPropertiesForClient(
+            clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).build());
+
+        assertThat(response.getProperties()).hasSize(1);
+        assertThat(response.getProperties().get(0).getMatchReasons())
+            .anyMatch(reason -> reason.contains("within 10 km radius"));
+        assertThat(response.getProperties().get(0).getMismatchReasons()).isEmpty();
+    }
+
+    @Test
+    void matchPropertiesForClient_IncludeReasonsDisabled_ReturnsScoresWithoutReasons() {
+        Property nearby = propertyIn("Berlin", BERLIN_LAT, BERLIN_LNG);
+        PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
+
+        when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
+        givenPortfolio(nearby);
+
+        PropertyMatchResponse response = matchingService.matchPropertiesForClient(
+            clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).includeReasons(false).build());
+
+        assertThat(response.getProperties()).hasSize(1);
+        assertThat(response.getProperties().get(0).getScoreBreakdown().getLocationScore()).isEqualTo(100);
+        assertThat(response.getProperties().get(0).getMatchReasons()).isNull();
+        assertThat(response.getProperties().get(0).getMismatchReasons()).isNull();
+    }
+
+    // ========================================
+    // Result limiting — top-k selection and totals
+    // ========================================
+
+    @Test
+    void matchPropertiesForClient_MaxResultsBelowMatchCount_ReportsTotalAboveThreshold() {
+        Property mitte = propertyIn("Berlin", BERLIN_LAT, BERLIN_LNG);
+        Property pankow = propertyIn("Berlin", new BigDecimal("52.5690"), new BigDecimal("13.4010"));
+        Property moabit = propertyIn("Berlin", new BigDecimal("52.5300"), new BigDecimal("13.3420"));
+        PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
+
+        when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
+        givenPortfolio(mitte, pankow, moabit);
+
+        PropertyMatchResponse response = matchingService.matchPropertiesForClient(
+            clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).maxResults(2).build());
+
+        assertThat(response.getTotalMatches()).isEqualTo(3);
+        assertThat(response.getReturnedMatches()).isEqualTo(2);
+        assertThat(response.getProperties()).hasSize(2);
+        assertThat(response.getProperties().get(0).getMatchScore())
+            .isGreaterThanOrEqualTo(response.getProperties().get(1).getMatchScore());
+    }
+
+    // ========================================
+    // Score cache — repeated page loads reuse (client, property) cells
+    // ========================================
+
+    @Test
+    void matchPropertiesForClient_RepeatedRequest_IsServedFromCacheWithSameResult() {
+        Property nearby = propertyIn("Berlin", BERLIN_LAT, BERLIN_LNG);
+        Property farther = propertyIn("Berlin", new BigDecimal("52.5690"), new BigDecimal("13.4010"));
+        PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
+
+        when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
+        givenPortfolio(nearby, farther);
+        PropertyMatchRequest request = PropertyMatchRequest.builder().clientId(clientId).build();
+
+        PropertyMatchResponse first = matchingService.matchPropertiesForClient(clientId, agentId, request);
+        PropertyMatchResponse second = matchingService.matchPropertiesForClient(clientId, agentId, request);
+
+        assertThat(cacheGets("miss")).isEqualTo(2);
+        assertThat(cacheGets("hit")).isEqualTo(2);
+        assertThat(second.getProperties())
+            .extracting(PropertyMatchResponse.PropertyMatchResult::getMatchScore,
+                PropertyMatchResponse.PropertyMatchResult::getScoreBreakdown,
+                PropertyMatchResponse.PropertyMatchResult::getMatchReasons)
+            .isEqualTo(first.getProperties().stream()
+                .map(result -> tuple(result.getMatchScore(), result.getScoreBreakdown(), result.getMatchReasons()))
+                .toList());
+    }
+
+    @Test
+    void matchPropertiesForClient_DifferentWeights_ShareCellsButRescoreOverall() {
+        Property nearby = propertyIn("Berlin", new BigDecimal("52.5690"), new BigDecimal("13.4010"));
+        PropertySearchCriteriaDto criteria = radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true);
+
+        when(clientService.getClientById(clientId, agentId)).thenReturn(clientWithCriteria(criteria));
+        givenPortfolio(nearby);
+
+        PropertyMatchResponse balanced = matchingService.matchPropertiesForClient(
+            clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).build());
+        PropertyMatchResponse locationOnly = matchingService.matchPropertiesForClient(
+            clientId, agentId, PropertyMatchRequest.builder().clientId(clientId).matchThreshold(0)
+                .priceWeight(0).areaWeight(0).roomWeight(0).featureWeight(0).locationWeight(100).build());
+
+        assertThat(cacheGets("hit")).isEqualTo(1);
+        assertThat(locationOnly.getProperties().get(0).getMatchScore())
+            .isEqualTo(locationOnly.getProperties().get(0).getScoreBreakdown().getLocationScore())
+            .isLessThan(balanced.getProperties().get(0).getMatchScore());
+    }
+
+    @Test
+    void matchPropertiesForClient_AfterCriteriaInvalidation_RescoresWithNewCriteria() {
+        Property munich = propertyIn("München", MUNICH_LAT, MUNICH_LNG);
+        when(clientService.getClientById(clientId, agentId))
+            .thenReturn(clientWithCriteria(radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, false)))
+            .thenReturn(clientWithCriteria(radiusCriteria(MUNICH_LAT, MUNICH_LNG, 10, false)));
+        givenPortfolio(munich);
+        PropertyMatchRequest request = PropertyMatchRequest.builder().clientId(clientId).matchThreshold(0).build();
+
+        PropertyMatchResponse before = matchingService.matchPropertiesForClient(clientId, agentId, request);
+        matchScoreCache.invalidateClient(clientId);
+        PropertyMatchResponse after = matchingService.matchPropertiesForClient(clientId, agentId, request);
+
+        assertThat(before.getProperties().get(0).getScoreBreakdown().getLocationScore()).isZero();
+        assertThat(after.getProperties().get(0).getScoreBreakdown().getLocationScore()).isEqualTo(100);
+        assertThat(cacheGets("hit")).isZero();
+    }
+
+    // ========================================
+    // matchAllClients — batch matrix over all clients
+    // ========================================
+
+    @Test
+    void matchAllClients_ReturnsEachOpenClientsTopMatchesFromOneLoad() {
+        Property berlin = propertyIn("Berlin", BERLIN_LAT, BERLIN_LNG);
+        Property munich = propertyIn("München", MUNICH_LAT, MUNICH_LNG);
+        givenPortfolio(berlin, munich);
+        Client berliner = buyerWithin(BERLIN_LAT, BERLIN_LNG);
+        Client muenchner = buyerWithin(MUNICH_LAT, MUNICH_LNG);
+        Client won = buyerWithin(BERLIN_LAT, BERLIN_LNG);
+        won.setPipelineStage(Client.PipelineStage.WON);
+        when(clientRepository.findByAgentWithSearchCriteria(any())).thenReturn(List.of(won, berliner, muenchner));
+        when(viewingRepository.findByAgent_Id(agentId)).thenReturn(List.of(Viewing.builder()
+            .agent(agent).client(berliner).property(berlin).viewingDate(LocalDateTime.of(2026, 3, 2, 10, 0))
+            .build()));
+        when(clientMapper.toDto(any(Client.class)))
+            .thenAnswer(inv -> ClientDto.builder().id(inv.<Client>getArgument(0).getId()).build());
+        when(propertyMapper.toDto(any(Property.class)))
+            .thenAnswer(inv -> PropertyDto.builder().id(inv.<Property>getArgument(0).getId()).build());
+
+        PropertyMatchBatchResponse response = matchingService.matchAllClients(agentId,
+            PropertyMatchRequest.builder().build());
+
+        assertThat(response.getEvaluatedClients()).isEqualTo(2);
+        assertThat(response.getEvaluatedProperties()).isEqualTo(2);
+        assertThat(response.getClients())
+            .extracting(matches -> matches.getClient().getId(),
+                matches -> matches.getProperties().get(0).getProperty().getId(),
+                PropertyMatchBatchResponse.ClientMatches::getTotalMatches)
+            .containsExactlyInAnyOrder(
+                tuple(berliner.getId(), berlin.getId(), 1),
+                tuple(muenchner.getId(), munich.getId(), 1));
+        assertThat(response.getClients())
+            .filteredOn(matches -> matches.getClient().getId().equals(berliner.getId()))
+            .singleElement()
+            .satisfies(matches -> assertThat(matches.getProperties().get(0).getPreviouslyContacted()).isTrue());
+        verify(propertyRepository).findByIdIn(any());
+        verify(viewingRepository, never()).findByClient_Id(any());
+    }
+
+    @Test
+    void matchAllClients_ManyClients_ScoresEveryChunkLikeSingleClientMatching() {
+        Property mitte = propertyIn("Berlin", BERLIN_LAT, BERLIN_LNG);
+        Property pankow = propertyIn("Berlin", new BigDecimal("52.5690"), new BigDecimal("13.4010"));
+        givenPortfolio(mitte, pankow);
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            clients.add(buyerWithin(BERLIN_LAT, BERLIN_LNG));
+        }
+        when(clientRepository.findByAgentWithSearchCriteria(any())).thenReturn(clients);
+        when(viewingRepository.findByAgent_Id(agentId)).thenReturn(List.of());
+        when(clientService.getClientById(clientId, agentId))
+            .thenReturn(clientWithCriteria(radiusCriteria(BERLIN_LAT, BERLIN_LNG, 10, true)));
+        PropertyMatchRequest request = PropertyMatchRequest.builder().maxResults(1).includeReasons(false).build();
+
+        PropertyMatchBatchResponse batch = matchingService.matchAllClients(agentId, request);
+        PropertyMatchResponse single = matchingService.matchPropertiesForClient(clientId, agentId, request);
+
+        assertThat(batch.getClients()).hasSize(300).allSatisfy(matches -> {
+            assertThat(matches.getTotalMatches()).isEqualTo(single.getTotalMatches());
+            assertThat(matches.getProperties()).singleElement()
+                .extracting(PropertyMatchResponse.PropertyMatchResult::getMatchScore)
+                .isEqualTo(single.getProperties().get(0).getMatchScore());
+        });
+    }
+
+    // ========================================
+    // Score cache — shared by both matching directions
+    // ========================================
+
+    @Test
+    void bothDirections_WarmRentClient_ScoreTheSameAndShareTheCachedCell() {
+        Property flat = Property.builder()
+            .agent(agent)
+            .title("Altbau mit Nebenkosten")
+            .propertyType(PropertyType.APARTMENT)
+            .listingType(ListingType.RENT)
+            .status(PropertyStatus.AVAILABLE)
+            .addressStreet("Teststraße")
+            .addressCity("Berlin")
+            .addressPostalCode("10115")
+            .price(new BigDecimal("1200.00"))
+            .additionalCosts(new BigDecimal("180.50"))
+            .heatingCosts(new BigDecimal("70.25"))
+            .livingAreaSqm(new BigDecimal("80"))
+            .rooms(new BigDecimal("3"))
+            .build();
+        flat.setId(propertyId);
+        givenPortfolio(flat);
+        PropertyDto flatDto = PropertyDto.builder()
+            .id(propertyId)
+            .listingType(ListingType.RENT)
+            .status(PropertyStatus.AVAILABLE)
+            .propertyType(PropertyType.APARTMENT)
+            .addressCity("Berlin")
+            .addressPostalCode("10115")
+            .price(flat.getPrice())
+            .additionalCosts(flat.getAdditionalCosts())
+            .heatingCosts(flat.getHeatingCosts())
+            .livingAreaSqm(flat.getLivingAreaSqm())
+            .rooms(flat.getRooms())
+            .build();
+        when(propertyService.getProperty(propertyId, agentId)).thenReturn(flatDto);
+
+        // Cold rent 1200 fits the budget, warm rent 1450.75 does not
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().maxWarmRent(new BigDecimal("1300")).build();
+        Client renter = Client.builder()
+            .agent(agent)
+            .firstName("Rita")
+            .lastName("Warm")
+            .clientType(Client.ClientType.RENTER)
+            .pipelineStage(Client.PipelineStage.ACTIVE_SEARCH)
+            .searchCriteria(criteria)
+            .build();
+        renter.setId(clientId);
+        criteria.setClient(renter);
+        when(clientRepository.findByAgentWithSearchCriteria(any())).thenReturn(List.of(renter));
+        when(clientService.getClientById(clientId, agentId)).thenReturn(ClientDto.builder()
+            .id(clientId)
+            .clientType(Client.ClientType.RENTER)
+            .searchCriteria(PropertySearchCriteriaDto.builder().maxWarmRent(new BigDecimal("1300")).build())
+            .build());
+        PropertyMatchRequest request = PropertyMatchRequest.builder().matchThreshold(0).build();
+
+        // Reference: the property direction scored on an empty cache
+        int expected = new PropertyMatchingService(
+                propertyRepository, clientRepository, viewingRepository,
+                propertyMapper, clientMapper, clientService, propertyService,
+                new PropertyMatchIndex(propertyRepository), new MatchScoreCache(1_000), matchingPool)
+            .matchPropertiesForClient(clientId, agentId, request)
+            .getProperties().get(0).getMatchScore();
+
+        // The client direction runs first and fills the cell the property direction then reads
+        int clientDirection = matchingService.matchClientsForProperty(propertyId, agentId, request)
+            .getClients().get(0).getMatchScore();
+        int propertyDirection = matchingService.matchPropertiesForClient(clientId, agentId, request)
+            .getProperties().get(0).getMatchScore();
+
+        assertThat(clientDirection).isEqualTo(expected);
+        assertThat(propertyDirection).isEqualTo(expected);
+        assertThat(cacheGets("hit")).isPositive();
+    }
+
+    private Client buyerWithin(BigDecimal lat, BigDecimal lng) {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+            .latitude(lat)
+            .longitude(lng)
+            .searchRadiusKm(10)
+            .restrictToSearchRadius(true)
+            .build();
+        Client client = Client.builder()
+            .agent(agent)
+            .firstName("Test")
+            .lastName("Kunde")
+            .clientType(Client.ClientType.BUYER)
+            .pipelineStage(Client.PipelineStage.ACTIVE_SEARCH)
+            .searchCriteria(criteria)
+            .build();
+        client.setId(UUID.randomUUID());
+        criteria.setClient(client);
+        return client;
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", MatchScoreCache.CACHE_NAME).tag("result", result)
+            .functionCounter().count();
+    }
 }
@@ -3,6 +3,8 @@ package com.marklerapp.crm.service;
 import com.marklerapp.crm.config.GlobalExceptionHandler.ResourceNotFoundException;
 import com.marklerapp.crm.dto.*;
 import com.marklerapp.crm.entity.*;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.PropertyChangedEvent;
 import com.marklerapp.crm.mapper.PropertyImageMapper;
 import com.marklerapp.crm.mapper.PropertyMapper;
 import com.marklerapp.crm.repository.AgentRepository;
@@ -14,6 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -37,6 +41,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class PropertyServiceTest {
 
+    private static final String EXPOSE_BLOB_KEY = "ab".repeat(32);
+
     @Mock
     private PropertyRepository propertyRepository;
 
@@ -55,6 +61,18 @@ class PropertyServiceTest {
     @Mock
     private GeocodingService geocodingService;
 
+    @Mock
+    private PropertyMatchIndex propertyMatchIndex;
+
+    @Mock
+    private MatchScoreCache matchScoreCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BlobStore blobStore;
+
     private OwnershipValidator ownershipValidator;
 
     private PropertyService propertyService;
@@ -84,7 +102,11 @@ class PropertyServiceTest {
             propertyMapper,
             propertyImageMapper,
             ownershipValidator,
-            geocodingService
+            geocodingService,
+            propertyMatchIndex,
+            matchScoreCache,
+            eventPublisher,
+            blobStore
         );
 
         testAgent = Agent.builder()
@@ -183,6 +205,8 @@ class PropertyServiceTest {
         verify(agentRepository).findById(agentId);
         verify(propertyRepository).save(any(Property.class));
         verify(propertyMapper).toDto(testProperty);
+        verify(eventPublisher).publishEvent(
+            new PropertyChangedEvent(agentId, propertyId, ChangeType.CREATED, true));
     }
 
     @Test
@@ -290,7 +314,9 @@ class PropertyServiceTest {
         assertThat(result).isNotNull();
         verify(propertyRepository).findById(propertyId);
         verify(propertyRepository).save(testProperty);
+        verify(propertyMatchIndex).upsert(testProperty);
         verify(propertyMapper).toDto(testProperty);
+        verify(eventPublisher).publishEvent(any(PropertyChangedEvent.class));
     }
 
     @Test
@@ -469,6 +495,7 @@ class PropertyServiceTest {
         verify(propertyRepository).findById(propertyId);
         verify(propertyImageRepository).deleteByProperty(testProperty);
         verify(propertyRepository).delete(testProperty);
+        verify(propertyMatchIndex).remove(agentId, propertyId);
     }
 
     @Test
@@ -860,7 +887,7 @@ class PropertyServiceTest {
     // ========================================
 
     @Test
-    void uploadExpose_WithValidPdf_ShouldUploadSuccessfully() {
+    void uploadExpose_WithValidPdf_ShouldUploadSuccessfully() throws Exception {
         // Given
         String base64Pdf = java.util.Base64.getEncoder().encodeToString("%PDF-1.4 test content".getBytes());
         PropertyExposeDto exposeDto = PropertyExposeDto.builder()
@@ -872,6 +899,7 @@ class PropertyServiceTest {
 
         when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
         when(propertyRepository.save(testProperty)).thenReturn(testProperty);
+        when(blobStore.putBase64(base64Pdf)).thenReturn(new BlobStore.StoredBlob(EXPOSE_BLOB_KEY, 21));
 
         // When
         PropertyExposeDto result = propertyService.uploadExpose(agentId, propertyId, exposeDto);
@@ -879,6 +907,8 @@ class PropertyServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getFileName()).isEqualTo("property-expose.pdf");
+        assertThat(testProperty.getExposeBlobKey()).isEqualTo(EXPOSE_BLOB_KEY);
+        assertThat(testProperty.getExposeFileData()).isNull();
         verify(propertyRepository).findById(propertyId);
         verify(propertyRepository).save(testProperty);
     }
@@ -993,6 +1023,61 @@ class PropertyServiceTest {
         verify(propertyRepository).findById(propertyId);
     }
 
+    @Test
+    void downloadExpose_FromBlobStore_ShouldReturnBase64() throws Exception {
+        // Given
+        testProperty.setExposeFileName("test-expose.pdf");
+        testProperty.setExposeBlobKey(EXPOSE_BLOB_KEY);
+
+        when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
+        when(blobStore.open(EXPOSE_BLOB_KEY)).thenReturn(new java.io.ByteArrayInputStream("%PDF".getBytes()));
+
+        // When
+        PropertyExposeDto result = propertyService.downloadExpose(agentId, propertyId);
+
+        // Then
+        assertThat(result.getFileData()).isEqualTo(java.util.Base64.getEncoder().encodeToString("%PDF".getBytes()));
+    }
+
+    // ========================================
+    // openExposeContent Tests
+    // ========================================
+
+    @Test
+    void openExposeContent_WithLegacyBase64Expose_ShouldMoveItIntoTheBlobStore() throws Exception {
+        // Given
+        testProperty.setExposeFileName("test-expose.pdf");
+        testProperty.setExposeFileData("JVBERg==");
+        ByteArrayResource content = new ByteArrayResource("%PDF".getBytes());
+
+        when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
+        when(blobStore.putBase64("JVBERg==")).thenReturn(new BlobStore.StoredBlob(EXPOSE_BLOB_KEY, 4));
+        when(blobStore.resource(EXPOSE_BLOB_KEY)).thenReturn(content);
+
+        // When
+        FileContentDto result = propertyService.openExposeContent(agentId, propertyId);
+
+        // Then
+        assertThat(result.getFileName()).isEqualTo("test-expose.pdf");
+        assertThat(result.getContentType()).isEqualTo("application/pdf");
+        assertThat(result.getBlobKey()).isEqualTo(EXPOSE_BLOB_KEY);
+        assertThat(result.getContent()).isSameAs(content);
+        assertThat(testProperty.getExposeBlobKey()).isEqualTo(EXPOSE_BLOB_KEY);
+        assertThat(testProperty.getExposeFileData()).isNull();
+    }
+
+    @Test
+    void openExposeContent_WithNoExpose_ShouldThrowException() {
+        // Given
+        when(propertyRepository.findById(propertyId)).thenReturn(Optional.of(testProperty));
+
+        // When & Then
+        assertThatThrownBy(() -> propertyService.openExposeContent(agentId, propertyId))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("No expose found");
+        verifyNoInteractions(blobStore);
+    }
+
     // ========================================
     // deleteExpose Tests
     // ========================================
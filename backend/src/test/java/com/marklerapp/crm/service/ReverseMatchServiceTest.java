@@ -0,0 +1,156 @@
+package com.marklerapp.crm.service;
+
+import com.marklerapp.crm.entity.Agent;
+import com.marklerapp.crm.entity.Client;
+import com.marklerapp.crm.entity.ClientPropertyMatch;
+import com.marklerapp.crm.entity.Property;
+import com.marklerapp.crm.entity.PropertyStatus;
+import com.marklerapp.crm.event.ChangeType;
+import com.marklerapp.crm.event.PropertyChangedEvent;
+import com.marklerapp.crm.repository.ClientPropertyMatchRepository;
+import com.marklerapp.crm.repository.ClientRepository;
+import com.marklerapp.crm.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ReverseMatchService}: persisted matches of a property are inserted,
+ * rescored and dropped in line with the current scores.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReverseMatchServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private ClientPropertyMatchRepository clientPropertyMatchRepository;
+
+    @Mock
+    private ClientCriteriaIndex clientCriteriaIndex;
+
+    @Mock
+    private PropertyMatchingService propertyMatchingService;
+
+    @InjectMocks
+    private ReverseMatchService reverseMatchService;
+
+    private UUID agentId;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        agentId = UUID.randomUUID();
+        Agent agent = new Agent();
+        agent.setId(agentId);
+        property = Property.builder()
+            .agent(agent)
+            .title("Altbauwohnung")
+            .status(PropertyStatus.AVAILABLE)
+            .build();
+        property.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void refreshMatches_InsertsNewRescoresExistingAndDropsStale() {
+        Client newMatch = client();
+        Client stillMatching = client();
+        Client noLongerMatching = client();
+        ClientPropertyMatch existing = match(stillMatching, 72);
+        ClientPropertyMatch stale = match(noLongerMatching, 65);
+
+        when(propertyRepository.findById(property.getId())).thenReturn(Optional.of(property));
+        when(clientCriteriaIndex.candidatesFor(agentId, property))
+            .thenReturn(List.of(newMatch.getId(), stillMatching.getId()));
+        when(clientRepository.findWithSearchCriteriaByIdIn(any())).thenReturn(List.of(newMatch, stillMatching));
+        when(propertyMatchingService.scoreClientsForProperty(any(), any()))
+            .thenReturn(Map.of(newMatch.getId(), 88, stillMatching.getId(), 80));
+        when(clientPropertyMatchRepository.findByPropertyId(property.getId()))
+            .thenReturn(new ArrayList<>(List.of(existing, stale)));
+
+        reverseMatchService.refreshMatches(agentId, property.getId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ClientPropertyMatch>> saved = ArgumentCaptor.forClass(List.class);
+        verify(clientPropertyMatchRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+            .extracting(m -> m.getClient().getId(), ClientPropertyMatch::getMatchScore)
+            .containsExactlyInAnyOrder(
+                tuple(newMatch.getId(), 88),
+                tuple(stillMatching.getId(), 80));
+        assertThat(saved.getValue()).contains(existing);
+        assertThat(deleted()).containsExactly(stale);
+    }
+
+    @Test
+    void refreshMatches_DropsAllMatchesOnceNoLongerAvailable() {
+        property.setStatus(PropertyStatus.SOLD);
+        ClientPropertyMatch existing = match(client(), 90);
+
+        when(propertyRepository.findById(property.getId())).thenReturn(Optional.of(property));
+        when(propertyMatchingService.scoreClientsForProperty(any(), any())).thenReturn(Map.of());
+        when(clientPropertyMatchRepository.findByPropertyId(property.getId()))
+            .thenReturn(new ArrayList<>(List.of(existing)));
+
+        reverseMatchService.refreshMatches(agentId, property.getId());
+
+        verifyNoInteractions(clientCriteriaIndex);
+        assertThat(deleted()).containsExactly(existing);
+    }
+
+    @Test
+    void onPropertyChanged_SkipsChangesMatchingDoesNotSee() {
+        reverseMatchService.onPropertyChanged(new PropertyChangedEvent(
+            agentId, property.getId(), ChangeType.UPDATED, false));
+        reverseMatchService.onPropertyChanged(new PropertyChangedEvent(
+            agentId, property.getId(), ChangeType.DELETED, true));
+
+        verify(propertyRepository, never()).findById(any());
+    }
+
+    private Iterable<ClientPropertyMatch> deleted() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<ClientPropertyMatch>> deleted = ArgumentCaptor.forClass(Iterable.class);
+        verify(clientPropertyMatchRepository).deleteAll(deleted.capture());
+        return deleted.getValue();
+    }
+
+    private static Client client() {
+        Client client = Client.builder().firstName("Test").lastName("Kunde").build();
+        client.setId(UUID.randomUUID());
+        return client;
+    }
+
+    private ClientPropertyMatch match(Client client, int score) {
+        ClientPropertyMatch match = ClientPropertyMatch.builder()
+            .agent(property.getAgent())
+            .client(client)
+            .property(property)
+            .matchScore(score)
+            .build();
+        match.setId(UUID.randomUUID());
+        return match;
+    }
+}
@@ -0,0 +1,79 @@
+package com.marklerapp.crm.util;
+
+import com.marklerapp.crm.util.ImageReadUtil.ImagePreview;
+import com.marklerapp.crm.util.ImageReadUtil.ImageSize;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for reading image dimensions and subsampled previews of uploads.
+ */
+class ImageReadUtilTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readPreview_FromFile_ReportsFullSizeAndDecodesSubsampled() throws Exception {
+        Path file = Files.write(dir.resolve("photo.png"), png(1200, 800));
+
+        ImagePreview preview = ImageReadUtil.readPreview(new FileSystemResource(file), 400);
+
+        assertThat(preview.width()).isEqualTo(1200);
+        assertThat(preview.height()).isEqualTo(800);
+        assertThat(preview.preview().getWidth()).isEqualTo(400);
+        assertThat(preview.preview().getHeight()).isEqualTo(267);
+    }
+
+    @Test
+    void readPreview_SmallerThanRequested_DecodesFullImage() throws Exception {
+        ImagePreview preview = ImageReadUtil.readPreview(new ByteArrayResource(png(300, 150)), 400);
+
+        assertThat(preview.width()).isEqualTo(300);
+        assertThat(preview.preview().getWidth()).isEqualTo(300);
+        assertThat(preview.preview().getHeight()).isEqualTo(150);
+    }
+
+    @Test
+    void readPreview_NotAnImage_ReturnsNull() throws Exception {
+        ByteArrayResource text = new ByteArrayResource("not an image".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(ImageReadUtil.readPreview(text, 400)).isNull();
+    }
+
+    @Test
+    void readSize_ReadsDimensionsFromHeader() throws Exception {
+        Path file = Files.write(dir.resolve("photo.png"), png(640, 480));
+
+        ImageSize size = ImageReadUtil.readSize(new FileSystemResource(file));
+
+        assertThat(size).isEqualTo(new ImageSize(640, 480));
+        assertThat(ImageReadUtil.readSize(
+            new ByteArrayResource("not an image".getBytes(StandardCharsets.UTF_8)))).isNull();
+    }
+
+    @Test
+    void subsampling_KeepsLongerEdgeAtLeastMinEdge() {
+        assertThat(ImageReadUtil.subsampling(6000, 4000, 400)).isEqualTo(15);
+        assertThat(ImageReadUtil.subsampling(4000, 6000, 400)).isEqualTo(15);
+        assertThat(ImageReadUtil.subsampling(799, 200, 400)).isEqualTo(1);
+        assertThat(ImageReadUtil.subsampling(100, 100, 400)).isEqualTo(1);
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
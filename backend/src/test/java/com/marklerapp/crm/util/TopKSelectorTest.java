@@ -0,0 +1,73 @@
+package com.marklerapp.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the bounded top-k selection used to rank match results.
+ */
+class TopKSelectorTest {
+
+    private static final Comparator<Integer> DESCENDING = Comparator.reverseOrder();
+
+    @Test
+    void toSortedList_KeepsBestKInRankOrderAndCountsEverything() {
+        TopKSelector<Integer> selector = new TopKSelector<>(3, DESCENDING);
+        List.of(5, 1, 9, 7, 3, 8).forEach(selector::offer);
+
+        assertThat(selector.toSortedList()).containsExactly(9, 8, 7);
+        assertThat(selector.offered()).isEqualTo(6);
+    }
+
+    @Test
+    void toSortedList_FewerItemsThanK_ReturnsAllSorted() {
+        TopKSelector<Integer> selector = new TopKSelector<>(10, DESCENDING);
+        List.of(2, 4, 1).forEach(selector::offer);
+
+        assertThat(selector.toSortedList()).containsExactly(4, 2, 1);
+    }
+
+    @Test
+    void offer_ZeroK_KeepsNothingButStillCounts() {
+        TopKSelector<Integer> selector = new TopKSelector<>(0, DESCENDING);
+        List.of(2, 4, 1).forEach(selector::offer);
+
+        assertThat(selector.toSortedList()).isEmpty();
+        assertThat(selector.offered()).isEqualTo(3);
+    }
+
+    @Test
+    void merge_CombinesChunksAndTheirCounts() {
+        TopKSelector<Integer> left = new TopKSelector<>(2, DESCENDING);
+        TopKSelector<Integer> right = new TopKSelector<>(2, DESCENDING);
+        List.of(1, 6, 3).forEach(left::offer);
+        List.of(5, 2, 4, 7).forEach(right::offer);
+
+        TopKSelector<Integer> merged = left.merge(right);
+
+        assertThat(merged.toSortedList()).containsExactly(7, 6);
+        assertThat(merged.offered()).isEqualTo(7);
+    }
+
+    @Test
+    void collector_ParallelStream_MatchesFullSortAndLimit() {
+        List<Integer> values = new Random(42).ints(50_000, 0, 1_000).boxed().toList();
+
+        TopKSelector<Integer> selector = values.parallelStream().collect(TopKSelector.collector(25, DESCENDING));
+
+        assertThat(selector.toSortedList())
+                .isEqualTo(values.stream().sorted(DESCENDING).limit(25).toList());
+        assertThat(selector.offered()).isEqualTo(50_000);
+    }
+
+    @Test
+    void constructor_NegativeK_IsRejected() {
+        assertThatThrownBy(() -> new TopKSelector<>(-1, DESCENDING))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
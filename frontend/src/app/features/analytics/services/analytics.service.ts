@@ -73,12 +73,27 @@ export interface Revenue {
   avgCommissionPerDeal: number;
 }
 
+export interface NewMatch {
+  clientId: string;
+  clientName: string;
+  propertyId: string;
+  propertyTitle: string;
+  matchScore: number;
+  matchedAt: string;
+}
+
+export interface NewMatches {
+  newMatchesSinceYesterday: number;
+  latest: NewMatch[];
+}
+
 export interface DashboardAnalytics {
   conversionFunnel: ConversionFunnel;
   pipelineHealth: PipelineHealth;
   propertyPortfolio: PropertyPortfolio;
   activityTrends: ActivityTrends;
   revenue: Revenue;
+  newMatches: NewMatches;
   clientsNeedingAttention: unknown[];
   suggestedActions: string[];
 }
@@ -20,6 +20,7 @@ import { ViewingAddDialogComponent } from '../../../viewing-management/component
 import { PropertyMatchingService } from '../../services/property-matching.service';
 import { ClientMatchResult } from '../../models/property-match.model';
 import { LocationPickerMapComponent, SecondaryMarker } from '../../../../shared/components/location-picker-map/location-picker-map.component';
+import { AuthImagePipe } from '../../../../shared/pipes/auth-image.pipe';
 import { ClientService } from '../../../client-management/services/client.service';
 import { forkJoin, of } from 'rxjs';
 import { catchError } from 'rxjs/operators';
@@ -27,7 +28,7 @@ import { catchError } from 'rxjs/operators';
 @Component({
   selector: 'app-property-detail',
   standalone: true,
-  imports: [CommonModule, FormsModule, RouterLink, TranslateModule, FileAttachmentManagerComponent, LoadingSpinnerComponent, ViewingAddDialogComponent, ConfirmDialogComponent, LocationPickerMapComponent],
+  imports: [CommonModule, FormsModule, RouterLink, TranslateModule, AuthImagePipe, FileAttachmentManagerComponent, LoadingSpinnerComponent, ViewingAddDialogComponent, ConfirmDialogComponent, LocationPickerMapComponent],
   templateUrl: './property-detail.component.html',
   styleUrls: ['./property-detail.component.scss']
 })
@@ -418,14 +419,9 @@ export class PropertyDetailComponent implements OnInit {
 
     this.isLoadingExpose = true;
     this.propertyService.downloadExpose(this.property.id).subscribe({
-      next: (expose) => {
-        // Open PDF in new tab
-        const pdfWindow = window.open('');
-        if (pdfWindow) {
-          pdfWindow.document.write(
-            `<iframe width='100%' height='100%' src='data:application/pdf;base64,${expose.fileData}'></iframe>`
-          );
-        }
+      next: (blob) => {
+        // Open PDF in new tab; the tab keeps the object URL alive, so it is not revoked
+        window.open(window.URL.createObjectURL(blob), '_blank');
         this.isLoadingExpose = false;
       },
       error: (err) => {
@@ -440,14 +436,16 @@ export class PropertyDetailComponent implements OnInit {
     if (!this.property?.id) return;
 
     this.isLoadingExpose = true;
+    const fileName = this.property.exposeFileName || 'expose.pdf';
     this.propertyService.downloadExpose(this.property.id).subscribe({
-      next: (expose) => {
+      next: (blob) => {
         // Create download link
-        const linkSource = `data:application/pdf;base64,${expose.fileData}`;
+        const url = window.URL.createObjectURL(blob);
         const downloadLink = document.createElement('a');
-        downloadLink.href = linkSource;
-        downloadLink.download = expose.fileName;
+        downloadLink.href = url;
+        downloadLink.download = fileName;
         downloadLink.click();
+        window.URL.revokeObjectURL(url);
         this.isLoadingExpose = false;
       },
       error: (err) => {
@@ -204,17 +204,16 @@ export class PropertyExposeComponent implements OnInit, OnDestroy {
     ).subscribe({
       next: (hasExpose) => {
         if (hasExpose) {
-          // Load expose metadata only (no file data)
-          this.propertyService.downloadExpose(this.propertyId).pipe(
+          // Load expose metadata only (no file data); the property carries it
+          this.propertyService.getProperty(this.propertyId).pipe(
             takeUntil(this.destroy$)
           ).subscribe({
-            next: (expose) => {
-              // Store metadata without file data to avoid memory issues
+            next: (property) => {
               this.expose = {
-                fileName: expose.fileName,
-                fileSize: expose.fileSize,
-                uploadedAt: expose.uploadedAt,
-                propertyId: expose.propertyId
+                fileName: property.exposeFileName || 'expose.pdf',
+                fileSize: property.exposeFileSize || 0,
+                uploadedAt: property.exposeUploadedAt,
+                propertyId: this.propertyId
               };
             },
             error: (err) => {
@@ -312,25 +311,17 @@ export class PropertyExposeComponent implements OnInit, OnDestroy {
     this.propertyService.downloadExpose(this.propertyId).pipe(
       takeUntil(this.destroy$)
     ).subscribe({
-      next: (expose) => {
-        console.log('Expose downloaded, fileName:', expose.fileName, 'hasFileData:', !!expose.fileData);
-
-        if (!expose.fileData) {
-          console.error('No file data in response');
-          this.error = 'No file data available for download';
-          this.downloading = false;
-          return;
-        }
-
+      next: (blob) => {
         try {
           // Create download link
-          const linkSource = `data:application/pdf;base64,${expose.fileData}`;
+          const url = window.URL.createObjectURL(blob);
           const downloadLink = document.createElement('a');
-          downloadLink.href = linkSource;
-          downloadLink.download = expose.fileName || 'expose.pdf';
+          downloadLink.href = url;
+          downloadLink.download = this.expose?.fileName || 'expose.pdf';
           document.body.appendChild(downloadLink);
           downloadLink.click();
           document.body.removeChild(downloadLink);
+          window.URL.revokeObjectURL(url);
           this.downloading = false;
           console.log('Download triggered successfully');
         } catch (e) {
@@ -362,24 +353,11 @@ export class PropertyExposeComponent implements OnInit, OnDestroy {
     this.propertyService.downloadExpose(this.propertyId).pipe(
       takeUntil(this.destroy$)
     ).subscribe({
-      next: (expose) => {
-        console.log('Expose loaded for preview, fileName:', expose.fileName, 'hasFileData:', !!expose.fileData);
-
-        if (!expose.fileData) {
-          console.error('No file data in response');
-          this.error = 'No file data available for preview';
-          this.previewing = false;
-          return;
-        }
-
+      next: (blob) => {
         try {
-          // Open PDF in new tab
-          const pdfWindow = window.open('');
-          if (pdfWindow) {
-            pdfWindow.document.write(
-              `<iframe width='100%' height='100%' src='data:application/pdf;base64,${expose.fileData}'></iframe>`
-            );
-          } else {
+          // Open PDF in new tab; the tab keeps the object URL alive, so it is not revoked
+          const pdfWindow = window.open(window.URL.createObjectURL(blob), '_blank');
+          if (!pdfWindow) {
             console.error('Failed to open popup window');
             this.error = 'Failed to open preview window. Please check popup blocker settings.';
           }
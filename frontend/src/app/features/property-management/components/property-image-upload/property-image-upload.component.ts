@@ -6,12 +6,13 @@ import { TranslateModule, TranslateService } from '@ngx-translate/core';
 import { PropertyImageService } from '../../services/property-image.service';
 import { PropertyImageDto, PropertyImageType, getImageTypeName } from '../../models/property-image.model';
 import { ConfirmDialogComponent } from '../../../../shared/components/confirm-dialog/confirm-dialog.component';
+import { AuthImagePipe } from '../../../../shared/pipes/auth-image.pipe';
 import { ErrorHandlerService } from '../../../../core/services/error-handler.service';
 
 @Component({
   selector: 'app-property-image-upload',
   standalone: true,
-  imports: [CommonModule, FormsModule, TranslateModule, ConfirmDialogComponent],
+  imports: [CommonModule, FormsModule, TranslateModule, ConfirmDialogComponent, AuthImagePipe],
   template: `
     <div class="property-image-upload">
       <!-- Image Gallery -->
@@ -29,7 +30,7 @@ import { ErrorHandlerService } from '../../../../core/services/error-handler.ser
             <!-- Image -->
             <div style="aspect-ratio:1;background:var(--surface-2);">
               <img
-                [src]="image.thumbnailUrl || image.imageUrl"
+                [src]="(image.thumbnailUrl || image.imageUrl) | authImage | async"
                 [alt]="image.altText || image.title || ('properties.images.altFallback' | translate)"
                 class="w-full h-full object-cover"
               />
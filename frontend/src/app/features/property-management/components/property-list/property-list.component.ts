@@ -4,6 +4,7 @@ import { RouterLink } from '@angular/router';
 import { FormsModule } from '@angular/forms';
 import { TranslateModule, TranslateService } from '@ngx-translate/core';
 import { TranslateEnumPipe } from '../../../../shared/pipes/translate-enum.pipe';
+import { AuthImagePipe } from '../../../../shared/pipes/auth-image.pipe';
 import {
   PropertyService,
   Property,
@@ -18,7 +19,7 @@ type SortDir = 'asc' | 'desc';
 @Component({
   selector: 'app-property-list',
   standalone: true,
-  imports: [CommonModule, RouterLink, FormsModule, TranslateModule, TranslateEnumPipe],
+  imports: [CommonModule, RouterLink, FormsModule, TranslateModule, TranslateEnumPipe, AuthImagePipe],
   templateUrl: './property-list.component.html',
   styleUrls: ['./property-list.component.scss']
 })
@@ -165,8 +166,11 @@ export class PropertyListComponent implements OnInit, OnDestroy {
 
   getPrimaryImage(property: Property): string | null {
     if (property.images && property.images.length > 0) {
+      // Prefer the scaled listing preview over the full-size original
       const primaryImage = property.images.find(img => img.isPrimary);
-      return primaryImage?.imageUrl || property.images[0]?.imageUrl || null;
+      const firstImage = property.images[0];
+      return primaryImage?.previewUrl || primaryImage?.imageUrl
+        || firstImage?.previewUrl || firstImage?.imageUrl || null;
     }
     return null;
   }
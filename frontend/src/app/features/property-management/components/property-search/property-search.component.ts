@@ -5,12 +5,13 @@ import { FormBuilder, FormGroup, ReactiveFormsModule, Validators } from '@angula
 import { TranslateModule } from '@ngx-translate/core';
 import { PropertyService, Property, PagedResponse, PropertySearchFilter, PropertyType, ListingType, PropertyStatus } from '../../services/property.service';
 import { TranslateEnumPipe } from '../../../../shared/pipes/translate-enum.pipe';
+import { AuthImagePipe } from '../../../../shared/pipes/auth-image.pipe';
 import { LoadingSpinnerComponent } from '../../../../shared/components/loading-spinner/loading-spinner.component';
 
 @Component({
   selector: 'app-property-search',
   standalone: true,
-  imports: [CommonModule, RouterLink, ReactiveFormsModule, TranslateModule, TranslateEnumPipe, LoadingSpinnerComponent],
+  imports: [CommonModule, RouterLink, ReactiveFormsModule, TranslateModule, TranslateEnumPipe, AuthImagePipe, LoadingSpinnerComponent],
   template: `
     <div class="p-6 max-w-7xl mx-auto">
       <div class="mb-6">
@@ -229,7 +230,7 @@ import { LoadingSpinnerComponent } from '../../../../shared/components/loading-s
         <div *ngIf="!isLoading && properties.length > 0" class="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
           <div *ngFor="let property of properties; trackBy: trackById" class="bg-white dark:bg-gray-800 rounded-lg shadow-lg hover:shadow-xl transition-shadow overflow-hidden cursor-pointer" [routerLink]="['/properties', property.id]">
             <div class="h-48 bg-gray-200 dark:bg-gray-700 relative">
-              <img *ngIf="getPrimaryImage(property)" [src]="getPrimaryImage(property)" [alt]="property.title" class="w-full h-full object-cover" />
+              <img *ngIf="getPrimaryImage(property)" [src]="getPrimaryImage(property) | authImage | async" [alt]="property.title" class="w-full h-full object-cover" />
               <!-- Default House Icon when no image -->
               <div *ngIf="!getPrimaryImage(property)" class="w-full h-full flex items-center justify-center bg-gradient-to-br from-gray-100 to-gray-200 dark:from-gray-700 dark:to-gray-800">
                 <svg class="w-20 h-20 text-gray-400 dark:text-gray-500" fill="none" stroke="currentColor" viewBox="0 0 24 24">
@@ -419,8 +420,11 @@ export class PropertySearchComponent implements OnInit {
 
   getPrimaryImage(property: Property): string | null {
     if (property.images && property.images.length > 0) {
+      // Prefer the scaled listing preview over the full-size original
       const primaryImage = property.images.find(img => img.isPrimary);
-      return primaryImage?.imageUrl || property.images[0]?.imageUrl || null;
+      const firstImage = property.images[0];
+      return primaryImage?.previewUrl || primaryImage?.imageUrl
+        || firstImage?.previewUrl || firstImage?.imageUrl || null;
     }
     return null;
   }
@@ -53,6 +53,7 @@ export interface PropertyImageDto {
   // Computed Fields (Read-Only)
   imageUrl?: string;
   thumbnailUrl?: string;
+  previewUrl?: string;
   formattedFileSize?: string;
   fileExtension?: string;
   aspectRatio?: string;
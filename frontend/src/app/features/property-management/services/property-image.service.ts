@@ -127,10 +127,11 @@ export class PropertyImageService {
   }
 
   /**
-   * Download image
+   * Download image, optionally as a JPEG variant scaled to about the given width
    */
-  downloadImage(propertyId: string, imageId: string): Observable<Blob> {
-    return this.http.get(`${this.apiUrl}/${propertyId}/images/${imageId}/download`, {
+  downloadImage(propertyId: string, imageId: string, width?: number): Observable<Blob> {
+    const query = width ? `?w=${width}` : '';
+    return this.http.get(`${this.apiUrl}/${propertyId}/images/${imageId}/download${query}`, {
       responseType: 'blob'
     });
   }
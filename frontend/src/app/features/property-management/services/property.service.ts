@@ -81,6 +81,7 @@ export interface PropertyImage {
   imageType: PropertyImageType;
   imageUrl: string;
   thumbnailUrl?: string;
+  previewUrl?: string;
   caption?: string;
   displayOrder?: number;
   isPrimary?: boolean;
@@ -398,10 +399,10 @@ export class PropertyService {
   }
 
   /**
-   * Download property expose (PDF brochure)
+   * Download property expose (PDF brochure) as a binary stream
    */
-  downloadExpose(propertyId: string): Observable<PropertyExpose> {
-    return this.http.get<PropertyExpose>(`${this.apiUrl}/${propertyId}/expose/download`).pipe(
+  downloadExpose(propertyId: string): Observable<Blob> {
+    return this.http.get(`${this.apiUrl}/${propertyId}/expose/content`, { responseType: 'blob' }).pipe(
       catchError(err => this.errorHandler.handleError(err))
     );
   }
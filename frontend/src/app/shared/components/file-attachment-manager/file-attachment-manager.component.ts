@@ -207,10 +207,8 @@ export class FileAttachmentManagerComponent implements OnInit, OnDestroy {
       .downloadAttachment(attachment.id)
       .pipe(takeUntil(this.destroy$))
       .subscribe({
-        next: (result) => {
-          if (result.dataUrl) {
-            this.fileAttachmentService.triggerDownload(result.dataUrl, result.originalFileName);
-          }
+        next: (blob) => {
+          this.fileAttachmentService.triggerDownload(blob, attachment.originalFileName);
         },
         error: (error) => {
           console.error('Error downloading file:', error);
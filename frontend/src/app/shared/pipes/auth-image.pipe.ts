@@ -0,0 +1,58 @@
+import { OnDestroy, Pipe, PipeTransform } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { DomSanitizer, SafeUrl } from '@angular/platform-browser';
+import { Observable, of } from 'rxjs';
+import { catchError, map } from 'rxjs/operators';
+import { environment } from '../../../environments/environment';
+
+/**
+ * Pipe to load an image from an authenticated API endpoint
+ * Usage: <img [src]="image.imageUrl | authImage | async" />
+ *
+ * Image DTOs link the streaming endpoints by a path relative to the API base URL
+ * (e.g. '/properties/{id}/images/{imageId}/download'). An <img> cannot send the JWT, so the
+ * image is fetched through HttpClient (which adds it) and shown from an object URL.
+ * Absolute and data URLs are passed through unchanged.
+ */
+@Pipe({
+  name: 'authImage',
+  standalone: true
+})
+export class AuthImagePipe implements PipeTransform, OnDestroy {
+  private objectUrl: string | null = null;
+
+  constructor(
+    private http: HttpClient,
+    private sanitizer: DomSanitizer
+  ) {}
+
+  transform(url: string | null | undefined): Observable<SafeUrl | string | null> {
+    this.revoke();
+    if (!url) {
+      return of(null);
+    }
+    if (!url.startsWith('/')) {
+      return of(url);
+    }
+
+    return this.http.get(`${environment.apiUrl}${url}`, { responseType: 'blob' }).pipe(
+      map(blob => {
+        this.revoke();
+        this.objectUrl = URL.createObjectURL(blob);
+        return this.sanitizer.bypassSecurityTrustUrl(this.objectUrl);
+      }),
+      catchError(() => of(null))
+    );
+  }
+
+  ngOnDestroy(): void {
+    this.revoke();
+  }
+
+  private revoke(): void {
+    if (this.objectUrl) {
+      URL.revokeObjectURL(this.objectUrl);
+      this.objectUrl = null;
+    }
+  }
+}
@@ -119,11 +119,10 @@ export class FileAttachmentService {
   // ========================================
 
   /**
-   * Download file attachment
-   * Returns the attachment with Base64 data in dataUrl field
+   * Download file attachment content as a binary stream
    */
-  downloadAttachment(attachmentId: string): Observable<FileAttachmentDto> {
-    return this.http.get<FileAttachmentDto>(`${this.apiUrl}/${attachmentId}/download`).pipe(
+  downloadAttachment(attachmentId: string): Observable<Blob> {
+    return this.http.get(`${this.apiUrl}/${attachmentId}/content`, { responseType: 'blob' }).pipe(
       catchError(err => this.errorHandler.handleError(err))
     );
   }
@@ -237,13 +236,15 @@ export class FileAttachmentService {
   }
 
   /**
-   * Trigger browser download from Base64 data
+   * Trigger browser download of downloaded file content
    */
-  triggerDownload(dataUrl: string, filename: string): void {
+  triggerDownload(blob: Blob, filename: string): void {
+    const url = window.URL.createObjectURL(blob);
     const link = document.createElement('a');
-    link.href = dataUrl;
+    link.href = url;
     link.download = filename;
     link.click();
+    window.URL.revokeObjectURL(url);
   }
 
   /**